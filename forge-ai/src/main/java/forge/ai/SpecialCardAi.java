@@ -320,7 +320,7 @@ public class SpecialCardAi {
             best = ComputerUtilCard.getBestCreatureAI(cardlist);
             if (best == null) {
                 // If nothing on the battlefield has a nonmana ability choose something
-                Collections.shuffle(cardlist);
+                Collections.shuffle(cardlist, MyRandom.getRandom());
                 best = cardlist.getFirst();
             }
 
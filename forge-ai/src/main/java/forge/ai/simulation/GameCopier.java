@@ -86,7 +86,9 @@ public class GameCopier {
 
         GameRules currentRules = origGame.getRules();
         Match newMatch = new Match(currentRules, newPlayers, origGame.getView().getTitle());
-        Game newGame = new Game(newPlayers, currentRules, newMatch);
+        Game newGame = new Game(newPlayers, currentRules, newMatch, origGame.getSeedForCopy());
+        // nobody ever looks at a simulated game
+        newGame.setHeadless(true);
 
         for (int i = 0; i < origGame.getPlayers().size(); i++) {
             Player origPlayer = origGame.getPlayers().get(i);
@@ -242,6 +244,8 @@ public class GameCopier {
 
     private void copyGameState(Game newGame, Player aiPlayer) {
         newGame.EXPERIMENTAL_RESTORE_SNAPSHOT = origGame.EXPERIMENTAL_RESTORE_SNAPSHOT;
+        newGame.EXPERIMENTAL_INCREMENTAL_LAYERS = origGame.EXPERIMENTAL_INCREMENTAL_LAYERS;
+        newGame.VERIFY_INCREMENTAL_LAYERS = origGame.VERIFY_INCREMENTAL_LAYERS;
         newGame.setAge(origGame.getAge());
 
         // TODO countersAddedThisTurn
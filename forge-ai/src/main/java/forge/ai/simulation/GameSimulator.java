@@ -19,6 +19,13 @@ import forge.game.spellability.SpellAbility;
 import forge.game.spellability.TargetChoices;
 import forge.util.collect.FCollectionView;
 
+/**
+ * Plays a spell ability on a copy of the game and scores the result.
+ *
+ * Each simulator still works on its own full copy made by {@link GameCopier}, there's no undo log
+ * to play a move on one game and roll it back. Callers only avoid copies they don't need: the score
+ * of the original game can be handed in, and a disposable copy is scored in place.
+ */
 public class GameSimulator {
     public static boolean COPY_STACK = false;
     final private SimulationController controller;
@@ -29,8 +36,16 @@ public class GameSimulator {
     private List<String> origLines;
     private Score origScore;
     private SpellAbilityChoicesIterator interceptor;
+    private boolean simGameDisposable = false;
 
     public GameSimulator(SimulationController controller, Game origGame, Player origAiPlayer, PhaseType advanceToPhase) {
+        this(controller, origGame, origAiPlayer, advanceToPhase, null);
+    }
+    /**
+     * @param knownOrigScore the score of the original game if the caller already has it, so it doesn't
+     * need to be evaluated again (along with the game copy the evaluation may make to look at combat)
+     */
+    public GameSimulator(SimulationController controller, Game origGame, Player origAiPlayer, PhaseType advanceToPhase, Score knownOrigScore) {
         this.controller = controller;
         copier = new GameCopier(origGame);
         simGame = copier.makeCopy(advanceToPhase, origAiPlayer);
@@ -39,10 +54,10 @@ public class GameSimulator {
         eval = new GameStateEvaluator();
 
         origLines = new ArrayList<>();
-        debugLines = origLines;
+        debugLines.set(origLines);
 
         debugPrint = false;
-        origScore = eval.getScoreForGameState(origGame, origAiPlayer);
+        origScore = knownOrigScore != null ? knownOrigScore : eval.getScoreForGameState(origGame, origAiPlayer);
 
         if (advanceToPhase == null) {
             ensureGameCopyScoreMatches(origGame, origAiPlayer);
@@ -53,7 +68,7 @@ public class GameSimulator {
         // want to compare to the eval score after simulating.
         if (COPY_STACK && !origGame.getStackZone().isEmpty()) {
             origLines = new ArrayList<>();
-            debugLines = origLines;
+            debugLines.set(origLines);
             Game copyOrigGame = copier.makeCopy();
             Player copyOrigAiPlayer = copyOrigGame.getPlayers().get(1);
             resolveStack(copyOrigGame, copyOrigGame.getPlayers().get(0));
@@ -61,18 +76,18 @@ public class GameSimulator {
         }
 
         debugPrint = false;
-        debugLines = null;
+        debugLines.remove();
     }
 
     private void ensureGameCopyScoreMatches(Game origGame, Player origAiPlayer) {
         eval.setDebugging(true);
         List<String> simLines = new ArrayList<>();
-        debugLines = simLines;
+        debugLines.set(simLines);
         Score simScore = eval.getScoreForGameState(simGame, aiPlayer);
         if (!simScore.equals(origScore)) {
             // Re-eval orig with debug printing.
             origLines = new ArrayList<>();
-            debugLines = origLines;
+            debugLines.set(origLines);
             eval.getScoreForGameState(origGame, origAiPlayer);
             // Print debug info.
             printDiff(origLines, simLines);
@@ -83,6 +98,14 @@ public class GameSimulator {
         eval.setDebugging(false);
     }
 
+    /**
+     * Lets the simulated game be changed further once the result of the simulation is known,
+     * when nothing is going to look at it afterwards.
+     */
+    public void setSimGameDisposable(boolean simGameDisposable) {
+        this.simGameDisposable = simGameDisposable;
+    }
+
     public void setInterceptor(SpellAbilityChoicesIterator interceptor) {
         this.interceptor = interceptor;
         ((PlayerControllerAi) aiPlayer.getController()).getAi().getSimulationPicker().setInterceptor(interceptor);
@@ -116,13 +139,15 @@ public class GameSimulator {
     }
 
     public static boolean debugPrint;
-    public static List<String> debugLines;
+    // per thread, simulations of the candidates of a parallel search run side by side
+    private static final ThreadLocal<List<String>> debugLines = new ThreadLocal<>();
     public static void debugPrint(String str) {
         if (debugPrint) {
             System.out.println(str);
         }
-        if (debugLines != null) {
-            debugLines.add(str);
+        final List<String> lines = debugLines.get();
+        if (lines != null) {
+            lines.add(str);
         }
     }
 
@@ -225,17 +250,30 @@ public class GameSimulator {
         if (debugPrint) {
             debugPrint("SimGame:");
             simLines = new ArrayList<>();
-            debugLines = simLines;
+            debugLines.set(simLines);
             debugPrint = false;
         }
-        Score score = eval.getScoreForGameState(simGame, aiPlayer);
+        boolean recurse = controller.shouldRecurse() && !simGame.isGameOver();
+        // a position that won't be searched further can look at the upcoming combat without another copy
+        boolean scoreInPlace = simGameDisposable && !recurse;
+        if (scoreInPlace) {
+            controller.evaluateCurrentTarget(origSa);
+        }
+        Score score = eval.getScoreForGameState(simGame, aiPlayer, scoreInPlace);
         if (simLines != null) {
-            debugLines = null;
+            debugLines.remove();
             debugPrint = true;
             printDiff(origLines, simLines);
         }
         controller.possiblyCacheResult(score, origSa);
-        if (controller.shouldRecurse() && !simGame.isGameOver()) {
+        if (recurse) {
+            // another line of play may already have led to the same position
+            long stateHash = GameStateHasher.getHashForGameState(simGame);
+            Score known = controller.getTransposition(stateHash);
+            if (known != null) {
+                debugPrint("Already searched this position, score " + known);
+                return known;
+            }
             controller.push(sa, score, this);
             SpellAbilityPicker sim = new SpellAbilityPicker(simGame, aiPlayer);
             SpellAbility nextSa = sim.chooseSpellAbilityToPlay(controller);
@@ -243,6 +281,7 @@ public class GameSimulator {
                 score = sim.getScoreForChosenAbility();
             }
             controller.pop(score, nextSa);
+            controller.addTransposition(stateHash, score);
         }
 
         return score;
@@ -34,10 +34,10 @@ public class GameStateEvaluator {
     }
 
     private static class CombatSimResult {
-        public GameCopier copier;
+        public GameCopier copier; // null if the combat was simulated on the evaluated game itself
         public Game gameCopy;
     }
-    private CombatSimResult simulateUpcomingCombatThisTurn(final Game evalGame, final Player aiPlayer) {
+    private CombatSimResult simulateUpcomingCombatThisTurn(final Game evalGame, final Player aiPlayer, final boolean inPlace) {
         PhaseType phase = evalGame.getPhaseHandler().getPhase();
         if (phase.isAfter(PhaseType.COMBAT_DAMAGE) || evalGame.isGameOver()) {
             return null;
@@ -51,11 +51,15 @@ public class GameStateEvaluator {
         }
 
         Game gameCopy;
-        GameCopier copier = new GameCopier(evalGame);
+        GameCopier copier = null;
 
-        if (evalGame.EXPERIMENTAL_RESTORE_SNAPSHOT) {
+        if (inPlace) {
+            gameCopy = evalGame;
+        } else if (evalGame.EXPERIMENTAL_RESTORE_SNAPSHOT) {
+            copier = new GameCopier(evalGame);
             gameCopy = copier.makeCopy();
         } else {
+            copier = new GameCopier(evalGame);
             gameCopy = copier.makeCopy(null, aiPlayer);
         }
 
@@ -89,13 +93,21 @@ public class GameStateEvaluator {
     }
 
     public Score getScoreForGameState(Game game, Player aiPlayer) {
+        return getScoreForGameState(game, aiPlayer, false);
+    }
+
+    /**
+     * @param mayModifyGame whether the game is thrown away afterwards, so the upcoming combat
+     * can be simulated on it directly instead of on a copy
+     */
+    public Score getScoreForGameState(Game game, Player aiPlayer, boolean mayModifyGame) {
         if (game.isGameOver()) {
             return getScoreForGameOver(game, aiPlayer);
         }
 
-        CombatSimResult result = simulateUpcomingCombatThisTurn(game, aiPlayer);
+        CombatSimResult result = simulateUpcomingCombatThisTurn(game, aiPlayer, mayModifyGame);
         if (result != null) {
-            Player aiPlayerCopy = (Player) result.copier.find(aiPlayer);
+            Player aiPlayerCopy = result.copier == null ? aiPlayer : (Player) result.copier.find(aiPlayer);
             if (result.gameCopy.isGameOver()) {
                 return getScoreForGameOver(result.gameCopy, aiPlayerCopy);
             }
@@ -0,0 +1,206 @@
+package forge.ai.simulation;
+
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.Table;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import forge.game.Game;
+import forge.game.GameEntity;
+import forge.game.card.Card;
+import forge.game.card.CounterType;
+import forge.game.combat.Combat;
+import forge.game.keyword.KeywordInterface;
+import forge.game.mana.Mana;
+import forge.game.phase.PhaseHandler;
+import forge.game.player.Player;
+import forge.game.spellability.SpellAbility;
+import forge.game.spellability.SpellAbilityStackInstance;
+import forge.game.staticability.StaticAbility;
+import forge.game.zone.ZoneType;
+
+/**
+ * Hashes the parts of a game state that matter to the simulation, so positions reached
+ * by different lines of play can be recognized as the same one.
+ *
+ * Cards are hashed by what they are and not by their ID, so two copies of the same card
+ * in the same situation are interchangeable. Zones where order doesn't matter are hashed
+ * as multisets by adding up the hashes of their cards.
+ */
+public final class GameStateHasher {
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    private static final ZoneType[] UNORDERED_ZONES = new ZoneType[] {
+        ZoneType.Battlefield,
+        ZoneType.Hand,
+        ZoneType.Graveyard,
+        ZoneType.Exile,
+        ZoneType.Command,
+    };
+    private static final ZoneType[] ORDERED_ZONES = new ZoneType[] {
+        ZoneType.Library,
+    };
+
+    private GameStateHasher() {
+    }
+
+    public static long getHashForGameState(final Game game) {
+        final Hasher h = HASH.newHasher();
+        final PhaseHandler ph = game.getPhaseHandler();
+        h.putInt(ph.getTurn());
+        h.putInt(ph.getPhase() == null ? -1 : ph.getPhase().ordinal());
+        putPlayer(h, ph.getPlayerTurn());
+        putPlayer(h, game.getMonarch());
+        h.putBoolean(game.isGameOver());
+
+        for (final Player p : game.getPlayers()) {
+            h.putInt(p.getId());
+            h.putInt(p.getLife());
+            h.putInt(p.getLandsPlayedThisTurn());
+            h.putInt(p.getSpellsCastThisTurn());
+            h.putInt(p.getMaxHandSize());
+            putCounters(h, p.getCounters());
+            long mana = 0;
+            for (final Mana m : p.getManaPool()) {
+                mana += HASH.hashUnencodedChars(m.toString()).asLong();
+            }
+            h.putLong(mana);
+
+            for (final ZoneType zone : UNORDERED_ZONES) {
+                long cards = 0;
+                for (final Card c : p.getZone(zone).getCards(false)) {
+                    cards += getHashForCard(c);
+                }
+                h.putInt(zone.ordinal());
+                h.putLong(cards);
+            }
+            for (final ZoneType zone : ORDERED_ZONES) {
+                h.putInt(zone.ordinal());
+                for (final Card c : p.getZone(zone).getCards(false)) {
+                    h.putLong(getHashForCard(c));
+                }
+            }
+        }
+
+        final Combat combat = game.getCombat();
+        if (combat != null) {
+            long attackers = 0;
+            for (final Card attacker : combat.getAttackers()) {
+                final Hasher ha = HASH.newHasher();
+                ha.putLong(getHashForCard(attacker));
+                final GameEntity defender = combat.getDefenderByAttacker(attacker);
+                ha.putInt(defender == null ? -1 : defender.getId());
+                long blockers = 0;
+                for (final Card blocker : combat.getBlockers(attacker)) {
+                    blockers += getHashForCard(blocker);
+                }
+                ha.putLong(blockers);
+                attackers += ha.hash().asLong();
+            }
+            h.putLong(attackers);
+        }
+
+        for (final SpellAbilityStackInstance si : game.getStack()) {
+            h.putUnencodedChars(si.getStackDescription());
+            if (si.getSourceCard() != null) {
+                h.putLong(getHashForCard(si.getSourceCard()));
+            }
+        }
+        return h.hash().asLong();
+    }
+
+    private static long getHashForCard(final Card c) {
+        final Hasher h = HASH.newHasher();
+        putCardWithoutAttachment(h, c);
+        final GameEntity attachedTo = c.getEntityAttachedTo();
+        if (attachedTo instanceof Card) {
+            putCardWithoutAttachment(h, (Card) attachedTo);
+        } else if (attachedTo instanceof Player) {
+            putPlayer(h, (Player) attachedTo);
+        }
+        return h.hash().asLong();
+    }
+
+    private static void putCardWithoutAttachment(final Hasher h, final Card c) {
+        h.putUnencodedChars(c.getName());
+        h.putInt(c.getCurrentStateName().ordinal());
+        putPlayer(h, c.getController());
+        putPlayer(h, c.getOwner());
+        h.putBoolean(c.isFaceDown());
+        h.putBoolean(c.isToken());
+        h.putBoolean(c.isTapped());
+        h.putBoolean(c.hasSickness());
+        h.putBoolean(c.isPhasedOut());
+        h.putInt(c.getNetPower());
+        h.putInt(c.getNetToughness());
+        h.putInt(c.getDamage());
+        h.putUnencodedChars(c.getType().toString());
+        putCounters(h, c.getCounters());
+        long keywords = 0;
+        for (final KeywordInterface kw : c.getKeywords()) {
+            keywords += HASH.hashUnencodedChars(kw.getOriginal()).asLong();
+        }
+        h.putLong(keywords);
+        putEffectState(h, c);
+    }
+
+    // what effects, e.g. those of the effect cards in the command zone, remember and chose,
+    // and how often the abilities of the card were activated this turn
+    private static void putEffectState(final Hasher h, final Card c) {
+        for (final Object o : c.getRemembered()) {
+            putObject(h, o);
+        }
+        h.putInt(-1);
+        for (final Card imprinted : c.getImprintedCards()) {
+            h.putInt(imprinted.getId());
+        }
+        h.putInt(-1);
+        putPlayer(h, c.getChosenPlayer());
+        h.putInt(c.getChosenNumber() == null ? -1 : c.getChosenNumber());
+        h.putUnencodedChars(String.valueOf(c.getChosenType()));
+        for (final String color : c.getChosenColors()) {
+            h.putUnencodedChars(color);
+        }
+        h.putInt(-1);
+        for (final Card chosen : c.getChosenCards()) {
+            h.putInt(chosen.getId());
+        }
+        h.putInt(-1);
+        for (final String name : c.getNamedCards()) {
+            h.putUnencodedChars(name);
+        }
+        h.putInt(-1);
+        h.putUnencodedChars(String.valueOf(c.getChosenMode()));
+        h.putUnencodedChars(String.valueOf(c.getChosenDirection()));
+        h.putUnencodedChars(String.valueOf(c.getChosenEvenOdd()));
+        long activations = 0;
+        for (final Table.Cell<SpellAbility, Optional<StaticAbility>, List<Player>> e : c.getAbilityActivatedThisTurn().cellSet()) {
+            activations += HASH.hashUnencodedChars(e.getRowKey().getDescription() + ":" + e.getValue().size()).asLong();
+        }
+        h.putLong(activations);
+    }
+
+    private static void putObject(final Hasher h, final Object o) {
+        if (o instanceof GameEntity) {
+            h.putInt(((GameEntity) o).getId());
+        } else {
+            h.putUnencodedChars(String.valueOf(o));
+        }
+    }
+
+    private static void putPlayer(final Hasher h, final Player p) {
+        h.putInt(p == null ? -1 : p.getId());
+    }
+
+    private static void putCounters(final Hasher h, final Map<CounterType, Integer> counters) {
+        long sum = 0;
+        for (final Map.Entry<CounterType, Integer> e : counters.entrySet()) {
+            sum += HASH.hashUnencodedChars(e.getKey() + ":" + e.getValue()).asLong();
+        }
+        h.putLong(sum);
+    }
+}
@@ -2,7 +2,9 @@ package forge.ai.simulation;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import forge.ai.simulation.GameStateEvaluator.Score;
 import forge.game.GameObject;
@@ -13,6 +15,10 @@ import forge.game.spellability.SpellAbility;
 public class SimulationController {
     private static boolean DEBUG = false;
     private static int MAX_DEPTH = 3;
+    // Reuse the score of positions already searched when another line of play reaches them.
+    // Off by default, the state hash can't cover everything that tells two positions apart.
+    public static boolean USE_TRANSPOSITIONS = false;
+    private static int MAX_TRANSPOSITIONS = 10000;
 
     private List<Plan.Decision> currentStack;
     private List<Score> scoreStack;
@@ -21,6 +27,18 @@ public class SimulationController {
     private Score bestScore;
     private List<CachedEffect> effectCache = new ArrayList<>();
     private GameObject[] currentHostAndTarget;
+    // value of the current target taken before scoring changed the game, null to take it when caching
+    private Integer currentTargetScore;
+    private long deadline = Long.MAX_VALUE;
+    // best scores found from a position, by state hash and recursion depth, least recently used dropped first
+    private final Map<Long, Score> transpositions = new LinkedHashMap<Long, Score>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Score> eldest) {
+            return size() > MAX_TRANSPOSITIONS;
+        }
+    };
 
     private static class CachedEffect {
         final GameObject hostCard;
@@ -51,7 +69,43 @@ public class SimulationController {
     }
 
     public boolean shouldRecurse() {
-        return bestScore.value != Integer.MAX_VALUE && getRecursionDepth() < MAX_DEPTH;
+        return bestScore.value != Integer.MAX_VALUE && getRecursionDepth() < MAX_DEPTH && !isOutOfTime();
+    }
+
+    /**
+     * Stop recursing and trying more choices once this time (in ms) is reached.
+     * Candidates still get evaluated at least once.
+     */
+    public void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    public boolean isOutOfTime() {
+        return deadline != Long.MAX_VALUE && System.currentTimeMillis() >= deadline;
+    }
+
+    /**
+     * A controller to evaluate one of the top level candidates on its own, for a parallel search.
+     * It has its own effect cache, so it doesn't share any state with this one.
+     */
+    public SimulationController fork() {
+        if (!currentStack.isEmpty()) {
+            throw new RuntimeException("fork() expects currentStack to be empty!");
+        }
+        SimulationController fork = new SimulationController(getCurrentScore());
+        fork.deadline = deadline;
+        return fork;
+    }
+
+    /**
+     * Takes over the best sequence of a forked controller if it's better than the current one.
+     * Merging the forks in candidate order gives the same best plan as evaluating them one after another.
+     */
+    public void mergeBest(SimulationController fork) {
+        if (fork.bestSequence != null && fork.bestScore.value > bestScore.value) {
+            bestScore = fork.bestScore;
+            bestSequence = fork.bestSequence;
+        }
     }
 
     public Plan.Decision getLastDecision() {
@@ -175,6 +229,23 @@ public class SimulationController {
         GameSimulator.debugPrint("DEPTH"+getRecursionDepth()+" best score " + score + " " + nextSa);
     }
 
+    private long getTranspositionKey(long stateHash) {
+        return stateHash * 31 + getRecursionDepth();
+    }
+
+    public Score getTransposition(long stateHash) {
+        if (!USE_TRANSPOSITIONS) {
+            return null;
+        }
+        return transpositions.get(getTranspositionKey(stateHash));
+    }
+
+    public void addTransposition(long stateHash, Score score) {
+        if (USE_TRANSPOSITIONS) {
+            transpositions.put(getTranspositionKey(stateHash), score);
+        }
+    }
+
     public GameObject[] getOriginalHostCardAndTarget(SpellAbility sa) {
         SpellAbility saOrSubSa = sa;
         while (saOrSubSa != null && !saOrSubSa.usesTargeting()) {
@@ -237,6 +308,22 @@ public class SimulationController {
         return null;
     }
 
+    /**
+     * Values the current target before the position gets scored, for when scoring a position
+     * that won't be searched further is going to change the simulated game.
+     */
+    public void evaluateCurrentTarget(SpellAbility sa) {
+        if (currentHostAndTarget != null && !currentStack.isEmpty() && currentStack.get(currentStack.size() - 1).targets != null) {
+            currentTargetScore = evalCurrentTarget(sa);
+        }
+    }
+
+    private int evalCurrentTarget(SpellAbility sa) {
+        GameStateEvaluator evaluator = new GameStateEvaluator();
+        Player player = sa.getActivatingPlayer();
+        return evaluator.evalCard(player.getGame(), player, (Card) currentHostAndTarget[2]);
+    }
+
     public void possiblyCacheResult(Score score, SpellAbility sa) {
         String cached = "";
 
@@ -251,9 +338,7 @@ public class SimulationController {
                 // FIXME: Support more than one target in this logic.
                 GameObject[] hostAndTarget = currentHostAndTarget;
                 if (currentHostAndTarget != null) {
-                    GameStateEvaluator evaluator = new GameStateEvaluator();
-                    Player player = sa.getActivatingPlayer();
-                    int cardScore = evaluator.evalCard(player.getGame(), player, (Card) hostAndTarget[2]);
+                    int cardScore = currentTargetScore != null ? currentTargetScore : evalCurrentTarget(sa);
                     effectCache.add(new CachedEffect(hostAndTarget[0], sa, hostAndTarget[1], cardScore, scoreDelta));
                     cached = " (added to cache)";
                 }
@@ -261,6 +346,7 @@ public class SimulationController {
         }
 
         currentHostAndTarget = null;
+        currentTargetScore = null;
         printState(score, sa, cached, true);
     }
 
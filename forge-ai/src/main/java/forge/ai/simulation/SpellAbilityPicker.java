@@ -5,6 +5,11 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import forge.ai.AiPlayDecision;
 import forge.ai.ComputerUtil;
@@ -29,8 +34,20 @@ import forge.game.spellability.SpellAbility;
 import forge.game.spellability.SpellAbilityCondition;
 import forge.game.zone.ZoneType;
 import forge.util.TextUtil;
+import forge.util.ThreadUtil;
 
 public class SpellAbilityPicker {
+    // Evaluate the top level candidates on their own game copies in parallel.
+    // The best one is still picked in candidate order, with the same random seeds as the sequential search.
+    public static boolean PARALLEL_SEARCH = false;
+    // Wall-clock budget of a search in ms, 0 for none. Once it's spent, remaining choices and
+    // recursions are skipped, so the result may then depend on timing.
+    public static long SEARCH_TIME_BUDGET = 0;
+
+    // The parallel search has its own threads, at most this many, whatever else is running on the shared pools
+    private static int searchThreads = Runtime.getRuntime().availableProcessors();
+    private static ExecutorService searchPool;
+
     private Game game;
     private Player player;
     private Score bestScore;
@@ -38,13 +55,35 @@ public class SpellAbilityPicker {
     private SpellAbilityChoicesIterator interceptor;
 
     private Plan plan;
-    private int numSimulations;
+    // score of the game the candidates are simulated from, for the simulators to reuse
+    private Score origGameScore;
+    private final AtomicInteger numSimulations = new AtomicInteger();
+    // the original game is only copied by one simulation at a time
+    private final Object copyLock = new Object();
 
     public SpellAbilityPicker(Game game, Player player) {
         this.game = game;
         this.player = player;
     }
 
+    /**
+     * Sets how many candidates the parallel search evaluates at once.
+     */
+    public static synchronized void setSearchThreads(int nThreads) {
+        if (searchPool != null) {
+            searchPool.shutdown();
+            searchPool = null;
+        }
+        searchThreads = Math.max(1, nThreads);
+    }
+
+    private static synchronized ExecutorService getSearchPool() {
+        if (searchPool == null) {
+            searchPool = ThreadUtil.newGameThreadPool(searchThreads, "Search");
+        }
+        return searchPool;
+    }
+
     public void setInterceptor(SpellAbilityChoicesIterator in) {
         this.interceptor = in;
     }
@@ -97,12 +136,12 @@ public class SpellAbilityPicker {
             return null;
         }
 
-        Score origGameScore = new GameStateEvaluator().getScoreForGameState(game, player);
+        origGameScore = new GameStateEvaluator().getScoreForGameState(game, player);
         List<SpellAbility> candidateSAs = getCandidateSpellsAndAbilities();
         if (controller != null) {
             // This is a recursion during a higher-level simulation. Just return the head of the best
             // sequence directly, no need to create a Plan object.
-            return chooseSpellAbilityToPlayImpl(controller, candidateSAs, origGameScore, null);
+            return chooseSpellAbilityToPlayImpl(controller, candidateSAs, origGameScore, null, false);
         }
 
         printPhaseInfo();
@@ -116,7 +155,10 @@ public class SpellAbilityPicker {
 
     private Plan formulatePlanWithPhase(Score origGameScore, List<SpellAbility> candidateSAs, PhaseType phase) {
         SimulationController controller = new SimulationController(origGameScore);
-        SpellAbility sa = chooseSpellAbilityToPlayImpl(controller, candidateSAs, origGameScore, phase);
+        if (SEARCH_TIME_BUDGET > 0) {
+            controller.setDeadline(System.currentTimeMillis() + SEARCH_TIME_BUDGET);
+        }
+        SpellAbility sa = chooseSpellAbilityToPlayImpl(controller, candidateSAs, origGameScore, phase, true);
         if (sa != null) {
             return controller.getBestPlan();
         }
@@ -185,14 +227,18 @@ public class SpellAbilityPicker {
         plan = bestPlan;
     }
 
-    private SpellAbility chooseSpellAbilityToPlayImpl(SimulationController controller, List<SpellAbility> candidateSAs, Score origGameScore, PhaseType phase) {
+    private SpellAbility chooseSpellAbilityToPlayImpl(SimulationController controller, List<SpellAbility> candidateSAs, Score origGameScore, PhaseType phase, boolean topLevel) {
         long startTime = System.currentTimeMillis();
 
         SpellAbility bestSa = null;
         Score bestSaValue = origGameScore;
         print("Evaluating... (orig score = " + origGameScore +  ")");
+        Score[] values = null;
+        if (topLevel && PARALLEL_SEARCH && candidateSAs.size() > 1) {
+            values = evaluateSasInParallel(controller, phase, candidateSAs);
+        }
         for (int i = 0; i < candidateSAs.size(); i++) {
-            Score value = evaluateSa(controller, phase, candidateSAs, i);
+            Score value = values != null ? values[i] : evaluateSa(controller, phase, candidateSAs, i);
             if (value.value > bestSaValue.value) {
                 bestSaValue = value;
                 bestSa = candidateSAs.get(i);
@@ -362,36 +408,71 @@ public class SpellAbilityPicker {
     }
 
     public Score evaluateSa(final SimulationController controller, PhaseType phase, List<SpellAbility> saList, int saIndex) {
-        controller.evaluateSpellAbility(saList, saIndex);
-        SpellAbility sa = saList.get(saIndex);
-
         // Use a deterministic random seed when evaluating different choices of a spell ability.
         // This is needed as otherwise random effects may result in a different number of choices
         // each iteration, which will break the logic in SpellAbilityChoicesIterator.
-        Random origRandom = MyRandom.getRandom();
-        long randomSeedToUse = origRandom.nextLong();
+        return evaluateSa(controller, phase, saList, saIndex, MyRandom.getRandom().nextLong());
+    }
+
+    private Score evaluateSa(final SimulationController controller, PhaseType phase, List<SpellAbility> saList, int saIndex, long randomSeedToUse) {
+        controller.evaluateSpellAbility(saList, saIndex);
+        SpellAbility sa = saList.get(saIndex);
 
+        Random origRandom = MyRandom.getThreadRandom();
         Score bestScore = new Score(Integer.MIN_VALUE);
         final SpellAbilityChoicesIterator choicesIterator = new SpellAbilityChoicesIterator(controller);
         Score lastScore;
-        do {
-            // TODO: MyRandom should be an instance on the game object, so that we could do
-            // simulations in parallel without messing up global state.
-            MyRandom.setRandom(new Random(randomSeedToUse));
-            GameSimulator simulator = new GameSimulator(controller, game, player, phase);
-            simulator.setInterceptor(choicesIterator);
-            // I feel like something here is making a wrong assumption about what the target is
-            lastScore = simulator.simulateSpellAbility(sa);
-            numSimulations++;
-            if (lastScore.value > bestScore.value) {
-                bestScore = lastScore;
-            }
-        } while (choicesIterator.advance(lastScore));
+        try {
+            do {
+                MyRandom.setThreadRandom(new Random(randomSeedToUse));
+                GameSimulator simulator;
+                synchronized (copyLock) {
+                    simulator = new GameSimulator(controller, game, player, phase, origGameScore);
+                }
+                simulator.setSimGameDisposable(true);
+                simulator.setInterceptor(choicesIterator);
+                // I feel like something here is making a wrong assumption about what the target is
+                lastScore = simulator.simulateSpellAbility(sa);
+                numSimulations.incrementAndGet();
+                if (lastScore.value > bestScore.value) {
+                    bestScore = lastScore;
+                }
+            } while (choicesIterator.advance(lastScore) && !controller.isOutOfTime());
+        } finally {
+            MyRandom.setThreadRandom(origRandom);
+        }
         controller.doneEvaluating(bestScore);
-        MyRandom.setRandom(origRandom);
         return bestScore;
     }
 
+    private Score[] evaluateSasInParallel(final SimulationController controller, final PhaseType phase, final List<SpellAbility> saList) {
+        final List<SimulationController> forks = new ArrayList<>();
+        final List<Callable<Score>> tasks = new ArrayList<>();
+        for (int i = 0; i < saList.size(); i++) {
+            final int saIndex = i;
+            // draw the seeds in candidate order, like the sequential search does
+            final long randomSeedToUse = MyRandom.getRandom().nextLong();
+            final SimulationController fork = controller.fork();
+            forks.add(fork);
+            tasks.add(() -> evaluateSa(fork, phase, saList, saIndex, randomSeedToUse));
+        }
+
+        final Score[] values = new Score[saList.size()];
+        try {
+            final List<Future<Score>> results = getSearchPool().invokeAll(tasks);
+            for (int i = 0; i < values.length; i++) {
+                values[i] = results.get(i).get();
+                controller.mergeBest(forks.get(i));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+        return values;
+    }
+
     public List<AbilitySub> chooseModeForAbility(SpellAbility sa, List<AbilitySub> choices, int min, int num, boolean allowRepeat) {
         if (interceptor != null) {
             return interceptor.chooseModesForAbility(choices, min, num, allowRepeat);
@@ -466,6 +547,6 @@ public class SpellAbilityPicker {
     }
 
     public int getNumSimulations() {
-        return numSimulations;
+        return numSimulations.get();
     }
 }
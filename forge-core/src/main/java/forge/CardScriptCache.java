@@ -0,0 +1,160 @@
+package forge;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * All card scripts of a folder in a single binary file, so they can be read at
+ * once instead of opening every script file at startup.
+ *
+ * The file holds a checksum of the names, sizes and modification times of the
+ * script files it was made from, and is only used while it still matches them.
+ */
+final class CardScriptCache {
+    private static final int MAGIC = 0x46435343; // "FCSC"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 20;
+
+    /** The name of a card script file without extension, and its lines. */
+    static final class Script {
+        final String name;
+        final List<String> lines;
+
+        Script(final String name0, final List<String> lines0) {
+            name = name0;
+            lines = lines0;
+        }
+    }
+
+    private CardScriptCache() {
+    }
+
+    static long checksum(final File root, final List<File> files) {
+        final int rootLength = root.getPath().length();
+        long checksum = files.size();
+        for (final File file : files) {
+            long size = -1, modified = -1;
+            try {
+                final BasicFileAttributes attributes = java.nio.file.Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+                size = attributes.size();
+                modified = attributes.lastModifiedTime().toMillis();
+            } catch (final IOException ignored) {
+                // the file can't be read anyway, so the cache won't match either
+            }
+            // summed so the order the files are listed in doesn't matter
+            checksum += mix(mix(file.getPath().substring(rootLength).hashCode() + size * 31) + modified);
+        }
+        return checksum;
+    }
+
+    private static long mix(long h) {
+        // the finalizer of MurmurHash3, so similar files still change all bits
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * @return the scripts in the cache file, or null if it's missing, of another version or made from other files
+     */
+    static List<Script> read(final File cacheFile, final long checksum) {
+        if (!cacheFile.isFile()) {
+            return null;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(cacheFile, "r"); FileChannel channel = raf.getChannel()) {
+            // check the header before mapping the file, as it can't be replaced while mapped on some systems
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION || header.getLong() != checksum) {
+                return null;
+            }
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, channel.size() - HEADER_SIZE);
+            // each script takes at least the length of its name and its line count
+            final int count = checkLength(header.getInt(), 8, buffer);
+            final List<Script> scripts = new ArrayList<>(count);
+            final byte[] bytes = new byte[4096];
+            for (int i = 0; i < count; i++) {
+                final String name = readString(buffer, bytes);
+                final int lineCount = checkLength(buffer.getInt(), 4, buffer);
+                final List<String> lines = new ArrayList<>(lineCount);
+                for (int j = 0; j < lineCount; j++) {
+                    lines.add(readString(buffer, bytes));
+                }
+                scripts.add(new Script(name, lines));
+            }
+            return scripts;
+        } catch (final IOException | BufferUnderflowException e) {
+            System.err.printf("Error reading card script cache \"%s\": %s%n", cacheFile.getAbsolutePath(), e);
+            return null;
+        }
+    }
+
+    /**
+     * A damaged file mustn't make the reader allocate more than the file could hold.
+     */
+    private static int checkLength(final int length, final int minBytesEach, final ByteBuffer buffer) {
+        if (length < 0 || (long) length * minBytesEach > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        return length;
+    }
+
+    private static String readString(final ByteBuffer buffer, final byte[] bytes) {
+        final int length = checkLength(buffer.getInt(), 1, buffer);
+        final byte[] target = length > bytes.length ? new byte[length] : bytes;
+        buffer.get(target, 0, length);
+        return new String(target, 0, length, StandardCharsets.UTF_8);
+    }
+
+    static void write(final File cacheFile, final long checksum, final List<Script> scripts) {
+        // write to another file first, so a cache that couldn't be written completely is never read
+        final File tempFile = new File(cacheFile.getPath() + ".tmp");
+        final File dir = cacheFile.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            System.err.printf("Can't create folder for card script cache \"%s\"%n", cacheFile.getAbsolutePath());
+            return;
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(checksum);
+            out.writeInt(scripts.size());
+            for (final Script script : scripts) {
+                writeString(out, script.name);
+                out.writeInt(script.lines.size());
+                for (final String line : script.lines) {
+                    writeString(out, line);
+                }
+            }
+        } catch (final IOException e) {
+            System.err.printf("Error writing card script cache \"%s\": %s%n", cacheFile.getAbsolutePath(), e);
+            tempFile.delete();
+            return;
+        }
+        if (cacheFile.exists() && !cacheFile.delete() || !tempFile.renameTo(cacheFile)) {
+            System.err.printf("Error writing card script cache \"%s\"%n", cacheFile.getAbsolutePath());
+            tempFile.delete();
+        }
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -72,8 +72,17 @@ public class CardStorageReader {
     private final transient Charset charset;
 
     private final boolean loadCardsLazily;
+    private final File scriptCacheFile;
 
     public CardStorageReader(final String cardDataDir, final CardStorageReader.ProgressObserver progressObserver, boolean loadCardsLazily) {
+        this(cardDataDir, progressObserver, loadCardsLazily, null);
+    }
+
+    /**
+     * @param scriptCacheFile file to keep all card scripts of the folder in, so they are read at once next time, or null
+     */
+    public CardStorageReader(final String cardDataDir, final CardStorageReader.ProgressObserver progressObserver, boolean loadCardsLazily, final String scriptCacheFile) {
+        this.scriptCacheFile = scriptCacheFile == null ? null : new File(scriptCacheFile);
         this.progressObserver = progressObserver != null ? progressObserver : CardStorageReader.ProgressObserver.emptyObserver;
         this.cardsfolder = new File(cardDataDir);
 
@@ -114,6 +123,41 @@ public class CardStorageReader {
         return result;
     }
 
+    private List<CardRules> loadCardsInRangeFromScripts(final List<CardScriptCache.Script> scripts, final int from, final int to) {
+        final CardRules.Reader rulesReader = new CardRules.Reader();
+
+        final List<CardRules> result = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            final CardScriptCache.Script script = scripts.get(i);
+            result.add(rulesReader.readCard(script.lines, script.name));
+        }
+        return result;
+    }
+
+    private List<CardRules> loadCardsInRangeToCache(final List<File> files, final int from, final int to, final List<CardScriptCache.Script> scripts) {
+        final CardRules.Reader rulesReader = new CardRules.Reader();
+
+        final List<CardRules> result = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            final File file = files.get(i);
+            final String name = Files.getNameWithoutExtension(file.getName());
+            final List<String> lines;
+            try (InputStream in = new FileInputStream(file)) {
+                lines = readScript(in);
+            } catch (final IOException ex) {
+                throw new RuntimeException("CardReader : run error -- file not found: " + file.getPath(), ex);
+            }
+            scripts.add(new CardScriptCache.Script(name, lines));
+            try {
+                result.add(rulesReader.readCard(lines, name));
+            } catch (final RuntimeException ex) {
+                System.out.println("Error loading cardscript " + file.getName() + ". Please close Forge and resolve this.");
+                throw ex;
+            }
+        }
+        return result;
+    }
+
     private List<CardRules> loadCardsInRangeFromZip(final List<ZipEntry> files, final int from, final int to) {
         final CardRules.Reader rulesReader = new CardRules.Reader();
 
@@ -242,7 +286,10 @@ public class CardStorageReader {
         }
  
         final List<File> allFiles = collectCardFiles(new ArrayList<>(), this.cardsfolder);
-        if (!allFiles.isEmpty()) {
+        if (!allFiles.isEmpty() && scriptCacheFile != null) {
+            loadCardsWithScriptCache(result, allFiles);
+        }
+        else if (!allFiles.isEmpty()) {
             int fileParts = zip == null ? NUMBER_OF_PARTS : 1 + NUMBER_OF_PARTS / 3;
             if (allFiles.size() < fileParts * 100) {
                 fileParts = Math.max(1, allFiles.size() / 100); // to avoid creation of many threads for a dozen of files
@@ -276,6 +323,55 @@ public class CardStorageReader {
         return result;
     }
 
+    /**
+     * Load the cards from the script cache, if it was made from the same files, otherwise
+     * read the files and write the cache for next time.
+     */
+    private void loadCardsWithScriptCache(final Collection<CardRules> result, final List<File> allFiles) {
+        final Localizer localizer = Localizer.getInstance();
+        final StopWatch sw = new StopWatch();
+        sw.start();
+        final long checksum = CardScriptCache.checksum(this.cardsfolder, allFiles);
+        final List<CardScriptCache.Script> scripts = CardScriptCache.read(scriptCacheFile, checksum);
+        final boolean cached = scripts != null;
+        progressObserver.setOperationName(localizer.getMessage("splash.loading.cards-folders"), true);
+
+        final int total = cached ? scripts.size() : allFiles.size();
+        int parts = NUMBER_OF_PARTS;
+        if (total < parts * 100) {
+            parts = Math.max(1, total / 100); // to avoid creation of many threads for a dozen of files
+        }
+        final CountDownLatch cdl = new CountDownLatch(parts);
+        final List<Callable<List<CardRules>>> tasks;
+        List<List<CardScriptCache.Script>> scriptsRead = null;
+        if (cached) {
+            tasks = makeTaskListForScripts(scripts, cdl);
+        } else {
+            // the parts read the files as usual and keep their scripts for the cache
+            scriptsRead = new ArrayList<>(parts);
+            for (int i = 0; i < parts; i++) {
+                scriptsRead.add(new ArrayList<>());
+            }
+            tasks = makeTaskListForFilesToCache(allFiles, scriptsRead, cdl);
+        }
+        progressObserver.report(0, tasks.size());
+        executeLoadTask(result, tasks, cdl);
+
+        if (!cached) {
+            final List<CardScriptCache.Script> allScripts = new ArrayList<>(allFiles.size());
+            for (final List<CardScriptCache.Script> part : scriptsRead) {
+                allScripts.addAll(part);
+            }
+            // a part that failed leaves the cache incomplete, then it's better not to write it
+            if (allScripts.size() == allFiles.size()) {
+                CardScriptCache.write(scriptCacheFile, checksum, allScripts);
+            }
+        }
+        sw.stop();
+        System.out.printf("Read cards: %s files in %d ms (%d parts) %s%s%n", total, sw.getTime(), tasks.size(),
+                useThreadPool ? "using thread pool" : "in same thread", cached ? " from script cache" : "");
+    }
+
     private List<ZipEntry> getZipEntries() {
         ZipEntry entry;
         final List<ZipEntry> entries = new ArrayList<>();
@@ -334,6 +430,49 @@ public class CardStorageReader {
         return tasks;
     }
 
+    private List<Callable<List<CardRules>>> makeTaskListForScripts(final List<CardScriptCache.Script> scripts, final CountDownLatch cdl) {
+        final int totalFiles = scripts.size();
+        final int maxParts = (int) cdl.getCount();
+        final int filesPerPart = totalFiles / maxParts;
+        final List<Callable<List<CardRules>>> tasks = new ArrayList<>();
+        for (int iPart = 0; iPart < maxParts; iPart++) {
+            final int from = iPart * filesPerPart;
+            final int till = iPart == maxParts - 1 ? totalFiles : from + filesPerPart;
+            tasks.add(new Callable<List<CardRules>>() {
+                @Override
+                public List<CardRules> call() throws Exception{
+                    final List<CardRules> res = loadCardsInRangeFromScripts(scripts, from, till);
+                    cdl.countDown();
+                    progressObserver.report(maxParts - (int)cdl.getCount(), maxParts);
+                    return res;
+                }
+            });
+        }
+        return tasks;
+    }
+
+    private List<Callable<List<CardRules>>> makeTaskListForFilesToCache(final List<File> allFiles, final List<List<CardScriptCache.Script>> scripts, final CountDownLatch cdl) {
+        final int totalFiles = allFiles.size();
+        final int maxParts = (int) cdl.getCount();
+        final int filesPerPart = totalFiles / maxParts;
+        final List<Callable<List<CardRules>>> tasks = new ArrayList<>();
+        for (int iPart = 0; iPart < maxParts; iPart++) {
+            final int from = iPart * filesPerPart;
+            final int till = iPart == maxParts - 1 ? totalFiles : from + filesPerPart;
+            final List<CardScriptCache.Script> partScripts = scripts.get(iPart);
+            tasks.add(new Callable<List<CardRules>>() {
+                @Override
+                public List<CardRules> call() throws Exception{
+                    final List<CardRules> res = loadCardsInRangeToCache(allFiles, from, till, partScripts);
+                    cdl.countDown();
+                    progressObserver.report(maxParts - (int)cdl.getCount(), maxParts);
+                    return res;
+                }
+            });
+        }
+        return tasks;
+    }
+
     private List<Callable<List<CardRules>>> makeTaskListForFiles(final List<File> allFiles, final CountDownLatch cdl) {
         final int totalFiles = allFiles.size();
         final int maxParts = (int) cdl.getCount();
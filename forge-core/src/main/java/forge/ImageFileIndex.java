@@ -0,0 +1,114 @@
+package forge;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The names of the image files in the folders images are looked up in, so looking for an image
+ * under all its possible names doesn't need a file system call for each name.
+ *
+ * A folder is read once, when a file in it is first looked for, and read again after it's
+ * forgotten, e.g. because an image was downloaded into it.
+ */
+final class ImageFileIndex {
+    private static final Folder MISSING_FOLDER = new Folder(Collections.<String>emptySet(), null);
+
+    private final Map<String, Folder> folders = new ConcurrentHashMap<>();
+
+    /**
+     * @return whether the file exists, as {@link File#isFile()} would tell
+     */
+    boolean isFile(final File file) {
+        final String parent = file.getParent();
+        if (parent == null) {
+            return file.isFile();
+        }
+        Folder folder = folders.get(parent);
+        if (folder == null) {
+            folder = read(Paths.get(parent));
+            folders.put(parent, folder);
+        }
+        return folder.contains(file.getName());
+    }
+
+    /**
+     * Forget the files of the folder of this file, it's read again when next needed.
+     */
+    void forgetFolder(final File file) {
+        final String parent = file.getParent();
+        if (parent != null) {
+            folders.remove(parent);
+        }
+    }
+
+    void clear() {
+        folders.clear();
+    }
+
+    private static Folder read(final Path dir) {
+        if (!Files.isDirectory(dir)) {
+            return MISSING_FOLDER;
+        }
+        final Set<String> names = new HashSet<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (final Path path : stream) {
+                if (Files.isRegularFile(path)) {
+                    names.add(path.getFileName().toString());
+                }
+            }
+        } catch (final IOException | SecurityException e) {
+            System.err.printf("Error reading image folder \"%s\": %s%n", dir, e);
+            return MISSING_FOLDER;
+        }
+
+        // on file systems that ignore case, like those of Windows and macOS, a name
+        // in another case has to be found as well
+        Set<String> lowerCaseNames = null;
+        for (final String name : names) {
+            final String otherCase = swapCase(name);
+            if (!otherCase.equals(name)) {
+                if (!names.contains(otherCase) && Files.exists(dir.resolve(otherCase))) {
+                    lowerCaseNames = new HashSet<>();
+                    for (final String n : names) {
+                        lowerCaseNames.add(n.toLowerCase(Locale.ROOT));
+                    }
+                }
+                break;
+            }
+        }
+        return new Folder(names, lowerCaseNames);
+    }
+
+    private static String swapCase(final String name) {
+        final char[] chars = name.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.isUpperCase(chars[i]) ? Character.toLowerCase(chars[i]) : Character.toUpperCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    private static final class Folder {
+        private final Set<String> names;
+        // only when the file system ignores case
+        private final Set<String> lowerCaseNames;
+
+        Folder(final Set<String> names0, final Set<String> lowerCaseNames0) {
+            names = names0;
+            lowerCaseNames = lowerCaseNames0;
+        }
+
+        boolean contains(final String name) {
+            return names.contains(name) || lowerCaseNames != null && lowerCaseNames.contains(name.toLowerCase(Locale.ROOT));
+        }
+    }
+}
@@ -9,6 +9,8 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
 public final class ImageKeys {
     public static final String CARD_PREFIX           = "c:";
@@ -40,10 +42,11 @@ public final class ImageKeys {
     public static String ADVENTURE_CARD_PICS_DIR;
     private static Map<String, String> CACHE_CARD_PICS_SUBDIR;
 
-    private static Map<String, Boolean> editionImageLookup = new HashMap<>();
+    // images are looked up by the background threads that read them as well as the EDT
+    private static Map<String, Boolean> editionImageLookup = new ConcurrentHashMap<>();
 
-    private static Map<String, Set<String>> editionAlias = new HashMap<>();
-    private static Set<String> toFind = new HashSet<>();
+    private static Map<String, Set<String>> editionAlias = new ConcurrentHashMap<>();
+    private static Set<String> toFind = ConcurrentHashMap.newKeySet();
 
     private static boolean isLibGDXPort = false;
 
@@ -73,6 +76,11 @@ public final class ImageKeys {
     // the last, empty, string is for keys that come in with an extension already in place
     private static final String[] FILE_EXTENSIONS = { ".jpg", ".png", "" };
 
+    // compiled once, as getImageFile is called for every image shown
+    private static final Pattern ART_INDEX_FULL = Pattern.compile("[0-9].full");
+    private static final Pattern ANY_ART_INDEX_FULL = Pattern.compile("[0-9]*[.]full");
+    private static final Pattern TRAILING_DIGITS = Pattern.compile("[0-9]*$");
+
     public static String getTokenKey(String tokenName) {
         return ImageKeys.TOKEN_PREFIX + tokenName;
     }
@@ -84,10 +92,18 @@ public final class ImageKeys {
         return tokenKey.substring(ImageKeys.TOKEN_PREFIX.length());
     }
 
-    private static final Map<String, File> cachedCards = new HashMap<>(50000);
-    private static HashSet<String> missingCards = new HashSet<>();
+    private static final Map<String, File> cachedCards = new ConcurrentHashMap<>(50000);
+    private static final Set<String> missingCards = ConcurrentHashMap.newKeySet();
+    private static final ImageFileIndex fileIndex = new ImageFileIndex();
     public static void clearMissingCards() {
         missingCards.clear();
+        fileIndex.clear();
+    }
+    /**
+     * Call after an image file was added or removed, so it's found by {@link #getImageFile(String)}.
+     */
+    public static void updateImageFile(String path) {
+        fileIndex.forgetFolder(new File(path));
     }
     public static File getCachedCardsFile(String key) {
         return cachedCards.get(key);
@@ -171,7 +187,7 @@ public final class ImageKeys {
                     return file;
                 }
                 // if there's an art variant try without it for .full images
-                file = findFile(dir, filename.replaceAll("[0-9].full",".full"));
+                file = findFile(dir, ART_INDEX_FULL.matcher(filename).replaceAll(".full"));
                 if (file != null) {
                     cachedCards.put(filename, file);
                     return file;
@@ -246,7 +262,7 @@ public final class ImageKeys {
                     }
                     // if there's an art variant try without it
                     if (setlessFilename.matches(".*[0-9]*$")) {
-                        file = findFile(dir, setlessFilename.replaceAll("[0-9]*$", ""));
+                        file = findFile(dir, TRAILING_DIGITS.matcher(setlessFilename).replaceAll(""));
                         if (file != null) {
                             cachedCards.put(filename, file);
                             return file;
@@ -270,7 +286,7 @@ public final class ImageKeys {
                         return file;
                     }
                     // try lowering the art index to the minimum for regular cards
-                    file = findFile(dir, setlessFilename.replaceAll("[0-9]*[.]full", "1.full"));
+                    file = findFile(dir, ANY_ART_INDEX_FULL.matcher(setlessFilename).replaceAll("1.full"));
                     if (file != null) {
                         cachedCards.put(filename, file);
                         return file;
@@ -342,22 +358,22 @@ public final class ImageKeys {
                                 File placeholder;
                                 String fb1 = fullborderFile.replace(setKey+"/","")+ext;
                                 placeholder = new File(lookupDirectory+"/"+fb1);
-                                if (placeholder.exists()) {
+                                if (fileIndex.isFile(placeholder)) {
                                     return placeholder;
                                 }
                                 String fb2 = fullborderFile.replace(setKey+"/","").replaceAll("[0-9]*.fullborder", "1.fullborder")+ext;
                                 placeholder = new File(lookupDirectory+"/"+fb2);
-                                if (placeholder.exists()) {
+                                if (fileIndex.isFile(placeholder)) {
                                     return placeholder;
                                 }
                                 String f1 = filename.replace(setKey+"/","")+ext;
                                 placeholder = new File(lookupDirectory+"/"+f1);
-                                if (placeholder.exists()) {
+                                if (fileIndex.isFile(placeholder)) {
                                     return placeholder;
                                 }
                                 String f2 = filename.replace(setKey+"/","").replaceAll("[0-9]*.full", "1.full")+ext;
                                 placeholder = new File(lookupDirectory+"/"+f2);
-                                if (placeholder.exists()) {
+                                if (fileIndex.isFile(placeholder)) {
                                     return placeholder;
                                 }
                             }
@@ -368,28 +384,16 @@ public final class ImageKeys {
         }
         return null;
     }
+    // looked up in the index of the folder, as this is called for many names that don't exist
     private static File findFile(String dir, String filename) {
-        if (dir.equals(CACHE_CARD_PICS_DIR)) {
-            for (String ext : FILE_EXTENSIONS) {
-                if (ext.equals(""))
-                    continue;
+        for (String ext : FILE_EXTENSIONS) {
+            // card keys never come with an extension
+            if (ext.equals("") && dir.equals(CACHE_CARD_PICS_DIR))
+                continue;
 
-                File f = new File(dir, filename + ext);
-                if (f.exists()) {
-                    return f;
-                }
-            }
-        } else {
-            //old method for tokens and others
-            for (String ext : FILE_EXTENSIONS) {
-                File file = new File(dir, filename + ext);
-                if (file.exists()) {
-                    if (file.isDirectory()) {
-                        file.delete();
-                        continue;
-                    }
-                    return file;
-                }
+            File file = new File(dir, filename + ext);
+            if (fileIndex.isFile(file)) {
+                return file;
             }
         }
         return null;
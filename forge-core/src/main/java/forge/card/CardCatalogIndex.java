@@ -0,0 +1,247 @@
+package forge.card;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.google.common.base.Predicate;
+
+import forge.util.CardTranslation;
+
+/**
+ * An index over the rules of all cards in a {@link CardDb}, for searching the
+ * whole catalog without deriving the same strings from every printing again.
+ * The searched text of each card is kept case folded in one column per field,
+ * and its words in an inverted index, so a search that's done with bit sets
+ * of cards is turned into a predicate by {@link #select}.
+ * <br><br>
+ * Matches are exactly those of the case insensitive "contains" predicates of
+ * {@link CardRulesPredicates}. The index is built for the rules it's given and
+ * never changes, rules it doesn't have are left to the predicate it falls back to.
+ */
+public final class CardCatalogIndex {
+    public enum TextField {
+        NAME, TYPE, ORACLE_TEXT, COST
+    }
+
+    private final Map<CardRules, Integer> ordinals = new IdentityHashMap<>();
+    private final CardRules[] cards;
+    // [field][card], the values of the field for a card are separated by line breaks
+    private final String[][] texts;
+    // [field], each word found in the field, with the cards it's found in
+    private final String[][] words;
+    private final int[][][] wordCards;
+
+    public CardCatalogIndex(final Collection<CardRules> rules) {
+        final List<CardRules> distinct = new ArrayList<>(rules.size());
+        for (final CardRules cr : rules) {
+            if (!ordinals.containsKey(cr)) {
+                ordinals.put(cr, distinct.size());
+                distinct.add(cr);
+            }
+        }
+        cards = distinct.toArray(new CardRules[0]);
+
+        final int nFields = TextField.values().length;
+        texts = new String[nFields][cards.length];
+        words = new String[nFields][];
+        wordCards = new int[nFields][][];
+        for (final TextField field : TextField.values()) {
+            final String[] column = texts[field.ordinal()];
+            final Map<String, CardList> fieldWords = new HashMap<>();
+            for (int i = 0; i < cards.length; i++) {
+                column[i] = fold(getText(cards[i], field));
+                addWords(column[i], i, fieldWords);
+            }
+            final String[] fieldWordArray = new String[fieldWords.size()];
+            final int[][] cardsWithWord = new int[fieldWordArray.length][];
+            int w = 0;
+            for (final Map.Entry<String, CardList> e : fieldWords.entrySet()) {
+                fieldWordArray[w] = e.getKey();
+                cardsWithWord[w] = Arrays.copyOf(e.getValue().cards, e.getValue().size);
+                w++;
+            }
+            words[field.ordinal()] = fieldWordArray;
+            wordCards[field.ordinal()] = cardsWithWord;
+        }
+    }
+
+    /**
+     * @return everything the "contains" predicates of {@link CardRulesPredicates} look in for the field
+     */
+    private static String getText(final CardRules card, final TextField field) {
+        final StringBuilder sb = new StringBuilder();
+        switch (field) {
+        case NAME:
+            for (final ICardFace face : card.getAllFaces()) {
+                if (face != null) {
+                    append(sb, face.getName());
+                    append(sb, CardTranslation.getTranslatedName(face.getName()));
+                    append(sb, StringUtils.stripAccents(face.getName()));
+                }
+            }
+            break;
+        case TYPE:
+            append(sb, CardTranslation.getTranslatedType(card.getName(), card.getType().toString()));
+            append(sb, card.getType().toString());
+            for (final ICardFace face : card.getAllFaces()) {
+                if (face != null) {
+                    append(sb, CardTranslation.getTranslatedType(face.getName(), face.getType().toString()));
+                    append(sb, face.getType().toString());
+                }
+            }
+            break;
+        case ORACLE_TEXT:
+            for (final ICardFace face : card.getAllFaces()) {
+                if (face != null) {
+                    append(sb, face.getOracleText());
+                    append(sb, CardTranslation.getTranslatedOracle(face.getName()));
+                }
+            }
+            break;
+        case COST:
+            append(sb, card.getManaCost().toString());
+            break;
+        }
+        return sb.toString();
+    }
+
+    private static void append(final StringBuilder sb, final String value) {
+        if (value != null) {
+            sb.append(value).append('\n');
+        }
+    }
+
+    /**
+     * Folds the case of each character the way {@link String#regionMatches(boolean, int, String, int, int)}
+     * compares them ignoring case, so that folded strings contain each other when the originals do.
+     */
+    private static String fold(final String s) {
+        final char[] chars = s.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
+    private static void addWords(final String text, final int card, final Map<String, CardList> fieldWords) {
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            final boolean inWord = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (inWord && start < 0) {
+                start = i;
+            } else if (!inWord && start >= 0) {
+                final String word = text.substring(start, i);
+                CardList wordCards = fieldWords.get(word);
+                if (wordCards == null) {
+                    wordCards = new CardList();
+                    fieldWords.put(word, wordCards);
+                }
+                wordCards.add(card);
+                start = -1;
+            }
+        }
+    }
+
+    // the cards a word is found in while building, which are added in order
+    private static final class CardList {
+        private int[] cards = new int[4];
+        private int size = 0;
+
+        private void add(final int card) {
+            if (size > 0 && cards[size - 1] == card) {
+                return;
+            }
+            if (size == cards.length) {
+                cards = Arrays.copyOf(cards, size * 2);
+            }
+            cards[size++] = card;
+        }
+    }
+
+    private static boolean isWord(final String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (!Character.isLetterOrDigit(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return cards.length;
+    }
+
+    public CardRules get(final int index) {
+        return cards[index];
+    }
+
+    /**
+     * @return the index of the card in this, or -1 if it's not in it
+     */
+    public int indexOf(final CardRules card) {
+        final Integer index = ordinals.get(card);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @return the cards whose field contains the text, ignoring case
+     */
+    public BitSet contains(final TextField field, final String text) {
+        final String what = fold(text);
+        final BitSet result = new BitSet(cards.length);
+        if (what.isEmpty()) {
+            result.set(0, cards.length);
+        } else if (isWord(what)) {
+            // all of it is within one word of the field then, so only the words need to be looked at
+            final String[] fieldWords = words[field.ordinal()];
+            final int[][] cardsWithWord = wordCards[field.ordinal()];
+            for (int w = 0; w < fieldWords.length; w++) {
+                if (fieldWords[w].contains(what)) {
+                    for (final int card : cardsWithWord[w]) {
+                        result.set(card);
+                    }
+                }
+            }
+        } else {
+            final String[] column = texts[field.ordinal()];
+            for (int i = 0; i < column.length; i++) {
+                if (column[i].contains(what)) {
+                    result.set(i);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return a predicate true for the cards in the set, which applies the
+     * fallback to rules not in this index instead
+     */
+    public Predicate<CardRules> select(final BitSet selected, final Predicate<CardRules> fallback) {
+        return new Selection(selected, fallback);
+    }
+
+    private final class Selection implements Predicate<CardRules> {
+        private final BitSet selected;
+        private final Predicate<CardRules> fallback;
+
+        private Selection(final BitSet selected, final Predicate<CardRules> fallback) {
+            this.selected = selected;
+            this.fallback = fallback;
+        }
+
+        @Override
+        public boolean apply(final CardRules card) {
+            final int index = indexOf(card);
+            return index < 0 ? fallback.apply(card) : selected.get(index);
+        }
+    }
+}
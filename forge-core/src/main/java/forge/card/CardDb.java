@@ -48,6 +48,7 @@ public final class CardDb implements ICardDatabase, IDeckGenPool {
     private final ListMultimap<String, PaperCard> allCardsByName = Multimaps.newListMultimap(new TreeMap<>(String.CASE_INSENSITIVE_ORDER), CollectionSuppliers.arrayLists());
     private final Map<String, PaperCard> uniqueCardsByName = Maps.newTreeMap(String.CASE_INSENSITIVE_ORDER);
     private final Map<String, CardRules> rulesByName;
+    private volatile CardCatalogIndex catalogIndex = null;
     private final Map<String, ICardFace> facesByName = Maps.newTreeMap(String.CASE_INSENSITIVE_ORDER);
     private final Map<String, String> normalizedNames = Maps.newTreeMap(String.CASE_INSENSITIVE_ORDER);
     private static Map<String, String> artPrefs = Maps.newHashMap();
@@ -280,6 +281,7 @@ public final class CardDb implements ICardDatabase, IDeckGenPool {
         // OR if a card is trying to load from an edition its not from
         //System.out.println("[LOG]: (Lazy) Loading Card: " + cardName);
         rulesByName.put(cardName, cr);
+        catalogIndex = null;
         boolean reIndexNecessary = false;
         CardEdition ed = editions.get(setCode);
         if (ed == null || ed.equals(CardEdition.UNKNOWN)) {
@@ -411,6 +413,7 @@ public final class CardDb implements ICardDatabase, IDeckGenPool {
                 // so workshop can edit same script
                 within.setNormalizedName(org.getNormalizedName());
                 rulesByName.put(cis.name, within);
+                catalogIndex = null;
             }
         }
     }
@@ -485,6 +488,18 @@ public final class CardDb implements ICardDatabase, IDeckGenPool {
         return artPrefs.getOrDefault(cardName, null) != null;
     }
 
+    /**
+     * @return the index for searching the rules of all cards, built when first needed after they changed
+     */
+    public CardCatalogIndex getCatalogIndex() {
+        CardCatalogIndex index = catalogIndex;
+        if (index == null) {
+            index = new CardCatalogIndex(rulesByName.values());
+            catalogIndex = index;
+        }
+        return index;
+    }
+
     public CardRules getRules(String cardName) {
         CardRules result = rulesByName.get(cardName);
         if (result != null) {
@@ -1213,6 +1228,7 @@ public final class CardDb implements ICardDatabase, IDeckGenPool {
             String cardName = rules.getName();
 
             CardRules result = rulesByName.get(cardName);
+            catalogIndex = null;
             if (result != null && result.getName().equals(cardName)) { // change properties only
                 result.reinitializeFromRules(rules);
                 return result;
@@ -248,6 +248,12 @@ public final class CardType implements Comparable<CardType>, CardTypeView {
         return changed;
     }
 
+    public void setAllCreatureTypes(final Iterable<String> excluded) {
+        allCreatureTypes = true;
+        Iterables.addAll(excludedCreatureSubtypes, excluded);
+        calculatedType = null;
+    }
+
     @Override
     public boolean isEmpty() {
         return coreTypes.isEmpty() && supertypes.isEmpty() && subtypes.isEmpty() && excludedCreatureSubtypes.isEmpty();
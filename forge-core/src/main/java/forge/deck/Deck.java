@@ -220,7 +220,8 @@ public class Deck extends DeckBase implements Iterable<Entry<DeckSection, CardPo
         return new Deck(name0);
     }
 
-    private void loadDeferredSections() {
+    // decks may be shared by games running at the same time, only one of them may load the cards
+    private synchronized void loadDeferredSections() {
         if (deferredSections == null && loadedSections == null)
             return;
 
@@ -32,6 +32,7 @@ import java.util.Random;
 public class MyRandom {
     /** Constant <code>random</code>. */
     private static Random random = new SecureRandom();
+    private static final ThreadLocal<Random> threadRandom = new ThreadLocal<>();
 
     /**
      * <p>
@@ -52,7 +53,8 @@ public class MyRandom {
      * @return the random
      */
     public static Random getRandom() {
-        return MyRandom.random;
+        final Random forThread = MyRandom.threadRandom.get();
+        return forThread != null ? forThread : MyRandom.random;
     }
 
     /**
@@ -63,11 +65,32 @@ public class MyRandom {
         MyRandom.random = random;
     }
 
+    /**
+     * Sets the random provider of the current thread only, taking precedence over the shared one.
+     * Used for deterministic simulations running on several threads at once.
+     * @param random the random, or null to go back to the shared one
+     */
+    public static void setThreadRandom(Random random) {
+        if (random == null) {
+            MyRandom.threadRandom.remove();
+        } else {
+            MyRandom.threadRandom.set(random);
+        }
+    }
+
+    /**
+     * Gets the random provider set for the current thread.
+     * @return the random, or null if the thread uses the shared one
+     */
+    public static Random getThreadRandom() {
+        return MyRandom.threadRandom.get();
+    }
+
     public static int[] splitIntoRandomGroups(final int value, final int numGroups) {
         int[] groups = new int[numGroups];
         
         for (int i = 0; i < value; i++) {
-            groups[random.nextInt(numGroups)]++;
+            groups[getRandom().nextInt(numGroups)]++;
         }
 
         return groups;
@@ -0,0 +1,50 @@
+package forge.util;
+
+import java.util.Random;
+
+/**
+ * A fast random number generator (SplitMix64) for a single game.
+ * <p>
+ * Unlike {@link java.util.Random} and {@link java.security.SecureRandom} it doesn't synchronize,
+ * so an instance must only be used by one thread at a time. Use {@link #split()} to give
+ * another thread its own generator. The same seed always gives the same numbers.
+ * </p>
+ */
+public class SplitMixRandom extends Random {
+    private static final long serialVersionUID = 1L;
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long state;
+
+    public SplitMixRandom(long seed) {
+        super(seed);
+        this.state = seed;
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        // also called by the constructor of Random
+        super.setSeed(seed);
+        this.state = seed;
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+
+    @Override
+    public long nextLong() {
+        long z = (state += GOLDEN_GAMMA);
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @return a new generator, independent of this one, seeded from it
+     */
+    public SplitMixRandom split() {
+        return new SplitMixRandom(nextLong());
+    }
+}
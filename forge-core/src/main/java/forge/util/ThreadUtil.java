@@ -4,9 +4,12 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 public class ThreadUtil {
@@ -29,6 +32,19 @@ public class ThreadUtil {
 
     private final static ExecutorService gameThreadPool = Executors.newCachedThreadPool(new WorkerThreadFactory("Game"));
     private static ExecutorService getGameThreadPool() { return gameThreadPool; }
+    // A bounded pool of game threads, for running no more than this many games at once, or any number of them for 0
+    public final static ExecutorService newGameThreadPool(int nThreads, String name) {
+        if (nThreads <= 0) {
+            // not bounded, a new thread is started whenever none is free
+            return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS,
+                    new SynchronousQueue<Runnable>(), new WorkerThreadFactory("Game-" + name));
+        }
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(nThreads, nThreads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new WorkerThreadFactory("Game-" + name));
+        // idle threads go away, so a pool that's no longer used doesn't keep the program running
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
     private final static ScheduledExecutorService scheduledPool = Executors.newScheduledThreadPool(2, new WorkerThreadFactory("Delayed"));
     private static ScheduledExecutorService getScheduledPool() { return scheduledPool; }
 
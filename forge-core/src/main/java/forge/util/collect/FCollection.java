@@ -1,12 +1,13 @@
 package forge.util.collect;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
@@ -17,14 +18,19 @@ import org.apache.commons.lang3.ArrayUtils;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Ordering;
-import com.google.common.collect.Sets;
 
 /**
  * Collection with unique elements ({@link Set}) that maintains the order in
  * which the elements are added to it ({@link List}).
  *
+ * The elements are kept in an array list, for direct access by index, and in
+ * a hash map from each element to itself, for membership tests and for
+ * finding the instance equal to another one.
+ *
  * This object is serializable if all elements it contains are.
  *
  * @param <T> the type of the elements this collection contains.
@@ -41,14 +47,24 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
     }
 
     /**
-     * The {@link Set} representation of this collection.
+     * The {@link Set} representation of this collection, mapping each element to itself.
      */
-    private final Set<T> set = Sets.newHashSet();
+    private final HashMap<T, T> set = Maps.newHashMap();
 
     /**
      * The {@link List} representation of this collection.
      */
-    private final LinkedList<T> list = Lists.newLinkedList();
+    private final ArrayList<T> list = Lists.newArrayList();
+
+    /**
+     * Counts the changes to the list, to tell whether {@link #snapshot} is still current.
+     */
+    private transient volatile int version;
+
+    /**
+     * The last copy of the list made by {@link #threadSafeIterable()}.
+     */
+    private transient volatile Snapshot<T> snapshot;
 
     /**
      * Create an empty {@link FCollection}.
@@ -169,7 +185,10 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public T getFirst() {
-        return list.getFirst();
+        if (list.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return list.get(0);
     }
 
     /**
@@ -180,7 +199,10 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public T getLast() {
-        return list.getLast();
+        if (list.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return list.get(list.size() - 1);
     }
 
     /**
@@ -200,7 +222,7 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
     }
     
     public Set<T> asSet() {
-        return set;
+        return set.keySet();
     }
 
     /**
@@ -211,7 +233,7 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public boolean contains(final Object o) {
-        return set.contains(o);
+        return set.containsKey(o);
     }
 
     /**
@@ -219,7 +241,7 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public Iterator<T> iterator() {
-        return list.iterator();
+        return new Itr(0);
     }
 
     /**
@@ -248,13 +270,40 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public boolean add(final T e) {
-        if (set.add(e)) {
+        if (addToSet(e)) {
             list.add(e);
+            changed();
             return true;
         }
         return false;
     }
 
+    private boolean addToSet(final T e) {
+        if (e == null) {
+            if (set.containsKey(null)) {
+                return false;
+            }
+            set.put(null, null);
+            return true;
+        }
+        return set.putIfAbsent(e, e) == null;
+    }
+
+    private boolean removeFromSet(final Object o) {
+        if (o == null) {
+            if (!set.containsKey(null)) {
+                return false;
+            }
+            set.remove(null);
+            return true;
+        }
+        return set.remove(o) != null;
+    }
+
+    private void changed() {
+        version++;
+    }
+
     /**
      * Remove an element from this collection.
      *
@@ -264,8 +313,9 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public boolean remove(final Object o) {
-        if (set.remove(o)) {
+        if (removeFromSet(o)) {
             list.remove(o);
+            changed();
             return true;
         }
         return false;
@@ -274,7 +324,8 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
     @Override
     public boolean removeIf(Predicate<? super T> filter) {
         if (list.removeIf(filter)) {
-            set.removeIf(filter);
+            set.keySet().removeIf(filter);
+            changed();
             return true;
         }
         return false;
@@ -285,7 +336,7 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public boolean containsAll(final Collection<?> c) {
-        return set.containsAll(c);
+        return set.keySet().containsAll(c);
     }
 
     /**
@@ -381,8 +432,9 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public boolean retainAll(final Collection<?> c) {
-        if (set.retainAll(c)) {
+        if (set.keySet().retainAll(c)) {
             list.retainAll(c);
+            changed();
             return true;
         }
         return false;
@@ -396,6 +448,7 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
         if (set.isEmpty()) { return; }
         set.clear();
         list.clear();
+        changed();
     }
 
     /**
@@ -413,7 +466,9 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public T set(final int index, final T element) { //assume this isn't called except when changing list order, so don't worry about updating set
-        return list.set(index, element);
+        final T old = list.set(index, element);
+        changed();
+        return old;
     }
 
     /**
@@ -434,8 +489,9 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      * @return whether this collection changed as a result of this method call.
      */
     private boolean insert(int index, final T element) {
-        if (set.add(element)) {
+        if (addToSet(element)) {
             list.add(index, element);
+            changed();
             return true;
         }
         //re-position in list if needed
@@ -449,6 +505,10 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
         }
         list.remove(oldIndex);
         list.add(index, element);
+        //the list now holds the given instance, so let the set hold it too
+        set.remove(element);
+        set.put(element, element);
+        changed();
         return true;
     }
 
@@ -461,6 +521,7 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
         if (removedItem != null) {
             set.remove(removedItem);
         }
+        changed();
         return removedItem;
     }
 
@@ -469,6 +530,9 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public int indexOf(final Object o) {
+        if (!set.containsKey(o)) {
+            return -1;
+        }
         return list.indexOf(o);
     }
 
@@ -477,6 +541,9 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public int lastIndexOf(final Object o) {
+        if (!set.containsKey(o)) {
+            return -1;
+        }
         return list.lastIndexOf(o);
     }
 
@@ -485,7 +552,7 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public ListIterator<T> listIterator() {
-        return list.listIterator();
+        return new Itr(0);
     }
 
     /**
@@ -493,7 +560,7 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public ListIterator<T> listIterator(final int index) {
-        return list.listIterator(index);
+        return new Itr(index);
     }
 
     /**
@@ -525,7 +592,8 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      * {@inheritDoc}
      */
     public void sort(final Comparator<? super T> comparator) {
-        Collections.sort(list, comparator);
+        list.sort(comparator);
+        changed();
     }
 
     /**
@@ -533,8 +601,15 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
      */
     @Override
     public Iterable<T> threadSafeIterable() {
-        //create a new linked list for iterating to make it thread safe and avoid concurrent modification exceptions
-        return Iterables.unmodifiableIterable(new LinkedList<>(list));
+        //iterate over a copy to make it thread safe and avoid concurrent modification exceptions,
+        //the copy is shared until the collection changes again
+        final int current = version;
+        Snapshot<T> s = snapshot;
+        if (s == null || s.version != current) {
+            s = new Snapshot<>(current, list.toArray());
+            snapshot = s;
+        }
+        return s;
     }
 
     @Override
@@ -542,12 +617,72 @@ public class FCollection<T> implements List<T>, /*Set<T>,*/ FCollectionView<T>,
         if (obj == null) {
             return null;
         }
-        for(T x : this) {
-            if (x.equals(obj)) {
-                return x;
-            }
+        final T x = set.get(obj);
+        return x != null ? x : obj;
+    }
+
+    /**
+     * A copy of the elements, tagged with the version of the collection it was taken from.
+     */
+    private static final class Snapshot<T> implements Iterable<T> {
+        private final int version;
+        private final Object[] elements;
+
+        private Snapshot(final int version0, final Object[] elements0) {
+            version = version0;
+            elements = elements0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Iterator<T> iterator() {
+            return (Iterator<T>) Iterators.forArray(elements);
+        }
+    }
+
+    /**
+     * Iterator over the list that keeps the set and the version up to date when used to change the collection.
+     */
+    private final class Itr implements ListIterator<T> {
+        private final ListIterator<T> it;
+        private T lastReturned;
+
+        private Itr(final int index) {
+            it = list.listIterator(index);
+        }
+
+        @Override public boolean hasNext() {
+            return it.hasNext();
+        }
+        @Override public T next() {
+            return lastReturned = it.next();
+        }
+        @Override public boolean hasPrevious() {
+            return it.hasPrevious();
+        }
+        @Override public T previous() {
+            return lastReturned = it.previous();
+        }
+        @Override public int nextIndex() {
+            return it.nextIndex();
+        }
+        @Override public int previousIndex() {
+            return it.previousIndex();
+        }
+        @Override public void remove() {
+            it.remove();
+            set.remove(lastReturned);
+            changed();
+        }
+        @Override public void set(final T e) {
+            it.set(e);
+            changed();
+        }
+        @Override public void add(final T e) {
+            it.add(e);
+            addToSet(e);
+            changed();
         }
-        return obj;
     }
     /**
      * An unmodifiable, empty {@link FCollection}. Overrides all methods with
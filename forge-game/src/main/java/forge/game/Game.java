@@ -48,20 +48,22 @@ import forge.game.zone.ZoneType;
 import forge.trackable.Tracker;
 import forge.util.Aggregates;
 import forge.util.MyRandom;
+import forge.util.SplitMixRandom;
 import forge.util.Visitor;
 import forge.util.collect.FCollection;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Represents the state of a <i>single game</i>, a new instance is created for each game.
  */
 public class Game {
 
-    private static int maxId = 0;
-    private static int nextId() { return ++maxId; }
+    private static final AtomicInteger maxId = new AtomicInteger();
+    private static int nextId() { return maxId.incrementAndGet(); }
 
     /** The ID. */
     private int id;
@@ -87,12 +89,26 @@ public class Game {
     private final ReplacementHandler replacementHandler = new ReplacementHandler(this);
     private final EventBus events = new EventBus("game events");
     private final GameLog gameLog = new GameLog();
+    // the random choices of the game come from here, so a game can be replayed from its seed
+    private long seed;
+    private SplitMixRandom random;
 
     private final Zone stackZone = new Zone(ZoneType.Stack, this);
+    // the cards in the zones of this game by ID and zone, kept up to date by the zones themselves
+    private final Table<Integer, Zone, Card> cardIndex = HashBasedTable.create();
 
     public boolean EXPERIMENTAL_RESTORE_SNAPSHOT = false;
     // While this is false here, its really set by the Match/Preferences
 
+    /**
+     * Skip rebuilding the continuous layers when nothing changed since they were last applied.
+     * This only memoizes the whole pass: any change marks all the layers dirty and the next
+     * check rebuilds them for every card, there's no tracking of which effects depend on what changed.
+     */
+    public boolean EXPERIMENTAL_INCREMENTAL_LAYERS = false;
+    // Rebuild anyway and count every skipped rebuild that would have given a different result
+    public boolean VERIFY_INCREMENTAL_LAYERS = false;
+
     // If this merges with LKI In the future, it will need to change forms
     private GameSnapshot previousGameState = null;
     private CardCollection lastStateBattlefield = new CardCollection();
@@ -124,6 +140,8 @@ public class Game {
     private int numPiledGuessedSA;
 
     private long timestamp = 0;
+    // changes whenever cards change zones or something that can change their characteristics happens
+    private long layerEpoch = 0;
     public final GameAction action;
     private final Match match;
     private GameStage age = GameStage.BeforeMulligan;
@@ -305,11 +323,26 @@ public class Game {
         this(players0, rules0, match0, null, -1);
     }
 
+    /**
+     * For copies of a game, which mustn't take their seed from the random numbers of the game they copy.
+     */
+    public Game(Iterable<RegisteredPlayer> players0, GameRules rules0, Match match0, long seed0) {
+        this(players0, rules0, match0, null, -1, seed0);
+    }
+
     public Game(Iterable<RegisteredPlayer> players0, GameRules rules0, Match match0, Game maingame0, int startingLife) { /* no more zones to map here */
+        this(players0, rules0, match0, maingame0, startingLife, MyRandom.getRandom().nextLong());
+    }
+
+    private Game(Iterable<RegisteredPlayer> players0, GameRules rules0, Match match0, Game maingame0, int startingLife, long seed0) {
         rules = rules0;
         match = match0;
         maingame = maingame0;
+        if (maingame0 != null) {
+            tracker.setHeadless(maingame0.isHeadless());
+        }
         this.id = nextId();
+        setSeed(seed0);
 
         int highestTeam = -1;
         for (RegisteredPlayer psc : players0) {
@@ -379,6 +412,34 @@ public class Game {
         return tracker;
     }
 
+    public boolean isHeadless() {
+        return tracker.isHeadless();
+    }
+
+    /**
+     * A headless game skips the parts of its views that only players look at, see {@link Tracker#isHeadless()}.
+     * Turning it off again brings those parts up to date, so a UI can still attach to the game later.
+     */
+    public void setHeadless(boolean headless) {
+        if (tracker.isHeadless() == headless) {
+            return;
+        }
+        tracker.setHeadless(headless);
+        if (headless) {
+            return;
+        }
+        forEachCardInGame(new Visitor<Card>() {
+            @Override
+            public boolean visit(Card card) {
+                card.updateAllStatesForView();
+                return true;
+            }
+        }, true);
+        for (Player p : getRegisteredPlayers()) {
+            p.updateAllZonesForView();
+        }
+    }
+
     /**
      * Gets the players who are still fighting to win.
      */
@@ -477,6 +538,33 @@ public class Game {
         view.updateStack(stack);
     }
 
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Restarts the random choices of this game from the given seed.
+     */
+    public void setSeed(long seed0) {
+        seed = seed0;
+        random = new SplitMixRandom(seed0);
+    }
+
+    /**
+     * @return a seed for a copy of this game, split from its seed rather than drawn from its random numbers,
+     * so making copies doesn't change how this game goes on
+     */
+    public long getSeedForCopy() {
+        return new SplitMixRandom(seed).nextLong();
+    }
+
+    /**
+     * @return the random number generator of this game, only to be used by the thread running the game
+     */
+    public Random getRandom() {
+        return random;
+    }
+
     public final StaticEffects getStaticEffects() {
         return staticEffects;
     }
@@ -538,6 +626,9 @@ public class Game {
      * Create and return the next timestamp.
      */
     public final long getNextTimestamp() {
+        // new timestamps are handed out for new effects or objects
+        staticEffects.invalidateLayers();
+        layerEpoch++;
         timestamp = getTimestamp() + 1;
         return getTimestamp();
     }
@@ -545,6 +636,13 @@ public class Game {
         return timestamp;
     }
 
+    public final long getLayerEpoch() {
+        return layerEpoch;
+    }
+    public final void updateLayerEpoch() {
+        layerEpoch++;
+    }
+
     public void dangerouslySetTimestamp(long timestamp) {
         this.timestamp = timestamp;
     }
@@ -650,34 +748,12 @@ public class Game {
         return cards;
     }
 
-    private static class CardStateVisitor extends Visitor<Card> {
-        Card found = null;
-        Card old = null;
-
-        private CardStateVisitor(final Card card) {
-            this.old = card;
-        }
-
-        @Override
-        public boolean visit(Card object) {
-            if (object.equals(old)) {
-                found = object;
-            }
-            return found == null;
-        }
-
-        public Card getFound(final Card notFound) {
-            return found == null ? notFound : found;
-        }
-    }
-
     public Card getCardState(final Card card) {
         return getCardState(card, card);
     }
     public Card getCardState(final Card card, final Card notFound) {
-        CardStateVisitor visit = new CardStateVisitor(card);
-        this.forEachCardInGame(visit);
-        return visit.getFound(notFound);
+        final Card found = findById(card.getId());
+        return found == null ? notFound : found;
     }
 
     private static class CardIdVisitor extends Visitor<Card> {
@@ -701,22 +777,75 @@ public class Game {
         }
     }
 
+    public void addToCardIndex(final Zone zone, final Card c) {
+        cardIndex.put(c.getId(), zone, c);
+        replacementHandler.addToIndex(zone, c);
+    }
+    public void removeFromCardIndex(final Zone zone, final Card c) {
+        replacementHandler.removeFromIndex(zone, c);
+        // a stale copy with the same ID mustn't take the card that replaced it out of the index
+        if (cardIndex.get(c.getId(), zone) == c) {
+            cardIndex.remove(c.getId(), zone);
+        }
+    }
+
+    // same zones as forEachCardInGame without the sideboard
+    private boolean isVisitedZone(final Zone zone) {
+        if (zone == getStackZone()) {
+            return true;
+        }
+        final Player p = zone.getPlayer();
+        if (p == null || !getPlayers().contains(p)) {
+            return false;
+        }
+        switch (zone.getZoneType()) {
+            case Graveyard:
+            case Hand:
+            case Library:
+            case Battlefield:
+            case Exile:
+            case Command:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     public Card findByView(CardView view) {
         if (view == null) {
             return null;
         }
-        CardIdVisitor visit = new CardIdVisitor(view.getId());
         if (ZoneType.Stack.equals(view.getZone())) {
-            visit.visitAll(getStackZone());
+            return cardIndex.get(view.getId(), getStackZone());
         } else if (view.getController() != null && view.getZone() != null) {
-            visit.visitAll(getPlayer(view.getController()).getZone(view.getZone()));
-        } else { // fallback if view doesn't has controller or zone set for some reason
-            forEachCardInGame(visit);
+            return cardIndex.get(view.getId(), getPlayer(view.getController()).getZone(view.getZone()));
         }
-        return visit.getFound();
+        // fallback if view doesn't has controller or zone set for some reason
+        return findById(view.getId());
     }
 
     public Card findById(int id) {
+        Card found = null;
+        int matches = 0;
+        for (final Map.Entry<Zone, Card> e : cardIndex.row(id).entrySet()) {
+            if (isVisitedZone(e.getKey())) {
+                found = e.getValue();
+                matches++;
+            }
+        }
+        for (final Player p : getPlayers()) {
+            for (final Card c : p.getInboundTokens()) {
+                if (c.getId() == id) {
+                    found = c;
+                    matches++;
+                }
+            }
+        }
+        if (matches <= 1) {
+            return found;
+        }
+        // while a card is changing zones there can be more than one object with its ID,
+        // the one visited first is the one the rest of the game expects
         CardIdVisitor visit = new CardIdVisitor(id);
         this.forEachCardInGame(visit);
         return visit.getFound();
@@ -984,6 +1113,9 @@ public class Game {
      * The events are sent to UI, log and sound system. Network listeners are under development.
      */
     public void fireEvent(final Event event) {
+        // every event is a state change that might influence the continuous layers
+        staticEffects.invalidateLayers();
+        layerEpoch++;
         events.post(event);
     }
     public void subscribeToEvents(final Object subscriber) {
@@ -1047,7 +1179,7 @@ public class Game {
                 onePlayerHasTimeShifted = false;
             }
 
-            CardRarity anteRarity = validRarities.get(MyRandom.getRandom().nextInt(validRarities.size()));
+            CardRarity anteRarity = validRarities.get(random.nextInt(validRarities.size()));
 
             System.out.println("Rarity chosen for ante: " + anteRarity.name());
 
@@ -1077,7 +1209,7 @@ public class Game {
                 library.removeAll(toRemove);
 
                 if (library.size() > 0) { //Make sure that matches were found. If not, use the original method to choose antes
-                    Card ante = library.get(MyRandom.getRandom().nextInt(library.size()));
+                    Card ante = library.get(random.nextInt(library.size()));
                     anteed.put(player, ante);
                 } else {
                     chooseRandomCardsForAnte(player, anteed);
@@ -17,6 +17,7 @@
  */
 package forge.game;
 
+import com.esotericsoftware.minlog.Log;
 import com.google.common.base.Predicate;
 import com.google.common.collect.*;
 import forge.GameCommand;
@@ -1075,78 +1076,29 @@ public class GameAction {
         }
         game.getTracker().freeze(); //prevent views flickering during while updating for state-based effects
 
-        // remove old effects
-        game.getStaticEffects().clearStaticEffects(affectedCards);
-
-        for (final Player p : game.getPlayers()) {
-            p.clearStaticAbilities();
-        }
-
-        // search for cards with static abilities
-        final FCollection<StaticAbility> staticAbilities = new FCollection<>();
+        final StaticEffects staticEffects = game.getStaticEffects();
         final CardCollection staticList = new CardCollection();
-
-        game.forEachCardInGame(new Visitor<Card>() {
-            @Override
-            public boolean visit(final Card c) {
-                // need to get Card from preList if able
-                final Card co = preList.get(c);
-                for (StaticAbility stAb : co.getStaticAbilities()) {
-                    if (stAb.checkMode("Continuous")) {
-                        staticAbilities.add(stAb);
-                    }
-                 }
-                 if (!co.getStaticCommandList().isEmpty()) {
-                     staticList.add(co);
-                 }
-                 return true;
-            }
-        }, true);
-
-        final Comparator<StaticAbility> comp = new Comparator<StaticAbility>() {
-            @Override
-            public int compare(final StaticAbility a, final StaticAbility b) {
-                return ComparisonChain.start()
-                        .compareTrueFirst(a.hasParam("CharacteristicDefining"), b.hasParam("CharacteristicDefining"))
-                        .compare(a.getHostCard().getLayerTimestamp(), b.getHostCard().getLayerTimestamp())
-                        .result();
-            }
-        };
-        Collections.sort(staticAbilities, comp);
-
-        final Map<StaticAbility, CardCollectionView> affectedPerAbility = Maps.newHashMap();
-        for (final StaticAbilityLayer layer : StaticAbilityLayer.CONTINUOUS_LAYERS) {
-            List<StaticAbility> toAdd = Lists.newArrayList();
-            for (final StaticAbility stAb : staticAbilities) {
-                final CardCollectionView previouslyAffected = affectedPerAbility.get(stAb);
-                final CardCollectionView affectedHere;
-                if (previouslyAffected == null) {
-                    affectedHere = stAb.applyContinuousAbilityBefore(layer, preList);
-                    if (affectedHere != null) {
-                        affectedPerAbility.put(stAb, affectedHere);
-                    }
-                } else {
-                    affectedHere = previouslyAffected;
-                    stAb.applyContinuousAbility(layer, previouslyAffected);
-                }
-                if (affectedHere != null) {
-                    for (final Card c : affectedHere) {
-                        for (final StaticAbility st2 : c.getStaticAbilities()) {
-                            if (!staticAbilities.contains(st2)) {
-                                toAdd.add(st2);
-                                st2.applyContinuousAbilityBefore(layer, preList);
-                            }
-                        }
-                    }
-                }
+        if (!preList.isEmpty() || !game.EXPERIMENTAL_INCREMENTAL_LAYERS || staticEffects.areLayersDirty()) {
+            applyContinuousLayers(affectedCards, preList, staticList);
+        } else if (game.VERIFY_INCREMENTAL_LAYERS) {
+            staticEffects.addSkippedRebuild();
+            // nothing changed since the last rebuild, it should not change anything
+            final Map<Integer, String> before = staticEffects.describeLayerResults(game);
+            applyContinuousLayers(Sets.newHashSet(), preList, staticList);
+            final Map<Integer, String> after = staticEffects.describeLayerResults(game);
+            if (!before.equals(after)) {
+                staticEffects.addLayerMismatch();
+                Log.debug("Skipped layer rebuild differs: " + Maps.difference(before, after).entriesDiffering());
             }
-            staticAbilities.addAll(toAdd);
+        } else {
+            staticEffects.addSkippedRebuild();
+            collectStaticCommandCards(preList, staticList);
         }
-
-        for (final CardCollectionView affected : affectedPerAbility.values()) {
-            if (affected != null) {
-                Iterables.addAll(affectedCards, affected);
-            }
+        if (preList.isEmpty()) {
+            staticEffects.setLayersApplied();
+        } else {
+            // the layers were applied with LKI, the next check needs to rebuild them from the real game state
+            staticEffects.invalidateLayers();
         }
 
         for (final Card c : staticList) {
@@ -1206,11 +1158,102 @@ public class GameAction {
         // TODO filter out old copies from zone change
 
         if (runEvents && !affectedCards.isEmpty()) {
+            staticEffects.setTrackingLayers(false);
             game.fireEvent(new GameEventCardStatsChanged(affectedCards));
+            staticEffects.setTrackingLayers(true);
         }
         game.getTracker().unfreeze();
     }
 
+    private void collectStaticCommandCards(final CardCollectionView preList, final CardCollection staticList) {
+        game.forEachCardInGame(new Visitor<Card>() {
+            @Override
+            public boolean visit(final Card c) {
+                final Card co = preList.get(c);
+                if (!co.getStaticCommandList().isEmpty()) {
+                    staticList.add(co);
+                }
+                return true;
+            }
+        }, true);
+    }
+
+    private static final Comparator<StaticAbility> CONTINUOUS_LAYER_ORDER = new Comparator<StaticAbility>() {
+        @Override
+        public int compare(final StaticAbility a, final StaticAbility b) {
+            return ComparisonChain.start()
+                    .compareTrueFirst(a.hasParam("CharacteristicDefining"), b.hasParam("CharacteristicDefining"))
+                    .compare(a.getHostCard().getLayerTimestamp(), b.getHostCard().getLayerTimestamp())
+                    .result();
+        }
+    };
+
+    private void applyContinuousLayers(final Set<Card> affectedCards, final CardCollectionView preList, final CardCollection staticList) {
+        // remove old effects
+        game.getStaticEffects().clearStaticEffects(affectedCards);
+
+        for (final Player p : game.getPlayers()) {
+            p.clearStaticAbilities();
+        }
+
+        // search for cards with static abilities
+        final FCollection<StaticAbility> staticAbilities = new FCollection<>();
+
+        game.forEachCardInGame(new Visitor<Card>() {
+            @Override
+            public boolean visit(final Card c) {
+                // need to get Card from preList if able
+                final Card co = preList.get(c);
+                for (StaticAbility stAb : co.getStaticAbilities()) {
+                    if (stAb.checkMode("Continuous")) {
+                        staticAbilities.add(stAb);
+                    }
+                 }
+                 if (!co.getStaticCommandList().isEmpty()) {
+                     staticList.add(co);
+                 }
+                 return true;
+            }
+        }, true);
+
+        Collections.sort(staticAbilities, CONTINUOUS_LAYER_ORDER);
+
+        final Map<StaticAbility, CardCollectionView> affectedPerAbility = Maps.newHashMap();
+        for (final StaticAbilityLayer layer : StaticAbilityLayer.CONTINUOUS_LAYERS) {
+            List<StaticAbility> toAdd = Lists.newArrayList();
+            for (final StaticAbility stAb : staticAbilities) {
+                final CardCollectionView previouslyAffected = affectedPerAbility.get(stAb);
+                final CardCollectionView affectedHere;
+                if (previouslyAffected == null) {
+                    affectedHere = stAb.applyContinuousAbilityBefore(layer, preList);
+                    if (affectedHere != null) {
+                        affectedPerAbility.put(stAb, affectedHere);
+                    }
+                } else {
+                    affectedHere = previouslyAffected;
+                    stAb.applyContinuousAbility(layer, previouslyAffected);
+                }
+                if (affectedHere != null) {
+                    for (final Card c : affectedHere) {
+                        for (final StaticAbility st2 : c.getStaticAbilities()) {
+                            if (!staticAbilities.contains(st2)) {
+                                toAdd.add(st2);
+                                st2.applyContinuousAbilityBefore(layer, preList);
+                            }
+                        }
+                    }
+                }
+            }
+            staticAbilities.addAll(toAdd);
+        }
+
+        for (final CardCollectionView affected : affectedPerAbility.values()) {
+            if (affected != null) {
+                Iterables.addAll(affectedCards, affected);
+            }
+        }
+    }
+
     public final boolean checkStateEffects(final boolean runEvents) {
         return checkStateEffects(runEvents, Sets.newHashSet());
     }
@@ -2013,7 +2056,7 @@ public class GameAction {
 
         //shuffle
         List<Card> shuffledCards = Lists.newArrayList(p1.getZone(ZoneType.Library).getCards().threadSafeIterable());
-        Collections.shuffle(shuffledCards);
+        Collections.shuffle(shuffledCards, game.getRandom());
 
         //check a second hand
         List<Card> hand2 = shuffledCards.subList(0,p1.getMaxHandSize());
@@ -2140,7 +2183,7 @@ public class GameAction {
 
         if (!powerPlayers.isEmpty()) {
             List<Player> players = Lists.newArrayList(powerPlayers);
-            Collections.shuffle(players, MyRandom.getRandom());
+            Collections.shuffle(players, game.getRandom());
             return players.get(0);
         }
 
@@ -290,6 +290,7 @@ public abstract class GameEntity extends GameObject implements IIdentifiable {
     }
 
     public void setCounters(final CounterType counterType, final Integer num) {
+        updateLayerEpoch();
         if (num <= 0) {
             counters.remove(counterType);
         } else {
@@ -302,6 +303,12 @@ public abstract class GameEntity extends GameObject implements IIdentifiable {
 
     abstract public void setCounters(final Map<CounterType, Integer> allCounters);
 
+    protected void updateLayerEpoch() {
+        if (getGame() != null) {
+            getGame().updateLayerEpoch();
+        }
+    }
+
     abstract public boolean canReceiveCounters(final CounterType type);
     abstract public void subtractCounter(final CounterType counterName, final int n, final Player remover);
     abstract public void clearCounters();
@@ -69,6 +69,17 @@ public class GameLog extends Observable implements Serializable {
      * @param logLevel the log level
      * @return the log text
      */
+    public int size() {
+        return log.size();
+    }
+
+    /**
+     * @return the entries from this index on, oldest first
+     */
+    public List<GameLogEntry> getLogEntriesFrom(final int index) {
+        return log.subList(index, log.size());
+    }
+
     public List<GameLogEntry> getLogEntries(final GameLogEntryType logLevel) { // null to fetch all
         final List<GameLogEntry> result = new ArrayList<>();
     
@@ -21,6 +21,7 @@ import forge.game.zone.MagicStack;
 import forge.trackable.TrackableCollection;
 import forge.trackable.TrackableObject;
 import forge.trackable.TrackableProperty;
+import forge.trackable.Tracker;
 import forge.util.collect.FCollectionView;
 
 public class GameView extends TrackableObject {
@@ -46,6 +47,12 @@ public class GameView extends TrackableObject {
         set(TrackableProperty.NumPlayedGamesInMatch, game.getMatch().getOutcomes().size());
     }
 
+    public GameView(final int id0, final Tracker tracker) {
+        super(id0, tracker);
+        match = null;
+        game = null;
+    }
+
     public Match getMatch() {
         return match;
     }
@@ -76,6 +76,21 @@ public class Match {
     }
 
     public void startGame(final Game game, Runnable startGameHook) {
+        // code that has no game at hand gets its random numbers from the one being played on this thread
+        final Random previousRandom = MyRandom.getThreadRandom();
+        MyRandom.setThreadRandom(game.getRandom());
+        try {
+            playGame(game, startGameHook);
+        } finally {
+            MyRandom.setThreadRandom(previousRandom);
+        }
+
+        //run GC after game is finished
+        System.gc();
+    }
+
+    private void playGame(final Game game, Runnable startGameHook) {
+        game.getGameLog().add(GameLogEntryType.INFORMATION, "Random seed: " + game.getSeed());
         prepareAllZones(game);
         if (rules.useAnte()) {  // Deciding which cards go to ante
             Multimap<Player, Card> list = game.chooseCardsForAnte(rules.getMatchAnteRarity());
@@ -97,9 +112,6 @@ public class Match {
 
         // will pull UI dialog, when the UI is listening
         game.fireEvent(new GameEventGameFinished());
-
-        //run GC after game is finished
-        System.gc();
     }
 
     public GameOutcome getOutcomeById(int id) {
@@ -17,15 +17,20 @@
  */
 package forge.game;
 
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 import forge.game.card.Card;
+import forge.game.keyword.KeywordInterface;
 import forge.game.staticability.StaticAbility;
+import forge.util.Visitor;
 
 /**
  * <p>
@@ -42,6 +47,82 @@ public class StaticEffects {
     //Global rule changes
     private final Set<GlobalRuleChange> ruleChanges = EnumSet.noneOf(GlobalRuleChange.class);
 
+    // **************** Layer invalidation **************************
+    // set whenever something happened that might change the result of the continuous layers,
+    // cleared once they were applied again from the real game state
+    private boolean layersDirty = true;
+    private boolean trackingLayers = true;
+    private int layerMismatches = 0;
+    private int skippedRebuilds = 0;
+
+    /**
+     * Mark the continuous layers as outdated, the next
+     * {@link GameAction#checkStaticAbilities()} will fully rebuild them.
+     */
+    public final void invalidateLayers() {
+        if (trackingLayers) {
+            layersDirty = true;
+        }
+    }
+
+    public final boolean areLayersDirty() {
+        return layersDirty;
+    }
+
+    public final void setLayersApplied() {
+        layersDirty = false;
+    }
+
+    /**
+     * Changes done while not tracking don't invalidate the layers,
+     * used for the events fired by applying the layers itself.
+     */
+    public final void setTrackingLayers(final boolean tracking) {
+        trackingLayers = tracking;
+    }
+
+    public final int getLayerMismatches() {
+        return layerMismatches;
+    }
+
+    public final void addLayerMismatch() {
+        layerMismatches++;
+    }
+
+    /**
+     * @return how often a rebuild of the layers was skipped, or only done to verify skipping it
+     */
+    public final int getSkippedRebuilds() {
+        return skippedRebuilds;
+    }
+
+    public final void addSkippedRebuild() {
+        skippedRebuilds++;
+    }
+
+    /**
+     * Describe the characteristics the continuous layers can change for every card in the game,
+     * used to cross-check a skipped rebuild against the full one.
+     */
+    public final Map<Integer, String> describeLayerResults(final Game game) {
+        final Map<Integer, String> result = Maps.newHashMap();
+        game.forEachCardInGame(new Visitor<Card>() {
+            @Override
+            public boolean visit(final Card c) {
+                List<String> keywords = Lists.newArrayList();
+                for (KeywordInterface ki : c.getKeywords()) {
+                    keywords.add(ki.getOriginal());
+                }
+                Collections.sort(keywords);
+                result.put(c.getId(), c.getNetPower() + "/" + c.getNetToughness() + " " + c.getType() + " " + c.getColor()
+                        + " " + c.getController() + " " + keywords + " " + c.getStaticAbilities().size());
+                return true;
+            }
+        }, true);
+        result.put(-1, ruleChanges.toString());
+        return result;
+    }
+
     public final void clearStaticEffects(final Set<Card> affectedCards) {
         ruleChanges.clear();
 
@@ -43,6 +43,13 @@ public abstract class TriggerReplacementBase extends CardTraitBase implements II
         }
     }
 
+    @Override
+    protected void copyHelper(CardTraitBase copy, Card host, boolean keepTextChanges) {
+        // the clone still shares the overriding ability, which must not be changed with the copy
+        ((TriggerReplacementBase) copy).overridingAbility = null;
+        super.copyHelper(copy, host, keepTextChanges);
+    }
+
     public Set<ZoneType> getActiveZone() {
         return validHostZones;
     }
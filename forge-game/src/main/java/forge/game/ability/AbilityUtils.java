@@ -462,15 +462,15 @@ public class AbilityUtils {
         }
 
         // Parse Object$Property string
-        final String[] calcX = svarval.split("\\$", 2);
+        final CountExpression parsed = CountExpression.of(svarval);
 
         // Incorrect parses mean zero.
-        if (calcX.length == 1 || calcX[1].equals("none")) {
+        if (parsed.getBody() == null) {
             return 0;
         }
 
         // modify amount string for text changes
-        calcX[1] = applyAbilityTextChangeEffects(calcX[1], ability);
+        final String[] calcX = { parsed.getSource(), applyAbilityTextChangeEffects(parsed.getBody(), ability) };
 
         ability = adjustTriggerContext(calcX, ability);
 
@@ -480,9 +480,8 @@ public class AbilityUtils {
         } else if (calcX[0].startsWith("Number")) {
             val = xCount(card, svarval, ability);
         } else if (calcX[0].startsWith("SVar")) {
-            final String[] l = calcX[1].split("/");
-            final String m = CardFactoryUtil.extractOperators(calcX[1]);
-            val = doXMath(calculateAmount(card, l[0], ability), m, card, ability);
+            final CountExpression svar = CountExpression.of(calcX[1]);
+            val = doXMath(calculateAmount(card, svar.getHead(), ability), svar.getOperators(), card, ability);
         } else if (calcX[0].startsWith("PlayerCount")) {
             final String hType = calcX[0].substring(11);
             final FCollection<Player> players = new FCollection<>();
@@ -667,9 +666,8 @@ public class AbilityUtils {
                 // TriggerCount is similar to a regular Count, but just
                 // pulls Integer Values from Trigger objects
                 final SpellAbility root = sa.getRootAbility();
-                final String[] l = calcX[1].split("/");
-                final String m = CardFactoryUtil.extractOperators(calcX[1]);
-                final Object to = root.getTriggeringObject(AbilityKey.fromString(l[0]));
+                final CountExpression triggerCount = CountExpression.of(calcX[1]);
+                final Object to = root.getTriggeringObject(AbilityKey.fromString(triggerCount.getHead()));
                 Integer count = null;
                 if (to instanceof Iterable<?>) {
                     @SuppressWarnings("unchecked")
@@ -683,17 +681,16 @@ public class AbilityUtils {
                     count = (Integer) to;
                 }
 
-                val = doXMath(ObjectUtils.firstNonNull(count, 0), m, card, ability);
+                val = doXMath(ObjectUtils.firstNonNull(count, 0), triggerCount.getOperators(), card, ability);
             }
             else if (calcX[0].startsWith("ReplaceCount")) {
                 // ReplaceCount is similar to a regular Count, but just
                 // pulls Integer Values from Replacement objects
                 final SpellAbility root = sa.getRootAbility();
-                final String[] l = calcX[1].split("/");
-                final String m = CardFactoryUtil.extractOperators(calcX[1]);
-                final Integer count = (Integer) root.getReplacingObject(AbilityKey.fromString(l[0]));
+                final CountExpression replaceCount = CountExpression.of(calcX[1]);
+                final Integer count = (Integer) root.getReplacingObject(AbilityKey.fromString(replaceCount.getHead()));
 
-                val = doXMath(ObjectUtils.firstNonNull(count, 0), m, card, ability);
+                val = doXMath(ObjectUtils.firstNonNull(count, 0), replaceCount.getOperators(), card, ability);
             } else { // these ones only for handling lists
                 Iterable<Card> list = null;
                 if (calcX[0].startsWith("Targeted")) {
@@ -1546,9 +1543,8 @@ public class AbilityUtils {
      * @return a int.
      */
     public static int xCount(Card c, final String s, final CardTraitBase ctb) {
-        final String s2 = applyAbilityTextChangeEffects(s, ctb);
-        final String[] l = s2.split("/");
-        final String expr = CardFactoryUtil.extractOperators(s2);
+        CountExpression parsed = CountExpression.of(applyAbilityTextChangeEffects(s, ctb));
+        final String expr = parsed.getOperators();
 
         Player player = null;
         if (ctb != null) {
@@ -1561,321 +1557,29 @@ public class AbilityUtils {
         }
 
         // accept straight numbers
-        if (l[0].startsWith("Number$")) {
-            final String number = l[0].substring(7);
-            return doXMath(Integer.parseInt(number), expr, c, ctb);
+        if (parsed.isNumber()) {
+            return doXMath(parsed.getNumber(), expr, c, ctb);
         }
 
-        if (l[0].startsWith("Count$")) {
-            l[0] = l[0].substring(6);
-        }
+        parsed = parsed.withoutCountPrefix();
 
-        if (l[0].startsWith("SVar$")) {
-            String n = l[0].substring(5);
+        if (parsed.getSVarName() != null) {
+            String n = parsed.getSVarName();
             String v = ctb == null ? c.getSVar(n) : ctb.getSVar(n);
             return doXMath(xCount(c, v, ctb), expr, c, ctb);
         }
 
-        final String[] sq;
-        sq = l[0].split("\\.");
+        final String[] sq = parsed.getParts();
 
         final Game game = c.getGame();
 
+        // the checks are split into several methods, as the JIT doesn't compile one as long as all of them together
         if (ctb != null) {
-            // Count$Compare <int comparator value>.<True>.<False>
-            if (sq[0].startsWith("Compare")) {
-                final String[] compString = sq[0].split(" ");
-                final int lhs = calculateAmount(c, compString[1], ctb);
-                final int rhs =  calculateAmount(c, compString[2].substring(2), ctb);
-                boolean v = Expressions.compare(lhs, compString[2], rhs);
-                return doXMath(calculateAmount(c, sq[v ? 1 : 2], ctb), expr, c, ctb);
-            }
-
-            if (ctb instanceof SpellAbility) {
-                final SpellAbility sa = (SpellAbility) ctb;
-
-                // special logic for xPaid in SpellAbility
-                if (sq[0].contains("xPaid")) {
-                    SpellAbility root = sa.getRootAbility();
-
-                    // 107.3i If an object gains an ability, the value of X within that ability is the value defined by that ability,
-                    // or 0 if that ability doesn't define a value of X. This is an exception to rule 107.3h. This may occur with ability-adding effects, text-changing effects, or copy effects.
-                    if (root.getXManaCostPaid() != null) {
-                        return doXMath(root.getXManaCostPaid(), expr, c, ctb);
-                    }
-
-                    // If the chosen creature has X in its mana cost, that X is considered to be 0.
-                    // The value of X in Altered Ego’s last ability will be whatever value was chosen for X while casting Altered Ego.
-                    if (sa.isCopiedTrait() && !sa.getHostCard().equals(c)) {
-                        return doXMath(0, expr, c, ctb);
-                    }
-
-                    if (root.isTrigger()) {
-                        Trigger t = root.getTrigger();
-
-                        // ImmediateTrigger should check for the Ability which created the trigger
-                        if (t.getSpawningAbility() != null) {
-                            root = t.getSpawningAbility().getRootAbility();
-                            return doXMath(root.getXManaCostPaid() == null ? 0 : root.getXManaCostPaid(), expr, c, ctb);
-                        }
-
-                        // 107.3k If an object’s enters-the-battlefield triggered ability or replacement effect refers to X,
-                        // and the spell that became that object as it resolved had a value of X chosen for any of its costs,
-                        // the value of X for that ability is the same as the value of X for that spell, although the value of X for that permanent is 0.
-                        if (TriggerType.ChangesZone.equals(t.getMode()) && ZoneType.Battlefield.name().equals(t.getParam("Destination"))) {
-                           return doXMath(c.getXManaCostPaid(), expr, c, ctb);
-                        } else if (TriggerType.SpellCast.equals(t.getMode())) {
-                            // Cast Trigger like Hydroid Krasis
-                            SpellAbilityStackInstance castSI = (SpellAbilityStackInstance) root.getTriggeringObject(AbilityKey.StackInstance);
-                            if (castSI == null || castSI.getSpellAbility().getXManaCostPaid() == null) {
-                                return doXMath(0, expr, c, ctb);
-                            }
-                            return doXMath(castSI.getSpellAbility().getXManaCostPaid(), expr, c, ctb);
-                        } else if (TriggerType.Cycled.equals(t.getMode())) {
-                            SpellAbility cycleSA = (SpellAbility) sa.getTriggeringObject(AbilityKey.Cause);
-                            if (cycleSA == null || cycleSA.getXManaCostPaid() == null) {
-                                return doXMath(0, expr, c, ctb);
-                            }
-                            return doXMath(cycleSA.getXManaCostPaid(), expr, c, ctb);
-                        } else if (TriggerType.TurnFaceUp.equals(t.getMode())) {
-                            SpellAbility turnupSA = (SpellAbility) sa.getTriggeringObject(AbilityKey.Cause);
-                            if (turnupSA == null || turnupSA.getXManaCostPaid() == null) {
-                                return doXMath(0, expr, c, ctb);
-                            }
-                            return doXMath(turnupSA.getXManaCostPaid(), expr, c, ctb);
-                        }
-                    }
-
-                    if (root.isReplacementAbility() && sa.hasParam("ETB")) {
-                        return doXMath(c.getXManaCostPaid(), expr, c, ctb);
-                    }
-
-                    return doXMath(0, expr, c, ctb);
-                }
-
-                // Count$Kicked.<numHB>.<numNotHB>
-                if (sq[0].startsWith("Kicked")) {
-                    boolean kicked = sa.isKicked() || (!isUnlinkedFromCastSA(ctb, c) && c.getKickerMagnitude() > 0);
-                    return doXMath(Integer.parseInt(kicked ? sq[1] : sq[2]), expr, c, ctb);
-                }
-
-                if (sq[0].startsWith("Bargain")) {
-                    return doXMath(calculateAmount(c, sq[sa.isBargained() ? 1 : 2], ctb), expr, c, ctb);
-                }
-
-                // Count$Madness.<True>.<False>
-                if (sq[0].startsWith("Madness")) {
-                    return doXMath(calculateAmount(c, sq[sa.isMadness() ? 1 : 2], ctb), expr, c, ctb);
-                }
-
-                //Count$HasNumChosenColors.<DefinedCards related to spellability>
-                if (sq[0].contains("HasNumChosenColors")) {
-                    int sum = 0;
-                    for (Card card : getDefinedCards(c, sq[1], sa)) {
-                        sum += card.getColor().getSharedColors(ColorSet.fromNames(c.getChosenColors())).countColors();
-                    }
-                    return sum;
-                }
-                if (sq[0].startsWith("TriggerRememberAmount")) {
-                    SpellAbility root = sa.getRootAbility();
-                    int count = 0;
-                    for (final Object o : root.getTriggerRemembered()) {
-                        if (o instanceof Integer) {
-                            count += (Integer) o;
-                        }
-                    }
-                    return count;
-                }
-                // Count$TriggeredManaCostDevotion.<Color>
-                if (sq[0].startsWith("TriggeredManaCostDevotion")) {
-                    final SpellAbility root = sa.getRootAbility();
-                    Card triggeringObject = (Card) root.getTriggeringObject(AbilityKey.Card);
-                    int count = 0;
-                    byte colorCode = ManaAtom.fromName(sq[1]);
-                    for (ManaCostShard sh : triggeringObject.getManaCost()) {
-                        if (sh.isColor(colorCode)) {
-                            count++;
-                        }
-                    }
-                    return count;
-                }
-                // Count$TriggeredPayingMana.<Color1>.<Color2>
-                if (sq[0].startsWith("TriggeredPayingMana")) {
-                    final SpellAbility root = sa.getRootAbility();
-                    String mana = (String) root.getTriggeringObject(AbilityKey.PayingMana);
-                    int count = 0;
-                    Matcher mat = Pattern.compile(StringUtils.join(sq, "|", 1, sq.length)).matcher(mana);
-                    while (mat.find()) {
-                        count++;
-                    }
-                    return count;
-                }
-                // Count$ManaProduced
-                if (sq[0].startsWith("AmountManaProduced")) {
-                    final SpellAbility root = sa.getRootAbility();
-                    int amount = 0;
-                    if (root != null) {
-                        for (AbilityManaPart amp : root.getAllManaParts()) {
-                            amount = amount + amp.getLastManaProduced().size();
-                        }
-                    }
-                    return doXMath(amount, expr, c, ctb);
-                }
-                // Count$NumTimesChoseMode
-                if (sq[0].startsWith("NumTimesChoseMode")) {
-                    SpellAbility sub = sa.getRootAbility();
-                    int amount = 0;
-                    while (sub != null) {
-                        if (sub.getDirectSVars().containsKey("CharmOrder")) amount++;
-                        sub = sub.getSubAbility();
-                    }
-                    return doXMath(amount, expr, c, ctb);
-                }
-                // Count$ManaColorsPaid
-                if (sq[0].equals("ManaColorsPaid")) {
-                    final SpellAbility root = sa.getRootAbility();
-                    return doXMath(root == null ? 0 : root.getPayingColors().countColors(), expr, c, ctb);
-                }
-
-                // Count$Adamant.<Color>.<True>.<False>
-                if (sq[0].startsWith("Adamant")) {
-                    final String payingMana = StringUtils.join(sa.getRootAbility().getPayingMana());
-                    final int num = sq[0].length() > 7 ? Integer.parseInt(sq[0].split("_")[1]) : 3;
-                    final boolean adamant = StringUtils.countMatches(payingMana, MagicColor.toShortString(sq[1])) >= num;
-                    return doXMath(calculateAmount(c,sq[adamant ? 2 : 3], ctb), expr, c, ctb);
-                }
-
-                if (sq[0].startsWith("LastStateBattlefield")) {
-                    final String[] k = l[0].split(" ");
-                    CardCollectionView list;
-                    // this is only for spells that were cast
-                    if (sq[0].contains("WithFallback")) {
-                        if (!sa.getHostCard().wasCast()) {
-                            return doXMath(0, expr, c, ctb);
-                        }
-                        list = sa.getHostCard().getCastSA().getLastStateBattlefield();
-                    } else {
-                        list = sa.getLastStateBattlefield();
-                    }
-                    if (list == null || list.isEmpty()) {
-                        // LastState is Empty
-                        if (sq[0].contains("WithFallback")) {
-                            list = game.getCardsIn(ZoneType.Battlefield);
-                        } else {
-                            return doXMath(0, expr, c, ctb);
-                        }
-                    }
-                    list = CardLists.getValidCards(list, k[1], player, c, sa);
-                    return doXMath(list.size(), expr, c, ctb);
-                }
-
-                if (sq[0].startsWith("LastStateGraveyard")) {
-                    final String[] k = l[0].split(" ");
-                    CardCollectionView list;
-                    // this is only for spells that were cast
-                    if (sq[0].contains("WithFallback")) {
-                        if (!sa.getHostCard().wasCast()) {
-                            return doXMath(0, expr, c, ctb);
-                        }
-                        list = sa.getHostCard().getCastSA().getLastStateGraveyard();
-                    } else {
-                        list = sa.getLastStateGraveyard();
-                    }
-                    if (sa.getLastStateGraveyard() == null || list.isEmpty()) {
-                        // LastState is Empty
-                        if (sq[0].contains("WithFallback")) {
-                            list = game.getCardsIn(ZoneType.Graveyard);
-                        } else {
-                            return doXMath(0, expr, c, ctb);
-                        }
-                    }
-                    list = CardLists.getValidCards(list, k[1], player, c, sa);
-                    return doXMath(list.size(), expr, c, ctb);
-                }
-
-                if (sq[0].equals("ResolvedThisTurn")) {
-                    return doXMath(sa.getResolvedThisTurn(), expr, c, ctb);
-                }
-
-                if (sq[0].startsWith("TotalManaSpent ")) {
-                    final String[] k = sq[0].split(" ");
-                    int v = 0;
-                    if (sa.getRootAbility().getPayingMana() != null) {
-                        for (Mana m : sa.getRootAbility().getPayingMana()) {
-                            Card source = m.getSourceCard();
-                            if (source != null) {
-                                if (source.isValid(k[1].split(","), player, c, sa)) {
-                                    v += 1;
-                                }
-                            }
-                        }
-                    }
-                    return doXMath(v, expr, c, ctb);
-                }
-            } else {
-                // fallback if ctb isn't a spellability
-                if (sq[0].startsWith("LastStateBattlefield")) {
-                    final String[] k = l[0].split(" ");
-                    CardCollectionView list = game.getLastStateBattlefield();
-                    list = CardLists.getValidCards(list, k[1], player, c, ctb);
-                    return doXMath(list.size(), expr, c, ctb);
-                }
-
-                if (sq[0].startsWith("LastStateGraveyard")) {
-                    final String[] k = l[0].split(" ");
-                    CardCollectionView list = game.getLastStateGraveyard();
-                    list = CardLists.getValidCards(list, k[1], player, c, ctb);
-                    return doXMath(list.size(), expr, c, ctb);
-                }
-
-                if (sq[0].startsWith("xPaid")) {
-                    return doXMath(c.getXManaCostPaid(), expr, c, ctb);
-                }
-
-            } // end SpellAbility
-
-            if (sq[0].equals("CastTotalManaSpent")) {
-                return doXMath(c.getCastSA() != null ? c.getCastSA().getTotalManaSpent() : 0, expr, c, ctb);
-            }
-            if (sq[0].startsWith("CastTotalManaSpent ")) {
-                final String[] k = sq[0].split(" ");
-                int v = 0;
-                if (c.getCastSA() != null) {
-                    for (Mana m : c.getCastSA().getPayingMana()) {
-                        Card source = m.getSourceCard();
-                        if (source != null) {
-                            if (source.isValid(k[1].split(","), player, c, ctb)) {
-                                v += 1;
-                            }
-                        }
-                    }
-                }
-                return doXMath(v, expr, c, ctb);
-            }
-
-            // Count$DevotionDual.<color name>.<color name>
-            // Count$Devotion.<color name>
-            if (sq[0].contains("Devotion")) {
-                int colorOccurrences = 0;
-                String colorName = sq[1];
-                if (colorName.contains("Chosen")) {
-                    colorName = MagicColor.toShortString(c.getChosenColor());
-                }
-                byte colorCode = ManaAtom.fromName(colorName);
-                if (sq[0].equals("DevotionDual")) {
-                    colorCode |= ManaAtom.fromName(sq[2]);
-                }
-                for (Card c0 : player.getCardsIn(ZoneType.Battlefield)) {
-                    for (ManaCostShard sh : c0.getManaCost()) {
-                        if (sh.isColor(colorCode)) {
-                            colorOccurrences++;
-                        }
-                    }
-                    colorOccurrences += c0.getAmountOfKeyword("Your devotion to each color and each combination of colors is increased by one.");
-                }
-                return doXMath(colorOccurrences, expr, c, ctb);
+            final Integer result = xCountTrait(c, parsed, ctb, player, game);
+            if (result != null) {
+                return result;
             }
-        } // end ctb != null
+        }
 
         //Count$SearchedLibrary.<DefinedPlayer>
         if (sq[0].contains("SearchedLibrary")) {
@@ -1886,12 +1590,12 @@ public class AbilityUtils {
             return doXMath(sum, expr, c, ctb);
         }
 
-        String[] paidparts = l[0].split("\\$", 2);
+        final String[] paidparts = parsed.getPaidParts();
         Iterable<Card> someCards = null;
 
         // count valid cards in any specified zone/s
         if (sq[0].startsWith("Valid")) {
-            String[] lparts = paidparts[0].split(" ", 2);
+            final String[] lparts = parsed.getValidParts();
 
             CardCollectionView cardsInZones = null;
             if (lparts[0].contains("All")) {
@@ -1971,8 +1675,374 @@ public class AbilityUtils {
             c = game.getChangeZoneLKIInfo(c);
         }
 
-        ////////////////////
-        // card info
+        // the card, player and game info only depends on the count itself, so once none of it matched
+        // it's counted from a list of cards right away
+        if (!parsed.isCountedFromList()) {
+            Integer result = xCountCard(c, parsed, ctb, player, game);
+            if (result == null) {
+                result = xCountPlayer(c, parsed, ctb, player, game);
+            }
+            if (result == null) {
+                result = xCountGame(c, parsed, ctb, player, game);
+            }
+            if (result != null) {
+                return result;
+            }
+            parsed.setCountedFromList();
+        }
+
+        // Count$ThisTurnCast <Valid>
+        // Count$LastTurnCast <Valid>
+        // Count$CastSinceBeginningOfYourLastTurn_<Valid>
+        if (sq[0].startsWith("ThisTurnCast") || sq[0].startsWith("LastTurnCast") 
+            || sq[0].startsWith("CastSince")) {
+            final String[] workingCopy = paidparts[0].split("_");
+            final String validFilter = workingCopy[1];
+
+            if (workingCopy[0].contains("This")) {
+                someCards = CardUtil.getThisTurnCast(validFilter, c, ctb, player);
+            } else if (workingCopy[0].contains("SinceBeginningOfYourLastTurn")) {
+                someCards = CardUtil.getCastSinceBeginningOfYourLastTurn(validFilter, c, ctb, player);
+            } else {
+                someCards = CardUtil.getLastTurnCast(validFilter, c, ctb, player);
+            }
+        }
+
+        // Count$ThisTurnEntered <ZoneDestination> [from <ZoneOrigin>] <Valid>
+        if (sq[0].startsWith("ThisTurnEntered") || sq[0].startsWith("LastTurnEntered")) {
+            final String[] workingCopy = paidparts[0].split("_", 5);
+            ZoneType destination = ZoneType.smartValueOf(workingCopy[1]);
+            final boolean hasFrom = workingCopy[2].equals("from");
+            ZoneType origin = hasFrom ? ZoneType.smartValueOf(workingCopy[3]) : null;
+            String validFilter = workingCopy[hasFrom ? 4 : 2];
+
+            if (workingCopy[0].contains("This")) {
+                someCards = CardUtil.getThisTurnEntered(destination, origin, validFilter, c, ctb, player);
+            } else {
+                someCards = CardUtil.getLastTurnEntered(destination, origin, validFilter, c, ctb, player);
+            }
+        }
+
+        // Complex counting methods
+        Integer num = null;
+        if (someCards == null) {
+            someCards = getCardListForXCount(c, player, sq, ctb);
+        } else if (paidparts.length > 1) {
+            num = handlePaid(someCards, paidparts[1], c, ctb);
+        }
+        if (num == null) {
+            num = Iterables.size(someCards);
+        }
+
+        return doXMath(num, expr, c, ctb);
+    }
+
+    // counts that need to know the ability
+    private static Integer xCountTrait(final Card c, final CountExpression parsed, final CardTraitBase ctb, final Player player, final Game game) {
+        final String[] sq = parsed.getParts();
+        final String expr = parsed.getOperators();
+
+        // Count$Compare <int comparator value>.<True>.<False>
+        if (sq[0].startsWith("Compare")) {
+            final String[] compString = sq[0].split(" ");
+            final int lhs = calculateAmount(c, compString[1], ctb);
+            final int rhs =  calculateAmount(c, compString[2].substring(2), ctb);
+            boolean v = Expressions.compare(lhs, compString[2], rhs);
+            return doXMath(calculateAmount(c, sq[v ? 1 : 2], ctb), expr, c, ctb);
+        }
+
+        if (ctb instanceof SpellAbility) {
+            final SpellAbility sa = (SpellAbility) ctb;
+
+            // special logic for xPaid in SpellAbility
+            if (sq[0].contains("xPaid")) {
+                SpellAbility root = sa.getRootAbility();
+
+                // 107.3i If an object gains an ability, the value of X within that ability is the value defined by that ability,
+                // or 0 if that ability doesn't define a value of X. This is an exception to rule 107.3h. This may occur with ability-adding effects, text-changing effects, or copy effects.
+                if (root.getXManaCostPaid() != null) {
+                    return doXMath(root.getXManaCostPaid(), expr, c, ctb);
+                }
+
+                // If the chosen creature has X in its mana cost, that X is considered to be 0.
+                // The value of X in Altered Ego’s last ability will be whatever value was chosen for X while casting Altered Ego.
+                if (sa.isCopiedTrait() && !sa.getHostCard().equals(c)) {
+                    return doXMath(0, expr, c, ctb);
+                }
+
+                if (root.isTrigger()) {
+                    Trigger t = root.getTrigger();
+
+                    // ImmediateTrigger should check for the Ability which created the trigger
+                    if (t.getSpawningAbility() != null) {
+                        root = t.getSpawningAbility().getRootAbility();
+                        return doXMath(root.getXManaCostPaid() == null ? 0 : root.getXManaCostPaid(), expr, c, ctb);
+                    }
+
+                    // 107.3k If an object’s enters-the-battlefield triggered ability or replacement effect refers to X,
+                    // and the spell that became that object as it resolved had a value of X chosen for any of its costs,
+                    // the value of X for that ability is the same as the value of X for that spell, although the value of X for that permanent is 0.
+                    if (TriggerType.ChangesZone.equals(t.getMode()) && ZoneType.Battlefield.name().equals(t.getParam("Destination"))) {
+                       return doXMath(c.getXManaCostPaid(), expr, c, ctb);
+                    } else if (TriggerType.SpellCast.equals(t.getMode())) {
+                        // Cast Trigger like Hydroid Krasis
+                        SpellAbilityStackInstance castSI = (SpellAbilityStackInstance) root.getTriggeringObject(AbilityKey.StackInstance);
+                        if (castSI == null || castSI.getSpellAbility().getXManaCostPaid() == null) {
+                            return doXMath(0, expr, c, ctb);
+                        }
+                        return doXMath(castSI.getSpellAbility().getXManaCostPaid(), expr, c, ctb);
+                    } else if (TriggerType.Cycled.equals(t.getMode())) {
+                        SpellAbility cycleSA = (SpellAbility) sa.getTriggeringObject(AbilityKey.Cause);
+                        if (cycleSA == null || cycleSA.getXManaCostPaid() == null) {
+                            return doXMath(0, expr, c, ctb);
+                        }
+                        return doXMath(cycleSA.getXManaCostPaid(), expr, c, ctb);
+                    } else if (TriggerType.TurnFaceUp.equals(t.getMode())) {
+                        SpellAbility turnupSA = (SpellAbility) sa.getTriggeringObject(AbilityKey.Cause);
+                        if (turnupSA == null || turnupSA.getXManaCostPaid() == null) {
+                            return doXMath(0, expr, c, ctb);
+                        }
+                        return doXMath(turnupSA.getXManaCostPaid(), expr, c, ctb);
+                    }
+                }
+
+                if (root.isReplacementAbility() && sa.hasParam("ETB")) {
+                    return doXMath(c.getXManaCostPaid(), expr, c, ctb);
+                }
+
+                return doXMath(0, expr, c, ctb);
+            }
+
+            // Count$Kicked.<numHB>.<numNotHB>
+            if (sq[0].startsWith("Kicked")) {
+                boolean kicked = sa.isKicked() || (!isUnlinkedFromCastSA(ctb, c) && c.getKickerMagnitude() > 0);
+                return doXMath(Integer.parseInt(kicked ? sq[1] : sq[2]), expr, c, ctb);
+            }
+
+            if (sq[0].startsWith("Bargain")) {
+                return doXMath(calculateAmount(c, sq[sa.isBargained() ? 1 : 2], ctb), expr, c, ctb);
+            }
+
+            // Count$Madness.<True>.<False>
+            if (sq[0].startsWith("Madness")) {
+                return doXMath(calculateAmount(c, sq[sa.isMadness() ? 1 : 2], ctb), expr, c, ctb);
+            }
+
+            //Count$HasNumChosenColors.<DefinedCards related to spellability>
+            if (sq[0].contains("HasNumChosenColors")) {
+                int sum = 0;
+                for (Card card : getDefinedCards(c, sq[1], sa)) {
+                    sum += card.getColor().getSharedColors(ColorSet.fromNames(c.getChosenColors())).countColors();
+                }
+                return sum;
+            }
+            if (sq[0].startsWith("TriggerRememberAmount")) {
+                SpellAbility root = sa.getRootAbility();
+                int count = 0;
+                for (final Object o : root.getTriggerRemembered()) {
+                    if (o instanceof Integer) {
+                        count += (Integer) o;
+                    }
+                }
+                return count;
+            }
+            // Count$TriggeredManaCostDevotion.<Color>
+            if (sq[0].startsWith("TriggeredManaCostDevotion")) {
+                final SpellAbility root = sa.getRootAbility();
+                Card triggeringObject = (Card) root.getTriggeringObject(AbilityKey.Card);
+                int count = 0;
+                byte colorCode = ManaAtom.fromName(sq[1]);
+                for (ManaCostShard sh : triggeringObject.getManaCost()) {
+                    if (sh.isColor(colorCode)) {
+                        count++;
+                    }
+                }
+                return count;
+            }
+            // Count$TriggeredPayingMana.<Color1>.<Color2>
+            if (sq[0].startsWith("TriggeredPayingMana")) {
+                final SpellAbility root = sa.getRootAbility();
+                String mana = (String) root.getTriggeringObject(AbilityKey.PayingMana);
+                int count = 0;
+                Matcher mat = Pattern.compile(StringUtils.join(sq, "|", 1, sq.length)).matcher(mana);
+                while (mat.find()) {
+                    count++;
+                }
+                return count;
+            }
+            // Count$ManaProduced
+            if (sq[0].startsWith("AmountManaProduced")) {
+                final SpellAbility root = sa.getRootAbility();
+                int amount = 0;
+                if (root != null) {
+                    for (AbilityManaPart amp : root.getAllManaParts()) {
+                        amount = amount + amp.getLastManaProduced().size();
+                    }
+                }
+                return doXMath(amount, expr, c, ctb);
+            }
+            // Count$NumTimesChoseMode
+            if (sq[0].startsWith("NumTimesChoseMode")) {
+                SpellAbility sub = sa.getRootAbility();
+                int amount = 0;
+                while (sub != null) {
+                    if (sub.getDirectSVars().containsKey("CharmOrder")) amount++;
+                    sub = sub.getSubAbility();
+                }
+                return doXMath(amount, expr, c, ctb);
+            }
+            // Count$ManaColorsPaid
+            if (sq[0].equals("ManaColorsPaid")) {
+                final SpellAbility root = sa.getRootAbility();
+                return doXMath(root == null ? 0 : root.getPayingColors().countColors(), expr, c, ctb);
+            }
+
+            // Count$Adamant.<Color>.<True>.<False>
+            if (sq[0].startsWith("Adamant")) {
+                final String payingMana = StringUtils.join(sa.getRootAbility().getPayingMana());
+                final int num = sq[0].length() > 7 ? Integer.parseInt(sq[0].split("_")[1]) : 3;
+                final boolean adamant = StringUtils.countMatches(payingMana, MagicColor.toShortString(sq[1])) >= num;
+                return doXMath(calculateAmount(c,sq[adamant ? 2 : 3], ctb), expr, c, ctb);
+            }
+
+            if (sq[0].startsWith("LastStateBattlefield")) {
+                final String[] k = parsed.getHead().split(" ");
+                CardCollectionView list;
+                // this is only for spells that were cast
+                if (sq[0].contains("WithFallback")) {
+                    if (!sa.getHostCard().wasCast()) {
+                        return doXMath(0, expr, c, ctb);
+                    }
+                    list = sa.getHostCard().getCastSA().getLastStateBattlefield();
+                } else {
+                    list = sa.getLastStateBattlefield();
+                }
+                if (list == null || list.isEmpty()) {
+                    // LastState is Empty
+                    if (sq[0].contains("WithFallback")) {
+                        list = game.getCardsIn(ZoneType.Battlefield);
+                    } else {
+                        return doXMath(0, expr, c, ctb);
+                    }
+                }
+                list = CardLists.getValidCards(list, k[1], player, c, sa);
+                return doXMath(list.size(), expr, c, ctb);
+            }
+
+            if (sq[0].startsWith("LastStateGraveyard")) {
+                final String[] k = parsed.getHead().split(" ");
+                CardCollectionView list;
+                // this is only for spells that were cast
+                if (sq[0].contains("WithFallback")) {
+                    if (!sa.getHostCard().wasCast()) {
+                        return doXMath(0, expr, c, ctb);
+                    }
+                    list = sa.getHostCard().getCastSA().getLastStateGraveyard();
+                } else {
+                    list = sa.getLastStateGraveyard();
+                }
+                if (sa.getLastStateGraveyard() == null || list.isEmpty()) {
+                    // LastState is Empty
+                    if (sq[0].contains("WithFallback")) {
+                        list = game.getCardsIn(ZoneType.Graveyard);
+                    } else {
+                        return doXMath(0, expr, c, ctb);
+                    }
+                }
+                list = CardLists.getValidCards(list, k[1], player, c, sa);
+                return doXMath(list.size(), expr, c, ctb);
+            }
+
+            if (sq[0].equals("ResolvedThisTurn")) {
+                return doXMath(sa.getResolvedThisTurn(), expr, c, ctb);
+            }
+
+            if (sq[0].startsWith("TotalManaSpent ")) {
+                final String[] k = sq[0].split(" ");
+                int v = 0;
+                if (sa.getRootAbility().getPayingMana() != null) {
+                    for (Mana m : sa.getRootAbility().getPayingMana()) {
+                        Card source = m.getSourceCard();
+                        if (source != null) {
+                            if (source.isValid(k[1].split(","), player, c, sa)) {
+                                v += 1;
+                            }
+                        }
+                    }
+                }
+                return doXMath(v, expr, c, ctb);
+            }
+        } else {
+            // fallback if ctb isn't a spellability
+            if (sq[0].startsWith("LastStateBattlefield")) {
+                final String[] k = parsed.getHead().split(" ");
+                CardCollectionView list = game.getLastStateBattlefield();
+                list = CardLists.getValidCards(list, k[1], player, c, ctb);
+                return doXMath(list.size(), expr, c, ctb);
+            }
+
+            if (sq[0].startsWith("LastStateGraveyard")) {
+                final String[] k = parsed.getHead().split(" ");
+                CardCollectionView list = game.getLastStateGraveyard();
+                list = CardLists.getValidCards(list, k[1], player, c, ctb);
+                return doXMath(list.size(), expr, c, ctb);
+            }
+
+            if (sq[0].startsWith("xPaid")) {
+                return doXMath(c.getXManaCostPaid(), expr, c, ctb);
+            }
+
+        } // end SpellAbility
+
+        if (sq[0].equals("CastTotalManaSpent")) {
+            return doXMath(c.getCastSA() != null ? c.getCastSA().getTotalManaSpent() : 0, expr, c, ctb);
+        }
+        if (sq[0].startsWith("CastTotalManaSpent ")) {
+            final String[] k = sq[0].split(" ");
+            int v = 0;
+            if (c.getCastSA() != null) {
+                for (Mana m : c.getCastSA().getPayingMana()) {
+                    Card source = m.getSourceCard();
+                    if (source != null) {
+                        if (source.isValid(k[1].split(","), player, c, ctb)) {
+                            v += 1;
+                        }
+                    }
+                }
+            }
+            return doXMath(v, expr, c, ctb);
+        }
+
+        // Count$DevotionDual.<color name>.<color name>
+        // Count$Devotion.<color name>
+        if (sq[0].contains("Devotion")) {
+            int colorOccurrences = 0;
+            String colorName = sq[1];
+            if (colorName.contains("Chosen")) {
+                colorName = MagicColor.toShortString(c.getChosenColor());
+            }
+            byte colorCode = ManaAtom.fromName(colorName);
+            if (sq[0].equals("DevotionDual")) {
+                colorCode |= ManaAtom.fromName(sq[2]);
+            }
+            for (Card c0 : player.getCardsIn(ZoneType.Battlefield)) {
+                for (ManaCostShard sh : c0.getManaCost()) {
+                    if (sh.isColor(colorCode)) {
+                        colorOccurrences++;
+                    }
+                }
+                colorOccurrences += c0.getAmountOfKeyword("Your devotion to each color and each combination of colors is increased by one.");
+            }
+            return doXMath(colorOccurrences, expr, c, ctb);
+        }
+
+        return null;
+    }
+
+    // card info
+    private static Integer xCountCard(final Card c, final CountExpression parsed, final CardTraitBase ctb, final Player player, final Game game) {
+        final String[] sq = parsed.getParts();
+        final String expr = parsed.getOperators();
 
         // Count$CardMulticolor.<numMC>.<numNotMC>
         if (sq[0].contains("CardMulticolor")) {
@@ -2057,7 +2127,7 @@ public class AbilityUtils {
         }
 
         if (sq[0].contains("TotalValue")) {
-            return doXMath(c.getKeywordMagnitude(Keyword.smartValueOf(l[0].split(" ")[1])), expr, c, ctb);
+            return doXMath(c.getKeywordMagnitude(Keyword.smartValueOf(parsed.getHead().split(" ")[1])), expr, c, ctb);
         }
         if (sq[0].contains("TimesKicked")) {
             return doXMath(isUnlinkedFromCastSA(ctb, c) ? 0 : c.getKickerMagnitude(), expr, c, ctb);
@@ -2155,7 +2225,7 @@ public class AbilityUtils {
 
         // Count$AttachedTo <restriction>
         if (sq[0].startsWith("AttachedTo")) {
-            final String[] k = l[0].split(" ");
+            final String[] k = parsed.getHead().split(" ");
             int sum = CardLists.getValidCardCount(c.getAttachedCards(), k[1], player, c, ctb);
             return doXMath(sum, expr, c, ctb);
         }
@@ -2184,8 +2254,14 @@ public class AbilityUtils {
             return doXMath(v, expr, c, ctb);
         }
 
-        ////////////////////////
-        // player info
+        return null;
+    }
+
+    // player info
+    private static Integer xCountPlayer(final Card c, final CountExpression parsed, final CardTraitBase ctb, final Player player, final Game game) {
+        final String[] sq = parsed.getParts();
+        final String expr = parsed.getOperators();
+
         if (sq[0].equals("Hellbent")) {
             return doXMath(calculateAmount(c, sq[player.hasHellbent() ? 1 : 2], ctb), expr, c, ctb);
         }
@@ -2273,7 +2349,7 @@ public class AbilityUtils {
             return doXMath(player.getCommanderCast(c), expr, c, ctb);
         }
 
-        if (l[0].startsWith("TotalCommanderCastFromCommandZone")) {
+        if (parsed.getHead().startsWith("TotalCommanderCastFromCommandZone")) {
             return doXMath(player.getTotalCommanderCast(), expr, c, ctb);
         }
 
@@ -2318,7 +2394,7 @@ public class AbilityUtils {
         }
 
         if (sq[0].contains("TotalDamageThisTurn")) {
-            String[] props = l[0].split(" ");
+            String[] props = parsed.getHead().split(" ");
             int sum = 0;
             for (Pair<Integer, Boolean> p : c.getDamageReceivedThisTurn()) {
                 if (game.getDamageLKI(p).getLeft().isValid(props[1], player, c, ctb)) {
@@ -2329,7 +2405,7 @@ public class AbilityUtils {
         }
 
         if (sq[0].contains("DamageThisTurn")) {
-            String[] props = l[0].split(" ");
+            String[] props = parsed.getHead().split(" ");
             Boolean isCombat = null;
             if (sq[0].contains("CombatDamage")) {
                 isCombat = !sq[0].contains("Non");
@@ -2389,7 +2465,7 @@ public class AbilityUtils {
         if (sq[0].startsWith("TypesSharedWith")) {
             Set<CardType.CoreType> thisTypes = Sets.newHashSet(c.getType().getCoreTypes());
             Set<CardType.CoreType> matches = new HashSet<>();
-            for (Card c1 : AbilityUtils.getDefinedCards(ctb.getHostCard(), l[0].split(" ", 2)[1], ctb)) {
+            for (Card c1 : AbilityUtils.getDefinedCards(ctb.getHostCard(), parsed.getHead().split(" ", 2)[1], ctb)) {
                 for (CardType.CoreType type : Sets.newHashSet(c1.getType().getCoreTypes())) {
                     if (thisTypes.contains(type)) {
                         matches.add(type);
@@ -2427,28 +2503,28 @@ public class AbilityUtils {
 
         // Count$CardAttackedThisTurn <Valid>
         if (sq[0].startsWith("CreaturesAttackedThisTurn")) {
-            final String[] workingCopy = l[0].split(" ", 2);
+            final String[] workingCopy = parsed.getHead().split(" ", 2);
             final String validFilter = workingCopy[1];
             return doXMath(CardLists.getValidCardCount(player.getCreaturesAttackedThisTurn(), validFilter, player, c, ctb), expr, c, ctb);
         }
 
         // Count$LeftBattlefieldThisTurn <Valid>
         if (sq[0].startsWith("LeftBattlefieldThisTurn")) {
-            final String[] workingCopy = l[0].split(" ", 2);
+            final String[] workingCopy = parsed.getHead().split(" ", 2);
             final String validFilter = workingCopy[1];
             return doXMath(CardLists.getValidCardCount(game.getLeftBattlefieldThisTurn(), validFilter, player, c, ctb), expr, c, ctb);
         }
 
         // Count$LeftBattlefieldThisTurn <Valid>
         if (sq[0].startsWith("LeftGraveyardThisTurn")) {
-            final String[] workingCopy = l[0].split(" ", 2);
+            final String[] workingCopy = parsed.getHead().split(" ", 2);
             final String validFilter = workingCopy[1];
             return doXMath(CardLists.getValidCardCount(game.getLeftGraveyardThisTurn(), validFilter, player, c, ctb), expr, c, ctb);
         }
 
         // Manapool
         if (sq[0].startsWith("ManaPool")) {
-            final String color = l[0].split(":")[1];
+            final String color = parsed.getHead().split(":")[1];
             int v = 0;
             if (color.equals("All")) {
                 v = player.getManaPool().totalMana();
@@ -2576,8 +2652,14 @@ public class AbilityUtils {
             return doXMath(calculateAmount(c, sq[player.hasUrzaLands() ? 1 : 2], ctb), expr, c, ctb);
         }
 
-        /////////////////
-        //game info
+        return null;
+    }
+
+    // game info
+    private static Integer xCountGame(final Card c, final CountExpression parsed, final CardTraitBase ctb, final Player player, final Game game) {
+        final String[] sq = parsed.getParts();
+        final String expr = parsed.getOperators();
+
         // Count$Morbid.<True>.<False>
         if (sq[0].startsWith("Morbid")) {
             final List<Card> res = CardUtil.getThisTurnEntered(ZoneType.Graveyard, ZoneType.Battlefield, "Creature", c, ctb, player);
@@ -2585,7 +2667,7 @@ public class AbilityUtils {
         }
 
         if (sq[0].startsWith("CreatureType")) {
-            String[] sqparts = l[0].split(" ", 2);
+            String[] sqparts = parsed.getHead().split(" ", 2);
             final String[] rest = sqparts[1].split(",");
 
             final CardCollectionView cardsInZones = sqparts[0].length() > 12
@@ -2629,8 +2711,8 @@ public class AbilityUtils {
             return doXMath(colorOcurrencices, expr, c, ctb);
         }
 
-        if (l[0].contains("ExactManaCost")) {
-            String[] sqparts = l[0].split(" ", 2);
+        if (parsed.getHead().contains("ExactManaCost")) {
+            String[] sqparts = parsed.getHead().split(" ", 2);
             final String[] rest = sqparts[1].split(",");
 
             final CardCollectionView cardsInZones = sqparts[0].length() > 13
@@ -2701,62 +2783,31 @@ public class AbilityUtils {
             int min = calculateAmount(c, sq[1], ctb);
             int max = calculateAmount(c, sq[2], ctb);
 
-            return MyRandom.getRandom().nextInt(1+max-min) + min;
+            return c.getGame().getRandom().nextInt(1+max-min) + min;
         }
 
-        // Count$ThisTurnCast <Valid>
-        // Count$LastTurnCast <Valid>
-        // Count$CastSinceBeginningOfYourLastTurn_<Valid>
-        if (sq[0].startsWith("ThisTurnCast") || sq[0].startsWith("LastTurnCast") 
-            || sq[0].startsWith("CastSince")) {
-            final String[] workingCopy = paidparts[0].split("_");
-            final String validFilter = workingCopy[1];
-
-            if (workingCopy[0].contains("This")) {
-                someCards = CardUtil.getThisTurnCast(validFilter, c, ctb, player);
-            } else if (workingCopy[0].contains("SinceBeginningOfYourLastTurn")) {
-                someCards = CardUtil.getCastSinceBeginningOfYourLastTurn(validFilter, c, ctb, player);
-            } else {
-                someCards = CardUtil.getLastTurnCast(validFilter, c, ctb, player);
-            }
-        }
         if (sq[0].startsWith("ThisTurnActivated")) {
-            final String[] workingCopy = paidparts[0].split("_");
+            final String[] workingCopy = parsed.getPaidParts()[0].split("_");
             final String validFilter = workingCopy[1];
             // use objectXCount ?
             return CardUtil.getThisTurnActivated(validFilter, c, ctb, player).size();
         }
 
-        // Count$ThisTurnEntered <ZoneDestination> [from <ZoneOrigin>] <Valid>
-        if (sq[0].startsWith("ThisTurnEntered") || sq[0].startsWith("LastTurnEntered")) {
-            final String[] workingCopy = paidparts[0].split("_", 5);
-            ZoneType destination = ZoneType.smartValueOf(workingCopy[1]);
-            final boolean hasFrom = workingCopy[2].equals("from");
-            ZoneType origin = hasFrom ? ZoneType.smartValueOf(workingCopy[3]) : null;
-            String validFilter = workingCopy[hasFrom ? 4 : 2];
-
-            if (workingCopy[0].contains("This")) {
-                someCards = CardUtil.getThisTurnEntered(destination, origin, validFilter, c, ctb, player);
-            } else {
-                someCards = CardUtil.getLastTurnEntered(destination, origin, validFilter, c, ctb, player);
-            }
-        }
-
         if (sq[0].startsWith("CountersAddedThisTurn")) {
-            final String[] parts = l[0].split(" ");
+            final String[] parts = parsed.getHead().split(" ");
             CounterType cType = CounterType.getType(parts[1]);
 
             return doXMath(game.getCounterAddedThisTurn(cType, parts[2], parts[3], c, player, ctb), expr, c, ctb);
         }
         if (sq[0].startsWith("CountersRemovedThisTurn")) {
-            final String[] parts = l[0].split(" ");
+            final String[] parts = parsed.getHead().split(" ");
             CounterType cType = CounterType.getType(parts[1]);
 
             return doXMath(game.getCounterRemovedThisTurn(cType, parts[2], c, player, ctb), expr, c, ctb);
         }
 
         if (sq[0].startsWith("MostCardName")) {
-            String[] lparts = l[0].split(" ", 2);
+            String[] lparts = parsed.getHead().split(" ", 2);
             final String[] rest = lparts[1].split(",");
 
             final CardCollectionView cardsInZones = lparts[0].length() > 12
@@ -2782,7 +2833,7 @@ public class AbilityUtils {
 
         if (sq[0].startsWith("DifferentCardNames_")) {
             final List<String> crdname = Lists.newArrayList();
-            final String restriction = l[0].substring(19);
+            final String restriction = parsed.getHead().substring(19);
             CardCollection list = CardLists.getValidCards(game.getCardsInGame(), restriction, player, c, ctb);
             // TODO rewrite with sharesName to respect Spy Kit
             for (final Card card : list) {
@@ -2796,45 +2847,45 @@ public class AbilityUtils {
         }
 
         if (sq[0].startsWith("MostProminentCreatureType")) {
-            String restriction = l[0].split(" ")[1];
+            String restriction = parsed.getHead().split(" ")[1];
             CardCollection list = CardLists.getValidCards(game.getCardsIn(ZoneType.Battlefield), restriction, player, c, ctb);
             return doXMath(CardFactoryUtil.getMostProminentCreatureTypeSize(list), expr, c, ctb);
         }
 
         if (sq[0].startsWith("SecondMostProminentColor")) {
-            String restriction = l[0].split(" ")[1];
+            String restriction = parsed.getHead().split(" ")[1];
             CardCollection list = CardLists.getValidCards(game.getCardsIn(ZoneType.Battlefield), restriction, player, c, ctb);
             int[] colorSize = CardFactoryUtil.SortColorsFromList(list);
             return doXMath(colorSize[colorSize.length - 2], expr, c, ctb);
         }
 
         if (sq[0].startsWith("ColorsCtrl")) {
-            final String restriction = l[0].substring(11);
+            final String restriction = parsed.getHead().substring(11);
             final CardCollection list = CardLists.getValidCards(player.getCardsIn(ZoneType.Battlefield), restriction, player, c, ctb);
             return doXMath(CardUtil.getColorsFromCards(list).countColors(), expr, c, ctb);
         }
 
         if (sq[0].startsWith("ColorsDefined")) {
-            final String restriction = l[0].substring(14);
+            final String restriction = parsed.getHead().substring(14);
             final CardCollection list = getDefinedCards(c, restriction, ctb);
             return doXMath(CardUtil.getColorsFromCards(list).countColors(), expr, c, ctb);
         }
 
         // TODO move below to handlePaid
         if (sq[0].startsWith("SumPower")) {
-            final String[] restrictions = l[0].split("_");
+            final String[] restrictions = parsed.getHead().split("_");
             CardCollection filteredCards = CardLists.getValidCards(game.getCardsIn(ZoneType.Battlefield), restrictions[1], player, c, ctb);
             return doXMath(Aggregates.sum(filteredCards, CardPredicates.Accessors.fnGetNetPower), expr, c, ctb);
         }
         if (sq[0].startsWith("DifferentPower_")) {
-            final String restriction = l[0].substring(15);
+            final String restriction = parsed.getHead().substring(15);
             CardCollection list = CardLists.getValidCards(game.getCardsIn(ZoneType.Battlefield), restriction, player, c, ctb);
             final Iterable<Card> powers = Aggregates.uniqueByLast(list, CardPredicates.Accessors.fnGetNetPower);
             return doXMath(Iterables.size(powers), expr, c, ctb);
         }
         if (sq[0].startsWith("DifferentCounterKinds_")) {
             final Set<CounterType> kinds = Sets.newHashSet();
-            final String rest = l[0].substring(22);
+            final String rest = parsed.getHead().substring(22);
             CardCollection list = CardLists.getValidCards(game.getCardsIn(ZoneType.Battlefield), rest, player, c, ctb);
             for (final Card card : list) {
                 kinds.addAll(card.getCounters().keySet());
@@ -2842,18 +2893,7 @@ public class AbilityUtils {
             return doXMath(kinds.size(), expr, c, ctb);
         }
 
-        // Complex counting methods
-        Integer num = null;
-        if (someCards == null) {
-            someCards = getCardListForXCount(c, player, sq, ctb);
-        } else if (paidparts.length > 1) {
-            num = handlePaid(someCards, paidparts[1], c, ctb);
-        }
-        if (num == null) {
-            num = Iterables.size(someCards);
-        }
-
-        return doXMath(num, expr, c, ctb);
+        return null;
     }
 
     public static final void applyManaColorConversion(ManaConversionMatrix matrix, String conversion) {
@@ -3149,70 +3189,10 @@ public class AbilityUtils {
     }
 
     public static int doXMath(final int num, final String operators, final Card c, CardTraitBase ctb) {
-        if (operators == null || operators.equals("none")) {
-            return num;
-        }
-
-        final String[] s = operators.split("\\.");
-        int secondaryNum = 0;
-
-        try {
-            if (s.length == 2) {
-                secondaryNum = Integer.parseInt(s[1]);
-            }
-        } catch (final Exception e) {
-            secondaryNum = calculateAmount(c, s[1], ctb);
-        }
-
-        if (s[0].contains("Plus")) {
-            return num + secondaryNum;
-        } else if (s[0].contains("NMinus")) {
-            return secondaryNum - num;
-        } else if (s[0].contains("Minus")) {
-            return num - secondaryNum;
-        } else if (s[0].contains("Twice")) {
-            return num * 2;
-        } else if (s[0].contains("Thrice")) {
-            return num * 3;
-        } else if (s[0].contains("HalfUp")) {
-            return (int) (Math.ceil(num / 2.0));
-        } else if (s[0].contains("HalfDown")) {
-            return (int) (Math.floor(num / 2.0));
-        } else if (s[0].contains("ThirdUp")) {
-            return (int) (Math.ceil(num / 3.0));
-        } else if (s[0].contains("ThirdDown")) {
-            return (int) (Math.floor(num / 3.0));
-        } else if (s[0].contains("Negative")) {
-            return num * -1;
-        } else if (s[0].contains("Times")) {
-            return num * secondaryNum;
-        } else if (s[0].contains("DivideEvenlyUp")) {
-            if (secondaryNum == 0) {
-                return 0;
-            }
-            return num / secondaryNum + (num % secondaryNum == 0 ? 0 : 1);
-        } else if (s[0].contains("DivideEvenlyDown")) {
-            if (secondaryNum == 0) {
-                return 0;
-            }
-            return num / secondaryNum;
-        } else if (s[0].contains("Mod")) {
-            return num % secondaryNum;
-        } else if (s[0].contains("Abs")) {
-            return Math.abs(num);
-        } else if (s[0].contains("LimitMax")) {
-            if (num < secondaryNum) {
-                return num;
-            }
-            return secondaryNum;
-        } else if (s[0].contains("LimitMin")) {
-            if (num > secondaryNum) {
-                return num;
-            }
-            return secondaryNum;
-        } else {
+        if (operators == null) {
             return num;
         }
+        return CountExpression.getOperation(operators).apply(num, c, ctb);
     }
 
     /**
@@ -3233,13 +3213,14 @@ public class AbilityUtils {
             return 0;
         }
 
-        final String[] l = s.split("/");
-        final String m = CardFactoryUtil.extractOperators(s);
+        final CountExpression parsed = CountExpression.of(s);
+        final String head = parsed.getHead();
+        final String m = parsed.getOperators();
         final Player controller = ctb instanceof SpellAbility ? ((SpellAbility)ctb).getActivatingPlayer() : source.getController();
 
         int n = 0;
 
-        if (l[0].startsWith("TotalCommanderCastFromCommandZone")) {
+        if (head.startsWith("TotalCommanderCastFromCommandZone")) {
             int totCast = 0;
             for (Player p : players) {
                 totCast += p.getTotalCommanderCast();
@@ -3248,7 +3229,7 @@ public class AbilityUtils {
         }
 
         // methods for getting the highest/lowest playerXCount from a range of players
-        if (l[0].startsWith("Highest")) {
+        if (head.startsWith("Highest")) {
             for (final Player player : players) {
                 final int current = playerXProperty(player, TextUtil.fastReplace(s, "Highest", ""), source, ctb);
                 if (current > n) {
@@ -3259,7 +3240,7 @@ public class AbilityUtils {
             return doXMath(n, m, source, ctb);
         }
 
-        if (l[0].startsWith("Lowest")) {
+        if (head.startsWith("Lowest")) {
             n = 99999; // if no players have fewer than 99999 valids, the game is frozen anyway
             for (final Player player : players) {
                 final int current = playerXProperty(player, TextUtil.fastReplace(s, "Lowest", ""), source, ctb);
@@ -3270,7 +3251,7 @@ public class AbilityUtils {
             return doXMath(n, m, source, ctb);
         }
 
-        if (l[0].startsWith("TiedForHighestLife")) {
+        if (head.startsWith("TiedForHighestLife")) {
             int maxLife = Integer.MIN_VALUE;
             for (final Player player : players) {
                 int highestTotal = playerXProperty(player, "LifeTotal", source, ctb);
@@ -3287,7 +3268,7 @@ public class AbilityUtils {
             return doXMath(numTied, m, source, ctb);
         }
 
-        if (l[0].startsWith("TiedForLowestLife")) {
+        if (head.startsWith("TiedForLowestLife")) {
             int minLife = Integer.MAX_VALUE;
             for (final Player player : players) {
                 int lowestTotal = playerXProperty(player, "LifeTotal", source, ctb);
@@ -3304,8 +3285,7 @@ public class AbilityUtils {
             return doXMath(numTied, m, source, ctb);
         }
 
-        final String[] sq;
-        sq = l[0].split("\\.");
+        final String[] sq = parsed.getParts();
 
         // the number of players passed in
         if (sq[0].equals("Amount")) {
@@ -3323,9 +3303,9 @@ public class AbilityUtils {
             return doXMath(totPlayer, m, source, ctb);
         }
 
-        if (l[0].startsWith("Condition")) {
+        if (head.startsWith("Condition")) {
             int totPlayer = 0;
-            String[] parts = l[0].split(" ", 2);
+            String[] parts = head.split(" ", 2);
             boolean def = parts[0].equals("Condition");
             String comparator = !def ? parts[0].substring(9, 11) : "GE";
             int y = !def ? calculateAmount(source, parts[0].substring(11), ctb) : 1;
@@ -3358,29 +3338,30 @@ public class AbilityUtils {
     }
 
     public static int playerXProperty(final Player player, final String s, final Card source, CardTraitBase ctb) {
-        final String[] l = s.split("/");
-        final String m = CardFactoryUtil.extractOperators(s);
+        final CountExpression parsed = CountExpression.of(s);
+        final String head = parsed.getHead();
+        final String m = parsed.getOperators();
 
         final Game game = player.getGame();
 
         // count valid cards on the battlefield
-        if (l[0].startsWith("Valid ")) {
-            final String restrictions = l[0].substring(6);
+        if (head.startsWith("Valid ")) {
+            final String restrictions = head.substring(6);
             int num = CardLists.getValidCardCount(game.getCardsIn(ZoneType.Battlefield), restrictions, player, source, ctb);
             return doXMath(num, m, source, ctb);
         }
 
         // count valid cards in any specified zone/s
-        if (l[0].startsWith("Valid")) {
-            String[] lparts = l[0].split(" ", 2);
+        if (head.startsWith("Valid")) {
+            String[] lparts = head.split(" ", 2);
             final List<ZoneType> vZone = ZoneType.listValueOf(lparts[0].split("Valid")[1]);
-            String restrictions = TextUtil.fastReplace(l[0], TextUtil.addSuffix(lparts[0]," "), "");
+            String restrictions = TextUtil.fastReplace(head, TextUtil.addSuffix(lparts[0]," "), "");
             int num = CardLists.getValidCardCount(game.getCardsIn(vZone), restrictions, player, source, ctb);
             return doXMath(num, m, source, ctb);
         }
 
-        if (l[0].startsWith("ThisTurnEntered")) {
-            final String[] workingCopy = l[0].split("_");
+        if (head.startsWith("ThisTurnEntered")) {
+            final String[] workingCopy = head.split("_");
 
             ZoneType destination = ZoneType.smartValueOf(workingCopy[1]);
             final boolean hasFrom = workingCopy[2].equals("from");
@@ -3392,22 +3373,22 @@ public class AbilityUtils {
         }
 
         //SacrificedThisTurn <type>
-        if (l[0].startsWith("SacrificedThisTurn")) {
+        if (head.startsWith("SacrificedThisTurn")) {
             List<Card> list = player.getSacrificedThisTurn();
-            if (l[0].contains(" ")) {
-                String[] lparts = l[0].split(" ", 2);
-                String restrictions = TextUtil.fastReplace(l[0], TextUtil.addSuffix(lparts[0]," "), "");
+            if (head.contains(" ")) {
+                String[] lparts = head.split(" ", 2);
+                String restrictions = TextUtil.fastReplace(head, TextUtil.addSuffix(lparts[0]," "), "");
                 list = CardLists.getValidCardsAsList(list, restrictions, player, source, ctb);
             }
             return doXMath(list.size(), m, source, ctb);
         }
 
         //SacrificedPermanentTypesThisTurn
-        if (l[0].startsWith("SacrificedPermanentTypesThisTurn")) {
+        if (head.startsWith("SacrificedPermanentTypesThisTurn")) {
             return doXMath(countCardTypesFromList(player.getSacrificedThisTurn(), true), m, source, ctb);
         }
 
-        final String[] sq = l[0].split("\\.");
+        final String[] sq = parsed.getParts();
         final String value = sq[0];
 
         if (value.contains("NumPowerSurgeLands")) {
@@ -3619,7 +3600,7 @@ public class AbilityUtils {
         }
 
         int n = s.startsWith("Amount") ? objects.size() : 0;
-        return doXMath(n, CardFactoryUtil.extractOperators(s), source, ctb);
+        return doXMath(n, CountExpression.of(s).getOperators(), source, ctb);
     }
 
     /**
@@ -3636,11 +3617,12 @@ public class AbilityUtils {
      * @return a int.
      */
     public static int handlePaid(final Iterable<Card> paidList, final String string, final Card source, CardTraitBase ctb) {
+        final CountExpression parsed = CountExpression.of(string);
         if (Iterables.isEmpty(paidList)) {
-            return doXMath(0, CardFactoryUtil.extractOperators(string), source, ctb);
+            return doXMath(0, parsed.getOperators(), source, ctb);
         }
         if (string.startsWith("Amount")) {
-            return doXMath(Iterables.size(paidList), CardFactoryUtil.extractOperators(string), source, ctb);
+            return doXMath(Iterables.size(paidList), parsed.getOperators(), source, ctb);
         }
 
         if (string.startsWith("GreatestPower")) {
@@ -3681,14 +3663,13 @@ public class AbilityUtils {
         }
 
         if (string.startsWith("Valid")) {
-            final String[] splitString = string.split("/", 2);
-            String valid = splitString[0].substring(6);
+            String valid = parsed.getHead().substring(6);
             final int num = CardLists.getValidCardCount(paidList, valid, source.getController(), source, ctb);
-            return doXMath(num, splitString.length > 1 ? splitString[1] : null, source, ctb);
+            return doXMath(num, parsed.getTail(), source, ctb);
         }
 
         if (string.startsWith("CardTypes")) {
-            return doXMath(countCardTypesFromList(paidList, string.startsWith("CardTypesPermanent")), CardFactoryUtil.extractOperators(string), source, ctb);
+            return doXMath(countCardTypesFromList(paidList, string.startsWith("CardTypesPermanent")), parsed.getOperators(), source, ctb);
         }
 
         String filteredString = string;
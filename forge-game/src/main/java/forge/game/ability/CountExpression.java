@@ -0,0 +1,288 @@
+package forge.game.ability;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import forge.game.CardTraitBase;
+import forge.game.card.Card;
+
+/**
+ * An amount like "Count$Valid Creature.YouCtrl/Plus.1" split into its parts.
+ *
+ * The values of SVars are counted over and over again, e.g. for the power of a creature whenever static
+ * abilities are checked, so each one is only parsed the first time and then kept. As the same script text
+ * always gives the same parts, they're kept by the text itself and shared between all cards using it.
+ *
+ * This only caches the parsing, it isn't a typed expression tree: counting still goes through the chain
+ * of startsWith checks in AbilityUtils.xCount(), only those for cards, players and the game are skipped
+ * once an expression turned out to be counted from a list of cards.
+ */
+public final class CountExpression {
+    // text changing effects make new ones during a game, so only this many are kept
+    private static final int MAX_CACHED = 10000;
+
+    private static final Map<String, CountExpression> expressions = new ConcurrentHashMap<>();
+    private static final Map<String, Operation> operations = new ConcurrentHashMap<>();
+
+    // off to parse anew each time, so counting goes through all the checks as it did before the caching
+    static volatile boolean caching = true;
+
+    private final String expression;
+    private final String source;
+    private final String body;
+    private final String head;
+    private final String operators;
+    private final String tail;
+    private final String[] parts;
+    private final String[] paidParts;
+    private final String[] validParts;
+    private final boolean number;
+    private final Integer numberValue;
+    private final String svarName;
+    private CountExpression withoutCountPrefix;
+
+    // whether counting it doesn't stop at any of the card, player or game info, see AbilityUtils.xCount()
+    private volatile boolean countedFromList;
+
+    private CountExpression(final String expression0) {
+        expression = expression0;
+        final String[] sourceAndBody = expression.split("\\$", 2);
+        source = sourceAndBody[0];
+        body = sourceAndBody.length == 1 || sourceAndBody[1].equals("none") ? null : sourceAndBody[1];
+
+        final String[] l = expression.split("/");
+        head = l.length > 0 ? l[0] : "";
+        operators = l.length > 1 ? l[1] : null;
+        final String[] headAndTail = expression.split("/", 2);
+        tail = headAndTail.length > 1 ? headAndTail[1] : null;
+
+        number = head.startsWith("Number$");
+        Integer value = null;
+        if (number) {
+            try {
+                value = Integer.parseInt(head.substring(7));
+            } catch (final NumberFormatException e) {
+                // counting it throws the same again
+            }
+        }
+        numberValue = value;
+
+        svarName = head.startsWith("SVar$") ? head.substring(5) : null;
+        parts = head.split("\\.");
+        paidParts = head.split("\\$", 2);
+        validParts = parts.length > 0 && parts[0].startsWith("Valid") ? paidParts[0].split(" ", 2) : null;
+    }
+
+    public static CountExpression of(final String expression) {
+        if (!caching) {
+            return new CountExpression(expression);
+        }
+        CountExpression result = expressions.get(expression);
+        if (result == null) {
+            result = new CountExpression(expression);
+            if (expressions.size() < MAX_CACHED) {
+                expressions.putIfAbsent(expression, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the part before the first "$", e.g. "Count"
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * @return the part after the first "$", or null if there's none or it's "none"
+     */
+    public String getBody() {
+        return body;
+    }
+
+    /**
+     * @return the part before the first "/"
+     */
+    public String getHead() {
+        return head;
+    }
+
+    /**
+     * @return the math operators between the first and second "/", e.g. "Plus.1", or null if there are none
+     */
+    public String getOperators() {
+        return operators;
+    }
+
+    /**
+     * @return everything after the first "/", or null if there's none
+     */
+    public String getTail() {
+        return tail;
+    }
+
+    /**
+     * @return the same expression without a leading "Count$"
+     */
+    public CountExpression withoutCountPrefix() {
+        if (withoutCountPrefix == null) {
+            withoutCountPrefix = head.startsWith("Count$") ? of(expression.substring(6)) : this;
+        }
+        return withoutCountPrefix;
+    }
+
+    /**
+     * @return the head split at ".", which must not be modified
+     */
+    public String[] getParts() {
+        return parts;
+    }
+
+    /**
+     * @return the head split at the first "$", which must not be modified
+     */
+    public String[] getPaidParts() {
+        return paidParts;
+    }
+
+    /**
+     * @return for a count of valid cards, its zones and restrictions, which must not be modified
+     */
+    public String[] getValidParts() {
+        return validParts;
+    }
+
+    /**
+     * @return whether it's a straight number like "Number$2"
+     */
+    public boolean isNumber() {
+        return number;
+    }
+
+    public int getNumber() {
+        return numberValue != null ? numberValue : Integer.parseInt(head.substring(7));
+    }
+
+    /**
+     * @return the name of the SVar in a count like "SVar$X", or null
+     */
+    public String getSVarName() {
+        return svarName;
+    }
+
+    boolean isCountedFromList() {
+        return countedFromList;
+    }
+
+    void setCountedFromList() {
+        countedFromList = true;
+    }
+
+    public static Operation getOperation(final String operators) {
+        Operation result = operations.get(operators);
+        if (result == null) {
+            result = new Operation(operators);
+            if (operations.size() < MAX_CACHED) {
+                operations.putIfAbsent(operators, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Math operators like "Plus.2", "Times.X" or "HalfUp" applied to a count.
+     */
+    public static final class Operation {
+        // in the order they're looked for in the operator name
+        private enum Operator {
+            Plus, NMinus, Minus, Twice, Thrice, HalfUp, HalfDown, ThirdUp, ThirdDown, Negative, Times,
+            DivideEvenlyUp, DivideEvenlyDown, Mod, Abs, LimitMax, LimitMin
+        }
+
+        private final Operator operator;
+        private final int amount;
+        private final String amountSVar;
+
+        private Operation(final String operators) {
+            if (operators.equals("none")) {
+                operator = null;
+                amount = 0;
+                amountSVar = null;
+                return;
+            }
+            final String[] s = operators.split("\\.");
+            int value = 0;
+            String svar = null;
+            if (s.length == 2) {
+                try {
+                    value = Integer.parseInt(s[1]);
+                } catch (final NumberFormatException e) {
+                    svar = s[1];
+                }
+            }
+            amount = value;
+            amountSVar = svar;
+
+            Operator found = null;
+            for (final Operator o : Operator.values()) {
+                if (s[0].contains(o.name())) {
+                    found = o;
+                    break;
+                }
+            }
+            operator = found;
+        }
+
+        public int apply(final int num, final Card c, final CardTraitBase ctb) {
+            final int secondaryNum = amountSVar == null ? amount : AbilityUtils.calculateAmount(c, amountSVar, ctb);
+            if (operator == null) {
+                return num;
+            }
+            switch (operator) {
+            case Plus:
+                return num + secondaryNum;
+            case NMinus:
+                return secondaryNum - num;
+            case Minus:
+                return num - secondaryNum;
+            case Twice:
+                return num * 2;
+            case Thrice:
+                return num * 3;
+            case HalfUp:
+                return (int) (Math.ceil(num / 2.0));
+            case HalfDown:
+                return (int) (Math.floor(num / 2.0));
+            case ThirdUp:
+                return (int) (Math.ceil(num / 3.0));
+            case ThirdDown:
+                return (int) (Math.floor(num / 3.0));
+            case Negative:
+                return num * -1;
+            case Times:
+                return num * secondaryNum;
+            case DivideEvenlyUp:
+                if (secondaryNum == 0) {
+                    return 0;
+                }
+                return num / secondaryNum + (num % secondaryNum == 0 ? 0 : 1);
+            case DivideEvenlyDown:
+                if (secondaryNum == 0) {
+                    return 0;
+                }
+                return num / secondaryNum;
+            case Mod:
+                return num % secondaryNum;
+            case Abs:
+                return Math.abs(num);
+            case LimitMax:
+                return Math.min(num, secondaryNum);
+            case LimitMin:
+                return Math.max(num, secondaryNum);
+            default:
+                return num;
+            }
+        }
+    }
+}
@@ -15,7 +15,6 @@ import forge.game.player.Player;
 import forge.game.spellability.SpellAbility;
 import forge.util.Lang;
 import forge.util.Localizer;
-import forge.util.MyRandom;
 import forge.util.collect.FCollectionView;
 
 import org.apache.commons.lang3.tuple.Pair;
@@ -63,7 +62,7 @@ public class ChooseNumberEffect extends SpellAbilityEffect {
             }
             Integer chosen;
             if (random) {
-                chosen = MyRandom.getRandom().nextInt((max - min) + 1) + min;
+                chosen = source.getGame().getRandom().nextInt((max - min) + 1) + min;
                 //TODO more useful notify for RepeatEach -> ChooseNumber with random
                 p.getGame().getAction().notifyOfValue(sa, p, Integer.toString(chosen), null);
             } else {
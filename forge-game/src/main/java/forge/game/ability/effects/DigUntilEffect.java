@@ -20,7 +20,6 @@ import forge.game.zone.PlayerZone;
 import forge.game.zone.ZoneType;
 import forge.util.Lang;
 import forge.util.Localizer;
-import forge.util.MyRandom;
 import org.apache.commons.lang3.StringUtils;
 
 import com.google.common.collect.Maps;
@@ -261,7 +260,7 @@ public class DigUntilEffect extends SpellAbilityEffect {
             }
 
             if (sa.hasParam("RevealRandomOrder")) {
-                Collections.shuffle(revealed, MyRandom.getRandom());
+                Collections.shuffle(revealed, game.getRandom());
             }
 
             if (sa.hasParam("NoMoveRevealed") || sequential) {
@@ -51,7 +51,7 @@ import java.util.*;
          CardCollection drafted = new CardCollection();
 
          for (int i = 0; i < numToDraft; i++) {
-             Collections.shuffle(spellbook);
+             Collections.shuffle(spellbook, game.getRandom());
              List<Card> draftOptions = new ArrayList<>();
              for (String name : spellbook.subList(0, 3)) {
                  // Cardnames that include "," must use ";" instead in Spellbook$ (i.e. Tovolar; Dire Overlord)
@@ -18,7 +18,6 @@ import forge.game.player.PlayerController;
 import forge.game.spellability.SpellAbility;
 import forge.game.trigger.TriggerType;
 import forge.util.Localizer;
-import forge.util.MyRandom;
 
 public class FlipCoinEffect extends SpellAbilityEffect {
 
@@ -233,7 +232,7 @@ public class FlipCoinEffect extends SpellAbilityEffect {
         do {
             Set<Boolean> flipResults = new HashSet<>();
             for (int i = 0; i < multiplier; i++) {
-                flipResults.add(MyRandom.getRandom().nextBoolean());
+                flipResults.add(flipper.getGame().getRandom().nextBoolean());
             }
             flipper.getGame().fireEvent(new GameEventFlipCoin());
             result = flipResults.size() == 1 ? flipResults.iterator().next() : flipper.getController().chooseFlipResult(sa, flipper, BOTH_CHOICES, false);
@@ -275,7 +274,7 @@ public class FlipCoinEffect extends SpellAbilityEffect {
             Set<Boolean> flipResults = new HashSet<>();
             final boolean choice = caller.getController().chooseBinary(sa, sa.getHostCard().getName() + " - " + Localizer.getInstance().getMessage("lblCallCoinFlip") + info, PlayerController.BinaryChoiceType.HeadsOrTails);
             for (int i = 0; i < multiplier; i++) {
-                flipResults.add(MyRandom.getRandom().nextBoolean());
+                flipResults.add(caller.getGame().getRandom().nextBoolean());
             }
             // Play the Flip A Coin sound
             caller.getGame().fireEvent(new GameEventFlipCoin());
@@ -13,7 +13,6 @@ import forge.game.replacement.ReplacementType;
 import forge.game.spellability.SpellAbility;
 import forge.game.trigger.TriggerType;
 import forge.util.Localizer;
-import forge.util.MyRandom;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.*;
@@ -89,7 +88,7 @@ public class RollDiceEffect extends SpellAbilityEffect {
         List<Integer> naturalRolls = (rollsResult == null ? new ArrayList<>() : rollsResult);
 
         for (int i = 0; i < amount; i++) {
-            int roll = MyRandom.getRandom().nextInt(sides) + 1;
+            int roll = player.getGame().getRandom().nextInt(sides) + 1;
             // Play the die roll sound
             player.getGame().fireEvent(new GameEventRollDie());
             player.roll();
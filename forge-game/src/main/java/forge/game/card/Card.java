@@ -256,6 +256,17 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     private long gameTimestamp = -1; // permanents on the battlefield
     private long layerTimestamp = -1;
 
+    // characteristics of the current state derived from the layer tables, which are kept
+    // until the layer epoch of the game changes, see checkDerivedCache()
+    private long derivedEpoch = -1;
+    private Game derivedGame;
+    private CardState derivedState;
+    private CardTypeView derivedType;
+    private ColorSet derivedColor;
+    private ManaCost derivedManaCost;
+    private StatBreakdown derivedNetPower;
+    private StatBreakdown derivedNetToughness;
+
     // stack of set power/toughness
     // x=timestamp y=StaticAbility id
     private Table<Long, Long, Pair<Integer,Integer>> newPTText = TreeBasedTable.create(); // Text Change Layer 3
@@ -329,6 +340,8 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
 
     private CardRules cardRules;
     private final CardView view;
+    // LKI copies only fill in their view when something asks for it
+    private boolean viewOutdated = false;
 
     private Table<Player, CounterType, Integer> etbCounters = HashBasedTable.create();
 
@@ -520,6 +533,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
 
         currentStateName = state;
         currentState = getState(state);
+        updateLayerEpoch();
 
         if (updateView) {
             view.updateState(this);
@@ -579,9 +593,35 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     }
 
     public void updateStateForView() {
+        viewOutdated = false;
         view.updateState(this);
     }
 
+    /**
+     * Like {@link #updateStateForView()}, but also for the texts and keywords of the states that aren't shown,
+     * which are left out while the game is headless.
+     */
+    public void updateAllStatesForView() {
+        for (final CardState state : states.values()) {
+            state.getView().updateKeywords(this, state);
+        }
+        updateStateForView();
+    }
+
+    /**
+     * Like {@link #updateStateForView()}, but only once the view is asked for.
+     * Most LKI copies are thrown away without anyone looking at them.
+     */
+    public void updateStateForViewLater() {
+        viewOutdated = true;
+    }
+
+    void updateOutdatedView() {
+        if (viewOutdated) {
+            updateStateForView();
+        }
+    }
+
     // The following methods are used to selectively update certain view components (text,
     // P/T, card types) in order to avoid card flickering due to aggressive full update
     public void updateAbilityTextForView() {
@@ -900,7 +940,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     }
 
     public int getHiddenId() {
-        return view.getHiddenId();
+        return getView().getHiddenId();
     }
 
     public void updateAttackingForView() {
@@ -1736,6 +1776,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
 
     @Override
     public final void setCounters(final Map<CounterType, Integer> allCounters) {
+        updateLayerEpoch();
         boolean changed = false;
         for (CounterType ct : counters.keySet()) {
             if (removeCounterTimestamp(ct, false)) {
@@ -1758,6 +1799,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
 
     @Override
     public final void clearCounters() {
+        updateLayerEpoch();
         if (counters.isEmpty()) { return; }
         counters.clear();
         view.updateCounters(this);
@@ -1860,17 +1902,26 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     }
 
     public final ManaCost getManaCost() {
+        final boolean cache = checkDerivedCache(currentState);
+        if (cache && derivedManaCost != null) {
+            return derivedManaCost;
+        }
         ManaCost result = getOriginalManaCost();
         for (ManaCost mc : changedCardManaCost.values()) {
             result = mc;
         }
+        if (cache) {
+            derivedManaCost = result;
+        }
         return result;
     }
 
     public void addChangedManaCost(ManaCost cost, long timestamp, long staticId) {
+        updateLayerEpoch();
         changedCardManaCost.put(timestamp, staticId, cost);
     }
     public boolean removeChangedManaCost(long timestamp, long staticId) {
+        updateLayerEpoch();
         return changedCardManaCost.remove(timestamp, staticId) != null;
     }
 
@@ -2611,6 +2662,14 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
         return sbx.toString();
     }
 
+    /**
+     * The text {@link CardView#getText()} shows for the card. A headless game doesn't keep the ability texts
+     * of the view up to date, so they're taken from the card then.
+     */
+    public String getViewText() {
+        return view.getText(view.getCurrentState(), null, view.isHeadless() ? this : null);
+    }
+
     // get the text of the abilities of a card
     public String getAbilityText() {
         return getAbilityText(currentState);
@@ -3992,13 +4051,20 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
         return getType(currentState);
     }
     public final CardTypeView getType(CardState state) {
-        final Iterable<CardChangedType> changedCardTypes = getChangedCardTypes();
-        if (Iterables.isEmpty(changedCardTypes)) {
-            return state.getType();
+        final boolean cache = checkDerivedCache(state);
+        CardTypeView types = cache ? derivedType : null;
+        if (types == null) {
+            final Iterable<CardChangedType> changedCardTypes = getChangedCardTypes();
+            types = Iterables.isEmpty(changedCardTypes) ? state.getType() : state.getType().getTypeWithChanges(changedCardTypes);
+            if (cache) {
+                derivedType = types;
+            }
+        }
+        if (types == state.getType()) {
+            return types;
         }
         // CR 506.4 attacked planeswalkers leave combat
         boolean checkCombat = state.getType().isPlaneswalker() && game.getCombat() != null && !game.getCombat().getAttackersOf(this).isEmpty();
-        CardTypeView types = state.getType().getTypeWithChanges(changedCardTypes);
         if (checkCombat && !types.isPlaneswalker()) {
             game.getCombat().removeFromCombat(this);
         }
@@ -4037,6 +4103,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     }
 
     public boolean clearChangedCardTypes() {
+        updateLayerEpoch();
         boolean changed = false;
 
         if (changedTypeByText != null)
@@ -4059,6 +4126,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     }
 
     public boolean clearChangedCardColors() {
+        updateLayerEpoch();
         boolean changed = false;
 
         if (!changedCardColorsByText.isEmpty())
@@ -4108,6 +4176,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     }
 
     public final void addChangedCardTypesByText(final CardType addType, final long timestamp, final long staticId, final boolean updateView) {
+        updateLayerEpoch();
         changedCardTypesByText.put(timestamp, staticId, new CardChangedType(addType, null, false,
                 EnumSet.of(RemoveType.SuperTypes,
                         RemoveType.CardTypes,
@@ -4127,6 +4196,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     public final void addChangedCardTypes(final CardType addType, final CardType removeType, final boolean addAllCreatureTypes,
             final Set<RemoveType> remove,
             final long timestamp, final long staticId, final boolean updateView, final boolean cda) {
+        updateLayerEpoch();
         (cda ? changedCardTypesCharacterDefining : changedCardTypes).put(timestamp, staticId, new CardChangedType(
                 addType, removeType, addAllCreatureTypes, remove));
         if (updateView) {
@@ -4154,6 +4224,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
         removeChangedCardTypes(timestamp, staticId, true);
     }
     public final void removeChangedCardTypes(final long timestamp, final long staticId, final boolean updateView) {
+        updateLayerEpoch();
         boolean removed = false;
         removed |= changedCardTypes.remove(timestamp, staticId) != null;
         removed |= changedCardTypesCharacterDefining.remove(timestamp, staticId) != null;
@@ -4163,16 +4234,19 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     }
 
     public void addColorByText(final ColorSet color, final long timestamp, final long staticId) {
+        updateLayerEpoch();
         changedCardColorsByText.put(timestamp, staticId, new CardColor(color, false));
         updateColorForView();
     }
 
     public final void addColor(final ColorSet color, final boolean addToColors, final long timestamp, final long staticId, final boolean cda) {
+        updateLayerEpoch();
         (cda ? changedCardColorsCharacterDefining : changedCardColors).put(timestamp, staticId, new CardColor(color, addToColors));
         updateColorForView();
     }
 
     public final void removeColor(final long timestampIn, final long staticId) {
+        updateLayerEpoch();
         boolean removed = false;
         removed |= changedCardColorsByText.remove(timestampIn, staticId) != null;
         removed |= changedCardColors.remove(timestampIn, staticId) != null;
@@ -4199,6 +4273,10 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
         return getColor(currentState);
     }
     public final ColorSet getColor(CardState state) {
+        final boolean cache = checkDerivedCache(state);
+        if (cache && derivedColor != null) {
+            return derivedColor;
+        }
         byte colors = state.getColor();
         for (final CardColor cc : getChangedCardColors()) {
             if (cc.isAdditional()) {
@@ -4207,7 +4285,11 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
                 colors = cc.getColorMask();
             }
         }
-        return ColorSet.fromMask(colors);
+        final ColorSet result = ColorSet.fromMask(colors);
+        if (cache) {
+            derivedColor = result;
+        }
+        return result;
     }
 
     public final int getCurrentLoyalty() {
@@ -4347,6 +4429,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     }
 
     public final void setPTTable(Table<Long, Long, Pair<Integer, Integer>> table) {
+        updateLayerEpoch();
         newPT.clear();
         newPT.putAll(table);
     }
@@ -4356,11 +4439,13 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     }
 
     public final void setPTCharacterDefiningTable(Table<Long, Long, Pair<Integer, Integer>> table) {
+        updateLayerEpoch();
         newPTCharacterDefining.clear();
         newPTCharacterDefining.putAll(table);
     }
 
     public final void addNewPTByText(final Integer power, final Integer toughness, final long timestamp, final long staticId) {
+        updateLayerEpoch();
         newPTText.put(timestamp, staticId, Pair.of(power, toughness));
         updatePTforView();
     }
@@ -4369,11 +4454,13 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
         addNewPT(power, toughness, timestamp, staticId, false);
     }
     public final void addNewPT(final Integer power, final Integer toughness, final long timestamp, final long staticId, final boolean cda) {
+        updateLayerEpoch();
         (cda ? newPTCharacterDefining : newPT).put(timestamp, staticId, Pair.of(power, toughness));
         updatePTforView();
     }
 
     public final void removeNewPT(final long timestamp, final long staticId) {
+        updateLayerEpoch();
         boolean removed = false;
 
         removed |= newPTText.remove(timestamp, staticId) != null;
@@ -4396,6 +4483,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     }
 
     public final boolean clearNewPT() {
+        updateLayerEpoch();
         boolean changed = false;
         if (!newPTText.isEmpty()) {
             changed = true;
@@ -4440,16 +4528,22 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     }
 
     public final StatBreakdown getNetPowerBreakdown() {
-        if (getAmountOfKeyword("CARDNAME's power and toughness are switched") % 2 != 0) {
-            return getUnswitchedToughnessBreakdown();
+        final boolean cache = checkDerivedCache(currentState);
+        if (cache && derivedNetPower != null) {
+            return derivedNetPower;
+        }
+        final StatBreakdown result = isPTSwitched() ? getUnswitchedToughnessBreakdown() : getUnswitchedPowerBreakdown();
+        if (cache) {
+            derivedNetPower = result;
         }
-        return getUnswitchedPowerBreakdown();
+        return result;
     }
     public final int getNetPower() {
-        if (getAmountOfKeyword("CARDNAME's power and toughness are switched") % 2 != 0) {
-            return getUnswitchedToughness();
-        }
-        return getUnswitchedPower();
+        return getNetPowerBreakdown().getTotal();
+    }
+
+    private boolean isPTSwitched() {
+        return getAmountOfKeyword("CARDNAME's power and toughness are switched") % 2 != 0;
     }
 
     public final int getCurrentToughness() {
@@ -4504,10 +4598,15 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     }
 
     public final StatBreakdown getNetToughnessBreakdown() {
-        if (getAmountOfKeyword("CARDNAME's power and toughness are switched") % 2 != 0) {
-            return getUnswitchedPowerBreakdown();
+        final boolean cache = checkDerivedCache(currentState);
+        if (cache && derivedNetToughness != null) {
+            return derivedNetToughness;
+        }
+        final StatBreakdown result = isPTSwitched() ? getUnswitchedPowerBreakdown() : getUnswitchedToughnessBreakdown();
+        if (cache) {
+            derivedNetToughness = result;
         }
-        return getUnswitchedToughnessBreakdown();
+        return result;
     }
     public final int getNetToughness() {
         return getNetToughnessBreakdown().getTotal();
@@ -4647,10 +4746,12 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     }
 
     public void addPTBoost(final Integer power, final Integer toughness, final long timestamp, final long staticId) {
+        updateLayerEpoch();
         boostPT.put(timestamp, staticId, Pair.of(power, toughness));
     }
 
     public void removePTBoost(final long timestamp, final long staticId) {
+        updateLayerEpoch();
         boostPT.remove(timestamp, staticId);
     }
 
@@ -4659,6 +4760,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     }
 
     public void setPTBoost(Table<Long, Long, Pair<Integer, Integer>> table) {
+        updateLayerEpoch();
         this.boostPT.clear();
         boostPT.putAll(table);
     }
@@ -4743,6 +4845,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
         return changedCardTraitsByText;
     }
     public final void setChangedCardTraitsByText(Table<Long, Long, CardTraitChanges> changes) {
+        updateLayerEpoch();
         changedCardTraitsByText.clear();
         for (Table.Cell<Long, Long, CardTraitChanges> e : changes.cellSet()) {
             changedCardTraitsByText.put(e.getRowKey(), e.getColumnKey(), e.getValue().copy(this, true));
@@ -4750,6 +4853,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     }
     public final void addChangedCardTraitsByText(Collection<SpellAbility> spells,
             Collection<Trigger> trigger, Collection<ReplacementEffect> replacements, Collection<StaticAbility> statics, long timestamp, long staticId) {
+        updateLayerEpoch();
         changedCardTraitsByText.put(timestamp, staticId, new CardTraitChanges(
             spells, null, trigger, replacements, statics, true, false
         ));
@@ -4900,6 +5004,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     public final void addChangedCardTraits(Collection<SpellAbility> spells, Collection<SpellAbility> removedAbilities,
             Collection<Trigger> trigger, Collection<ReplacementEffect> replacements, Collection<StaticAbility> statics,
             boolean removeAll, boolean removeNonMana, long timestamp, long staticId) {
+        updateLayerEpoch();
         changedCardTraits.put(timestamp, staticId, new CardTraitChanges(
             spells, removedAbilities, trigger, replacements, statics, removeAll, removeNonMana
         ));
@@ -4908,12 +5013,14 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     }
 
     public final void addChangedCardTraits(CardTraitChanges ctc, long timestamp, long staticId) {
+        updateLayerEpoch();
         changedCardTraits.put(timestamp, staticId, ctc);
         // update view
         updateAbilityTextForView();
     }
 
     public final boolean removeChangedCardTraits(long timestamp, long staticId) {
+        updateLayerEpoch();
         boolean changed = false;
         changed |= changedCardTraitsByText.remove(timestamp, staticId) != null;
         changed |= changedCardTraits.remove(timestamp, staticId) != null;
@@ -4936,6 +5043,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     }
 
     public final void setChangedCardTraits(Table<Long, Long, CardTraitChanges> changes) {
+        updateLayerEpoch();
         changedCardTraits.clear();
         for (Table.Cell<Long, Long, CardTraitChanges> e : changes.cellSet()) {
             changedCardTraits.put(e.getRowKey(), e.getColumnKey(), e.getValue().copy(this, true));
@@ -4943,6 +5051,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     }
 
     public boolean clearChangedCardTraits() {
+        updateLayerEpoch();
         boolean changed = false;
         if (changedCardTraitsByText.isEmpty()) {
             changed = true;
@@ -5010,6 +5119,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     }
     public final void addChangedCardKeywords(final List<String> keywords, final List<String> removeKeywords,
             final boolean removeAllKeywords, final long timestamp, final long staticId, final boolean updateView) {
+        updateLayerEpoch();
         List<KeywordInterface> kws = Lists.newArrayList();
         if (keywords != null) {
             long idx = 1;
@@ -5091,6 +5201,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     }
 
     public final void addChangedCardKeywordsByText(final List<KeywordInterface> keywords, final long timestamp, final long staticId, final boolean updateView) {
+        updateLayerEpoch();
         // keywords should already created for Card, so no addKeywordsToCard
         // this one is done for Volrath's Shapeshifter which replaces all the card text
         changedCardKeywordsByText.put(timestamp, staticId, new KeywordsChange(keywords, ImmutableList.<KeywordInterface>of(), true));
@@ -5104,6 +5215,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
         final List<KeywordInterface> keywords, final List<KeywordInterface> removeKeywords,
         final boolean removeAllKeywords,
         final long timestamp, final long staticId, final boolean updateView) {
+        updateLayerEpoch();
         final KeywordsChange newCks = new KeywordsChange(keywords, removeKeywords, removeAllKeywords);
         changedCardKeywords.put(timestamp, staticId, newCks);
 
@@ -5116,6 +5228,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
         return removeChangedCardKeywords(timestamp, staticId, true);
     }
     public final boolean removeChangedCardKeywords(final long timestamp, final long staticId, final boolean updateView) {
+        updateLayerEpoch();
         boolean changed = false;
         changed |= changedCardKeywords.remove(timestamp, staticId) != null;
         changed |= changedCardKeywordsByText.remove(timestamp, staticId) != null;
@@ -5131,6 +5244,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
         return clearChangedCardKeywords(false);
     }
     public final boolean clearChangedCardKeywords(final boolean updateView) {
+        updateLayerEpoch();
         boolean changed = false;
         if (!changedCardKeywordsByText.isEmpty()) {
             changed = true;
@@ -5147,6 +5261,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     }
 
     public boolean clearStaticChangedCardKeywords(final boolean updateView) {
+        updateLayerEpoch();
         // remove all keywords which are done by static ability, where the staticId isn't 0 (these are currently pump or animate effects)
         boolean changed = changedCardKeywords.columnKeySet().retainAll(ImmutableList.of((long)0));
         if (changed && updateView) {
@@ -5250,6 +5365,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
             }
         }
 
+        updateLayerEpoch();
         this.changedTypeByText = new CardChangedType(new CardType(toAdd, true), new CardType(toRemove, true), false, EnumSet.noneOf(RemoveType.class));
 
         currentState.updateChangedText();
@@ -5344,6 +5460,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     }
 
     public final void addHiddenExtrinsicKeywords(long timestamp, long staticId, Iterable<String> keywords) {
+        updateLayerEpoch();
         // TODO if some keywords aren't removed anymore, then no need for extra Array List
         hiddenExtrinsicKeywords.put(timestamp, staticId, Lists.newArrayList(keywords));
 
@@ -5352,6 +5469,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     }
 
     public final void removeHiddenExtrinsicKeywords(long timestamp, long staticId) {
+        updateLayerEpoch();
         if (hiddenExtrinsicKeywords.remove(timestamp, staticId) != null) {
             view.updateNonAbilityText(this);
             updateKeywords();
@@ -5359,6 +5477,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     }
 
     public final void removeHiddenExtrinsicKeyword(String s) {
+        updateLayerEpoch();
         boolean updated = false;
         for (List<String> list : hiddenExtrinsicKeywords.values()) {
             if (list.remove(s)) {
@@ -5746,63 +5865,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     // Takes one argument like Permanent.Blue+withFlying
     @Override
     public final boolean isValid(final String restriction, final Player sourceController, final Card source, CardTraitBase spellAbility) {
-        // Inclusive restrictions are Card types
-        final String[] incR = restriction.split("\\.", 2);
-
-        boolean testFailed = false;
-        if (incR[0].startsWith("!")) {
-            testFailed = true; // a bit counter logical))
-            incR[0] = incR[0].substring(1); // consume negation sign
-        }
-
-        if (incR[0].equals("Spell")) {
-            if (!isSpell()) {
-                return testFailed;
-            }
-        } else if (incR[0].equals("Permanent")) {
-            if (!isPermanent()) {
-                return testFailed;
-            }
-        } else if (incR[0].equals("Effect")) {
-            if (!isImmutable()) {
-                return testFailed;
-            }
-        } else if (incR[0].equals("Emblem")) {
-            if (!isEmblem()) {
-                return testFailed;
-            }
-        } else if (incR[0].equals("Boon")) {
-            if (!isBoon()) {
-                return testFailed;
-            }
-        } else if (incR[0].equals("card") || incR[0].equals("Card")) {
-            if (isImmutable()) {
-                return testFailed;
-            }
-        } else if (incR[0].equals("Any")) {
-            if (!(isCreature() || isPlaneswalker() || isBattle())) {
-                return false;
-            }
-            //todo further check for Effect API and other replacement Effect
-            /*if (spellAbility == null)
-                return false;
-            ApiType apiType = ((SpellAbility) spellAbility).getApi();
-            if (!(ApiType.DealDamage.equals(apiType) || ApiType.PreventDamage.equals(apiType)))
-                return false;*/
-        } else if (!getType().hasStringType(incR[0])) {
-            return testFailed; // Check for wrong type
-        }
-
-        if (incR.length > 1) {
-            final String excR = incR[1];
-            final String[] exRs = excR.split("\\+"); // Exclusive Restrictions are ...
-            for (String exR : exRs) {
-                if (!hasProperty(exR, sourceController, source, spellAbility)) {
-                    return testFailed;
-                }
-            }
-        }
-        return !testFailed;
+        return CardRestriction.of(restriction).matches(this, sourceController, source, spellAbility);
     }
 
     // Takes arguments like Blue or withFlying
@@ -6803,6 +6866,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     }
     public void setZone(Zone zone) {
         if (currentZone == zone) { return; }
+        updateLayerEpoch();
         currentZone = zone;
         view.updateZone(this);
     }
@@ -7312,6 +7376,40 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
         game = newGame;
     }
 
+    @Override
+    protected void updateLayerEpoch() {
+        if (game != null) {
+            game.updateLayerEpoch();
+            // anything bumping the epoch can change which replacement effects the card has
+            game.getReplacementHandler().updateCard(this);
+        }
+    }
+
+    /**
+     * The type, color, mana cost and net power and toughness of the current state are read far more often
+     * than the layer tables they're derived from change, e.g. by the AI predicting combat. So they're kept
+     * until the layer epoch of the game changes, which happens whenever anything they're derived from does.
+     *
+     * @return whether the derived characteristics of this state can be cached
+     */
+    private boolean checkDerivedCache(final CardState state) {
+        if (game == null || state != currentState) {
+            return false;
+        }
+        final long epoch = game.getLayerEpoch();
+        if (derivedEpoch != epoch || derivedGame != game || derivedState != state) {
+            derivedEpoch = epoch;
+            derivedGame = game;
+            derivedState = state;
+            derivedType = null;
+            derivedColor = null;
+            derivedManaCost = null;
+            derivedNetPower = null;
+            derivedNetToughness = null;
+        }
+        return true;
+    }
+
     public List<SpellAbility> getAllPossibleAbilities(final Player player, final boolean removeUnplayable) {
         CardState oState = getState(CardStateName.Original);
         final List<SpellAbility> abilities = Lists.newArrayList();
@@ -7571,6 +7669,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
 
     @Override
     public CardView getView() {
+        updateOutdatedView();
         return view;
     }
 
@@ -7637,15 +7736,18 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     }
 
     public void setChangedCardTypes(Table<Long, Long, CardChangedType> changedCardTypes) {
+        updateLayerEpoch();
         this.changedCardTypes.clear();
         this.changedCardTypes.putAll(changedCardTypes);
     }
     public void setChangedCardTypesCharacterDefining(Table<Long, Long, CardChangedType> changedCardTypes) {
+        updateLayerEpoch();
         this.changedCardTypesCharacterDefining.clear();
         this.changedCardTypesCharacterDefining.putAll(changedCardTypes);
     }
 
     public void setChangedCardKeywords(Table<Long, Long, KeywordsChange> changedCardKeywords) {
+        updateLayerEpoch();
         this.changedCardKeywords.clear();
         for (Table.Cell<Long, Long, KeywordsChange> entry : changedCardKeywords.cellSet()) {
             this.changedCardKeywords.put(entry.getRowKey(), entry.getColumnKey(), entry.getValue().copy(this, true));
@@ -7653,10 +7755,12 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
     }
 
     public void setChangedCardColors(Table<Long, Long, CardColor> changedCardColors) {
+        updateLayerEpoch();
         this.changedCardColors.clear();
         this.changedCardColors.putAll(changedCardColors);
     }
     public void setChangedCardColorsCharacterDefining(Table<Long, Long, CardColor> changedCardColors) {
+        updateLayerEpoch();
         this.changedCardColorsCharacterDefining.clear();
         this.changedCardColorsCharacterDefining.putAll(changedCardColors);
     }
@@ -7726,6 +7830,7 @@ public class Card extends GameEntity implements Comparable<Card>, IHasSVars {
      * @param zone last known zone information for the card.
      */
     public final void setLastKnownZone(Zone zone) {
+        updateLayerEpoch();
         this.savedLastKnownZone = zone;
     }
 
@@ -264,8 +264,6 @@ public class CardCopyService {
             newCopy.turnFaceDownNoUpdate();
             newCopy.setType(new CardType(copyFrom.getFaceDownState().getType()));
         }
-        // prevent StackDescription from revealing face
-        newCopy.updateStateForView();
 
         /*
         if (in.isCloned()) {
@@ -402,6 +400,10 @@ public class CardCopyService {
 
         newCopy.getGoadMap().putAll(copyFrom.getGoadMap());
 
+        // prevent StackDescription from revealing face,
+        // the view is only built once it's used since most LKI copies never get shown
+        newCopy.updateStateForViewLater();
+
         return newCopy;
     }
 
@@ -18,6 +18,8 @@
 package forge.game.card;
 
 import com.google.common.base.Function;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import forge.ImageKeys;
@@ -45,6 +47,7 @@ import forge.util.CardTranslation;
 import forge.util.TextUtil;
 
 import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -68,6 +71,30 @@ import java.util.Map.Entry;
  * @version $Id$
  */
 public class CardFactory {
+    // built cards are only copied, so a template is never changed once it's built
+    private static final class CardTemplate {
+        private final ICardFace mainPart;
+        private final ICardFace otherPart;
+        private final Card card;
+
+        private CardTemplate(final CardRules rules, final Card card0) {
+            mainPart = rules.getMainPart();
+            otherPart = rules.getOtherPart();
+            card = card0;
+        }
+
+        // the rules of a card are changed when its script is edited
+        private boolean isBuiltFrom(final CardRules rules) {
+            return rules.getMainPart() == mainPart && rules.getOtherPart() == otherPart;
+        }
+    }
+
+    // the least recently used ones make room, so a long session doesn't keep every card it ever built
+    private static final int MAX_TEMPLATES = 2000;
+    private static final Cache<CardRules, CardTemplate> templates = CacheBuilder.newBuilder()
+            .maximumSize(MAX_TEMPLATES)
+            .build();
+
     /**
      * <p>
      * copySpellHost.
@@ -176,11 +203,23 @@ public class CardFactory {
         return getCard(cp, owner, owner == null ? -1 : owner.getGame().nextCardId(), game);
     }
     public static Card getCard(final IPaperCard cp, final Player owner, final int cardId, final Game game) {
+        // cards in a game are copied from the card built from the script, the same rules are used over and over
+        return getCard(cp, owner, cardId, game, game != null);
+    }
+    static Card getCard(final IPaperCard cp, final Player owner, final int cardId, final Game game, final boolean fromTemplate) {
         CardRules cardRules = cp.getRules();
-        final Card c = readCard(cardRules, cp, cardId, game);
-        c.setRules(cardRules);
-        c.setOwner(owner);
-        buildAbilities(c);
+        final Card c;
+        if (fromTemplate) {
+            c = copyTemplate(getTemplate(cp), cp, cardId, game);
+            c.setRules(cardRules);
+            c.setOwner(owner);
+            c.updateStateForView();
+        } else {
+            c = readCard(cardRules, cp, cardId, game);
+            c.setRules(cardRules);
+            c.setOwner(owner);
+            buildAbilities(c);
+        }
 
         c.setSetCode(cp.getEdition());
         c.setRarity(cp.getRarity());
@@ -240,6 +279,40 @@ public class CardFactory {
         return c;
     }
 
+    private static Card getTemplate(final IPaperCard cp) {
+        final CardRules rules = cp.getRules();
+        CardTemplate template = templates.getIfPresent(rules);
+        if (template == null || !template.isBuiltFrom(rules)) {
+            // an id that's not negative, so it's built the same way as a card in a game
+            template = new CardTemplate(rules, getCard(cp, null, 0, null, false));
+            templates.put(rules, template);
+        }
+        return template.card;
+    }
+
+    private static Card copyTemplate(final Card template, final IPaperCard cp, final int cardId, final Game game) {
+        final Card card = new Card(cardId, cp, game);
+        for (final CardStateName state : template.getStates()) {
+            if (state == CardStateName.FaceDown) {
+                card.getFaceDownState();
+            } else if (state != CardStateName.Original) {
+                card.addAlternateState(state, false);
+            }
+        }
+        final Map<Object, Object> copies = new IdentityHashMap<>();
+        for (final CardStateName state : template.getStates()) {
+            card.getState(state).copyKeywordsFromTemplate(template.getState(state), copies);
+        }
+        for (final CardStateName state : template.getStates()) {
+            card.getState(state).copyFromTemplate(template.getState(state), copies);
+        }
+        card.setText(template.getSpellText());
+        for (final String action : template.getDraftActions()) {
+            card.addDraftAction(action);
+        }
+        return card;
+    }
+
     private static void buildAbilities(final Card card) {
         for (final CardStateName state : card.getStates()) {
             if (card.isDoubleFaced() && state == CardStateName.FaceDown) {
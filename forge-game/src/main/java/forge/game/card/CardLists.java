@@ -108,8 +108,9 @@ public class CardLists {
     public static final Comparator<Card> TextLenComparator = new Comparator<Card>() {
         @Override
         public int compare(final Card a, final Card b) {
-            final int aLen = a.getView().getText().length();
-            final int bLen = b.getView().getText().length();
+            // not the text of the view, which headless games don't keep up to date
+            final int aLen = a.getAbilityText().length();
+            final int bLen = b.getAbilityText().length();
             return aLen - bLen;
         }
     };
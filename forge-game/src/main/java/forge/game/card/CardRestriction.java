@@ -0,0 +1,227 @@
+package forge.game.card;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.collect.ImmutableMap;
+
+import forge.card.MagicColor;
+import forge.game.CardTraitBase;
+import forge.game.player.Player;
+
+/**
+ * A restriction like "Creature.nonToken+YouCtrl" parsed once, as used by {@link Card#isValid}.
+ * <p>
+ * The restriction is split into its type and properties only the first time it is seen.
+ * Common properties get a matcher of their own, so checking them doesn't walk the chain of
+ * {@link CardProperty#cardHasProperty}. Every other property still goes through that chain.
+ * </p>
+ * A matcher here must give the same answer as the branch of {@link CardProperty} or
+ * {@link forge.game.ForgeScript} that the property would otherwise end up in.
+ */
+public final class CardRestriction {
+    // restrictions built at runtime (e.g. with card IDs) shouldn't fill the memory
+    private static final int MAX_CACHED = 20000;
+    private static final Map<String, CardRestriction> cache = new ConcurrentHashMap<>();
+
+    private interface Matcher {
+        boolean matches(Card card, Player sourceController, Card source, CardTraitBase spellAbility);
+    }
+
+    private enum Kind {
+        SPELL, PERMANENT, EFFECT, EMBLEM, BOON, CARD, ANY, TYPE
+    }
+
+    private static final Map<String, Matcher> cardMatchers = ImmutableMap.<String, Matcher>builder()
+            .put("Self", (card, sourceController, source, sa) -> card.equals(source))
+            .put("Other", (card, sourceController, source, sa) -> !card.equals(source))
+            .put("StrictlyOther", (card, sourceController, source, sa) -> !card.equalsWithGameTimestamp(source))
+            .put("YouCtrl", (card, sourceController, source, sa) -> getLKIController(card).equals(sourceController))
+            .put("YouDontCtrl", (card, sourceController, source, sa) -> !getLKIController(card).equals(sourceController))
+            .put("OppCtrl", (card, sourceController, source, sa) -> getLKIController(card).getOpponents().contains(sourceController))
+            .put("YouOwn", (card, sourceController, source, sa) -> card.getOwner().equals(sourceController))
+            .put("OppOwn", (card, sourceController, source, sa) -> card.getOwner().getOpponents().contains(sourceController))
+            .put("tapped", (card, sourceController, source, sa) -> card.isTapped())
+            .put("untapped", (card, sourceController, source, sa) -> card.isUntapped())
+            .put("token", (card, sourceController, source, sa) -> card.isToken() || card.isTokenCard())
+            .put("nonToken", (card, sourceController, source, sa) -> !card.isToken() && !card.isTokenCard())
+            .build();
+
+    // types that fall through CardProperty and ForgeScript to a plain type check
+    private static final String[] TYPES = {
+        "Artifact", "Battle", "Creature", "Enchantment", "Instant", "Kindred", "Land", "Planeswalker",
+        "Sorcery", "Tribal", "Dungeon", "Conspiracy", "Phenomenon", "Plane", "Scheme", "Vanguard",
+        "Basic", "Legendary", "Snow", "World", "Ongoing"
+    };
+
+    private final String restriction;
+    private final boolean negated;
+    private final Kind kind;
+    private final String type;
+    private final Matcher[] properties;
+
+    public static CardRestriction of(final String restriction) {
+        CardRestriction result = cache.get(restriction);
+        if (result == null) {
+            result = new CardRestriction(restriction);
+            if (cache.size() >= MAX_CACHED) {
+                cache.clear();
+            }
+            cache.put(restriction, result);
+        }
+        return result;
+    }
+
+    private CardRestriction(final String restriction0) {
+        restriction = restriction0;
+        // Inclusive restrictions are Card types
+        final String[] incR = restriction.split("\\.", 2);
+        String typePart = incR[0];
+        negated = typePart.startsWith("!");
+        if (negated) {
+            typePart = typePart.substring(1);
+        }
+
+        switch (typePart) {
+            case "Spell": kind = Kind.SPELL; break;
+            case "Permanent": kind = Kind.PERMANENT; break;
+            case "Effect": kind = Kind.EFFECT; break;
+            case "Emblem": kind = Kind.EMBLEM; break;
+            case "Boon": kind = Kind.BOON; break;
+            case "card":
+            case "Card": kind = Kind.CARD; break;
+            case "Any": kind = Kind.ANY; break;
+            default: kind = Kind.TYPE; break;
+        }
+        type = typePart;
+
+        if (incR.length > 1) {
+            final String[] exRs = incR[1].split("\\+"); // Exclusive Restrictions are ...
+            properties = new Matcher[exRs.length];
+            for (int i = 0; i < exRs.length; i++) {
+                properties[i] = compileProperty(exRs[i]);
+            }
+        } else {
+            properties = new Matcher[0];
+        }
+    }
+
+    public boolean matches(final Card card, final Player sourceController, final Card source, final CardTraitBase spellAbility) {
+        switch (kind) {
+            case SPELL:
+                if (!card.isSpell()) {
+                    return negated;
+                }
+                break;
+            case PERMANENT:
+                if (!card.isPermanent()) {
+                    return negated;
+                }
+                break;
+            case EFFECT:
+                if (!card.isImmutable()) {
+                    return negated;
+                }
+                break;
+            case EMBLEM:
+                if (!card.isEmblem()) {
+                    return negated;
+                }
+                break;
+            case BOON:
+                if (!card.isBoon()) {
+                    return negated;
+                }
+                break;
+            case CARD:
+                if (card.isImmutable()) {
+                    return negated;
+                }
+                break;
+            case ANY:
+                if (!(card.isCreature() || card.isPlaneswalker() || card.isBattle())) {
+                    return false;
+                }
+                break;
+            default:
+                if (!card.getType().hasStringType(type)) {
+                    return negated; // Check for wrong type
+                }
+        }
+
+        for (final Matcher property : properties) {
+            if (!property.matches(card, sourceController, source, spellAbility)) {
+                return negated;
+            }
+        }
+        return !negated;
+    }
+
+    private static Matcher compileProperty(final String property) {
+        final boolean negate = property.startsWith("!");
+        final String positive = negate ? property.substring(1) : property;
+
+        final Matcher known = compileKnownProperty(positive);
+        final Matcher matcher;
+        if (known == null) {
+            matcher = (card, sourceController, source, sa) -> CardProperty.cardHasProperty(card, positive, sourceController, source, sa);
+        } else {
+            // CR 702.25b if card is phased out it will not count unless specifically asked for
+            matcher = (card, sourceController, source, sa) -> !card.isPhasedOut() && known.matches(card, sourceController, source, sa);
+        }
+        if (negate) {
+            return (card, sourceController, source, sa) -> !matcher.matches(card, sourceController, source, sa);
+        }
+        return matcher;
+    }
+
+    private static Matcher compileKnownProperty(final String property) {
+        final Matcher cardMatcher = cardMatchers.get(property);
+        if (cardMatcher != null) {
+            return cardMatcher;
+        }
+
+        // ... Card keywords, "Paired" properties are checked before keywords
+        if (property.startsWith("with") && !property.contains("Paired")) {
+            final boolean without = property.startsWith("without");
+            final String keyword = property.substring(without ? 7 : 4);
+            return (card, sourceController, source, sa) -> card.hasStartOfUnHiddenKeyword(keyword) != without;
+        }
+
+        // below are properties of the card state
+        final boolean non = property.startsWith("non");
+        final String name = non ? property.substring(3) : property;
+        for (final String t : TYPES) {
+            if (t.equals(name)) {
+                return (card, sourceController, source, sa) -> card.getCurrentState().getTypeWithChanges().hasStringType(t) != non;
+            }
+        }
+        switch (name) {
+            case "White":
+            case "Blue":
+            case "Black":
+            case "Red":
+            case "Green":
+                final byte color = MagicColor.fromName(name);
+                return (card, sourceController, source, sa) -> card.getColor().hasAnyColor(color) != non;
+            case "Colorless":
+                return (card, sourceController, source, sa) -> card.getColor().isColorless() != non;
+            case "MultiColor":
+                return (card, sourceController, source, sa) -> card.getColor().isMulticolor() != non;
+            case "MonoColor":
+                return (card, sourceController, source, sa) -> card.getColor().isMonoColor() != non;
+            default:
+                return null;
+        }
+    }
+
+    private static Player getLKIController(final Card card) {
+        // lki can't be null but it does return this
+        return card.getGame().getChangeZoneLKIInfo(card).getController();
+    }
+
+    @Override
+    public String toString() {
+        return restriction;
+    }
+}
@@ -18,6 +18,7 @@
 package forge.game.card;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -36,6 +37,7 @@ import forge.game.CardTraitBase;
 import forge.game.ForgeScript;
 import forge.game.GameObject;
 import forge.game.IHasSVars;
+import forge.game.TriggerReplacementBase;
 import forge.game.ability.ApiType;
 import forge.game.card.CardView.CardStateView;
 import forge.game.keyword.Keyword;
@@ -43,6 +45,7 @@ import forge.game.keyword.KeywordCollection;
 import forge.game.keyword.KeywordInterface;
 import forge.game.player.Player;
 import forge.game.replacement.ReplacementEffect;
+import forge.game.spellability.AbilitySub;
 import forge.game.spellability.SpellAbility;
 import forge.game.spellability.SpellAbilityPredicates;
 import forge.game.staticability.StaticAbility;
@@ -133,11 +136,13 @@ public class CardState extends GameObject implements IHasSVars {
         return type;
     }
     public final void addType(String type0) {
+        card.updateLayerEpoch();
         if (type.add(type0)) {
             view.updateType(this);
         }
     }
     public final void addType(Iterable<String> type0) {
+        card.updateLayerEpoch();
         if (type.addAll(type0)) {
             view.updateType(this);
         }
@@ -148,18 +153,21 @@ public class CardState extends GameObject implements IHasSVars {
             return;
         }
         if (type0.isEmpty() && type.isEmpty()) { return; }
+        card.updateLayerEpoch();
         type.clear();
         type.addAll(type0);
         view.updateType(this);
     }
 
     public final void removeType(final CardType.Supertype st) {
+        card.updateLayerEpoch();
         if (type.remove(st)) {
             view.updateType(this);
         }
     }
 
     public final void removeCardTypes(boolean sanisfy) {
+        card.updateLayerEpoch();
         type.removeCardTypes();
         if (sanisfy) {
             type.sanisfySubtypes();
@@ -167,6 +175,7 @@ public class CardState extends GameObject implements IHasSVars {
     }
 
     public final void setCreatureTypes(Collection<String> ctypes) {
+        card.updateLayerEpoch();
         if (type.setCreatureTypes(ctypes)) {
             view.updateType(this);
         }
@@ -176,6 +185,7 @@ public class CardState extends GameObject implements IHasSVars {
         return manaCost;
     }
     public final void setManaCost(final ManaCost manaCost0) {
+        card.updateLayerEpoch();
         manaCost = manaCost0;
         view.updateManaCost(this);
     }
@@ -184,10 +194,12 @@ public class CardState extends GameObject implements IHasSVars {
         return color;
     }
     public final void addColor(final byte color) {
+        card.updateLayerEpoch();
         this.color |= color;
         view.updateColors(card);
     }
     public final void setColor(final byte color) {
+        card.updateLayerEpoch();
         this.color = color;
         view.updateColors(card);
     }
@@ -197,6 +209,7 @@ public class CardState extends GameObject implements IHasSVars {
     }
     public final void setBasePower(final int basePower0) {
         if (basePower == basePower0) { return; }
+        card.updateLayerEpoch();
         basePower = basePower0;
         view.updatePower(this);
     }
@@ -206,6 +219,7 @@ public class CardState extends GameObject implements IHasSVars {
     }
     public final void setBaseToughness(final int baseToughness0) {
         if (baseToughness == baseToughness0) { return; }
+        card.updateLayerEpoch();
         baseToughness = baseToughness0;
         view.updateToughness(this);
     }
@@ -249,6 +263,7 @@ public class CardState extends GameObject implements IHasSVars {
     }
 
     public final void setCachedKeywords(final KeywordCollection col) {
+        card.updateLayerEpoch();
         cachedKeywords = col;
     }
 
@@ -498,13 +513,22 @@ public class CardState extends GameObject implements IHasSVars {
         return result;
     }
     public boolean addReplacementEffect(final ReplacementEffect replacementEffect) {
-        return replacementEffects.add(replacementEffect);
+        if (!replacementEffects.add(replacementEffect)) {
+            return false;
+        }
+        card.updateLayerEpoch();
+        return true;
     }
     public boolean removeReplacementEffect(final ReplacementEffect replacementEffect) {
-        return replacementEffects.remove(replacementEffect);
+        if (!replacementEffects.remove(replacementEffect)) {
+            return false;
+        }
+        card.updateLayerEpoch();
+        return true;
     }
     public void clearReplacementEffects() {
         replacementEffects.clear();
+        card.updateLayerEpoch();
     }
 
     public final boolean hasReplacementEffect(final ReplacementEffect re) {
@@ -689,6 +713,148 @@ public class CardState extends GameObject implements IHasSVars {
         }
     }
 
+    /**
+     * Copy the keywords of a state of a card built from its script, see CardFactory.getCard(), to the same new card.
+     * This is done for all states before copyFromTemplate(), as the abilities of a keyword may be in other states too.
+     */
+    final void copyKeywordsFromTemplate(final CardState source, final Map<Object, Object> copies) {
+        for (KeywordInterface k : source.intrinsicKeywords) {
+            KeywordInterface copy = (KeywordInterface) copies.get(k);
+            if (copy == null) {
+                copy = k.copy(card, false);
+                copiedFromTemplate(k.getAbilities(), copy.getAbilities(), copies);
+                copiedFromTemplate(k.getTriggers(), copy.getTriggers(), copies);
+                copiedFromTemplate(k.getReplacements(), copy.getReplacements(), copies);
+                copiedFromTemplate(k.getStaticAbilities(), copy.getStaticAbilities(), copies);
+                copies.put(k, copy);
+            }
+            intrinsicKeywords.insert(copy);
+        }
+        card.updateKeywordsCache(this);
+    }
+
+    /**
+     * Copy the rest of a state of a card built from its script to the same new card, after copyKeywordsFromTemplate().
+     * Traits found in several places of the source are copied once, so the copies are shared the same way.
+     */
+    final void copyFromTemplate(final CardState source, final Map<Object, Object> copies) {
+        setName(source.getName());
+        setType(source.type);
+        setManaCost(source.getManaCost());
+        setColor(source.getColor());
+        setBasePower(source.getBasePower());
+        setBaseToughness(source.getBaseToughness());
+        basePowerString = source.basePowerString;
+        baseToughnessString = source.baseToughnessString;
+        setBaseLoyalty(source.getBaseLoyalty());
+        setBaseDefense(source.getBaseDefense());
+        setSVars(source.getSVars());
+        setImageKey(source.getImageKey());
+
+        for (SpellAbility sa : source.manaAbilities) {
+            manaAbilities.add(copyFromTemplate(sa, copies));
+        }
+        for (SpellAbility sa : source.nonManaAbilities) {
+            nonManaAbilities.add(copyFromTemplate(sa, copies));
+        }
+        for (Trigger tr : source.triggers) {
+            Trigger copy = (Trigger) copies.get(tr);
+            if (copy == null) {
+                copy = tr.copy(card, false);
+                copiedFromTemplate(tr, copy, copies);
+            }
+            triggers.add(copy);
+        }
+        for (ReplacementEffect re : source.replacementEffects) {
+            ReplacementEffect copy = (ReplacementEffect) copies.get(re);
+            if (copy == null) {
+                copy = re.copy(card, false);
+                copiedFromTemplate(re, copy, copies);
+            }
+            replacementEffects.add(copy);
+        }
+        for (StaticAbility st : source.staticAbilities) {
+            StaticAbility copy = (StaticAbility) copies.get(st);
+            if (copy == null) {
+                copy = st.copy(card, false);
+                copiedFromTemplate(st, copy, copies);
+            }
+            staticAbilities.add(copy);
+        }
+    }
+
+    private SpellAbility copyFromTemplate(final SpellAbility sa, final Map<Object, Object> copies) {
+        SpellAbility copy = (SpellAbility) copies.get(sa);
+        if (copy == null) {
+            copy = sa.copy(card, false);
+            copiedFromTemplate(sa, copy, copies);
+        }
+        return copy;
+    }
+
+    private void copiedFromTemplate(final Collection<? extends CardTraitBase> source, final Collection<? extends CardTraitBase> copy,
+            final Map<Object, Object> copies) {
+        final Iterator<? extends CardTraitBase> it = copy.iterator();
+        for (CardTraitBase ctb : source) {
+            copiedFromTemplate(ctb, it.next(), copies);
+        }
+    }
+
+    // a copied trait still has the state of the template, only the params it was parsed with and not those put afterwards,
+    // and its own copy of abilities shared with other traits
+    private void copiedFromTemplate(final CardTraitBase source, final CardTraitBase copy, final Map<Object, Object> copies) {
+        copies.put(source, copy);
+        if (copy.getCardState() != null && copy.getCardState().getCard() != card) {
+            copy.setCardState(card.getState(copy.getCardState().getStateName()));
+        }
+        if (!copy.getMapParams().equals(source.getMapParams())) {
+            for (String key : ImmutableList.copyOf(copy.getMapParams().keySet())) {
+                if (!source.hasParam(key)) {
+                    copy.removeParam(key);
+                }
+            }
+            for (Map.Entry<String, String> e : source.getMapParams().entrySet()) {
+                copy.putParam(e.getKey(), e.getValue());
+            }
+        }
+
+        if (source instanceof TriggerReplacementBase) {
+            final SpellAbility overriding = ((TriggerReplacementBase) source).getOverridingAbility();
+            if (overriding != null) {
+                final SpellAbility shared = (SpellAbility) copies.get(overriding);
+                if (shared != null) {
+                    ((TriggerReplacementBase) copy).setOverridingAbility(shared);
+                } else {
+                    copiedFromTemplate(overriding, ((TriggerReplacementBase) copy).getOverridingAbility(), copies);
+                }
+            }
+        }
+        if (!(source instanceof SpellAbility)) {
+            return;
+        }
+        final SpellAbility sa = (SpellAbility) source;
+        final SpellAbility saCopy = (SpellAbility) copy;
+        if (sa.getSubAbility() != null) {
+            final AbilitySub shared = (AbilitySub) copies.get(sa.getSubAbility());
+            if (shared != null) {
+                saCopy.setSubAbility(shared);
+            } else {
+                copiedFromTemplate(sa.getSubAbility(), saCopy.getSubAbility(), copies);
+            }
+        }
+        for (Map.Entry<String, SpellAbility> e : sa.getAdditionalAbilities().entrySet()) {
+            final SpellAbility shared = (SpellAbility) copies.get(e.getValue());
+            if (shared != null) {
+                saCopy.setAdditionalAbility(e.getKey(), shared);
+            } else {
+                copiedFromTemplate(e.getValue(), saCopy.getAdditionalAbility(e.getKey()), copies);
+            }
+        }
+        for (Map.Entry<String, List<AbilitySub>> e : sa.getAdditionalAbilityLists().entrySet()) {
+            copiedFromTemplate(e.getValue(), saCopy.getAdditionalAbilityList(e.getKey()), copies);
+        }
+    }
+
     public CardState copy(final Card host, CardStateName name, final boolean lki) {
         CardState result = new CardState(host, name);
         result.copyFrom(this, lki);
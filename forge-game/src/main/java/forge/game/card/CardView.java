@@ -746,6 +746,12 @@ public class CardView extends GameEntityView {
         return getText(getCurrentState(), null);
     }
     public String getText(CardStateView state, HashMap<String, String> translationsText) {
+        return getText(state, translationsText, null);
+    }
+    /**
+     * @param card if not null, the card to take the ability texts from, as a headless game doesn't keep them in the view
+     */
+    String getText(CardStateView state, HashMap<String, String> translationsText, Card card) {
         final StringBuilder sb = new StringBuilder();
         String tname = "", toracle = "", taltname = "", taltoracle = "";
 
@@ -795,11 +801,11 @@ public class CardView extends GameEntityView {
 
         if (isSplitCard() && !isFaceDown() && getZone() != ZoneType.Stack) {
             sb.append("(").append(getLeftSplitState().getName()).append(") ");
-            sb.append(getLeftSplitState().getAbilityText());
+            sb.append(getAbilityText(getLeftSplitState(), card));
             sb.append("\r\n\r\n").append("(").append(getRightSplitState().getName()).append(") ");
-            sb.append(getRightSplitState().getAbilityText());
+            sb.append(getAbilityText(getRightSplitState(), card));
         } else {
-            sb.append(state.getAbilityText());
+            sb.append(getAbilityText(state, card));
         }
 
         String nonAbilityText = get(TrackableProperty.NonAbilityText);
@@ -869,6 +875,22 @@ public class CardView extends GameEntityView {
         return sb.toString().trim();
     }
 
+    @Override
+    public long getVersion() {
+        //the state views are sent along with the card, so it changes when they do
+        long version = super.getVersion();
+        for (TrackableProperty key : STATE_PROPS) {
+            CardStateView state = get(key);
+            if (state != null) {
+                version = Math.max(version, state.getVersion());
+            }
+        }
+        return version;
+    }
+    private static final TrackableProperty[] STATE_PROPS = {
+            TrackableProperty.CurrentState, TrackableProperty.AlternateState,
+            TrackableProperty.LeftSplitState, TrackableProperty.RightSplitState };
+
     public CardStateView getCurrentState() {
         return get(TrackableProperty.CurrentState);
     }
@@ -880,6 +902,11 @@ public class CardView extends GameEntityView {
         return get(TrackableProperty.AlternateState);
     }
 
+    private static String getAbilityText(CardStateView state, Card card) {
+        final CardState cardState = card == null ? null : card.getState(state.getState());
+        return cardState == null ? state.getAbilityText() : card.getAbilityText(cardState);
+    }
+
     public boolean hasLeftSplitState() {
         return getLeftSplitState() != null;
     }
@@ -899,7 +926,7 @@ public class CardView extends GameEntityView {
     }
     public String getBackSideName() { return get(TrackableProperty.BackSideName); }
 
-    CardStateView createAlternateState(final CardStateName state0) {
+    public CardStateView createAlternateState(final CardStateName state0) {
         return new CardStateView(getId(), state0, tracker);
     }
 
@@ -1541,10 +1568,17 @@ public class CardView extends GameEntityView {
             return get(TrackableProperty.AbilityText);
         }
         void updateAbilityText(Card c, CardState state) {
+            if (isHeadless()) {
+                return;
+            }
             set(TrackableProperty.AbilityText, c.getAbilityText(state));
         }
         void updateKeywords(Card c, CardState state) {
             c.updateKeywordsCache(state);
+            if (isHeadless()) {
+                // the keyword icons are only shown, but the cache above is used by the game
+                return;
+            }
             set(TrackableProperty.HasDeathtouch, c.hasKeyword(Keyword.DEATHTOUCH, state));
             set(TrackableProperty.HasToxic, c.hasKeyword(Keyword.TOXIC, state));
             set(TrackableProperty.HasDevoid, c.hasKeyword(Keyword.DEVOID, state));
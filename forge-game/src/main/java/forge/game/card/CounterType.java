@@ -1,6 +1,7 @@
 package forge.game.card;
 
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Objects;
 
@@ -22,8 +23,9 @@ public class CounterType implements Comparable<CounterType>, Serializable {
             "Flying", "First Strike", "Double Strike", "Deathtouch", "Exalted", "Haste", "Hexproof",
             "Indestructible", "Lifelink", "Menace", "Reach", "Shadow", "Trample", "Vigilance");
 
-    private static Map<CounterEnumType, CounterType> eMap = Maps.newEnumMap(CounterEnumType.class);
-    private static Map<String, CounterType> sMap = Maps.newHashMap();
+    // synchronized, AI simulations can look up counter types from several threads
+    private static Map<CounterEnumType, CounterType> eMap = Collections.synchronizedMap(Maps.newEnumMap(CounterEnumType.class));
+    private static Map<String, CounterType> sMap = Collections.synchronizedMap(Maps.newHashMap());
 
     private CounterType(CounterEnumType e, String s) {
         this.eVal = e;
@@ -31,17 +33,11 @@ public class CounterType implements Comparable<CounterType>, Serializable {
     }
 
     public static CounterType get(CounterEnumType e) {
-        if (!eMap.containsKey(e)) {
-            eMap.put(e, new CounterType(e, null));
-        }
-        return eMap.get(e);
+        return eMap.computeIfAbsent(e, k -> new CounterType(k, null));
     }
 
     public static CounterType get(String s) {
-        if (!sMap.containsKey(s)) {
-            sMap.put(s, new CounterType(null, s));
-        }
-        return sMap.get(s);
+        return sMap.computeIfAbsent(s, k -> new CounterType(null, k));
     }
 
     public static CounterType getType(String name) {
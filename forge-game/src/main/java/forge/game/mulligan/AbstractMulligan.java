@@ -37,7 +37,8 @@ public abstract class AbstractMulligan {
         try {
             Thread.sleep(100); //delay for a tiny bit to give UI a chance catch up
         } catch (InterruptedException e) {
-            e.printStackTrace();
+            // keep it for the game loop, which ends the game when it's interrupted
+            Thread.currentThread().interrupt();
         }
         player.shuffle(null);
         timesMulliganed++;
@@ -1014,6 +1014,9 @@ public class PhaseHandler implements java.io.Serializable {
 
         // MAIN GAME LOOP
         while (!game.isGameOver()) {
+            if (stopIfInterrupted()) {
+                return;
+            }
             if (givePriorityToPlayer) {
                 if (DEBUG_PHASES) {
                     sw.start();
@@ -1024,7 +1027,7 @@ public class PhaseHandler implements java.io.Serializable {
 
                 int loopCount = 0;
                 do {
-                    if (checkStateBasedEffects()) {
+                    if (checkStateBasedEffects() || stopIfInterrupted()) {
                         // state-based effects check could lead to game over
                         return;
                     }
@@ -1140,6 +1143,19 @@ public class PhaseHandler implements java.io.Serializable {
         }
     }
 
+    // whoever runs the game may stop it by interrupting its thread, the game then ends in a draw here
+    // instead of being ended from another thread while it's still changing
+    private boolean stopIfInterrupted() {
+        if (!Thread.currentThread().isInterrupted()) {
+            return false;
+        }
+        for (final Player p : game.getPlayers()) {
+            p.intentionalDraw();
+        }
+        game.setGameOver(GameEndReason.Draw);
+        return true;
+    }
+
     private boolean checkStateBasedEffects() {
         final Set<Card> allAffectedCards = new HashSet<>();
         do {
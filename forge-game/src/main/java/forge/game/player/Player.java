@@ -1650,7 +1650,7 @@ public class Player extends GameEntity implements Comparable<Player> {
         final CardCollection list = new CardCollection(getCardsIn(ZoneType.Library));
 
         // Note: Shuffling once is sufficient.
-        Collections.shuffle(list, MyRandom.getRandom());
+        Collections.shuffle(list, getGame().getRandom());
 
         getZone(ZoneType.Library).setCards(getController().cheatShuffle(list));
 
@@ -2745,10 +2745,15 @@ public class Player extends GameEntity implements Comparable<Player> {
         return inboundTokens;
     }
     public void addInboundToken(Card c) {
-        inboundTokens.add(c);
+        if (inboundTokens.add(c)) {
+            game.getReplacementHandler().addInboundToken(this, c);
+        }
     }
     public void removeInboundToken(Card c) {
-        inboundTokens.remove(c);
+        final Card held = inboundTokens.get(c);
+        if (inboundTokens.remove(c)) {
+            game.getReplacementHandler().removeInboundToken(this, held);
+        }
     }
 
     public void onMulliganned() {
@@ -536,7 +536,7 @@ public class PlayerView extends GameEntityView {
     }
     void updateZone(PlayerZone zone) {
         TrackableProperty prop = getZoneProp(zone.getZoneType());
-        if (prop == null) { return; }
+        if (prop == null || isHeadless()) { return; }
         set(prop, CardView.getCollection(zone.getCards(false)));
 
         //update delirium
@@ -557,6 +557,7 @@ public class PlayerView extends GameEntityView {
     }
 
     void updateFlashbackForPlayer(Player p) {
+        if (isHeadless()) { return; }
         set(TrackableProperty.Flashback, CardView.getCollection(p.getCardsIn(ZoneType.Flashback)));
     }
 
@@ -18,6 +18,7 @@
 package forge.game.replacement;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -29,8 +30,11 @@ import forge.game.card.*;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.collect.Table;
 
 import forge.game.CardTraitBase;
 import forge.game.Game;
@@ -61,6 +65,22 @@ public class ReplacementHandler {
     // List of all replacement effect candidates for DamageDone event, in APNAP order
     private final List<Map<ReplacementEffect, List<Map<AbilityKey, Object>>>> replaceDamageList = new ArrayList<>();
 
+    // Cards of the game that have replacement effects of each kind. Cards are added and removed as they enter and
+    // leave the zones of the game, and indexed again when anything bumping the layer epoch changed them.
+    // Cards changing zones are in the game twice with the same ID for a moment, so they are told apart by identity.
+    private final Table<ReplacementType, ReplacementLayer, Set<Card>> replacementIndex = HashBasedTable.create();
+    private final Map<Card, List<Set<Card>>> indexedIn = Maps.newIdentityHashMap();
+    // where each card of the game is: the zones visited by Game#forEachCardInGame, or the player it's an inbound token of
+    private final Map<Card, List<Object>> cardLocations = Maps.newIdentityHashMap();
+    // the cards with each ID, the LKI of a card stands for all of them
+    private final Map<Integer, Set<Card>> idCards = Maps.newHashMap();
+    private final Set<Card> changedCards = Sets.newIdentityHashSet();
+    // cards whose replacement effects were read to find the candidates of an event
+    private long cardsVisited = 0;
+
+    private static final List<ZoneType> VISITED_ZONES = Arrays.asList(ZoneType.Graveyard, ZoneType.Hand,
+            ZoneType.Library, ZoneType.Battlefield, ZoneType.Exile, ZoneType.Command);
+
     /**
      * ReplacementHandler.
      * @param gameState
@@ -113,41 +133,38 @@ public class ReplacementHandler {
         }*/
 
         // Round up Static replacement effects
-        game.forEachCardInGame(new Visitor<Card>() {
-            @Override
-            public boolean visit(Card crd) {
-                Card c = preList.get(crd);
-                Zone cardZone = game.getZoneOf(c);
-
-                // only when not prelist
-                boolean noLKIstate = c != crd || event != ReplacementType.Moved || c.isImmutable() || runParams.get(AbilityKey.LastStateBattlefield) == null;
-                if (!noLKIstate) {
-                    Card lastState = ((CardCollectionView) runParams.get(AbilityKey.LastStateBattlefield)).get(c);
-                    if (lastState != c) {
-                        // use LKI because it has the right RE from the state before the effect started
-                        c = lastState;
-                        cardZone = lastState.getLastKnownZone();
-                    } else if (cardZone != null && cardZone.is(ZoneType.Battlefield)) {
-                        // no LKI found so it shouldn't apply, this can happen during simultaneous zone changes
-                        return true;
-                    }
+        final CardCollectionView lastStateBattlefield = ReplacementType.Moved.equals(event) ?
+                (CardCollectionView) runParams.get(AbilityKey.LastStateBattlefield) : null;
+        for (final Card crd : getReplacementCandidates(event, layer, preList, lastStateBattlefield)) {
+            Card c = preList.get(crd);
+            Zone cardZone = game.getZoneOf(c);
+
+            // only when not prelist
+            boolean noLKIstate = c != crd || event != ReplacementType.Moved || c.isImmutable() || runParams.get(AbilityKey.LastStateBattlefield) == null;
+            if (!noLKIstate) {
+                Card lastState = ((CardCollectionView) runParams.get(AbilityKey.LastStateBattlefield)).get(c);
+                if (lastState != c) {
+                    // use LKI because it has the right RE from the state before the effect started
+                    c = lastState;
+                    cardZone = lastState.getLastKnownZone();
+                } else if (cardZone != null && cardZone.is(ZoneType.Battlefield)) {
+                    // no LKI found so it shouldn't apply, this can happen during simultaneous zone changes
+                    continue;
                 }
+            }
 
-                for (final ReplacementEffect replacementEffect : c.getReplacementEffects()) {
-                    if (!replacementEffect.hasRun() && !hasRun.contains(replacementEffect)
-                            && (layer == null || replacementEffect.getLayer() == layer)
-                            && event.equals(replacementEffect.getMode())
-                            && !possibleReplacers.contains(replacementEffect)
-                            && replacementEffect.zonesCheck(cardZone)
-                            && replacementEffect.requirementsCheck(game)
-                            && replacementEffect.canReplace(runParams)) {
-                        possibleReplacers.add(replacementEffect);
-                    }
+            for (final ReplacementEffect replacementEffect : c.getReplacementEffects()) {
+                if (!replacementEffect.hasRun() && !hasRun.contains(replacementEffect)
+                        && (layer == null || replacementEffect.getLayer() == layer)
+                        && event.equals(replacementEffect.getMode())
+                        && !possibleReplacers.contains(replacementEffect)
+                        && replacementEffect.zonesCheck(cardZone)
+                        && replacementEffect.requirementsCheck(game)
+                        && replacementEffect.canReplace(runParams)) {
+                    possibleReplacers.add(replacementEffect);
                 }
-                return true;
             }
-
-        });
+        }
 
         if (checkAgain) {
             if (affectedLKI != null && affectedCard != null) {
@@ -172,6 +189,182 @@ public class ReplacementHandler {
         return possibleReplacers;
     }
 
+    /**
+     * Cards that could have a replacement effect for the event, in the order they are visited in the game.
+     * Besides the indexed ones, cards that are replaced by their LKI need to be checked too,
+     * because the LKI might have replacement effects the card doesn't have anymore.
+     */
+    private List<Card> getReplacementCandidates(final ReplacementType event, final ReplacementLayer layer,
+            final CardCollectionView preList, final CardCollectionView lastStateBattlefield) {
+        updateReplacementIndex();
+
+        final Set<Card> candidates = Sets.newIdentityHashSet();
+        if (layer == null) {
+            for (final Set<Card> cards : replacementIndex.row(event).values()) {
+                candidates.addAll(cards);
+            }
+        } else {
+            final Set<Card> cards = replacementIndex.get(event, layer);
+            if (cards != null) {
+                candidates.addAll(cards);
+            }
+        }
+        addIdCards(candidates, preList);
+        if (lastStateBattlefield != null) {
+            addIdCards(candidates, lastStateBattlefield);
+        }
+
+        final Map<Card, Long> order = Maps.newIdentityHashMap();
+        for (final Card c : candidates) {
+            final long pos = getWalkPosition(c);
+            // cards of players that left the game aren't visited
+            if (pos != Long.MAX_VALUE) {
+                order.put(c, pos);
+            }
+        }
+        final List<Card> result = Lists.newArrayList(order.keySet());
+        result.sort((a, b) -> Long.compare(order.get(a), order.get(b)));
+        cardsVisited += result.size();
+        return result;
+    }
+
+    private void addIdCards(final Set<Card> candidates, final Iterable<Card> cards) {
+        for (final Card c : cards) {
+            // cards not in the game can't replace anything
+            final Set<Card> withId = idCards.get(c.getId());
+            if (withId != null) {
+                candidates.addAll(withId);
+            }
+        }
+    }
+
+    // position of the card when visiting the game with Game#forEachCardInGame
+    private long getWalkPosition(final Card c) {
+        long result = Long.MAX_VALUE;
+        final List<Player> players = game.getPlayers();
+        for (final Object location : cardLocations.get(c)) {
+            final long pos;
+            if (location instanceof Player) {
+                final Player p = (Player) location;
+                pos = getWalkPosition(players.indexOf(p), VISITED_ZONES.size(), p.getInboundTokens().indexOf(c));
+            } else {
+                final Zone zone = (Zone) location;
+                if (zone == game.getStackZone()) {
+                    pos = getWalkPosition(players.size(), 0, zone.getCards().indexOf(c));
+                } else {
+                    pos = getWalkPosition(players.indexOf(zone.getPlayer()), VISITED_ZONES.indexOf(zone.getZoneType()),
+                            zone.getCards(false).indexOf(c));
+                }
+            }
+            result = Math.min(result, pos);
+        }
+        return result;
+    }
+
+    private static long getWalkPosition(final int player, final int zone, final int index) {
+        if (player < 0) {
+            return Long.MAX_VALUE;
+        }
+        return ((long) (player * (VISITED_ZONES.size() + 1) + zone) << 32) | index;
+    }
+
+    public void addToIndex(final Zone zone, final Card c) {
+        if (zone == game.getStackZone() || VISITED_ZONES.contains(zone.getZoneType())) {
+            addLocation(zone, c);
+        }
+    }
+    public void removeFromIndex(final Zone zone, final Card c) {
+        removeLocation(zone, c);
+    }
+    public void addInboundToken(final Player p, final Card c) {
+        addLocation(p, c);
+    }
+    public void removeInboundToken(final Player p, final Card c) {
+        removeLocation(p, c);
+    }
+
+    /**
+     * The replacement effects of the card might have changed, it's indexed again when an event is replaced next.
+     */
+    public void updateCard(final Card c) {
+        if (cardLocations.containsKey(c)) {
+            changedCards.add(c);
+        }
+    }
+
+    private void addLocation(final Object location, final Card c) {
+        List<Object> locations = cardLocations.get(c);
+        if (locations == null) {
+            locations = Lists.newArrayListWithCapacity(1);
+            cardLocations.put(c, locations);
+            Set<Card> withId = idCards.get(c.getId());
+            if (withId == null) {
+                withId = Sets.newIdentityHashSet();
+                idCards.put(c.getId(), withId);
+            }
+            withId.add(c);
+        }
+        if (!locations.contains(location)) {
+            locations.add(location);
+        }
+        changedCards.add(c);
+    }
+
+    private void removeLocation(final Object location, final Card c) {
+        final List<Object> locations = cardLocations.get(c);
+        if (locations == null || !locations.remove(location) || !locations.isEmpty()) {
+            return;
+        }
+        cardLocations.remove(c);
+        final Set<Card> withId = idCards.get(c.getId());
+        withId.remove(c);
+        if (withId.isEmpty()) {
+            idCards.remove(c.getId());
+        }
+        changedCards.remove(c);
+        removeFromReplacementIndex(c);
+    }
+
+    private void removeFromReplacementIndex(final Card c) {
+        final List<Set<Card>> cells = indexedIn.remove(c);
+        if (cells != null) {
+            for (final Set<Card> cards : cells) {
+                cards.remove(c);
+            }
+        }
+    }
+
+    private void updateReplacementIndex() {
+        // reading the replacement effects can create some of them
+        final List<Card> changed = Lists.newArrayList(changedCards);
+        changedCards.clear();
+        for (final Card c : changed) {
+            removeFromReplacementIndex(c);
+            final List<Set<Card>> cells = Lists.newArrayList();
+            for (final ReplacementEffect re : c.getReplacementEffects()) {
+                Set<Card> cards = replacementIndex.get(re.getMode(), re.getLayer());
+                if (cards == null) {
+                    cards = Sets.newIdentityHashSet();
+                    replacementIndex.put(re.getMode(), re.getLayer(), cards);
+                }
+                if (cards.add(c)) {
+                    cells.add(cards);
+                }
+            }
+            if (!cells.isEmpty()) {
+                indexedIn.put(c, cells);
+            }
+        }
+        cardsVisited += changed.size();
+    }
+
+    /**
+     * @return the number of cards whose replacement effects were read to find the candidates of the events so far
+     */
+    public long getCardsVisited() {
+        return cardsVisited;
+    }
+
     /**
      *
      * Runs any applicable replacement effects.
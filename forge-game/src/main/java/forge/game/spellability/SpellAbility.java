@@ -18,6 +18,7 @@
 package forge.game.spellability;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import forge.game.cost.CostSacrifice;
 import org.apache.commons.lang3.ObjectUtils;
@@ -87,8 +88,8 @@ import forge.util.TextUtil;
  * @version $Id$
  */
 public abstract class SpellAbility extends CardTraitBase implements ISpellAbility, IIdentifiable, Comparable<SpellAbility> {
-    private static int maxId = 0;
-    private static int nextId() { return ++maxId; }
+    private static final AtomicInteger maxId = new AtomicInteger();
+    private static int nextId() { return maxId.incrementAndGet(); }
 
     public static class EmptySa extends SpellAbility {
         public EmptySa(Card sourceCard) { super(sourceCard, Cost.Zero); setActivatingPlayer(sourceCard.getController());}
@@ -261,8 +262,10 @@ public abstract class SpellAbility extends CardTraitBase implements ISpellAbilit
             }
         }
 
-        view.updateHostCard(this);
-        view.updateDescription(this); //description can change if host card does
+        if (!view.isHeadless()) {
+            view.updateHostCard(this);
+            view.updateDescription(this); //description can change if host card does
+        }
     }
 
     @Override
@@ -488,7 +491,7 @@ public abstract class SpellAbility extends CardTraitBase implements ISpellAbilit
                 updated |= sa.setActivatingPlayer(player, lki);
             }
         }
-        if (!lki && updated) {
+        if (!lki && updated && !view.isHeadless()) {
             view.updateCanPlay(this, false);
         }
         return updated;
@@ -902,7 +905,7 @@ public abstract class SpellAbility extends CardTraitBase implements ISpellAbilit
     }
 
     public String getStackDescription() {
-        String text = getHostCard().getView().getText();
+        String text = getHostCard().getViewText();
         if (stackDescription.equals(text) && !text.isEmpty()) {
             return getHostCard().getName() + " - " + text;
         }
@@ -911,7 +914,7 @@ public abstract class SpellAbility extends CardTraitBase implements ISpellAbilit
     public void setStackDescription(final String s) {
         originalStackDescription = s;
         stackDescription = originalStackDescription;
-        if (StringUtils.isEmpty(description) && StringUtils.isEmpty(hostCard.getView().getText())) {
+        if (StringUtils.isEmpty(description) && StringUtils.isEmpty(hostCard.getViewText())) {
             setDescription(s);
         }
     }
@@ -1029,7 +1032,9 @@ public abstract class SpellAbility extends CardTraitBase implements ISpellAbilit
         if (subAbility != null) {
             subAbility.setParent(this);
         }
-        view.updateDescription(this); //description changes when sub-abilities change
+        if (!view.isHeadless()) {
+            view.updateDescription(this); //description changes when sub-abilities change
+        }
     }
 
     public Map<String, SpellAbility> getAdditionalAbilities() {
@@ -1055,7 +1060,9 @@ public abstract class SpellAbility extends CardTraitBase implements ISpellAbilit
             }
             additionalAbilities.put(name, sa);
         }
-        view.updateDescription(this); //description changes when sub-abilities change
+        if (!view.isHeadless()) {
+            view.updateDescription(this); //description changes when sub-abilities change
+        }
     }
 
     public Map<String, List<AbilitySub>> getAdditionalAbilityLists() {
@@ -1079,7 +1086,9 @@ public abstract class SpellAbility extends CardTraitBase implements ISpellAbilit
             }
             additionalAbilityLists.put(name, result);
         }
-        view.updateDescription(this);
+        if (!view.isHeadless()) {
+            view.updateDescription(this);
+        }
     }
     public void appendSubAbility(final AbilitySub toAdd) {
         SpellAbility tailend = this;
@@ -19,6 +19,7 @@ package forge.game.spellability;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.google.common.collect.Sets;
 
@@ -43,8 +44,8 @@ import forge.util.TextUtil;
  * @version $Id$
  */
 public class SpellAbilityStackInstance implements IIdentifiable, IHasCardView {
-    private static int maxId = 0;
-    public static int nextId() { return ++maxId; }
+    private static final AtomicInteger maxId = new AtomicInteger();
+    public static int nextId() { return maxId.incrementAndGet(); }
 
     // At some point I want this functioning more like Target/Target Choices
     // where the SA has an "active"
@@ -30,6 +30,9 @@ public class SpellAbilityView extends TrackableObject implements IHasCardView {
     }
     SpellAbilityView(final SpellAbility sa, Tracker tracker) {
         super(sa.getId(), tracker);
+        if (isHeadless()) {
+            return; // filled in by SpellAbility.getView if it's ever asked for
+        }
         updateHostCard(sa);
         updateDescription(sa);
         updatePromptIfOnlyPossibleAbility(sa);
@@ -6,6 +6,7 @@ import forge.game.player.PlayerView;
 import forge.trackable.TrackableCollection;
 import forge.trackable.TrackableObject;
 import forge.trackable.TrackableProperty;
+import forge.trackable.Tracker;
 import forge.util.collect.FCollectionView;
 
 public class StackItemView extends TrackableObject implements IHasCardView {
@@ -26,6 +27,10 @@ public class StackItemView extends TrackableObject implements IHasCardView {
         return collection;
     }
 
+    public StackItemView(final int id0, final Tracker tracker) {
+        super(id0, tracker);
+    }
+
     public StackItemView(SpellAbilityStackInstance si) {
         super(si.getId(), si.getSourceCard().getGame().getTracker());
         updateKey(si);
@@ -0,0 +1,76 @@
+package forge.game.trigger;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * The currently active triggers, indexed by {@link TriggerType} and by trigger ID.
+ * Running a trigger mode only needs to look at the triggers listening for it,
+ * and registering a trigger doesn't need to scan for an active one with the same ID.
+ */
+final class ActiveTriggerRegistry {
+    // keeps registration order inside each mode, the order triggers go off in depends on it
+    private final Map<TriggerType, List<Trigger>> byMode = Maps.newEnumMap(TriggerType.class);
+    private final Map<Integer, Trigger> byId = Maps.newHashMap();
+
+    public synchronized boolean contains(final int id) {
+        return byId.containsKey(id);
+    }
+
+    /**
+     * @return false if a trigger with the same ID is already active
+     */
+    public synchronized boolean add(final Trigger t) {
+        if (byId.containsKey(t.getId())) {
+            return false;
+        }
+        byId.put(t.getId(), t);
+        List<Trigger> triggers = byMode.get(t.getMode());
+        if (triggers == null) {
+            triggers = Lists.newArrayList();
+            byMode.put(t.getMode(), triggers);
+        }
+        triggers.add(t);
+        return true;
+    }
+
+    public synchronized void removeAll(final Collection<Trigger> toRemove) {
+        for (final Trigger t : toRemove) {
+            if (byId.get(t.getId()) == t) {
+                byId.remove(t.getId());
+            }
+            final List<Trigger> triggers = byMode.get(t.getMode());
+            if (triggers != null) {
+                triggers.remove(t);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        byId.clear();
+        byMode.clear();
+    }
+
+    /**
+     * @return a copy of the active triggers of that mode, safe to use while triggers get (un)registered
+     */
+    public synchronized List<Trigger> get(final TriggerType mode) {
+        final List<Trigger> triggers = byMode.get(mode);
+        if (triggers == null) {
+            return Lists.newArrayList();
+        }
+        return Lists.newArrayList(triggers);
+    }
+
+    public synchronized List<Trigger> getAll() {
+        final List<Trigger> result = Lists.newArrayList();
+        for (final List<Trigger> triggers : byMode.values()) {
+            result.addAll(triggers);
+        }
+        return result;
+    }
+}
@@ -48,7 +48,7 @@ import io.sentry.Sentry;
 public class TriggerHandler {
     private final Set<TriggerType> suppressedModes = Collections.synchronizedSet(EnumSet.noneOf(TriggerType.class));
     private boolean allSuppressed = false;
-    private final List<Trigger> activeTriggers = Collections.synchronizedList(new ArrayList<>());
+    private final ActiveTriggerRegistry activeTriggers = new ActiveTriggerRegistry();
 
     private final List<Trigger> delayedTriggers = Collections.synchronizedList(new ArrayList<>());
     private final List<Trigger> thisTurnDelayedTriggers = Collections.synchronizedList(new ArrayList<>());
@@ -197,9 +197,7 @@ public class TriggerHandler {
             @Override
             public boolean visit(Card c) {
                 for (final Trigger t : c.getTriggers()) {
-                    if (isTriggerActive(t)) {
-                        activeTriggers.add(t);
-                    }
+                    registerOneTrigger(t);
                 }
                 return true;
             }
@@ -219,7 +217,7 @@ public class TriggerHandler {
     public final void clearActiveTriggers(final Card c, Zone zoneFrom) {
         final List<Trigger> toBeRemoved = Lists.newArrayList();
 
-        for (Trigger t : activeTriggers) {
+        for (Trigger t : activeTriggers.getAll()) {
             // Clear if no ZoneFrom, or not coming from the TriggerZone
             if (c.getId() == t.getHostCard().getId()) {
                 if (!c.getTriggers().contains(t) || !t.zonesCheck(zoneFrom))
@@ -253,8 +251,7 @@ public class TriggerHandler {
 
     public final boolean registerOneTrigger(final Trigger t) {
         if (isTriggerActive(t)) {
-            activeTriggers.add(t);
-            return true;
+            return activeTriggers.add(t);
         }
         return false;
     }
@@ -274,7 +271,7 @@ public class TriggerHandler {
     }
 
     private void runStateTrigger(final Map<AbilityKey, Object> runParams) {
-        for (final Trigger t: Lists.newArrayList(activeTriggers)) {
+        for (final Trigger t : activeTriggers.get(TriggerType.Always)) {
             if (canRunTrigger(t, TriggerType.Always, runParams)) {
                 runSingleTrigger(t, runParams);
             }
@@ -312,7 +309,7 @@ public class TriggerHandler {
         boolean checkStatics = false;
 
         // Static triggers
-        for (final Trigger t : Lists.newArrayList(activeTriggers)) {
+        for (final Trigger t : activeTriggers.get(mode)) {
             if (t.isStatic() && canRunTrigger(t, mode, runParams)) {
                 int x = 1 + StaticAbilityPanharmonicon.handlePanharmonicon(game, t, runParams);
 
@@ -355,7 +352,7 @@ public class TriggerHandler {
         final TriggerType mode = wt.getMode();
         final Map<AbilityKey, Object> runParams = wt.getParams();
         final boolean wasCollected = wt.getTriggers() != null;
-        final Iterable<Trigger> triggers = wasCollected ? wt.getTriggers() : activeTriggers;
+        final Iterable<Trigger> triggers = wasCollected ? wt.getTriggers() : activeTriggers.get(mode);
 
         boolean checkStatics = false;
 
@@ -404,14 +401,8 @@ public class TriggerHandler {
             return false; // Host card isn't where it needs to be.
         }
 
-        for (Trigger t : this.activeTriggers) {
-            // If an ID that matches this ID is already active, don't add it
-            if (regtrig.getId() == t.getId()) {
-                return false;
-            }
-        }
-
-        return true;
+        // If an ID that matches this ID is already active, don't add it
+        return !activeTriggers.contains(regtrig.getId());
     }
 
     private boolean canRunTrigger(final Trigger regtrig, final TriggerType mode, final Map<AbilityKey, Object> runParams) {
@@ -622,7 +613,7 @@ public class TriggerHandler {
 
     public List<Trigger> getActiveTrigger(final TriggerType mode, final Map<AbilityKey, Object> runParams) {
         List<Trigger> trigger = Lists.newArrayList();
-        for (final Trigger t : activeTriggers) {
+        for (final Trigger t : activeTriggers.get(mode)) {
             if (canRunTrigger(t, mode, runParams)) {
                 trigger.add(t);
             }
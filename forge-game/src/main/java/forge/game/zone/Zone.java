@@ -36,7 +36,6 @@ import forge.game.event.EventValueChangeType;
 import forge.game.event.GameEventZone;
 import forge.game.player.Player;
 import forge.util.CollectionSuppliers;
-import forge.util.MyRandom;
 import forge.util.maps.EnumMapOfLists;
 import forge.util.maps.MapOfLists;
 
@@ -73,6 +72,10 @@ public class Zone implements java.io.Serializable, Iterable<Card> {
     public final void reorder(final Card c, final int index) {
         cardList.remove(c);
         cardList.add(index, c);
+        if (isIndexed()) {
+            game.addToCardIndex(this, c);
+        }
+        game.updateLayerEpoch();
     }
 
     public final void add(final Card c) {
@@ -130,11 +133,17 @@ public class Zone implements java.io.Serializable, Iterable<Card> {
         c.setZone(this);
 
         if ((zoneType == ZoneType.Battlefield || !c.isToken()) || (zoneType == ZoneType.Stack && c.getCopiedPermanent() != null)) {
+            // a card already in this zone keeps its object unless it gets moved to another position
+            final boolean added;
             if (index == null) {
-                cardList.add(c);
+                added = cardList.add(c);
             } else {
+                added = !cardList.contains(c) || cardList.indexOf(c) != index.intValue();
                 cardList.add(index.intValue(), c);
             }
+            if (added && isIndexed()) {
+                game.addToCardIndex(this, c);
+            }
         }
         onChanged();
 
@@ -150,17 +159,24 @@ public class Zone implements java.io.Serializable, Iterable<Card> {
     }
 
     public void remove(final Card c) {
+        // the card held here can be another object with the same ID, that's the one leaving
+        final Card held = cardList.get(c);
         if (cardList.remove(c)) {
+            if (isIndexed()) {
+                game.removeFromCardIndex(this, held);
+            }
             onChanged();
             game.fireEvent(new GameEventZone(zoneType, getPlayer(), EventValueChangeType.Removed, c));
         }
     }
 
     public final void setCards(final Iterable<Card> cards) {
-        cardList.clear();
+        clearCards();
         for (Card c : cards) {
             c.setZone(this);
-            cardList.add(c);
+            if (cardList.add(c) && isIndexed()) {
+                game.addToCardIndex(this, c);
+            }
         }
         onChanged();
         game.fireEvent(new GameEventZone(zoneType, getPlayer(), EventValueChangeType.ComplexUpdate, null));
@@ -168,7 +184,7 @@ public class Zone implements java.io.Serializable, Iterable<Card> {
 
     public final void removeAllCards(boolean forcedWithoutEvents) {
         if (forcedWithoutEvents) {
-            cardList.clear();
+            clearCards();
         } else {
             for (Card c : cardList) {
                 remove(c);
@@ -176,6 +192,21 @@ public class Zone implements java.io.Serializable, Iterable<Card> {
         }
     }
 
+    private void clearCards() {
+        if (isIndexed()) {
+            for (Card c : cardList) {
+                game.removeFromCardIndex(this, c);
+            }
+        }
+        cardList.clear();
+    }
+
+    // LKI copies of a zone aren't part of the game, so they stay out of its card index
+    private boolean isIndexed() {
+        final Player p = getPlayer();
+        return p == null ? this == game.getStackZone() : p.getZone(zoneType) == this;
+    }
+
     public final boolean is(final ZoneType zone) {
         return zone == zoneType;
     }
@@ -278,7 +309,8 @@ public class Zone implements java.io.Serializable, Iterable<Card> {
     }
 
     public void shuffle() {
-        Collections.shuffle(cardList, MyRandom.getRandom());
+        Collections.shuffle(cardList, game.getRandom());
+        game.updateLayerEpoch();
         onChanged();
     }
 
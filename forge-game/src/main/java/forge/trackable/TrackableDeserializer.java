@@ -1,38 +1,154 @@
 package forge.trackable;
 
-import forge.util.FileUtil;
+import java.util.List;
 
+import com.google.common.collect.Lists;
+
+import forge.trackable.TrackableTypes.TrackableObjectType;
+
+/**
+ * Reads what a {@link TrackableSerializer} wrote, into the objects of a tracker.
+ *
+ * Objects are looked up by their id in the tracker. Objects it doesn't know yet are
+ * created empty, their properties come with the same or a later message.
+ */
 public class TrackableDeserializer {
+    private final Tracker tracker;
+    private final List<String> strings = Lists.newArrayList();
+    private byte[] buffer = new byte[0];
     private int index;
-    private final String[] pieces;
+    private TrackableObject owner;
+
+    public TrackableDeserializer(Tracker tracker0) {
+        tracker = tracker0;
+    }
+
+    public Tracker getTracker() {
+        return tracker;
+    }
+
+    /**
+     * Start reading a new message, keeping the strings already read.
+     */
+    public void setInput(byte[] data) {
+        buffer = data;
+        index = 0;
+    }
+
+    public void clearHistory() {
+        strings.clear();
+    }
 
-    public TrackableDeserializer(String filename) {
-        pieces = FileUtil.readFileToString(filename).split(String.valueOf(TrackableSerializer.DELIMITER));
+    public boolean hasMore() {
+        return index < buffer.length;
+    }
+
+    /**
+     * @return the object whose properties are being read
+     */
+    public TrackableObject getOwner() {
+        return owner;
+    }
+    TrackableObject setOwner(TrackableObject owner0) {
+        TrackableObject previous = owner;
+        owner = owner0;
+        return previous;
+    }
+
+    private long readVarLong() {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer[index++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
     }
 
     public String readString() {
-        return pieces[index++];
+        int code = (int) readVarLong();
+        if (code == 0) {
+            return null;
+        }
+        if (code > 1) {
+            return strings.get(code - 2);
+        }
+        String value = readUtf();
+        strings.add(value);
+        return value;
+    }
+    private String readUtf() {
+        int len = (int) readVarLong();
+        char[] chars = new char[len];
+        for (int i = 0; i < len; i++) {
+            int b = buffer[index++] & 0xFF;
+            if (b < 0x80) {
+                chars[i] = (char) b;
+            } else if ((b & 0xE0) == 0xC0) {
+                chars[i] = (char) (((b & 0x1F) << 6) | (buffer[index++] & 0x3F));
+            } else {
+                int b2 = buffer[index++] & 0x3F;
+                chars[i] = (char) (((b & 0x0F) << 12) | (b2 << 6) | (buffer[index++] & 0x3F));
+            }
+        }
+        return new String(chars);
     }
     public boolean readBoolean() {
-        return readString().equals("1");
+        return buffer[index++] != 0;
     }
     public int readInt() {
-        return Integer.parseInt(readString());
+        return (int) readLong();
     }
     public byte readByte() {
-        return Byte.parseByte(readString());
+        return buffer[index++];
     }
     public long readLong() {
-        return Long.parseLong(readString());
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
     }
     public float readFloat() {
-        return Float.parseFloat(readString());
+        int bits = 0;
+        for (int i = 0; i < 4; i++) {
+            bits = (bits << 8) | (buffer[index++] & 0xFF);
+        }
+        return Float.intBitsToFloat(bits);
     }
     public double readDouble() {
-        return Double.parseDouble(readString());
+        long bits = 0;
+        for (int i = 0; i < 8; i++) {
+            bits = (bits << 8) | (buffer[index++] & 0xFF);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    /**
+     * @return the object with this id, created if the tracker doesn't have it yet
+     */
+    public <T extends TrackableObject> T getObject(TrackableObjectType<T> type, int id) {
+        T obj = tracker.getObj(type, id);
+        if (obj == null) {
+            obj = type.create(id, tracker);
+            if (obj != null) {
+                tracker.putObj(type, id, obj);
+            }
+        }
+        return obj;
     }
 
-    public <T extends TrackableObject> TrackableCollection<T> readCollection(TrackableCollection<T> oldValue) {
-        return null; //TODO
+    public <T extends TrackableObject> TrackableCollection<T> readCollection(TrackableObjectType<T> type) {
+        int size = readInt();
+        if (size < 0) {
+            return null;
+        }
+        TrackableCollection<T> collection = new TrackableCollection<>();
+        for (int i = 0; i < size; i++) {
+            T obj = getObject(type, readInt());
+            if (obj != null) {
+                collection.add(obj);
+            }
+        }
+        return collection;
     }
 }
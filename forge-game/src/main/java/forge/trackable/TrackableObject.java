@@ -1,6 +1,7 @@
 package forge.trackable;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.Map;
@@ -18,6 +19,7 @@ public abstract class TrackableObject implements IIdentifiable, Serializable {
     private final Map<TrackableProperty, Object> props;
     private final Set<TrackableProperty> changedProps;
     private boolean copyingProps;
+    private transient long version;
 
     protected TrackableObject(final int id0, final Tracker tracker) {
         id = id0;
@@ -39,6 +41,27 @@ public abstract class TrackableObject implements IIdentifiable, Serializable {
         return tracker;
     }
 
+    /**
+     * @return whether the tracker of this object is headless, see {@link Tracker#isHeadless()}
+     */
+    public final boolean isHeadless() {
+        return tracker != null && tracker.isHeadless();
+    }
+
+    /**
+     * @return the version of the tracker when a property of this object last changed
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    private void changed(final TrackableProperty key) {
+        changedProps.add(key);
+        if (tracker != null) {
+            version = tracker.nextVersion();
+        }
+    }
+
     @Override
     public int hashCode() {
         return id;
@@ -79,13 +102,20 @@ public abstract class TrackableObject implements IIdentifiable, Serializable {
         }
         if (value == null || value.equals(key.getDefaultValue())) {
             if (props.remove(key) != null) {
-                changedProps.add(key);
+                changed(key);
                 key.updateObjLookup(tracker, value);
             }
         }
-        else if (!value.equals(props.put(key, value))) {
-            changedProps.add(key);
-            key.updateObjLookup(tracker, value);
+        else {
+            final Object oldValue = props.put(key, value);
+            if (!value.equals(oldValue)) {
+                changed(key);
+                key.updateObjLookup(tracker, value);
+            }
+            else if (oldValue != value && tracker != null) {
+                //an equal object with other properties, such as another state of the same card
+                version = tracker.nextVersion();
+            }
         }
     }
 
@@ -109,25 +139,38 @@ public abstract class TrackableObject implements IIdentifiable, Serializable {
 
     //use when updating collection type properties with using set
     protected final void flagAsChanged(final TrackableProperty key) {
-        changedProps.add(key);
+        changed(key);
         key.updateObjLookup(tracker, props.get(key));
     }
 
+    /**
+     * Write all properties that aren't at their default value.
+     */
     public final void serialize(final TrackableSerializer ts) {
-        ts.write(changedProps.size());
-        for (TrackableProperty key : changedProps) {
-            ts.write(TrackableProperty.serialize(key));
-            key.serialize(ts, props.get(key));
+        ts.write(props.size());
+        for (Entry<TrackableProperty, Object> prop : props.entrySet()) {
+            ts.write(TrackableProperty.serialize(prop.getKey()));
+            prop.getKey().serialize(ts, prop.getValue());
         }
-        changedProps.clear();
     }
 
+    /**
+     * Read the properties written by {@link #serialize}, those not written go back to their default value.
+     */
     public final void deserialize(final TrackableDeserializer td) {
+        final TrackableObject previousOwner = td.setOwner(this);
+        final Set<TrackableProperty> read = EnumSet.noneOf(TrackableProperty.class);
         int count = td.readInt();
         for (int i = 0; i < count; i++) {
             TrackableProperty key = TrackableProperty.deserialize(td.readInt());
+            read.add(key);
             set(key, key.deserialize(td, props.get(key)));
         }
-        changedProps.clear();
+        for (TrackableProperty key : new ArrayList<>(props.keySet())) {
+            if (!read.contains(key)) {
+                set(key, null);
+            }
+        }
+        td.setOwner(previousOwner);
     }
 }
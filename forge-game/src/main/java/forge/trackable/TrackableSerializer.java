@@ -1,41 +1,141 @@
 package forge.trackable;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
-import java.io.IOException;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
+import com.google.common.collect.Maps;
+
+/**
+ * Writes trackable objects in a compact binary format: numbers are written as
+ * variable length integers, and each string is only written out once, after
+ * which it's referred to by its index.
+ *
+ * The string table is kept between messages, so one serializer should be used
+ * for everything sent to the same {@link TrackableDeserializer}.
+ */
 public class TrackableSerializer {
-    public final static char DELIMITER = (char)5;
+    private byte[] buffer = new byte[4096];
+    private int length;
+    private final Map<String, Integer> strings = Maps.newHashMap();
+    private final Map<Object, Integer> writtenCounts = new IdentityHashMap<>();
+
+    public TrackableSerializer() {
+    }
+
+    /**
+     * Start a new message, keeping the strings already written.
+     */
+    public void reset() {
+        length = 0;
+    }
+
+    /**
+     * Forget the strings and items already written, for when the other side starts over.
+     */
+    public void clearHistory() {
+        strings.clear();
+        writtenCounts.clear();
+    }
+
+    /**
+     * @return how many items of a value that only grows, like the game log, were written already
+     */
+    public int getWrittenCount(Object value) {
+        Integer count = writtenCounts.get(value);
+        return count == null ? 0 : count;
+    }
+    public void setWrittenCount(Object value, int count) {
+        writtenCounts.put(value, count);
+    }
+
+    public int size() {
+        return length;
+    }
 
-    private final BufferedWriter bw;
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, length);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+
+    private void writeRawByte(int b) {
+        ensureCapacity(1);
+        buffer[length++] = (byte) b;
+    }
 
-    public TrackableSerializer(String filename) throws IOException {
-        bw = new BufferedWriter(new FileWriter(filename));
+    private void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[length++] = (byte) value;
     }
 
     public void write(String value) {
-        try {
-            bw.write(value + DELIMITER);
+        // 0 is null, 1 is a new string, anything else the index of a string already written
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        Integer index = strings.get(value);
+        if (index != null) {
+            writeVarLong(index + 2L);
+            return;
+        }
+        strings.put(value, strings.size());
+        writeVarLong(1);
+        writeUtf(value);
+    }
+    private void writeUtf(String value) {
+        int len = value.length();
+        writeVarLong(len);
+        ensureCapacity(len * 3);
+        for (int i = 0; i < len; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x01 && c <= 0x7F) {
+                buffer[length++] = (byte) c;
+            } else if (c <= 0x7FF) {
+                buffer[length++] = (byte) (0xC0 | (c >> 6));
+                buffer[length++] = (byte) (0x80 | (c & 0x3F));
+            } else {
+                buffer[length++] = (byte) (0xE0 | (c >> 12));
+                buffer[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[length++] = (byte) (0x80 | (c & 0x3F));
+            }
         }
-        catch (Exception e) {}
     }
     public void write(boolean value) {
-        write(value ? "1" : "0");
+        writeRawByte(value ? 1 : 0);
     }
     public void write(int value) {
-        write(Integer.toString(value));
+        write((long) value);
     }
     public void write(byte value) {
-        write(Byte.toString(value));
+        writeRawByte(value);
     }
     public void write(long value) {
-        write(Long.toString(value));
+        writeVarLong((value << 1) ^ (value >> 63)); // zigzag, so small negative values stay short
     }
     public void write(float value) {
-        write(Float.toString(value));
+        int bits = Float.floatToIntBits(value);
+        ensureCapacity(4);
+        buffer[length++] = (byte) (bits >>> 24);
+        buffer[length++] = (byte) (bits >>> 16);
+        buffer[length++] = (byte) (bits >>> 8);
+        buffer[length++] = (byte) bits;
     }
     public void write(double value) {
-        write(Double.toString(value));
+        long bits = Double.doubleToLongBits(value);
+        ensureCapacity(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[length++] = (byte) (bits >>> shift);
+        }
     }
     public void write(TrackableIndex<? extends TrackableObject> index) {
         write(index.size());
@@ -44,6 +144,10 @@ public class TrackableSerializer {
         }
     }
     public void write(TrackableCollection<? extends TrackableObject> collection) {
+        if (collection == null) {
+            write(-1);
+            return;
+        }
         write(collection.size());
         for (TrackableObject o : collection) {
             write(o.getId()); //only write id as index will store all other information about object
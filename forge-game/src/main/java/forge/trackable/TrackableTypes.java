@@ -4,24 +4,33 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import com.google.common.collect.ImmutableMultiset;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Multiset;
 import com.google.common.collect.Sets;
 
+import forge.StaticData;
+import forge.card.CardStateName;
 import forge.card.CardType;
 import forge.card.CardTypeView;
 import forge.card.ColorSet;
 import forge.card.mana.ManaCost;
 import forge.game.GameEntityView;
+import forge.game.GameLog;
+import forge.game.GameLogEntry;
+import forge.game.GameLogEntryType;
 import forge.game.card.CardView;
 import forge.game.card.CardView.CardStateView;
 import forge.game.card.CounterType;
 import forge.game.combat.CombatView;
-import forge.game.keyword.KeywordCollection.KeywordCollectionView;
 import forge.game.player.PlayerView;
 import forge.game.spellability.StackItemView;
 import forge.item.IPaperCard;
+import forge.item.PaperCard;
+import forge.util.collect.FCollection;
 
 public class TrackableTypes {
     public static abstract class TrackableType<T> {
@@ -42,6 +51,13 @@ public class TrackableTypes {
         private TrackableObjectType() {
         }
 
+        /**
+         * Create an empty object for an id not known yet when deserializing, if objects of this type are looked up by id.
+         */
+        protected T create(int id, Tracker tracker) {
+            return null;
+        }
+
         public T lookup(T from) {
             if (from == null) { return null; }
             T to = from.getTracker().getObj(this, from.getId());
@@ -234,13 +250,18 @@ public class TrackableTypes {
             return null;
         }
 
+        @Override
+        protected CardView create(int id, Tracker tracker) {
+            return new CardView(id, tracker);
+        }
+
         @Override
         protected CardView deserialize(TrackableDeserializer td, CardView oldValue) {
             int id = td.readInt();
             if (id == -1) {
                 return null;
             }
-            return oldValue; //TODO: return index lookup
+            return td.getObject(this, id);
         }
 
         @Override
@@ -257,17 +278,28 @@ public class TrackableTypes {
 
         @Override
         protected IPaperCard deserialize(TrackableDeserializer td, IPaperCard oldValue) {
-            //TODO deserialize this
-            return oldValue;
+            String name = td.readString();
+            if (name == null) {
+                return null;
+            }
+            String edition = td.readString();
+            int artIndex = td.readInt();
+            PaperCard card = StaticData.instance().getCommonCards().getCard(name, edition, artIndex);
+            if (card == null) {
+                card = StaticData.instance().getVariantCards().getCard(name, edition, artIndex);
+            }
+            return card == null ? oldValue : card;
         }
 
         @Override
         protected void serialize(TrackableSerializer ts, IPaperCard value) {
             if (value == null) {
-                ts.write(-1);
+                ts.write((String) null);
             }
             else {
-                //TODO serialize this
+                ts.write(value.getName());
+                ts.write(value.getEdition());
+                ts.write(value.getArtIndex());
             }
         }
     };
@@ -280,7 +312,7 @@ public class TrackableTypes {
 
         @Override
         protected TrackableCollection<CardView> deserialize(TrackableDeserializer td, TrackableCollection<CardView> oldValue) {
-            return td.readCollection(oldValue);
+            return td.readCollection(CardViewType);
         }
 
         @Override
@@ -296,16 +328,26 @@ public class TrackableTypes {
 
         @Override
         protected CardStateView deserialize(TrackableDeserializer td, CardStateView oldValue) {
-            oldValue.deserialize(td); //TODO handle old value being null or changing to null
-            return oldValue;
+            String stateName = td.readString();
+            if (stateName == null) {
+                return null;
+            }
+            CardStateName state = CardStateName.valueOf(stateName);
+            CardStateView value = oldValue;
+            if (value == null || value.getState() != state) {
+                value = ((CardView) td.getOwner()).createAlternateState(state);
+            }
+            value.deserialize(td);
+            return value;
         }
 
         @Override
         protected void serialize(TrackableSerializer ts, CardStateView value) {
             if (value == null) {
-                ts.write(-1);
+                ts.write((String) null);
             }
             else {
+                ts.write(value.getState().name());
                 value.serialize(ts); //serialize card state views here since they won't be stored in an index
             }
         }
@@ -318,17 +360,38 @@ public class TrackableTypes {
 
         @Override
         protected CardTypeView deserialize(TrackableDeserializer td, CardTypeView oldValue) {
-            //TODO deserialize this
-            return oldValue;
+            int size = td.readInt();
+            List<String> types = Lists.newArrayListWithCapacity(size);
+            for (int i = 0; i < size; i++) {
+                types.add(td.readString());
+            }
+            CardType value = new CardType(types, false);
+            if (td.readBoolean()) {
+                List<String> excluded = StringListType.deserialize(td, null);
+                value.setAllCreatureTypes(excluded == null ? Lists.newArrayList() : excluded);
+            }
+            return value;
         }
 
         @Override
         protected void serialize(TrackableSerializer ts, CardTypeView value) {
-            if (value == null) {
-                ts.write(-1);
+            List<String> types = Lists.newArrayList();
+            for (CardType.CoreType t : value.getCoreTypes()) {
+                types.add(t.name());
             }
-            else {
-                //TODO serialize this
+            for (CardType.Supertype t : value.getSupertypes()) {
+                types.add(t.name());
+            }
+            for (String t : value.getSubtypes()) {
+                types.add(t);
+            }
+            ts.write(types.size());
+            for (String t : types) {
+                ts.write(t);
+            }
+            ts.write(value.hasAllCreatureTypes());
+            if (value.hasAllCreatureTypes()) {
+                StringListType.serialize(ts, Lists.newArrayList(value.getExcludedCreatureSubTypes()));
             }
         }
     };
@@ -338,13 +401,18 @@ public class TrackableTypes {
             return null;
         }
 
+        @Override
+        protected PlayerView create(int id, Tracker tracker) {
+            return new PlayerView(id, tracker);
+        }
+
         @Override
         protected PlayerView deserialize(TrackableDeserializer td, PlayerView oldValue) {
             int id = td.readInt();
             if (id == -1) {
                 return null;
             }
-            return oldValue; //TODO: return index lookup
+            return td.getObject(this, id);
         }
 
         @Override
@@ -360,7 +428,7 @@ public class TrackableTypes {
 
         @Override
         protected TrackableCollection<PlayerView> deserialize(TrackableDeserializer td, TrackableCollection<PlayerView> oldValue) {
-            return td.readCollection(oldValue);
+            return td.readCollection(PlayerViewType);
         }
 
         @Override
@@ -378,11 +446,9 @@ public class TrackableTypes {
         protected GameEntityView deserialize(TrackableDeserializer td, GameEntityView oldValue) {
             switch (td.readInt()) {
             case 0:
-                //int cardId = td.readInt();
-                return oldValue; //TODO: lookup card by ID
+                return td.getObject(CardViewType, td.readInt());
             case 1:
-                //int playerId = td.readInt();
-                return oldValue; //TODO: lookup player by ID
+                return td.getObject(PlayerViewType, td.readInt());
             }
             return null;
         }
@@ -394,7 +460,7 @@ public class TrackableTypes {
                 ts.write(0);
                 ts.write(value.getId());
             }
-            if (value instanceof PlayerView) {
+            else if (value instanceof PlayerView) {
                 ts.write(1);
                 ts.write(value.getId());
             }
@@ -409,19 +475,25 @@ public class TrackableTypes {
             return null;
         }
 
+        @Override
+        protected StackItemView create(int id, Tracker tracker) {
+            return new StackItemView(id, tracker);
+        }
+
         @Override
         protected StackItemView deserialize(TrackableDeserializer td, StackItemView oldValue) {
-            oldValue.deserialize(td); //TODO handle old value being null or changing to null
-            return oldValue;
+            if (!td.readBoolean()) {
+                return null;
+            }
+            return td.getObject(this, td.readInt());
         }
 
         @Override
         protected void serialize(TrackableSerializer ts, StackItemView value) {
-            if (value == null) {
-                ts.write(-1);
-            }
-            else {
-                value.serialize(ts); //serialize card state views here since they won't be stored in an index
+            // stack items can have any id, so write whether there is one first
+            ts.write(value != null);
+            if (value != null) {
+                ts.write(value.getId()); //just write ID for lookup via index when deserializing
             }
         }
     };
@@ -433,7 +505,7 @@ public class TrackableTypes {
 
         @Override
         protected TrackableCollection<StackItemView> deserialize(TrackableDeserializer td, TrackableCollection<StackItemView> oldValue) {
-            return td.readCollection(oldValue);
+            return td.readCollection(StackItemViewType);
         }
 
         @Override
@@ -643,20 +715,60 @@ public class TrackableTypes {
             }
         }
     };
-    public static final TrackableType<KeywordCollectionView> KeywordCollectionViewType = new TrackableType<KeywordCollectionView>() {
+    public static final TrackableType<ImmutableMultiset<String>> StringMultisetType = new TrackableType<ImmutableMultiset<String>>() {
+        @Override
+        protected ImmutableMultiset<String> getDefaultValue() {
+            return null;
+        }
+
+        @Override
+        protected ImmutableMultiset<String> deserialize(TrackableDeserializer td, ImmutableMultiset<String> oldValue) {
+            int size = td.readInt();
+            ImmutableMultiset.Builder<String> builder = ImmutableMultiset.builder();
+            for (int i = 0; i < size; i++) {
+                builder.addCopies(td.readString(), td.readInt());
+            }
+            return builder.build();
+        }
+
+        @Override
+        protected void serialize(TrackableSerializer ts, ImmutableMultiset<String> value) {
+            ts.write(value.entrySet().size());
+            for (Multiset.Entry<String> entry : value.entrySet()) {
+                ts.write(entry.getElement());
+                ts.write(entry.getCount());
+            }
+        }
+    };
+    public static final TrackableType<GameLog> GameLogType = new TrackableType<GameLog>() {
         @Override
-        protected KeywordCollectionView getDefaultValue() {
+        public GameLog getDefaultValue() {
             return null;
         }
 
         @Override
-        protected KeywordCollectionView deserialize(TrackableDeserializer td, KeywordCollectionView oldValue) {
-            return oldValue; //TODO
+        public GameLog deserialize(TrackableDeserializer td, GameLog oldValue) {
+            int from = td.readInt();
+            int count = td.readInt();
+            GameLog log = from > 0 && oldValue != null ? oldValue : new GameLog();
+            for (int i = 0; i < count; i++) {
+                log.add(GameLogEntryType.valueOf(td.readString()), td.readString());
+            }
+            return log;
         }
 
         @Override
-        protected void serialize(TrackableSerializer ts, KeywordCollectionView value) {
-          //TODO
+        public void serialize(TrackableSerializer ts, GameLog value) {
+            //the log only grows, so only write the entries the other side doesn't have yet
+            int from = ts.getWrittenCount(value);
+            List<GameLogEntry> entries = value.getLogEntriesFrom(from);
+            ts.write(from);
+            ts.write(entries.size());
+            for (GameLogEntry entry : entries) {
+                ts.write(entry.type.name());
+                ts.write(entry.message);
+            }
+            ts.setWrittenCount(value, value.size());
         }
     };
     public static final TrackableType<Map<Object, Object>> GenericMapType = new TrackableType<Map<Object, Object>>() {
@@ -667,11 +779,58 @@ public class TrackableTypes {
 
         @Override
         public Map<Object, Object> deserialize(TrackableDeserializer td, Map<Object, Object> oldValue) {
-            return null; //TODO
+            int size = td.readInt();
+            Map<Object, Object> map = new ConcurrentHashMap<>();
+            for (int i = 0; i < size; i++) {
+                Object key = readMapItem(td);
+                Object value = readMapItem(td);
+                if (key != null && value != null) {
+                    map.put(key, value);
+                }
+            }
+            return map;
         }
 
         @Override
         public void serialize(TrackableSerializer ts, Map<Object, Object> value) {
+            ts.write(value.size());
+            for (Entry<Object, Object> entry : value.entrySet()) {
+                writeMapItem(ts, entry.getKey());
+                writeMapItem(ts, entry.getValue());
+            }
+        }
+
+        // the maps of a combat hold cards, players and bands of cards
+        private void writeMapItem(TrackableSerializer ts, Object item) {
+            if (item instanceof GameEntityView) {
+                ts.write(1);
+                GameEntityViewType.serialize(ts, (GameEntityView) item);
+            }
+            else if (item instanceof FCollection) {
+                ts.write(2);
+                ts.write(((FCollection<?>) item).size());
+                for (Object o : (FCollection<?>) item) {
+                    ts.write(((CardView) o).getId());
+                }
+            }
+            else {
+                ts.write(0);
+            }
+        }
+
+        private Object readMapItem(TrackableDeserializer td) {
+            switch (td.readInt()) {
+            case 1:
+                return GameEntityViewType.deserialize(td, null);
+            case 2:
+                int size = td.readInt();
+                FCollection<CardView> cards = new FCollection<>();
+                for (int i = 0; i < size; i++) {
+                    cards.add(td.getObject(CardViewType, td.readInt()));
+                }
+                return cards;
+            }
+            return null;
         }
     };
     public static final TrackableObjectType<CombatView> CombatViewType = new TrackableObjectType<CombatView>() {
@@ -682,16 +841,18 @@ public class TrackableTypes {
 
         @Override
         protected CombatView deserialize(TrackableDeserializer td, CombatView oldValue) {
-            oldValue.deserialize(td); //TODO handle old value being null or changing to null
-            return oldValue;
+            if (!td.readBoolean()) {
+                return null;
+            }
+            CombatView value = oldValue == null ? new CombatView(td.getTracker()) : oldValue;
+            value.deserialize(td); //serialized here since there is only one combat at a time
+            return value;
         }
 
         @Override
         protected void serialize(TrackableSerializer ts, CombatView value) {
-            if (value == null) {
-                ts.write(-1);
-            }
-            else {
+            ts.write(value != null);
+            if (value != null) {
                 value.serialize(ts);
             }
         }
@@ -10,14 +10,39 @@ import forge.trackable.TrackableTypes.TrackableType;
 
 public class Tracker {
     private int freezeCounter = 0;
+    private long version = 0;
+    private boolean headless = false;
     private final List<DelayedPropChange> delayedPropChanges = Lists.newArrayList();
 
     private final Table<TrackableType<?>, Integer, Object> objLookups = HashBasedTable.create();
 
+    /**
+     * @return the number of property changes made so far, see {@link TrackableObject#getVersion()}
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    long nextVersion() {
+        return ++version;
+    }
+
     public final boolean isFrozen() {
         return freezeCounter > 0;
     }
 
+    /**
+     * @return whether nobody looks at the game, so the views skip what is only ever shown to players,
+     * such as ability texts and the cards in each zone
+     */
+    public final boolean isHeadless() {
+        return headless;
+    }
+
+    public void setHeadless(boolean headless0) {
+        headless = headless0;
+    }
+
     public void freeze() {
         freezeCounter++;
     }
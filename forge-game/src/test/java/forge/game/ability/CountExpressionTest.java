@@ -0,0 +1,178 @@
+package forge.game.ability;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.testng.AssertJUnit;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+public class CountExpressionTest {
+
+    private static final String CARDS_FOLDER = "../forge-gui/res/cardsfolder";
+
+    @Test
+    public void testPartsOfCorpusExpressions() throws IOException {
+        Set<String> expressions = readCorpusExpressions();
+        for (String s : expressions) {
+            CountExpression parsed = CountExpression.of(s);
+
+            // as split up by AbilityUtils.calculateAmount
+            String[] calcX = s.split("\\$", 2);
+            AssertJUnit.assertEquals(s, calcX[0], parsed.getSource());
+            AssertJUnit.assertEquals(s, calcX.length == 1 || calcX[1].equals("none") ? null : calcX[1], parsed.getBody());
+
+            // as split up by AbilityUtils.xCount
+            String[] l = s.split("/");
+            AssertJUnit.assertEquals(s, l[0], parsed.getHead());
+            AssertJUnit.assertEquals(s, l.length > 1 ? l[1] : null, parsed.getOperators());
+            String[] tail = s.split("/", 2);
+            AssertJUnit.assertEquals(s, tail.length > 1 ? tail[1] : null, parsed.getTail());
+            AssertJUnit.assertEquals(s, l[0].startsWith("Number$"), parsed.isNumber());
+            if (l[0].startsWith("Number$")) {
+                continue;
+            }
+            if (l[0].startsWith("Count$")) {
+                l[0] = l[0].substring(6);
+            }
+            CountExpression count = parsed.withoutCountPrefix();
+            AssertJUnit.assertEquals(s, l[0], count.getHead());
+            AssertJUnit.assertEquals(s, l.length > 1 ? l[1] : null, count.getOperators());
+            AssertJUnit.assertEquals(s, l[0].startsWith("SVar$") ? l[0].substring(5) : null, count.getSVarName());
+            String[] sq = l[0].split("\\.");
+            AssertJUnit.assertTrue(s, Arrays.equals(sq, count.getParts()));
+            String[] paidparts = l[0].split("\\$", 2);
+            AssertJUnit.assertTrue(s, Arrays.equals(paidparts, count.getPaidParts()));
+            if (sq[0].startsWith("Valid")) {
+                AssertJUnit.assertTrue(s, Arrays.equals(paidparts[0].split(" ", 2), count.getValidParts()));
+            }
+        }
+    }
+
+    @Test
+    public void testOperationsOfCorpusExpressions() throws IOException {
+        Set<String> operators = new TreeSet<>(Arrays.asList("none", "Plus", "Twice.2", "Abs", "Foo.3", "Plus.2.3", ""));
+        for (String s : readCorpusExpressions()) {
+            String[] l = s.split("/");
+            if (l.length > 1) {
+                operators.add(l[1]);
+            }
+        }
+        for (String m : operators) {
+            String[] parts = m.split("\\.");
+            if (parts.length == 2 && !parts[1].matches("[+-]?\\d+")) {
+                // the amount is an SVar, which needs a card to be counted
+                continue;
+            }
+            if (m.contains("Mod") && (parts.length != 2 || Integer.parseInt(parts[1]) == 0)) {
+                // dividing by zero
+                continue;
+            }
+            CountExpression.Operation operation = CountExpression.getOperation(m);
+            for (int num = -7; num <= 12; num++) {
+                AssertJUnit.assertEquals(m + " of " + num, doXMath(num, m), operation.apply(num, null, null));
+            }
+        }
+    }
+
+    private static Set<String> readCorpusExpressions() throws IOException {
+        File folder = new File(CARDS_FOLDER);
+        if (!folder.isDirectory()) {
+            throw new SkipException("No card scripts in " + folder.getAbsolutePath());
+        }
+        Set<String> expressions = new TreeSet<>();
+        File[] dirs = folder.listFiles();
+        for (File dir : dirs) {
+            File[] files = dir.listFiles();
+            if (files == null) {
+                continue;
+            }
+            for (File file : files) {
+                for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+                    if (!line.startsWith("SVar:")) {
+                        continue;
+                    }
+                    String[] svar = line.split(":", 3);
+                    if (svar.length == 3 && svar[2].indexOf('$') > 0) {
+                        expressions.add(svar[2]);
+                        String[] calcX = svar[2].split("\\$", 2);
+                        if (calcX.length > 1) {
+                            expressions.add(calcX[1]);
+                        }
+                    }
+                }
+            }
+        }
+        AssertJUnit.assertFalse(expressions.isEmpty());
+        return expressions;
+    }
+
+    // the operators as they were applied before they were parsed only once
+    private static int doXMath(final int num, final String operators) {
+        if (operators == null || operators.equals("none")) {
+            return num;
+        }
+
+        final String[] s = operators.split("\\.");
+        int secondaryNum = 0;
+
+        if (s.length == 2) {
+            secondaryNum = Integer.parseInt(s[1]);
+        }
+
+        if (s[0].contains("Plus")) {
+            return num + secondaryNum;
+        } else if (s[0].contains("NMinus")) {
+            return secondaryNum - num;
+        } else if (s[0].contains("Minus")) {
+            return num - secondaryNum;
+        } else if (s[0].contains("Twice")) {
+            return num * 2;
+        } else if (s[0].contains("Thrice")) {
+            return num * 3;
+        } else if (s[0].contains("HalfUp")) {
+            return (int) (Math.ceil(num / 2.0));
+        } else if (s[0].contains("HalfDown")) {
+            return (int) (Math.floor(num / 2.0));
+        } else if (s[0].contains("ThirdUp")) {
+            return (int) (Math.ceil(num / 3.0));
+        } else if (s[0].contains("ThirdDown")) {
+            return (int) (Math.floor(num / 3.0));
+        } else if (s[0].contains("Negative")) {
+            return num * -1;
+        } else if (s[0].contains("Times")) {
+            return num * secondaryNum;
+        } else if (s[0].contains("DivideEvenlyUp")) {
+            if (secondaryNum == 0) {
+                return 0;
+            }
+            return num / secondaryNum + (num % secondaryNum == 0 ? 0 : 1);
+        } else if (s[0].contains("DivideEvenlyDown")) {
+            if (secondaryNum == 0) {
+                return 0;
+            }
+            return num / secondaryNum;
+        } else if (s[0].contains("Mod")) {
+            return num % secondaryNum;
+        } else if (s[0].contains("Abs")) {
+            return Math.abs(num);
+        } else if (s[0].contains("LimitMax")) {
+            if (num < secondaryNum) {
+                return num;
+            }
+            return secondaryNum;
+        } else if (s[0].contains("LimitMin")) {
+            if (num > secondaryNum) {
+                return num;
+            }
+            return secondaryNum;
+        } else {
+            return num;
+        }
+    }
+}
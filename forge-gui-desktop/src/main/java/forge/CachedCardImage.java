@@ -13,26 +13,55 @@ public abstract class CachedCardImage implements ImageFetcher.Callback {
     final Iterable<PlayerView> viewers;
     final int width;
     final int height;
+    final String key;
 
     static final SwingImageFetcher fetcher = new SwingImageFetcher();
 
+    // the image is read in the background, this is run on the EDT when it's done
+    private final Runnable onImageLoaded = new Runnable() {
+        @Override
+        public void run() {
+            fetchIfMissing();
+            onImageFetched();
+        }
+    };
+
     public CachedCardImage(final CardView card, final Iterable<PlayerView> viewers, final int width, final int height) {
         this.card = card;
         this.viewers = viewers;
         this.width = width;
         this.height = height;
-        if (ImageCache.isSupportedImageSize(width, height)) {
-            BufferedImage image = ImageCache.getImageNoDefault(card, viewers, width, height);
-            if (image == null) {
-                String key = card.getCurrentState().getImageKey(viewers);
-                System.err.println("Fetch due to missing key: " + key + " for " + card);
-                fetcher.fetchImage(key, this);
-            }
+        this.key = card.getCurrentState().getImageKey(viewers);
+        if (ImageCache.isSupportedImageSize(width, height) && ImageCache.loadImage(key, width, height, onImageLoaded)) {
+            fetchIfMissing();
+        }
+    }
+
+    private void fetchIfMissing() {
+        if (ImageCache.scaleImage(key, width, height, false, card) == null) {
+            System.err.println("Fetch due to missing key: " + key + " for " + card);
+            fetcher.fetchImage(key, new ImageFetcher.Callback() {
+                @Override
+                public void onImageFetched() {
+                    ImageCache.forgetMissingImage(key);
+                    CachedCardImage.this.onImageFetched();
+                }
+            });
         }
     }
 
+    public String getImageKey() {
+        return key;
+    }
+
+    /**
+     * @return the image, or null while it's still being read, in which case onImageFetched() is called once it's read
+     */
     public BufferedImage getImage() {
-        return ImageCache.getImage(card, viewers, width, height);
+        if (!ImageCache.loadImage(key, width, height, onImageLoaded)) {
+            return null;
+        }
+        return ImageCache.scaleImage(key, width, height, true, card);
     }
 
     public abstract void onImageFetched();
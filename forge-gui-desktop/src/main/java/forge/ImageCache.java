@@ -23,10 +23,11 @@ import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.geom.RoundRectangle2D;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
 import java.io.File;
 import java.util.Calendar;
-import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
@@ -35,9 +36,11 @@ import javax.imageio.ImageIO;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader.InvalidCacheLoadException;
 import com.google.common.cache.LoadingCache;
+import com.google.common.cache.Weigher;
 import com.mortennobel.imagescaling.ResampleOp;
 
 import forge.card.CardSplitType;
@@ -76,11 +79,34 @@ import forge.util.TextUtil;
 public class ImageCache {
     // short prefixes to save memory
 
-    private static final Set<String> _missingIconKeys = new HashSet<>();
+    // icons are looked up from the image loading threads too
+    private static final Set<String> _missingIconKeys = ConcurrentHashMap.newKeySet();
     private static final LoadingCache<String, BufferedImage> _CACHE = CacheBuilder.newBuilder()
             .maximumSize(FModel.getPreferences().getPrefInt((FPref.UI_IMAGE_CACHE_MAXIMUM)))
             .expireAfterAccess(15, TimeUnit.MINUTES)
             .build(new ImageLoader());
+    // scaled images are kept apart from the originals and weighed by their size in memory,
+    // as they range from small thumbnails to images zoomed to the full screen
+    private static final Cache<String, BufferedImage> _SCALED_CACHE = CacheBuilder.newBuilder()
+            .maximumWeight(Runtime.getRuntime().maxMemory() / 8)
+            .weigher(new Weigher<String, BufferedImage>() {
+                @Override
+                public int weigh(String key, BufferedImage image) {
+                    return getByteSize(image);
+                }
+            })
+            .expireAfterAccess(15, TimeUnit.MINUTES)
+            .build();
+    // keys of scaled images that were read in the background but couldn't be cached,
+    // e.g. because there's no image file and a placeholder is shown instead
+    private static final Cache<String, Boolean> _uncachedKeys = CacheBuilder.newBuilder()
+            .maximumSize(10000)
+            .build();
+    private static final ImageThumbnailCache _thumbnails = new ImageThumbnailCache(
+            new File(ForgeConstants.CACHE_THUMBNAIL_PICS_DIR), 256L << 20);
+    // leave a processor for the EDT
+    private static final ImageLoadQueue _loadQueue = new ImageLoadQueue(
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1)));
     private static final BufferedImage _defaultImage;
     static {
         BufferedImage defImage = null;
@@ -95,6 +121,8 @@ public class ImageCache {
 
     public static void clear() {
         _CACHE.invalidateAll();
+        _SCALED_CACHE.invalidateAll();
+        _uncachedKeys.invalidateAll();
         _missingIconKeys.clear();
         ImageKeys.clearMissingCards();
     }
@@ -129,6 +157,85 @@ public class ImageCache {
         return scaleImage(ii.getImageKey(altState), width, height, true, null);
     }
 
+    /**
+     * Reads the image scaleImage() would return in the background, if it has yet to be read, so the EDT
+     * doesn't wait for the image file to be decoded.
+     *
+     * @return true if the image can be retrieved right away, otherwise onLoaded is run on the EDT once it can
+     */
+    public static boolean loadImage(final String key, final int width, final int height, final Runnable onLoaded) {
+        if (!canLoadInBackground(key, width, height)) {
+            return true;
+        }
+        final String resizedKey = getResizedKey(key, width, height);
+        if (isLoaded(resizedKey)) {
+            return true;
+        }
+        _loadQueue.load(resizedKey, new Runnable() {
+            @Override
+            public void run() {
+                loadInBackground(key, width, height, resizedKey);
+            }
+        }, onLoaded);
+        return false;
+    }
+    public static boolean loadImage(InventoryItem ii, int width, int height, boolean altState, Runnable onLoaded) {
+        return loadImage(ii.getImageKey(altState), width, height, onLoaded);
+    }
+
+    /**
+     * Reads the image in the background once the images needed on screen are read, as it's likely to be
+     * shown soon, e.g. when scrolling to it.
+     */
+    public static void prefetchImage(final String key, final int width, final int height) {
+        if (!canLoadInBackground(key, width, height)) {
+            return;
+        }
+        final String resizedKey = getResizedKey(key, width, height);
+        if (isLoaded(resizedKey)) {
+            return;
+        }
+        _loadQueue.prefetch(resizedKey, new Runnable() {
+            @Override
+            public void run() {
+                loadInBackground(key, width, height, resizedKey);
+            }
+        });
+    }
+
+    /**
+     * Call when the image file for the key was downloaded, so it's read again.
+     */
+    public static void forgetMissingImage(String key) {
+        final String prefix = key + "#";
+        for (String resizedKey : _uncachedKeys.asMap().keySet()) {
+            if (resizedKey.startsWith(prefix)) {
+                _uncachedKeys.invalidate(resizedKey);
+            }
+        }
+    }
+
+    private static boolean canLoadInBackground(String key, int width, int height) {
+        // art crops are drawn into a card frame, which can't be done off the EDT
+        return !StringUtils.isEmpty(key) && isSupportedImageSize(width, height)
+                && !"Crop".equals(FModel.getPreferences().getPref(FPref.UI_CARD_ART_FORMAT));
+    }
+
+    private static boolean isLoaded(String resizedKey) {
+        return _SCALED_CACHE.getIfPresent(resizedKey) != null || _uncachedKeys.getIfPresent(resizedKey) != null;
+    }
+
+    private static void loadInBackground(String key, int width, int height, String resizedKey) {
+        if (isLoaded(resizedKey)) {
+            return;
+        }
+        // without a default image, nothing needs to be drawn for a missing image file
+        scaleImage(key, width, height, false, null);
+        if (_SCALED_CACHE.getIfPresent(resizedKey) == null) {
+            _uncachedKeys.put(resizedKey, Boolean.TRUE);
+        }
+    }
+
     /**
      * retrieve an icon from the cache.  returns the current skin's ICO_UNKNOWN if the icon image is not found
      * in the cache and cannot be loaded from disk.
@@ -155,16 +262,17 @@ public class ImageCache {
      *
      */
     public static BufferedImage getOriginalImage(String imageKey, boolean useDefaultIfNotFound, CardView cardView) {
-        return getOriginalImageInternal(imageKey, useDefaultIfNotFound, cardView).getLeft();
+        return getOriginalImageInternal(imageKey, useDefaultIfNotFound, cardView, 0).getLeft();
     }
 
     public static Pair<BufferedImage, Boolean> getCardOriginalImageInfo(String imageKey, boolean useDefaultIfNotFound) {
-        return getOriginalImageInternal(imageKey, useDefaultIfNotFound, null);
+        return getOriginalImageInternal(imageKey, useDefaultIfNotFound, null, 0);
     }
 
     // return the pair of image and a flag to indicate if it is a placeholder image.
+    // thumbnailSize is the size of the square the image is scaled to fit into, if it's going to be small
     private static Pair<BufferedImage, Boolean> getOriginalImageInternal(String imageKey, boolean useDefaultIfNotFound,
-                                                                         CardView cardView) {
+                                                                         CardView cardView, int thumbnailSize) {
         if (null == imageKey) {
             return Pair.of(null, false);
         }
@@ -232,7 +340,7 @@ public class ImageCache {
         }
 
         // Load from file and add to cache if not found in cache initially.
-        BufferedImage original = getImage(imageKey);
+        BufferedImage original = thumbnailSize > 0 && !useArtCrop ? getReducedImage(imageKey, thumbnailSize) : getImage(imageKey);
 
         if (original == null && !useDefaultIfNotFound) {
             return Pair.of(null, false);
@@ -340,14 +448,15 @@ public class ImageCache {
             return null;
         }
 
-        String resizedKey = String.format("%s#%dx%d", key, width, height);
+        String resizedKey = getResizedKey(key, width, height);
 
-        final BufferedImage cached = _CACHE.getIfPresent(resizedKey);
+        final BufferedImage cached = _SCALED_CACHE.getIfPresent(resizedKey);
         if (null != cached) {
             return cached;
         }
 
-        Pair<BufferedImage, Boolean> orgImgs = getOriginalImageInternal(key, useDefaultImage, cardView);
+        Pair<BufferedImage, Boolean> orgImgs = getOriginalImageInternal(key, useDefaultImage, cardView,
+                ImageThumbnailCache.getThumbnailSize(width, height));
         BufferedImage original = orgImgs.getLeft();
         boolean isPlaceholder = orgImgs.getRight();
         if (original == null) { return null; }
@@ -358,7 +467,7 @@ public class ImageCache {
             // default image and to remove the need to invalidate the cache when
             // an image gets downloaded.
             resizedKey = String.format("__DEFAULT__#%dx%d", width, height);
-            final BufferedImage cachedDefault = _CACHE.getIfPresent(resizedKey);
+            final BufferedImage cachedDefault = _SCALED_CACHE.getIfPresent(resizedKey);
             if (null != cachedDefault) {
                 return cachedDefault;
             }
@@ -385,10 +494,20 @@ public class ImageCache {
         }
 
         if (!isPlaceholder) {
-            _CACHE.put(resizedKey, result);
+            _SCALED_CACHE.put(resizedKey, result);
         }
         return result;
     }
+
+    private static String getResizedKey(String key, int width, int height) {
+        return key + "#" + width + "x" + height;
+    }
+
+    private static int getByteSize(BufferedImage image) {
+        final DataBuffer buffer = image.getRaster().getDataBuffer();
+        final long size = (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+        return (int) Math.min(Integer.MAX_VALUE, size);
+    }
     /**
      * Crops the Card Image to get the Card Art of "regular Card frame".
      * @param bufferedImage the image that will be crop
@@ -416,7 +535,6 @@ public class ImageCache {
      * Returns the Image corresponding to the key.
      */
     private static BufferedImage getImage(final String key) {
-        FThreads.assertExecutedByEdt(true);
         try {
             return ImageCache._CACHE.get(key);
         } catch (final ExecutionException ex) {
@@ -431,6 +549,30 @@ public class ImageCache {
         }
     }
 
+    /**
+     * Returns the image for the key reduced to fit into a square of the given size, read from its thumbnail
+     * instead of the image file if possible. The full size image is returned if it's cached anyway.
+     */
+    private static BufferedImage getReducedImage(final String key, final int size) {
+        final BufferedImage cached = _CACHE.getIfPresent(key);
+        if (cached != null || isPreferenceEnabled(FPref.UI_DISABLE_CARD_IMAGES)) {
+            return cached;
+        }
+        final File file = ImageKeys.getImageFile(key);
+        if (file != null) {
+            final BufferedImage thumbnail = _thumbnails.read(file, size);
+            if (thumbnail != null) {
+                return thumbnail;
+            }
+        }
+        final BufferedImage original = getImage(key);
+        // making the thumbnail would hold up the EDT
+        if (original != null && file != null && !FThreads.isGuiThread()) {
+            _thumbnails.write(file, size, original);
+        }
+        return original;
+    }
+
     private static boolean isPreferenceEnabled(final ForgePreferences.FPref preferenceName) {
         return FModel.getPreferences().getPrefBoolean(preferenceName);
     }
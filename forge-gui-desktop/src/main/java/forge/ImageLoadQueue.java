@@ -0,0 +1,144 @@
+package forge;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+
+import forge.gui.FThreads;
+
+/**
+ * Reads images on background threads, so the EDT doesn't wait for image files to be decoded.
+ *
+ * Images needed on screen are read before prefetched ones, the latest first, as those asked for
+ * earlier may have been scrolled out of view already. An image asked for again while it's still
+ * waiting is only read once.
+ */
+final class ImageLoadQueue {
+    // prefetches beyond this are dropped, they would be read too late to be of use
+    private static final int MAX_WAITING_PREFETCHES = 64;
+
+    private final LinkedBlockingDeque<Load> queue = new LinkedBlockingDeque<>();
+    // the loads that are waiting or running, by the key of their image
+    private final Map<String, Load> loads = new ConcurrentHashMap<>();
+
+    ImageLoadQueue(final int numThreads) {
+        for (int i = 0; i < numThreads; i++) {
+            final Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    runLoads();
+                }
+            }, "ImageLoader-" + i);
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            thread.start();
+        }
+    }
+
+    /**
+     * Run the task reading the image in the background, then onLoaded on the EDT.
+     */
+    void load(final String key, final Runnable task, final Runnable onLoaded) {
+        final Load load = getLoad(key, task, false);
+        if (!load.addCallback(onLoaded)) {
+            // it was done in the meantime
+            FThreads.invokeInEdtLater(onLoaded);
+        }
+    }
+
+    /**
+     * Run the task reading the image in the background once the images needed on screen are read.
+     */
+    void prefetch(final String key, final Runnable task) {
+        if (queue.size() < MAX_WAITING_PREFETCHES) {
+            getLoad(key, task, true);
+        }
+    }
+
+    private Load getLoad(final String key, final Runnable task, final boolean prefetch) {
+        Load load = loads.get(key);
+        if (load == null) {
+            final Load newLoad = new Load(key, task, prefetch);
+            load = loads.putIfAbsent(key, newLoad);
+            if (load == null) {
+                if (prefetch) {
+                    queue.offerLast(newLoad);
+                } else {
+                    queue.offerFirst(newLoad);
+                }
+                return newLoad;
+            }
+        }
+        if (!prefetch && load.prefetch && queue.remove(load)) {
+            // it's needed on screen now
+            load.prefetch = false;
+            queue.offerFirst(load);
+        }
+        return load;
+    }
+
+    private void runLoads() {
+        while (true) {
+            final Load load;
+            try {
+                load = queue.take();
+            } catch (final InterruptedException e) {
+                return;
+            }
+            try {
+                load.task.run();
+            } catch (final RuntimeException e) {
+                e.printStackTrace();
+            }
+            loads.remove(load.key, load);
+
+            final List<Runnable> callbacks = load.finish();
+            if (!callbacks.isEmpty()) {
+                FThreads.invokeInEdtLater(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (final Runnable callback : callbacks) {
+                            callback.run();
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    private static final class Load {
+        private final String key;
+        private final Runnable task;
+        private volatile boolean prefetch;
+        private List<Runnable> callbacks = new ArrayList<>(1);
+
+        Load(final String key0, final Runnable task0, final boolean prefetch0) {
+            key = key0;
+            task = task0;
+            prefetch = prefetch0;
+        }
+
+        /**
+         * @return false if the load is already done
+         */
+        synchronized boolean addCallback(final Runnable callback) {
+            if (callbacks == null) {
+                return false;
+            }
+            // the same component may ask for its image again while it's loading
+            if (!callbacks.contains(callback)) {
+                callbacks.add(callback);
+            }
+            return true;
+        }
+
+        synchronized List<Runnable> finish() {
+            final List<Runnable> result = callbacks;
+            callbacks = null;
+            return result.isEmpty() ? Collections.<Runnable>emptyList() : result;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package forge;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import javax.imageio.ImageIO;
+
+import com.mortennobel.imagescaling.ResampleOp;
+
+/**
+ * Reduced copies of image files, so small card images can be shown without decoding the full size file.
+ *
+ * A thumbnail fits into a square of one of a few sizes and is made from the original image file, before
+ * corners are rounded or borders are cropped, so it can be used instead of the file whatever is done to the
+ * image afterwards. Its file name is a hash of the path of the image file and the thumbnail size. A thumbnail
+ * older than its image file is deleted when it's read, so a replaced image is made into a thumbnail again.
+ *
+ * The thumbnails are kept under a total size. Reading a thumbnail marks it as used, and the least recently
+ * used ones are deleted once a new thumbnail takes the folder over the limit.
+ */
+final class ImageThumbnailCache {
+    // the squares thumbnails fit into, each about 1.4 times the size of the last
+    private static final int[] SIZES = { 128, 181, 256, 362, 512 };
+    private static final String[] EXTENSIONS = { ".jpg", ".png" };
+
+    private final File dir;
+    private final long maxBytes;
+    // bytes of the thumbnails in the folder, -1 until they're counted on the first write
+    private long totalBytes = -1;
+
+    /**
+     * @param maxBytes the size the thumbnails in the folder are kept under
+     */
+    ImageThumbnailCache(final File dir, final long maxBytes) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return the size of the thumbnails to scale an image fitting into width x height from,
+     * or 0 if it should be scaled from the original image
+     */
+    static int getThumbnailSize(final int width, final int height) {
+        if (width <= 0 || height <= 0) {
+            return 0;
+        }
+        final int size = Math.max(width, height);
+        for (final int thumbnailSize : SIZES) {
+            if (size <= thumbnailSize) {
+                return thumbnailSize;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return the thumbnail of the image file, or null if there's none yet or it's older than the file
+     */
+    BufferedImage read(final File imageFile, final int size) {
+        final long imageModified = imageFile.lastModified();
+        if (imageModified == 0) {
+            return null;
+        }
+        final String name = getName(imageFile, size);
+        for (final String extension : EXTENSIONS) {
+            final File file = new File(dir, name + extension);
+            final long modified = file.lastModified();
+            if (modified == 0) {
+                continue;
+            }
+            if (modified < imageModified) {
+                // made from an image file that has since been replaced
+                delete(file);
+                return null;
+            }
+            try {
+                final BufferedImage thumbnail = ImageIO.read(file);
+                if (thumbnail != null) {
+                    file.setLastModified(Math.max(modified, System.currentTimeMillis()));
+                    return thumbnail;
+                }
+                System.err.printf("Error reading thumbnail \"%s\"%n", file.getAbsolutePath());
+            } catch (final IOException e) {
+                System.err.printf("Error reading thumbnail \"%s\": %s%n", file.getAbsolutePath(), e);
+            }
+            delete(file);
+        }
+        return null;
+    }
+
+    /**
+     * Save a thumbnail of the image read from the file, if it's larger than the thumbnail would be.
+     */
+    void write(final File imageFile, final int size, final BufferedImage image) {
+        final double scale = Math.min((double) size / image.getWidth(), (double) size / image.getHeight());
+        if (scale >= 0.8) {
+            // too little smaller to be worth it
+            return;
+        }
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            System.err.printf("Can't create thumbnail folder \"%s\"%n", dir.getAbsolutePath());
+            return;
+        }
+
+        final BufferedImage thumbnail = new ResampleOp((int) (image.getWidth() * scale), (int) (image.getHeight() * scale)).filter(image, null);
+        // JPEG can't hold the transparency of some PNG images
+        final boolean hasAlpha = thumbnail.getColorModel().hasAlpha();
+        final String format = hasAlpha ? "png" : "jpg";
+        final String name = getName(imageFile, size);
+        final File file = new File(dir, name + "." + format);
+        // another thread may be writing the same thumbnail for another image size
+        File tempFile = null;
+        try {
+            tempFile = File.createTempFile(name, ".tmp", dir);
+            if (ImageIO.write(hasAlpha ? thumbnail : toRgb(thumbnail), format, tempFile)) {
+                final long length = tempFile.length();
+                synchronized (this) {
+                    // the image file may have been made into the other format before
+                    final File otherFormat = new File(dir, name + (hasAlpha ? EXTENSIONS[0] : EXTENSIONS[1]));
+                    if (otherFormat.exists()) {
+                        delete(otherFormat);
+                    }
+                    final long replaced = file.length();
+                    if ((!file.exists() || file.delete()) && tempFile.renameTo(file)) {
+                        added(length - replaced);
+                        return;
+                    }
+                }
+            }
+            System.err.printf("Error writing thumbnail \"%s\"%n", file.getAbsolutePath());
+        } catch (final IOException e) {
+            System.err.printf("Error writing thumbnail \"%s\": %s%n", file.getAbsolutePath(), e);
+        }
+        if (tempFile != null) {
+            tempFile.delete();
+        }
+    }
+
+    private synchronized void delete(final File file) {
+        final long length = file.length();
+        if (file.delete() && totalBytes >= 0) {
+            totalBytes -= length;
+        }
+    }
+
+    // called holding the lock
+    private void added(final long bytes) {
+        if (totalBytes < 0) {
+            // counted after the new file is in the folder, so it's included already
+            totalBytes = 0;
+            for (final File file : listThumbnails()) {
+                totalBytes += file.length();
+            }
+        } else {
+            totalBytes += bytes;
+        }
+        if (totalBytes > maxBytes) {
+            evict();
+        }
+    }
+
+    /**
+     * Delete the least recently used thumbnails until they take three quarters of the limit,
+     * so it's a while until the folder has to be gone through again.
+     */
+    private void evict() {
+        final File[] files = listThumbnails();
+        final long[] modified = new long[files.length];
+        final Integer[] order = new Integer[files.length];
+        for (int i = 0; i < files.length; i++) {
+            // taken once, as the sort needs them to stay the same
+            modified[i] = files[i].lastModified();
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> modified[i]));
+        final long target = maxBytes / 4 * 3;
+        totalBytes = 0;
+        for (final File file : files) {
+            totalBytes += file.length();
+        }
+        for (final int i : order) {
+            if (totalBytes <= target) {
+                break;
+            }
+            final long length = files[i].length();
+            if (files[i].delete()) {
+                totalBytes -= length;
+            }
+        }
+    }
+
+    private File[] listThumbnails() {
+        final File[] files = dir.listFiles((d, fileName) -> fileName.endsWith(EXTENSIONS[0]) || fileName.endsWith(EXTENSIONS[1]));
+        return files != null ? files : new File[0];
+    }
+
+    private static BufferedImage toRgb(final BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB || image.getType() == BufferedImage.TYPE_3BYTE_BGR) {
+            return image;
+        }
+        final BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        rgb.createGraphics().drawImage(image, 0, 0, null);
+        return rgb;
+    }
+
+    private static String getName(final File imageFile, final int size) {
+        long hash = 1125899906842597L;
+        for (final byte b : imageFile.getAbsolutePath().getBytes(StandardCharsets.UTF_8)) {
+            hash = 31 * hash + b;
+        }
+        return String.format("%016x_%d", hash, size);
+    }
+}
@@ -55,6 +55,7 @@ import org.apache.commons.lang3.tuple.Pair;
 
 import com.google.common.collect.ImmutableList;
 
+import forge.ImageCache;
 import forge.gui.ImportSourceAnalyzer.OpType;
 import forge.gui.error.BugReporter;
 import forge.localinstance.properties.ForgeConstants;
@@ -988,6 +989,9 @@ public class ImportDialog {
             _btnCancel.requestFocusInWindow();
             if (_cancel) { return; }
 
+            // the imported pictures have to be found by the image lookups
+            ImageCache.clear();
+
             _progressBar.setValue(_progressBar.getMaximum());
             _progressBar.setString("Import complete");
             _btnCancel.setText("Done");
@@ -1006,6 +1006,13 @@ public class ImageView<T extends InventoryItem> extends ItemView<T> {
     @SuppressWarnings("serial")
     private class CardViewDisplay extends JPanel implements ILocalRepaint {
         boolean showRanking = false;
+        private int lastBorderSize;
+        private final Runnable repaintOnImageLoaded = new Runnable() {
+            @Override
+            public void run() {
+                repaintSelf();
+            }
+        };
         private CardViewDisplay() {
             setOpaque(false);
             setFocusable(true);
@@ -1137,6 +1144,9 @@ public class ImageView<T extends InventoryItem> extends ItemView<T> {
                 }
             }
 
+            prefetchImages(visibleTop - visibleSize.height, visibleTop);
+            prefetchImages(visibleBottom, visibleBottom + visibleSize.height);
+
             if (lockInput) { //unlock input after repaint finishes if needed
                 SwingUtilities.invokeLater(new Runnable() {
                     @Override
@@ -1147,6 +1157,42 @@ public class ImageView<T extends InventoryItem> extends ItemView<T> {
             }
         }
 
+        /**
+         * Read the images of the items a screen above or below the visible ones, where they're likely to be scrolled to.
+         */
+        private void prefetchImages(int top, int bottom) {
+            final float screenScale = GuiBase.getInterface().getScreenScale();
+            for (Group group : groups) {
+                if (group.isCollapsed || group.getBottom() < top) {
+                    continue;
+                }
+                if (group.getTop() >= bottom) {
+                    break;
+                }
+                for (Pile pile : group.piles) {
+                    if (pile.getBottom() < top) {
+                        continue;
+                    }
+                    if (pile.getTop() >= bottom) {
+                        break;
+                    }
+                    for (ItemInfo itemInfo : pile.items) {
+                        if (itemInfo.getBottom() < top) {
+                            continue;
+                        }
+                        if (itemInfo.getTop() >= bottom) {
+                            break;
+                        }
+                        // assume the border of the items drawn last, it only differs for a few cards
+                        Rectangle bounds = itemInfo.getBounds();
+                        int imageWidth = Math.round((bounds.width - 2 * lastBorderSize) * screenScale);
+                        int imageHeight = Math.round((bounds.height - 2 * lastBorderSize) * screenScale);
+                        ImageCache.prefetchImage(itemInfo.item.getImageKey(false), imageWidth, imageHeight);
+                    }
+                }
+            }
+        }
+
         private void drawItemImage(Graphics2D g, ItemInfo itemInfo) {
             Rectangle bounds = itemInfo.getBounds();
             final int itemWidth = bounds.width;
@@ -1166,6 +1212,7 @@ public class ImageView<T extends InventoryItem> extends ItemView<T> {
 
             final int borderSize = noBorder? 0 : Math.round(itemWidth * CardPanel.BLACK_BORDER_SIZE);
             final int cornerSize = Math.max(4, Math.round(itemWidth * CardPanel.ROUNDED_CORNER_SIZE));
+            lastBorderSize = borderSize;
 
             if (itemInfo.selected || itemInfo == hoveredItem) {
                 g.setColor(Color.green);
@@ -1184,7 +1231,9 @@ public class ImageView<T extends InventoryItem> extends ItemView<T> {
             final int drawHeight = bounds.height - 2 * borderSize;
             final int imageWidth = Math.round(drawWidth * screenScale);
             final int imageHeight = Math.round(drawHeight * screenScale);
-            BufferedImage img = ImageCache.getImage(item, imageWidth, imageHeight, itemInfo.alt);
+            // the name is drawn instead until the image is read
+            BufferedImage img = ImageCache.loadImage(item, imageWidth, imageHeight, itemInfo.alt, repaintOnImageLoaded)
+                    ? ImageCache.getImage(item, imageWidth, imageHeight, itemInfo.alt) : null;
 
             if (img != null) {
                 g.drawImage(img, drawX, drawY, drawWidth, drawHeight, null);
@@ -1205,7 +1254,8 @@ public class ImageView<T extends InventoryItem> extends ItemView<T> {
                         int scale = CardFaceSymbols.getHeight() * cornerSize/8;
                         int scaleArt = CardFaceSymbols.getHeight() * cornerSize/7;
 
-                        BufferedImage cardImage = ImageCache.scaleImage(deckImageKey, bounds.width, bounds.height, false, null);
+                        BufferedImage cardImage = ImageCache.loadImage(deckImageKey, bounds.width, bounds.height, repaintOnImageLoaded)
+                                ? ImageCache.scaleImage(deckImageKey, bounds.width, bounds.height, false, null) : null;
 
                         if (cardImage == null) {
                             //draw generic box
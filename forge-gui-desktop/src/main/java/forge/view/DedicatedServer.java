@@ -0,0 +1,80 @@
+package forge.view;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import forge.gamemodes.net.server.FServerManager;
+import forge.localinstance.properties.ForgeProfileProperties;
+import forge.model.FModel;
+
+/**
+ * Runs a server nobody plays at, with rooms clients join by adding the name of
+ * one to the address of the server, like host:port/room. All rooms share the
+ * card database loaded once by this process.
+ */
+public class DedicatedServer {
+    public static void start(String[] args) {
+        final Map<String, List<String>> params = new HashMap<>();
+        List<String> options = null;
+
+        for (int i = 1; i < args.length; i++) {
+            // "server" is in the 0th slot
+            final String a = args[i];
+
+            if (a.charAt(0) == '-') {
+                if (a.length() < 2) {
+                    System.err.println("Error at argument " + a);
+                    argumentHelp();
+                    return;
+                }
+
+                options = new ArrayList<>();
+                params.put(a.substring(1), options);
+            } else if (options != null) {
+                options.add(a);
+            } else {
+                System.err.println("Illegal parameter usage");
+                argumentHelp();
+                return;
+            }
+        }
+
+        FModel.initialize(null, null);
+
+        System.out.println("Dedicated server mode");
+        final FServerManager server = FServerManager.getInstance();
+        if (params.containsKey("m")) {
+            server.setMaxConcurrentMatches(Integer.parseInt(params.get("m").get(0)));
+        }
+
+        List<String> rooms = params.get("r");
+        if (rooms == null || rooms.isEmpty()) {
+            int nRooms = params.containsKey("n") ? Integer.parseInt(params.get("n").get(0)) : 8;
+            rooms = new ArrayList<>();
+            for (int i = 1; i <= nRooms; i++) {
+                rooms.add(String.valueOf(i));
+            }
+        }
+        for (String room : rooms) {
+            server.openRoom(room);
+        }
+
+        int port = ForgeProfileProperties.getServerPort();
+        if (params.containsKey("p")) {
+            port = Integer.parseInt(params.get("p").get(0));
+        }
+        server.startServer(port);
+        System.out.printf("Listening on port %d with rooms %s%n", port, server.getRooms());
+    }
+
+    private static void argumentHelp() {
+        System.out.println("Syntax: forge.exe server -p [P] -r <room1> ... <roomX> -n [N] -m [M]");
+        System.out.println("\tserver - stands for dedicated server mode");
+        System.out.println("\tP - port to listen on, defaults to the one in forge.profile.properties");
+        System.out.println("\troom1 (or room2,...,X) - names of the rooms to open");
+        System.out.println("\tN - number of rooms named 1 to N to open when none are named, defaults to 8");
+        System.out.println("\tM - how many matches may be played at once, defaults to one per room");
+    }
+}
@@ -78,11 +78,12 @@ public final class Main {
                 break;
 
             case "server":
-                System.out.println("Dedicated server mode.\nNot implemented.");
-                break;
+                // keeps running on the threads of the server
+                DedicatedServer.start(args);
+                return;
             
             default:
-                System.out.println("Unknown mode.\nKnown mode is 'sim', 'parse' ");
+                System.out.println("Unknown mode.\nKnown mode is 'sim', 'parse', 'server' ");
                 break;
         }
         
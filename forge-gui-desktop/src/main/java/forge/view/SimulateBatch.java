@@ -0,0 +1,371 @@
+package forge.view;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.time.StopWatch;
+
+import forge.deck.Deck;
+import forge.game.Game;
+import forge.game.GameEndReason;
+import forge.game.GameOutcome;
+import forge.game.GameRules;
+import forge.game.GameType;
+import forge.game.Match;
+import forge.game.player.Player;
+import forge.game.player.PlayerStatistics;
+import forge.game.player.RegisteredPlayer;
+import forge.player.GamePlayerUtil;
+import forge.util.TextUtil;
+
+/**
+ * Plays many independent games of the same decks at once, for evaluating matchups.
+ *
+ * Every game gets its own {@link Match} and its own random seed (the base seed plus the
+ * game number), so a game can be replayed alone with the same seed. Results are written
+ * one line per game, as CSV if the output file ends with .csv and as JSON Lines otherwise.
+ */
+public class SimulateBatch {
+    public static final int DEFAULT_GAME_TIMEOUT_SECONDS = 120;
+    // how long a game that ran out of time gets to notice it should stop
+    private static final long STOP_GRACE_MS = 10000;
+
+    private final GameRules rules;
+    private final List<Deck> decks;
+    private final int nGames;
+    private final int workers;
+    private final long seed;
+    private final File output;
+    private final long gameTimeLimitMs;
+
+    private final AtomicInteger gamesDone = new AtomicInteger();
+    private BufferedWriter writer;
+
+    public SimulateBatch(GameRules rules, List<Deck> decks, int nGames, int workers, long seed, File output) {
+        this(rules, decks, nGames, workers, seed, output, TimeUnit.SECONDS.toMillis(DEFAULT_GAME_TIMEOUT_SECONDS));
+    }
+
+    /**
+     * @param gameTimeLimitMs how long a game may run before it's stopped as a draw, 0 for no limit
+     */
+    public SimulateBatch(GameRules rules, List<Deck> decks, int nGames, int workers, long seed, File output, long gameTimeLimitMs) {
+        this.rules = rules;
+        this.decks = decks;
+        this.nGames = nGames;
+        this.workers = Math.max(1, workers);
+        this.seed = seed;
+        this.output = output;
+        this.gameTimeLimitMs = gameTimeLimitMs;
+    }
+
+    public void run() {
+        System.out.println(TextUtil.concatNoSpace("Running ", String.valueOf(nGames), " games on ",
+                String.valueOf(workers), " workers, base seed ", String.valueOf(seed)));
+
+        final StopWatch sw = new StopWatch();
+        sw.start();
+        try {
+            if (output != null) {
+                writer = Files.newBufferedWriter(output.toPath(), StandardCharsets.UTF_8);
+                if (isCsv()) {
+                    writeLine(csvHeader());
+                }
+            }
+
+            final ExecutorService pool = Executors.newFixedThreadPool(workers);
+            for (int i = 0; i < nGames; i++) {
+                final int iGame = i;
+                pool.execute(() -> {
+                    GameResult result;
+                    try {
+                        result = playGame(iGame);
+                    } catch (RuntimeException | StackOverflowError e) {
+                        // still give the game its line, as an error without a winner
+                        result = new GameResult(iGame, seed + iGame, decks);
+                        result.endReason = "Error: " + e;
+                    }
+                    writeLine(isCsv() ? result.toCsv() : result.toJson());
+                    System.out.println(result);
+                    gamesDone.incrementAndGet();
+                });
+            }
+            pool.shutdown();
+            while (!pool.awaitTermination(10, TimeUnit.SECONDS)) {
+                printThroughput(sw.getTime());
+            }
+        } catch (IOException e) {
+            System.err.println("Could not write simulation results to " + output + ": " + e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+        sw.stop();
+        printThroughput(sw.getTime());
+    }
+
+    private void printThroughput(long elapsedMs) {
+        final int done = gamesDone.get();
+        final double gamesPerSec = elapsedMs == 0 ? 0 : done * 1000.0 / elapsedMs;
+        System.out.printf("%d of %d games done in %.1f s, %.2f games/sec%n", done, nGames, elapsedMs / 1000.0, gamesPerSec);
+    }
+
+    GameResult playGame(final int iGame) {
+        final long gameSeed = seed + iGame;
+        final List<RegisteredPlayer> players = createPlayers();
+        final Match mc = new Match(rules, players, "Batch");
+        final GameResult result = new GameResult(iGame, gameSeed, decks);
+
+        final Game game = mc.createGame();
+        game.setSeed(gameSeed);
+        game.setHeadless(true);
+
+        final Throwable[] error = new Throwable[1];
+        final Thread gameThread = new Thread(() -> {
+            try {
+                mc.startGame(game);
+            } catch (Throwable t) {
+                error[0] = t;
+            }
+        }, "Game-Batch-" + (iGame + 1));
+        // a game that doesn't stop mustn't keep the program from ending
+        gameThread.setDaemon(true);
+
+        final StopWatch sw = new StopWatch();
+        sw.start();
+        try {
+            gameThread.start();
+            gameThread.join(gameTimeLimitMs);
+            if (gameThread.isAlive()) {
+                // the game thread ends the game itself when it sees the interrupt,
+                // nothing else may change the game while it's still running
+                result.endReason = "Timeout";
+                gameThread.interrupt();
+                gameThread.join(STOP_GRACE_MS);
+                if (gameThread.isAlive()) {
+                    // keep this worker until it's gone, or more games would run at once than asked for
+                    System.err.println("Game " + (iGame + 1) + " did not stop after running out of time, waiting for it");
+                    gameThread.join();
+                }
+            }
+        } catch (InterruptedException e) {
+            gameThread.interrupt();
+            Thread.currentThread().interrupt();
+        } finally {
+            sw.stop();
+        }
+        result.durationMs = sw.getTime();
+
+        if (gameThread.isAlive()) {
+            // only when the batch itself was interrupted
+            return result;
+        }
+        if (error[0] != null && result.endReason == null) {
+            result.endReason = "Error: " + error[0];
+        }
+        if (!game.isGameOver()) {
+            for (final Player p : game.getPlayers()) {
+                p.intentionalDraw();
+            }
+            game.setGameOver(GameEndReason.Draw);
+        }
+        result.setOutcome(game.getOutcome(), players);
+        return result;
+    }
+
+    // each game has its own players, a registered player keeps the state of its deck during a match
+    private List<RegisteredPlayer> createPlayers() {
+        final List<RegisteredPlayer> players = new ArrayList<>();
+        int i = 1;
+        for (final Deck d : decks) {
+            final RegisteredPlayer rp = rules.getGameType().equals(GameType.Commander)
+                    ? RegisteredPlayer.forCommander(d) : new RegisteredPlayer(d);
+            rp.setPlayer(GamePlayerUtil.createAiPlayer(playerName(i, d), i - 1));
+            players.add(rp);
+            i++;
+        }
+        return players;
+    }
+
+    static String playerName(int i, Deck d) {
+        return TextUtil.concatNoSpace("Ai(", String.valueOf(i), ")-", d.getName());
+    }
+
+    private boolean isCsv() {
+        return output != null && output.getName().toLowerCase().endsWith(".csv");
+    }
+
+    private String csvHeader() {
+        final List<String> columns = new ArrayList<>();
+        columns.add("game");
+        columns.add("seed");
+        for (int i = 1; i <= decks.size(); i++) {
+            columns.add("deck" + i);
+        }
+        columns.add("winner");
+        columns.add("turns");
+        columns.add("duration_ms");
+        for (int i = 1; i <= decks.size(); i++) {
+            columns.add("mulligans" + i);
+        }
+        columns.add("end_reason");
+        return StringUtils.join(columns, ',');
+    }
+
+    private synchronized void writeLine(String line) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.write(line);
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            System.err.println("Could not write simulation result: " + e);
+        }
+    }
+
+    static class GameResult {
+        final int game;
+        final long seed;
+        final List<String> decks = new ArrayList<>();
+        final List<Integer> mulligans = new ArrayList<>();
+        String winner = "";
+        int turns;
+        long durationMs;
+        String endReason;
+
+        GameResult(int game, long seed, List<Deck> decks) {
+            this.game = game;
+            this.seed = seed;
+            for (final Deck d : decks) {
+                this.decks.add(d.getName());
+                mulligans.add(0);
+            }
+        }
+
+        void setOutcome(GameOutcome outcome, List<RegisteredPlayer> players) {
+            final Map<RegisteredPlayer, PlayerStatistics> stats = new HashMap<>();
+            for (final Map.Entry<RegisteredPlayer, PlayerStatistics> e : outcome) {
+                stats.put(e.getKey(), e.getValue());
+            }
+            for (int i = 0; i < players.size(); i++) {
+                final PlayerStatistics ps = stats.get(players.get(i));
+                if (ps != null) {
+                    mulligans.set(i, ps.getMulliganCount());
+                }
+            }
+            if (!outcome.isDraw() && outcome.getWinningLobbyPlayer() != null) {
+                winner = outcome.getWinningLobbyPlayer().getName();
+            }
+            turns = outcome.getLastTurnNumber();
+            if (endReason == null) {
+                endReason = outcome.getWinCondition().name();
+            }
+        }
+
+        String toCsv() {
+            final List<String> values = new ArrayList<>();
+            values.add(String.valueOf(game + 1));
+            values.add(String.valueOf(seed));
+            for (final String d : decks) {
+                values.add(csv(d));
+            }
+            values.add(csv(winner));
+            values.add(String.valueOf(turns));
+            values.add(String.valueOf(durationMs));
+            for (final Integer m : mulligans) {
+                values.add(String.valueOf(m));
+            }
+            values.add(csv(endReason));
+            return StringUtils.join(values, ',');
+        }
+
+        String toJson() {
+            final List<String> deckNames = new ArrayList<>();
+            for (final String d : decks) {
+                deckNames.add(json(d));
+            }
+            final StringBuilder sb = new StringBuilder("{");
+            sb.append("\"game\":").append(game + 1);
+            sb.append(",\"seed\":").append(seed);
+            sb.append(",\"decks\":[").append(StringUtils.join(deckNames, ',')).append(']');
+            // a draw keeps its winner in the line as null
+            sb.append(",\"winner\":").append(winner.isEmpty() ? "null" : json(winner));
+            sb.append(",\"turns\":").append(turns);
+            sb.append(",\"durationMs\":").append(durationMs);
+            sb.append(",\"mulligans\":[").append(StringUtils.join(mulligans, ',')).append(']');
+            sb.append(",\"endReason\":").append(json(endReason));
+            return sb.append('}').toString();
+        }
+
+        @Override
+        public String toString() {
+            if (winner.isEmpty()) {
+                return String.format("Game %d (seed %d) ended in a draw (%s) after %d ms.", game + 1, seed, endReason, durationMs);
+            }
+            return String.format("Game %d (seed %d) ended in %d ms. %s has won!", game + 1, seed, durationMs, winner);
+        }
+
+        // quotes, backslashes and control characters are escaped, the rest is written as it is
+        private static String json(String value) {
+            if (value == null) {
+                return "null";
+            }
+            final StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+            for (int i = 0; i < value.length(); i++) {
+                final char ch = value.charAt(i);
+                switch (ch) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (ch < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) ch));
+                    } else {
+                        sb.append(ch);
+                    }
+                }
+            }
+            return sb.append('"').toString();
+        }
+
+        // text fields are always quoted, names may contain anything
+        private static String csv(String value) {
+            if (value == null) {
+                return "\"\"";
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
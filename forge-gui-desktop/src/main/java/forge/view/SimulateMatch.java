@@ -105,6 +105,12 @@ public class SimulateMatch {
             return;
         }
 
+        if (params.containsKey("j") || params.containsKey("o")) {
+            simulateBatch(params, rules, nGames);
+            System.out.flush();
+            return;
+        }
+
         List<RegisteredPlayer> pp = new ArrayList<>();
         StringBuilder sb = new StringBuilder();
 
@@ -120,7 +126,7 @@ public class SimulateMatch {
                 if (i > 1) {
                     sb.append(" vs ");
                 }
-                String name = TextUtil.concatNoSpace("Ai(", String.valueOf(i), ")-", d.getName());
+                String name = SimulateBatch.playerName(i, d);
                 sb.append(name);
 
                 RegisteredPlayer rp;
@@ -159,7 +165,7 @@ public class SimulateMatch {
     }
 
     private static void argumentHelp() {
-        System.out.println("Syntax: forge.exe sim -d <deck1[.dck]> ... <deckX[.dck]> -D [D] -n [N] -m [M] -t [T] -p [P] -f [F] -q");
+        System.out.println("Syntax: forge.exe sim -d <deck1[.dck]> ... <deckX[.dck]> -D [D] -n [N] -m [M] -t [T] -p [P] -f [F] -j [J] -s [S] -o [O] -l [L] -q");
         System.out.println("\tsim - stands for simulation mode");
         System.out.println("\tdeck1 (or deck2,...,X) - constructed deck name or filename (has to be quoted when contains multiple words)");
         System.out.println("\tdeck is treated as file if it ends with a dot followed by three numbers or letters");
@@ -170,6 +176,31 @@ public class SimulateMatch {
         System.out.println("\tP - Amount of players per match (used only with Tournaments, defaults to 2)");
         System.out.println("\tF - format of games, defaults to constructed");
         System.out.println("\tq - Quiet flag. Output just the game result, not the entire game log.");
+        System.out.println("\tJ - Batch mode: play the N games as independent matches on J worker threads");
+        System.out.println("\tS - Base random seed of batch mode, game X is played with seed S+X-1 (defaults to the current time)");
+        System.out.println("\tO - File to write batch results to, CSV if it ends with .csv and JSON Lines otherwise");
+        System.out.println("\tL - Time limit of each batch mode game in seconds, a game over the limit is a draw (0 for none, defaults to " + SimulateBatch.DEFAULT_GAME_TIMEOUT_SECONDS + ")");
+    }
+
+    private static void simulateBatch(Map<String, List<String>> params, GameRules rules, int nGames) {
+        List<Deck> decks = new ArrayList<>();
+        if (params.containsKey("d")) {
+            for (String deck : params.get("d")) {
+                Deck d = deckFromCommandLineParameter(deck, rules.getGameType());
+                if (d == null) {
+                    System.out.println(TextUtil.concatNoSpace("Could not load deck - ", deck, ", match cannot start"));
+                    return;
+                }
+                decks.add(d);
+            }
+        }
+
+        int workers = params.containsKey("j") ? Integer.parseInt(params.get("j").get(0)) : Runtime.getRuntime().availableProcessors();
+        long seed = params.containsKey("s") ? Long.parseLong(params.get("s").get(0)) : System.currentTimeMillis();
+        File output = params.containsKey("o") ? new File(params.get("o").get(0)) : null;
+        int timeLimit = params.containsKey("l") ? Integer.parseInt(params.get("l").get(0)) : SimulateBatch.DEFAULT_GAME_TIMEOUT_SECONDS;
+
+        new SimulateBatch(rules, decks, nGames, workers, seed, output, TimeUnit.SECONDS.toMillis(timeLimit)).run();
     }
 
     public static void simulateSingleMatch(final Match mc, int iGame, boolean outputGamelog) {
@@ -177,6 +208,7 @@ public class SimulateMatch {
         sw.start();
 
         final Game g1 = mc.createGame();
+        g1.setHeadless(true);
         // will run match in the same thread
         try {
             TimeLimitedCodeBlock.runWithTimeout(() -> {
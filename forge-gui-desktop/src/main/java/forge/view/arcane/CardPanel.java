@@ -221,15 +221,23 @@ public class CardPanel extends SkinnedPanel implements CardContainer, IDisposabl
         final float screenScale = GuiBase.getInterface().getScreenScale();
         int imageWidth = Math.round(imagePanel.getWidth() * screenScale);
         int imageHeight = Math.round(imagePanel.getHeight() * screenScale);
+        final CachedCardImage oldImage = cachedImage;
         cachedImage = new CachedCardImage(card, matchUI.getLocalPlayers(), imageWidth, imageHeight) {
             @Override
             public void onImageFetched() {
                 if (cachedImage != null) {
-                    setImage(cachedImage.getImage());
+                    updateImage(cachedImage.getImage(), true);
                 }
             }
         };
-        setImage(cachedImage.getImage());
+        // keep showing the image of the same card while it's read in another size
+        updateImage(cachedImage.getImage(), oldImage != null && oldImage.getImageKey().equals(cachedImage.getImageKey()));
+    }
+
+    private void updateImage(final BufferedImage srcImage, final boolean keepWhileLoading) {
+        if (srcImage != null || !keepWhileLoading) {
+            setImage(srcImage);
+        }
     }
 
     private void setImage(final BufferedImage srcImage) {
@@ -0,0 +1,154 @@
+package forge;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+import forge.ai.simulation.SimulationTest;
+import forge.card.CardRules;
+
+public class CardScriptCacheTest extends SimulationTest {
+
+    private static File createCardsFolder() throws IOException {
+        File folder = Files.createTempDirectory("cardsfolder").toFile();
+        writeScript(folder, "f/first_card.txt", "Name:First Card", "ManaCost:G", "Types:Creature Elf", "PT:1/1", "Oracle:");
+        writeScript(folder, "s/second_card.txt", "Name:Second Card", "ManaCost:1 U", "Types:Creature Merfolk", "PT:2/2", "Oracle:Ünïcode text.");
+        return folder;
+    }
+
+    private static File writeScript(File folder, String path, String... lines) throws IOException {
+        File file = new File(folder, path);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static List<File> collectFiles(File folder) {
+        List<File> files = CardStorageReader.collectCardFiles(new ArrayList<>(), folder);
+        Collections.sort(files);
+        return files;
+    }
+
+    private static List<CardScriptCache.Script> readScripts(List<File> files) throws IOException {
+        List<CardScriptCache.Script> scripts = new ArrayList<>();
+        for (File file : files) {
+            String name = file.getName().substring(0, file.getName().length() - 4);
+            scripts.add(new CardScriptCache.Script(name, Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)));
+        }
+        return scripts;
+    }
+
+    private static CardRules findCard(Iterable<CardRules> cards, String name) {
+        for (CardRules card : cards) {
+            if (card.getName().equals(name)) {
+                return card;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        File folder = createCardsFolder();
+        File cacheFile = new File(folder, "cache/scripts.bin");
+        List<File> files = collectFiles(folder);
+        long checksum = CardScriptCache.checksum(folder, files);
+        List<CardScriptCache.Script> scripts = readScripts(files);
+
+        CardScriptCache.write(cacheFile, checksum, scripts);
+        List<CardScriptCache.Script> read = CardScriptCache.read(cacheFile, checksum);
+
+        AssertJUnit.assertNotNull(read);
+        AssertJUnit.assertEquals(scripts.size(), read.size());
+        for (int i = 0; i < scripts.size(); i++) {
+            AssertJUnit.assertEquals(scripts.get(i).name, read.get(i).name);
+            AssertJUnit.assertEquals(scripts.get(i).lines, read.get(i).lines);
+        }
+        AssertJUnit.assertFalse(new File(cacheFile.getPath() + ".tmp").exists());
+    }
+
+    @Test
+    public void testChecksumFollowsTheFiles() throws IOException {
+        File folder = createCardsFolder();
+        List<File> files = collectFiles(folder);
+        long checksum = CardScriptCache.checksum(folder, files);
+
+        List<File> reversed = new ArrayList<>(files);
+        Collections.reverse(reversed);
+        AssertJUnit.assertEquals(checksum, CardScriptCache.checksum(folder, reversed));
+
+        File changed = files.get(0);
+        changed.setLastModified(changed.lastModified() - 60000);
+        AssertJUnit.assertTrue(checksum != CardScriptCache.checksum(folder, files));
+
+        writeScript(folder, "t/third_card.txt", "Name:Third Card", "Types:Land");
+        AssertJUnit.assertTrue(checksum != CardScriptCache.checksum(folder, collectFiles(folder)));
+    }
+
+    @Test
+    public void testChangedScriptIsReloaded() throws IOException {
+        initAndCreateGame();
+        File folder = createCardsFolder();
+        File cacheFile = new File(folder.getParentFile(), folder.getName() + ".bin");
+        cacheFile.deleteOnExit();
+
+        Iterable<CardRules> cold = new CardStorageReader(folder.getPath(), null, false, cacheFile.getPath()).loadCards();
+        AssertJUnit.assertEquals("1/1", findCard(cold, "First Card").getPower() + "/" + findCard(cold, "First Card").getToughness());
+        AssertJUnit.assertTrue(cacheFile.isFile());
+        Iterable<CardRules> warm = new CardStorageReader(folder.getPath(), null, false, cacheFile.getPath()).loadCards();
+        AssertJUnit.assertEquals("Ünïcode text.", findCard(warm, "Second Card").getOracleText());
+
+        File script = writeScript(folder, "f/first_card.txt", "Name:First Card", "ManaCost:G", "Types:Creature Elf", "PT:3/3", "Oracle:");
+        script.setLastModified(script.lastModified() + 60000);
+        Iterable<CardRules> reloaded = new CardStorageReader(folder.getPath(), null, false, cacheFile.getPath()).loadCards();
+        AssertJUnit.assertEquals("3", findCard(reloaded, "First Card").getPower());
+
+        long checksum = CardScriptCache.checksum(folder, collectFiles(folder));
+        List<CardScriptCache.Script> rewritten = CardScriptCache.read(cacheFile, checksum);
+        AssertJUnit.assertNotNull(rewritten);
+        AssertJUnit.assertEquals(2, rewritten.size());
+        AssertJUnit.assertNull(CardScriptCache.read(cacheFile, checksum + 1));
+    }
+
+    @Test
+    public void testDamagedCacheIsIgnored() throws IOException {
+        File folder = createCardsFolder();
+        File cacheFile = new File(folder, "scripts.bin");
+        List<File> files = collectFiles(folder);
+        long checksum = CardScriptCache.checksum(folder, files);
+        CardScriptCache.write(cacheFile, checksum, readScripts(files));
+        byte[] content = Files.readAllBytes(cacheFile.toPath());
+
+        // cut off in the middle of the last script
+        Files.write(cacheFile.toPath(), Arrays.copyOf(content, content.length - 5));
+        AssertJUnit.assertNull(CardScriptCache.read(cacheFile, checksum));
+
+        // cut off within the header
+        Files.write(cacheFile.toPath(), Arrays.copyOf(content, 10));
+        AssertJUnit.assertNull(CardScriptCache.read(cacheFile, checksum));
+
+        // lengths that are negative or far more than the file holds
+        for (int value : new int[] { -1, Integer.MAX_VALUE }) {
+            for (int offset : new int[] { 16, 20, 20 + 4 + "first_card".length() }) {
+                Files.write(cacheFile.toPath(), content);
+                try (RandomAccessFile raf = new RandomAccessFile(cacheFile, "rw")) {
+                    raf.seek(offset);
+                    raf.writeInt(value);
+                }
+                AssertJUnit.assertNull("length " + value + " at " + offset, CardScriptCache.read(cacheFile, checksum));
+            }
+        }
+
+        Files.write(cacheFile.toPath(), new byte[0]);
+        AssertJUnit.assertNull(CardScriptCache.read(cacheFile, checksum));
+    }
+}
@@ -0,0 +1,127 @@
+package forge;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import javax.imageio.ImageIO;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+public class ImageThumbnailCacheTest {
+
+    private static File createImageFile(File dir, String name, Color color) throws IOException {
+        BufferedImage image = new BufferedImage(745, 1040, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(color);
+        g.fillRect(0, 0, image.getWidth(), image.getHeight());
+        g.dispose();
+        File file = new File(dir, name + ".jpg");
+        ImageIO.write(image, "jpg", file);
+        return file;
+    }
+
+    private static void writeThumbnail(ImageThumbnailCache cache, File imageFile, int size) throws IOException {
+        cache.write(imageFile, size, ImageIO.read(imageFile));
+    }
+
+    private static long folderSize(File dir) {
+        long size = 0;
+        for (File file : dir.listFiles()) {
+            size += file.length();
+        }
+        return size;
+    }
+
+    @Test
+    public void testThumbnailIsReducedCopy() throws IOException {
+        File images = Files.createTempDirectory("images").toFile();
+        File thumbnails = new File(images, "thumbnails");
+        ImageThumbnailCache cache = new ImageThumbnailCache(thumbnails, 1L << 20);
+        File imageFile = createImageFile(images, "card", Color.RED);
+
+        AssertJUnit.assertNull(cache.read(imageFile, 128));
+        writeThumbnail(cache, imageFile, 128);
+        BufferedImage thumbnail = cache.read(imageFile, 128);
+        AssertJUnit.assertNotNull(thumbnail);
+        AssertJUnit.assertEquals(128, thumbnail.getHeight());
+        AssertJUnit.assertEquals(91, thumbnail.getWidth());
+        AssertJUnit.assertNull(cache.read(imageFile, 256));
+
+        // not worth it for an image that's hardly larger
+        cache.write(imageFile, 128, new BufferedImage(140, 150, BufferedImage.TYPE_INT_RGB));
+        AssertJUnit.assertEquals(1, thumbnails.listFiles().length);
+        AssertJUnit.assertEquals(128, ImageThumbnailCache.getThumbnailSize(90, 120));
+        AssertJUnit.assertEquals(0, ImageThumbnailCache.getThumbnailSize(600, 800));
+    }
+
+    @Test
+    public void testThumbnailOlderThanImageIsDeleted() throws IOException {
+        File images = Files.createTempDirectory("images").toFile();
+        File thumbnails = new File(images, "thumbnails");
+        ImageThumbnailCache cache = new ImageThumbnailCache(thumbnails, 1L << 20);
+        File imageFile = createImageFile(images, "card", Color.RED);
+        imageFile.setLastModified(System.currentTimeMillis() - 120000);
+        writeThumbnail(cache, imageFile, 256);
+        AssertJUnit.assertNotNull(cache.read(imageFile, 256));
+        thumbnails.listFiles()[0].setLastModified(System.currentTimeMillis() - 90000);
+
+        // the image is downloaded again after the thumbnail was made
+        createImageFile(images, "card", Color.BLUE);
+        imageFile.setLastModified(System.currentTimeMillis() - 60000);
+        AssertJUnit.assertNull(cache.read(imageFile, 256));
+        AssertJUnit.assertEquals(0, thumbnails.listFiles().length);
+
+        writeThumbnail(cache, imageFile, 256);
+        BufferedImage thumbnail = cache.read(imageFile, 256);
+        AssertJUnit.assertNotNull(thumbnail);
+        Color center = new Color(thumbnail.getRGB(thumbnail.getWidth() / 2, thumbnail.getHeight() / 2));
+        AssertJUnit.assertTrue(center.toString(), center.getBlue() > 200 && center.getRed() < 50);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedThumbnailsAreEvicted() throws IOException {
+        File images = Files.createTempDirectory("images").toFile();
+        File thumbnails = new File(images, "thumbnails");
+        File[] imageFiles = new File[6];
+        for (int i = 0; i < imageFiles.length; i++) {
+            imageFiles[i] = createImageFile(images, "card" + i, new Color(40 * i, 255 - 40 * i, 100));
+            imageFiles[i].setLastModified(System.currentTimeMillis() - 3600000);
+        }
+
+        // find out how large one is, they're all about the same
+        ImageThumbnailCache measure = new ImageThumbnailCache(new File(images, "measure"), Long.MAX_VALUE);
+        writeThumbnail(measure, imageFiles[0], 256);
+        long thumbnailSize = folderSize(new File(images, "measure"));
+
+        // room for a bit more than four
+        long maxBytes = thumbnailSize * 9 / 2;
+        ImageThumbnailCache cache = new ImageThumbnailCache(thumbnails, maxBytes);
+        for (int i = 0; i < 4; i++) {
+            writeThumbnail(cache, imageFiles[i], 256);
+            // so they're told apart by their age, whatever the precision of the file times
+            for (File file : thumbnails.listFiles()) {
+                file.setLastModified(file.lastModified() - 10000);
+            }
+        }
+        AssertJUnit.assertEquals(4, thumbnails.listFiles().length);
+        // the first one is used again, so the second one is the least recently used
+        AssertJUnit.assertNotNull(cache.read(imageFiles[0], 256));
+
+        writeThumbnail(cache, imageFiles[4], 256);
+        AssertJUnit.assertTrue(folderSize(thumbnails) <= maxBytes);
+        AssertJUnit.assertNotNull(cache.read(imageFiles[0], 256));
+        AssertJUnit.assertNull(cache.read(imageFiles[1], 256));
+        AssertJUnit.assertNotNull(cache.read(imageFiles[4], 256));
+
+        // a cache started on a folder that's already full counts it first
+        ImageThumbnailCache restarted = new ImageThumbnailCache(thumbnails, thumbnailSize * 2);
+        writeThumbnail(restarted, imageFiles[5], 256);
+        AssertJUnit.assertTrue(folderSize(thumbnails) <= thumbnailSize * 2);
+        AssertJUnit.assertNotNull(restarted.read(imageFiles[5], 256));
+    }
+}
@@ -1,6 +1,7 @@
 package forge.ai.simulation;
 
 import java.util.List;
+import java.util.Random;
 
 import org.testng.AssertJUnit;
 import org.testng.annotations.Test;
@@ -8,18 +9,30 @@ import org.testng.annotations.Test;
 import com.google.common.collect.Lists;
 
 import forge.ai.ComputerUtilAbility;
+import forge.ai.simulation.GameStateEvaluator.Score;
 import forge.card.CardStateName;
 import forge.card.MagicColor;
+import forge.card.mana.ManaCost;
 import forge.game.Game;
+import forge.game.GameEntityCounterTable;
 import forge.game.ability.ApiType;
 import forge.game.card.Card;
+import forge.game.card.CardCopyService;
+import forge.game.card.CardDamageMap;
 import forge.game.card.CardCollection;
+import forge.game.card.CardLists;
+import forge.game.card.CardPredicates;
 import forge.game.card.CounterEnumType;
 import forge.game.keyword.Keyword;
 import forge.game.phase.PhaseType;
 import forge.game.player.Player;
+import forge.game.replacement.ReplacementHandler;
+import forge.game.spellability.Ability;
 import forge.game.spellability.SpellAbility;
+import forge.game.spellability.SpellAbilityStackInstance;
 import forge.game.zone.ZoneType;
+import forge.util.MyRandom;
+import forge.util.SplitMixRandom;
 
 public class GameSimulationTest extends SimulationTest {
 
@@ -272,6 +285,29 @@ public class GameSimulationTest extends SimulationTest {
         AssertJUnit.assertEquals(1, minusTwoCopy.getActivationsThisTurn());
     }
 
+    @Test
+    public void testCopyingDoesNotDrawFromTheGamesRandom() {
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(1);
+        addCard("Runeclaw Bear", p);
+        game.getAction().checkStateEffects(true);
+        game.setSeed(42);
+
+        Random previous = MyRandom.getThreadRandom();
+        // as on the thread running the game
+        MyRandom.setThreadRandom(game.getRandom());
+        Game copy;
+        try {
+            copy = new GameCopier(game).makeCopy();
+        } finally {
+            MyRandom.setThreadRandom(previous);
+        }
+
+        AssertJUnit.assertEquals(new SplitMixRandom(42).nextLong(), game.getRandom().nextLong());
+        AssertJUnit.assertEquals(game.getSeedForCopy(), copy.getSeed());
+        AssertJUnit.assertFalse(copy.getSeed() == game.getSeed());
+    }
+
     @Test
     public void testPlaneswalkerEmblems() {
         Game game = initAndCreateGame();
@@ -2548,4 +2584,410 @@ public class GameSimulationTest extends SimulationTest {
         // spell should fizzle so no card was drawn
         AssertJUnit.assertEquals(0, game.getPlayers().get(0).getCardsIn(ZoneType.Hand).size());
     }
+
+    @Test
+    public void testIncrementalLayersMatchFullRebuild() {
+        Game game = initAndCreateGame();
+        game.EXPERIMENTAL_INCREMENTAL_LAYERS = true;
+        game.VERIFY_INCREMENTAL_LAYERS = true;
+        Player p = game.getPlayers().get(1);
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN1, p);
+
+        addCard("Glorious Anthem", p);
+        Card bear = addCard("Runeclaw Bear", p);
+        Card otherBear = addCard("Runeclaw Bear", p);
+        addCards("Swamp", 3, p);
+        Card murder = addCardToZone("Murder", p, ZoneType.Hand);
+        game.getAction().checkStateEffects(true);
+        game.getAction().checkStateEffects(true);
+
+        AssertJUnit.assertEquals(3, bear.getNetPower());
+        AssertJUnit.assertEquals(3, otherBear.getNetToughness());
+
+        // with nothing happening in between, the second check skips the rebuild and only verifies it
+        game.getAction().checkStaticAbilities();
+        int skipped = game.getStaticEffects().getSkippedRebuilds();
+        game.getAction().checkStaticAbilities();
+        AssertJUnit.assertEquals(skipped + 1, game.getStaticEffects().getSkippedRebuilds());
+        AssertJUnit.assertEquals(3, bear.getNetPower());
+
+        SpellAbility murderSA = murder.getFirstSpellAbility();
+        murderSA.getTargets().add(bear);
+
+        GameSimulator sim = createSimulator(game, p);
+        sim.simulateSpellAbility(murderSA);
+        Game simGame = sim.getSimulatedGameState();
+        simGame.getAction().checkStateEffects(true);
+
+        Card bearCopy = findCardWithName(simGame, "Runeclaw Bear");
+        AssertJUnit.assertNotNull(bearCopy);
+        AssertJUnit.assertEquals(1, countCardsWithName(simGame, "Runeclaw Bear"));
+        AssertJUnit.assertEquals(3, bearCopy.getNetPower());
+
+        AssertJUnit.assertEquals(0, game.getStaticEffects().getLayerMismatches());
+        AssertJUnit.assertEquals(0, simGame.getStaticEffects().getLayerMismatches());
+        AssertJUnit.assertTrue(game.getStaticEffects().getSkippedRebuilds() > 0);
+    }
+
+    @Test
+    public void testGameSeedReplaysShuffles() {
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(0);
+        String[] names = {"Plains", "Island", "Swamp", "Mountain", "Forest", "Runeclaw Bear", "Murder", "Shock"};
+        for (String name : names) {
+            addCardToZone(name, p, ZoneType.Library);
+        }
+        List<Card> unshuffled = Lists.newArrayList(p.getCardsIn(ZoneType.Library));
+
+        game.setSeed(42);
+        p.getZone(ZoneType.Library).shuffle();
+        List<Card> first = Lists.newArrayList(p.getCardsIn(ZoneType.Library));
+
+        p.getZone(ZoneType.Library).setCards(unshuffled);
+        game.setSeed(42);
+        p.getZone(ZoneType.Library).shuffle();
+        AssertJUnit.assertEquals(first, Lists.newArrayList(p.getCardsIn(ZoneType.Library)));
+        AssertJUnit.assertEquals(42, game.getSeed());
+    }
+
+    @Test
+    public void testCompiledRestrictionsMatchCardProperties() {
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(0);
+        Player opponent = game.getPlayers().get(1);
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN1, p);
+
+        Card bear = addCard("Runeclaw Bear", p);
+        Card phasedBear = addCard("Runeclaw Bear", p);
+        phasedBear.setPhasedOut(p);
+        Card ornithopter = addCard("Ornithopter", opponent);
+        Card plains = addCard("Plains", opponent);
+        plains.setTapped(true);
+        Card anthem = addCard("Glorious Anthem", p);
+        Card token = addToken("w_1_1_soldier", p);
+        Card knight = addCard("Knight of the Reliquary", opponent);
+        game.getAction().checkStateEffects(true);
+
+        String[] properties = {"Self", "Other", "StrictlyOther", "YouCtrl", "YouDontCtrl", "OppCtrl", "YouOwn", "OppOwn",
+                "tapped", "untapped", "token", "nonToken", "withFlying", "withoutFlying", "Creature", "nonCreature",
+                "Artifact", "nonLand", "Land", "Legendary", "Green", "nonGreen", "White", "Colorless", "nonColorless",
+                "MultiColor", "nonMultiColor", "MonoColor", "powerGE2", "counters_EQ0_P1P1"};
+        for (Card c : new Card[] {bear, phasedBear, ornithopter, plains, anthem, token, knight}) {
+            for (String property : properties) {
+                for (String prefix : new String[] {"", "!"}) {
+                    boolean expected = c.hasProperty(prefix + property, p, bear, null);
+                    AssertJUnit.assertEquals(prefix + property + " on " + c, expected, c.isValid("Card." + prefix + property, p, bear, null));
+                    AssertJUnit.assertEquals(!expected, c.isValid("!Card." + prefix + property, p, bear, null));
+                }
+            }
+        }
+        AssertJUnit.assertTrue(bear.isValid("Creature.Green+YouCtrl+Self", p, bear, null));
+        AssertJUnit.assertFalse(plains.isValid("Permanent.nonLand", p, bear, null));
+        AssertJUnit.assertTrue(ornithopter.isValid("Any.withFlying+OppCtrl", p, bear, null));
+    }
+
+    @Test
+    public void testLastStateCopyViewShowsCopiedState() {
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(0);
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN1, p);
+
+        Card bear = addCard("Runeclaw Bear", p);
+        addCard("Glorious Anthem", p);
+        game.getAction().checkStateEffects(true);
+        game.copyLastState();
+
+        Card lki = game.getLastStateBattlefield().get(bear);
+        AssertJUnit.assertNotSame(bear, lki);
+
+        // the view of the copy is filled in when asked for, after the original has already changed
+        game.getAction().destroy(bear, null, true, null);
+        AssertJUnit.assertEquals("Runeclaw Bear", lki.getView().getName());
+        AssertJUnit.assertEquals(3, lki.getView().getCurrentState().getPower());
+        AssertJUnit.assertEquals(ZoneType.Battlefield, lki.getLastKnownZone().getZoneType());
+    }
+
+    @Test
+    public void testHeadlessGameUpdatesViewWhenTurnedOff() {
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(0);
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN1, p);
+        game.setHeadless(true);
+
+        Card angel = addCard("Serra Angel", p);
+        addCardToZone("Shock", p, ZoneType.Hand);
+        game.getAction().checkStateEffects(true);
+
+        // the game itself still knows, only the views are behind
+        AssertJUnit.assertTrue(angel.hasKeyword(Keyword.FLYING));
+        AssertJUnit.assertFalse(angel.getView().getCurrentState().hasFlying());
+        AssertJUnit.assertEquals(0, p.getView().getBattlefieldSize());
+
+        GameCopier copier = new GameCopier(game);
+        AssertJUnit.assertTrue(copier.makeCopy().isHeadless());
+
+        game.setHeadless(false);
+        AssertJUnit.assertTrue(angel.getView().getCurrentState().hasFlying());
+        AssertJUnit.assertTrue(angel.getView().getCurrentState().getAbilityText().contains("Flying"));
+        AssertJUnit.assertEquals(1, p.getView().getBattlefieldSize());
+        AssertJUnit.assertEquals(1, p.getView().getHandSize());
+    }
+
+    @Test
+    public void testHeadlessGameKeepsStackDescriptions() {
+        String[] names = { "Shock", "Serra Angel", "Llanowar Elves", "Prodigal Pyromancer", "Lightning Bolt", "Giant Growth" };
+        List<String> headless = getStackDescriptions(names, true);
+        List<String> shown = getStackDescriptions(names, false);
+        AssertJUnit.assertEquals(shown, headless);
+        for (String description : shown) {
+            AssertJUnit.assertFalse(description, description.contains("CARDNAME"));
+        }
+    }
+
+    private List<String> getStackDescriptions(String[] names, boolean headless) {
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(0);
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN1, p);
+        game.setHeadless(headless);
+
+        List<String> descriptions = Lists.newArrayList();
+        for (String name : names) {
+            Card c = addCardToZone(name, p, ZoneType.Hand);
+            game.getAction().checkStateEffects(true);
+            for (SpellAbility sa : c.getAllSpellAbilities()) {
+                descriptions.add(name + ": " + sa.getStackDescription());
+            }
+            // like the abilities made in code, which are shown on the stack with the text of their card
+            SpellAbility sa = new Ability(c, ManaCost.ZERO, c.getAbilityText()) {
+                @Override
+                public void resolve() {
+                }
+            };
+            descriptions.add(name + ": " + sa.getStackDescription() + " / " + sa.getDescription());
+        }
+        return descriptions;
+    }
+
+    @Test
+    public void testActiveTriggersFollowZoneAndStaticChanges() {
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(0);
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN1, p);
+
+        Card warden = addCard("Soul Warden", p);
+        game.getAction().checkStateEffects(true);
+        game.getTriggerHandler().resetActiveTriggers(false);
+        assertWardenTriggers(game, p, 1);
+
+        // leaving and coming back must not drop or duplicate its trigger
+        warden = game.getAction().moveToGraveyard(warden, null, null);
+        assertWardenTriggers(game, p, 0);
+        warden = game.getAction().moveToPlay(warden, null, null);
+        game.getAction().checkStateEffects(true);
+        assertWardenTriggers(game, p, 1);
+
+        // a static ability taking the trigger away and giving it back
+        Card humility = addCard("Humility", p);
+        game.getAction().checkStateEffects(true);
+        assertWardenTriggers(game, p, 0);
+        game.getAction().moveToGraveyard(humility, null, null);
+        game.getAction().checkStateEffects(true);
+        assertWardenTriggers(game, p, 1);
+    }
+
+    /**
+     * Checks how often Soul Warden triggers for a creature entering, both with the active
+     * triggers kept up to date along the way and after rebuilding them from every card.
+     */
+    private void assertWardenTriggers(Game game, Player p, int expected) {
+        AssertJUnit.assertEquals(expected, countWardenTriggers(game, p));
+        game.getTriggerHandler().resetActiveTriggers(false);
+        AssertJUnit.assertEquals(expected, countWardenTriggers(game, p));
+    }
+
+    private int countWardenTriggers(Game game, Player p) {
+        Card memnite = createCard("Memnite", p);
+        p.getZone(ZoneType.Hand).add(memnite);
+        game.getAction().moveToPlay(memnite, null, null);
+        game.getTriggerHandler().runWaitingTriggers();
+        game.getStack().addAllTriggeredAbilitiesToStack();
+        int count = 0;
+        for (SpellAbilityStackInstance si : game.getStack()) {
+            if (si.getSourceCard().getName().equals("Soul Warden")) {
+                count++;
+            }
+        }
+        game.getStack().clear();
+        return count;
+    }
+    @Test
+    public void testReplacementOfCardWhileItChangesZones() {
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(0);
+        Player opponent = game.getPlayers().get(1);
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN1, p);
+
+        Card leyline = addCard("Leyline of the Void", p);
+        game.getAction().checkStateEffects(true);
+        // while it's being exiled face down, the card and the new one with the same ID are both in the game
+        Card exiled = CardCopyService.getLKICopy(leyline);
+        exiled.turnFaceDownNoUpdate();
+        p.getZone(ZoneType.Exile).add(exiled);
+
+        Card bear = addCardToZone("Runeclaw Bear", opponent, ZoneType.Hand);
+        game.getAction().moveToGraveyard(bear, null, null);
+        AssertJUnit.assertEquals(0, opponent.getCardsIn(ZoneType.Graveyard).size());
+        AssertJUnit.assertEquals(1, opponent.getCardsIn(ZoneType.Exile).size());
+    }
+    @Test
+    public void testReplacementIndexOnlyVisitsChangedCards() {
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(0);
+        Player opponent = game.getPlayers().get(1);
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN1, p);
+
+        for (int i = 0; i < 40; i++) {
+            addCardToZone("Forest", p, ZoneType.Library);
+            addCardToZone("Mountain", opponent, ZoneType.Library);
+        }
+        Card bear = addCard("Runeclaw Bear", p);
+        Card goblin = addCard("Raging Goblin", opponent);
+        game.getAction().checkStateEffects(true);
+        final int inGame = game.getCardsInGame().size();
+        ReplacementHandler handler = game.getReplacementHandler();
+
+        // every event bumps the layer epoch, a walk of the game per epoch would visit all of them each time
+        dealDamage(game, goblin, bear);
+        long visited = handler.getCardsVisited();
+        dealDamage(game, goblin, bear);
+        AssertJUnit.assertEquals(2, bear.getDamage());
+        AssertJUnit.assertTrue(handler.getCardsVisited() - visited < inGame / 10);
+
+        // a card that got a replacement effect since is checked again
+        bear.setCounters(CounterEnumType.SHIELD, 1);
+        dealDamage(game, goblin, bear);
+        AssertJUnit.assertEquals(2, bear.getDamage());
+        AssertJUnit.assertEquals(0, bear.getCounters(CounterEnumType.SHIELD));
+
+        // and so is one entering the game
+        addCard("Leyline of the Void", p);
+        game.getAction().checkStateEffects(true);
+        visited = handler.getCardsVisited();
+        Card library = opponent.getCardsIn(ZoneType.Library).get(0);
+        game.getAction().moveToGraveyard(library, null, null);
+        AssertJUnit.assertTrue(handler.getCardsVisited() - visited < inGame / 10);
+        AssertJUnit.assertEquals(0, opponent.getCardsIn(ZoneType.Graveyard).size());
+        AssertJUnit.assertEquals(1, opponent.getCardsIn(ZoneType.Exile).size());
+    }
+
+    private static void dealDamage(final Game game, final Card source, final Card target) {
+        CardDamageMap damage = new CardDamageMap();
+        damage.put(source, target, 1);
+        game.getAction().dealDamage(false, damage, new CardDamageMap(), new GameEntityCounterTable(), null);
+    }
+    @Test
+    public void testCardIndexAcrossZoneChangeWithLKI() {
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(0);
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN1, p);
+
+        Card bear = addCard("Runeclaw Bear", p);
+        game.getAction().checkStateEffects(true);
+        Card lki = CardCopyService.getLKICopy(bear);
+        AssertJUnit.assertSame(bear, game.findById(bear.getId()));
+
+        Card dead = game.getAction().moveToGraveyard(bear, null, null);
+        AssertJUnit.assertSame(dead, game.findById(bear.getId()));
+        AssertJUnit.assertSame(dead, game.findByView(dead.getView()));
+
+        // taking the stale copy out of the index leaves the card that replaced it
+        game.removeFromCardIndex(p.getZone(ZoneType.Graveyard), lki);
+        game.removeFromCardIndex(p.getZone(ZoneType.Battlefield), lki);
+        AssertJUnit.assertSame(dead, game.findById(bear.getId()));
+        AssertJUnit.assertSame(dead, game.findByView(dead.getView()));
+
+        // but removing it from the zone takes out whichever object of the card is there
+        p.getZone(ZoneType.Graveyard).remove(lki);
+        AssertJUnit.assertEquals(0, p.getCardsIn(ZoneType.Graveyard).size());
+        AssertJUnit.assertNull(game.findById(bear.getId()));
+    }
+
+    private Game createGameBeforeCombat() {
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(1);
+        Player opponent = game.getPlayers().get(0);
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN1, p);
+
+        addCards("Mountain", 3, p);
+        addCard("Runeclaw Bear", p);
+        addCard("Hill Giant", p);
+        addCardToZone("Shock", p, ZoneType.Hand);
+        addCardToZone("Lightning Bolt", p, ZoneType.Hand);
+        addCard("Grizzly Bears", opponent);
+        addCard("Serra Angel", opponent);
+        for (int i = 0; i < 10; i++) {
+            addCardToZone("Mountain", p, ZoneType.Library);
+            addCardToZone("Plains", opponent, ZoneType.Library);
+        }
+        game.getAction().checkStateEffects(true);
+        return game;
+    }
+
+    private String describeGame(Game game) {
+        StringBuilder sb = new StringBuilder(gameStateToString(game));
+        for (Player pl : game.getPlayers()) {
+            sb.append(pl).append(" life ").append(pl.getLife()).append("\n");
+        }
+        for (Card c : game.getCardsInGame()) {
+            sb.append(c).append(c.isTapped() ? " tapped" : "").append(" damage ").append(c.getDamage())
+                .append(" ").append(c.getCounters()).append("\n");
+        }
+        return sb.append(GameStateHasher.getHashForGameState(game)).toString();
+    }
+
+    @Test
+    public void testSearchLeavesOriginalGameUnchanged() {
+        Game game = createGameBeforeCombat();
+        Player p = game.getPlayers().get(1);
+        String before = describeGame(game);
+
+        // the picker scores positions it won't search further on the simulated games themselves
+        SpellAbilityPicker picker = new SpellAbilityPicker(game, p);
+        picker.chooseSpellAbilityToPlay(null);
+        AssertJUnit.assertTrue(picker.getNumSimulations() > 1);
+
+        AssertJUnit.assertEquals(before, describeGame(game));
+        AssertJUnit.assertEquals(PhaseType.MAIN1, game.getPhaseHandler().getPhase());
+    }
+
+    private static void assertSameScore(Score expected, Score actual) {
+        AssertJUnit.assertTrue("expected " + expected + " but was " + actual, expected.equals(actual));
+    }
+
+    @Test
+    public void testReusedScoresMatchFreshEvaluation() {
+        Game game = createGameBeforeCombat();
+        Player p = game.getPlayers().get(1);
+        Card angel = findCardWithName(game, "Serra Angel");
+        SpellAbility boltSA = CardLists.filter(p.getCardsIn(ZoneType.Hand), CardPredicates.nameEquals("Lightning Bolt")).get(0).getFirstSpellAbility();
+        boltSA.getTargets().add(angel);
+
+        Score fresh = new GameStateEvaluator().getScoreForGameState(game, p);
+        GameSimulator copyScored = createSimulator(game, p);
+        assertSameScore(fresh, copyScored.getScoreForOrigGame());
+        Score score = copyScored.simulateSpellAbility(boltSA);
+        Game simGame = copyScored.getSimulatedGameState();
+        assertSameScore(score, new GameStateEvaluator().getScoreForGameState(simGame, simGame.getPlayer(p.getId())));
+
+        // given the score of the original game and scoring the result in place gives the same scores
+        GameSimulator inPlace = new GameSimulator(new SimulationController(fresh) {
+            @Override
+            public boolean shouldRecurse() {
+                return false;
+            }
+        }, game, p, null, fresh);
+        inPlace.setSimGameDisposable(true);
+        assertSameScore(fresh, inPlace.getScoreForOrigGame());
+        assertSameScore(score, inPlace.simulateSpellAbility(boltSA));
+    }
 }
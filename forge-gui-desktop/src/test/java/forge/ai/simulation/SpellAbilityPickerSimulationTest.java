@@ -4,6 +4,7 @@ import forge.game.spellability.LandAbility;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import forge.item.PaperCard;
 import forge.model.FModel;
@@ -18,6 +19,7 @@ import forge.game.phase.PhaseType;
 import forge.game.player.Player;
 import forge.game.spellability.SpellAbility;
 import forge.game.zone.ZoneType;
+import forge.util.MyRandom;
 
 public class SpellAbilityPickerSimulationTest extends SimulationTest {
     @Test
@@ -121,6 +123,151 @@ public class SpellAbilityPickerSimulationTest extends SimulationTest {
         AssertJUnit.assertEquals("Play land", plan.getDecisions().get(1).saRef.toString());
     }
 
+    @Test
+    public void testParallelSearchMatchesSequential() {
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(1);
+
+        addCards("Island", 2, p);
+        addCards("Forest", 3, p);
+        addCards("Mountain", 2, p);
+
+        addCardToZone("Tatyova, Benthic Druid", p, ZoneType.Hand);
+        addCardToZone("Forest", p, ZoneType.Hand);
+        // random discards, so the candidates depend on the seeds they're simulated with
+        addCardToZone("Goblin Lore", p, ZoneType.Hand);
+        addCardToZone("Shock", p, ZoneType.Hand);
+        for (String name : new String[] {"Forest", "Runeclaw Bear", "Shock", "Island", "Memnite", "Mountain"}) {
+            addCardToZone(name, p, ZoneType.Library);
+        }
+
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN1, p);
+        game.getAction().checkStateEffects(true);
+
+        SpellAbilityPicker picker = new SpellAbilityPicker(game, p);
+        SpellAbility sa = searchWithSeed(picker, 42);
+
+        SpellAbilityPicker parallelPicker = new SpellAbilityPicker(game, p);
+        SpellAbility parallelSa;
+        SpellAbilityPicker.PARALLEL_SEARCH = true;
+        SpellAbilityPicker.setSearchThreads(4);
+        try {
+            parallelSa = searchWithSeed(parallelPicker, 42);
+        } finally {
+            SpellAbilityPicker.PARALLEL_SEARCH = false;
+            SpellAbilityPicker.setSearchThreads(Runtime.getRuntime().availableProcessors());
+        }
+
+        AssertJUnit.assertNotNull(sa);
+        AssertJUnit.assertEquals(sa, parallelSa);
+        AssertJUnit.assertEquals(picker.getNumSimulations(), parallelPicker.getNumSimulations());
+        AssertJUnit.assertEquals(picker.getPlan().getFinalScore().value, parallelPicker.getPlan().getFinalScore().value);
+        List<Plan.Decision> decisions = picker.getPlan().getDecisions();
+        List<Plan.Decision> parallelDecisions = parallelPicker.getPlan().getDecisions();
+        AssertJUnit.assertEquals(decisions.size(), parallelDecisions.size());
+        for (int i = 0; i < decisions.size(); i++) {
+            AssertJUnit.assertEquals(decisions.get(i).toString(), parallelDecisions.get(i).toString());
+        }
+        // the original game isn't touched by any of the simulations
+        AssertJUnit.assertEquals(4, p.getCardsIn(ZoneType.Hand).size());
+        AssertJUnit.assertEquals(6, p.getCardsIn(ZoneType.Library).size());
+    }
+
+    private static SpellAbility searchWithSeed(SpellAbilityPicker picker, long seed) {
+        Random previous = MyRandom.getThreadRandom();
+        MyRandom.setThreadRandom(new Random(seed));
+        try {
+            return picker.chooseSpellAbilityToPlay(null);
+        } finally {
+            MyRandom.setThreadRandom(previous);
+        }
+    }
+
+    @Test
+    public void testGameStateHashIgnoresMoveOrder() {
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(1);
+        addCard("Memnite", p);
+        addCard("Ornithopter", p);
+
+        Game game2 = initAndCreateGame();
+        Player p2 = game2.getPlayers().get(1);
+        addCard("Ornithopter", p2);
+        Card memnite = addCard("Memnite", p2);
+
+        AssertJUnit.assertEquals(GameStateHasher.getHashForGameState(game), GameStateHasher.getHashForGameState(game2));
+        memnite.tap(true, null, null);
+        AssertJUnit.assertFalse(GameStateHasher.getHashForGameState(game) == GameStateHasher.getHashForGameState(game2));
+    }
+
+    @Test
+    public void testGameStateHashCoversEffectState() {
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(1);
+        addCardToZone("Memnite", p, ZoneType.Graveyard);
+        addCardToZone("Ornithopter", p, ZoneType.Graveyard);
+        Card effect = addCardToZone("Prodigal Pyromancer", p, ZoneType.Command);
+
+        Game game2 = initAndCreateGame();
+        Player p2 = game2.getPlayers().get(1);
+        addCardToZone("Ornithopter", p2, ZoneType.Graveyard);
+        addCardToZone("Memnite", p2, ZoneType.Graveyard);
+        Card effect2 = addCardToZone("Prodigal Pyromancer", p2, ZoneType.Command);
+
+        // the order of the graveyard doesn't matter
+        AssertJUnit.assertEquals(GameStateHasher.getHashForGameState(game), GameStateHasher.getHashForGameState(game2));
+
+        effect2.addRemembered(p2);
+        AssertJUnit.assertFalse(GameStateHasher.getHashForGameState(game) == GameStateHasher.getHashForGameState(game2));
+        effect.addRemembered(p);
+        AssertJUnit.assertEquals(GameStateHasher.getHashForGameState(game), GameStateHasher.getHashForGameState(game2));
+
+        effect2.setChosenType("Elf");
+        AssertJUnit.assertFalse(GameStateHasher.getHashForGameState(game) == GameStateHasher.getHashForGameState(game2));
+        effect.setChosenType("Elf");
+        AssertJUnit.assertEquals(GameStateHasher.getHashForGameState(game), GameStateHasher.getHashForGameState(game2));
+
+        SpellAbility ability2 = effect2.getSpellAbilities().get(0);
+        ability2.setActivatingPlayer(p2);
+        effect2.addAbilityActivated(ability2);
+        AssertJUnit.assertFalse(GameStateHasher.getHashForGameState(game) == GameStateHasher.getHashForGameState(game2));
+        SpellAbility ability = effect.getSpellAbilities().get(0);
+        ability.setActivatingPlayer(p);
+        effect.addAbilityActivated(ability);
+        AssertJUnit.assertEquals(GameStateHasher.getHashForGameState(game), GameStateHasher.getHashForGameState(game2));
+    }
+
+    @Test
+    public void testTranspositionsDontChangeThePlan() {
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(1);
+
+        // Casting these in any order leads to the same positions.
+        addCardToZone("Memnite", p, ZoneType.Hand);
+        addCardToZone("Ornithopter", p, ZoneType.Hand);
+        addCardToZone("Phyrexian Walker", p, ZoneType.Hand);
+
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN2, p);
+        game.getAction().checkStateEffects(true);
+
+        SpellAbilityPicker picker = new SpellAbilityPicker(game, p);
+        SpellAbility sa;
+        SimulationController.USE_TRANSPOSITIONS = true;
+        try {
+            sa = picker.chooseSpellAbilityToPlay(null);
+        } finally {
+            SimulationController.USE_TRANSPOSITIONS = false;
+        }
+
+        SpellAbilityPicker fullPicker = new SpellAbilityPicker(game, p);
+        SpellAbility fullSa = fullPicker.chooseSpellAbilityToPlay(null);
+
+        AssertJUnit.assertNotNull(sa);
+        AssertJUnit.assertEquals(fullSa, sa);
+        AssertJUnit.assertEquals(3, picker.getPlan().getDecisions().size());
+        AssertJUnit.assertEquals(fullPicker.getPlan().getFinalScore().value, picker.getPlan().getFinalScore().value);
+    }
+
     @Test
     public void testModeSelection() {
         Game game = initAndCreateGame();
@@ -0,0 +1,67 @@
+package forge.card;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+
+import forge.StaticData;
+import forge.ai.simulation.SimulationTest;
+import forge.card.CardCatalogIndex.TextField;
+import forge.util.PredicateString.StringOp;
+
+public class CardCatalogIndexTest extends SimulationTest {
+
+    @Test
+    public void testIndexFindsWhatPredicatesDo() {
+        initAndCreateGame();
+        CardCatalogIndex index = StaticData.instance().getCommonCards().getCatalogIndex();
+
+        String[] searches = { "a", "DRAG", "dragon", "Æther", "aether", "lim-dûl", "+1/+1", "{G}", "g",
+                "2", "legendary creature", "human wizard", "draw a card", "//", "x", "İ" };
+        for (String search : searches) {
+            for (TextField field : TextField.values()) {
+                Predicate<CardRules> predicate = getPredicate(field, search);
+                BitSet found = index.contains(field, search);
+                for (int i = 0; i < index.size(); i++) {
+                    CardRules card = index.get(i);
+                    AssertJUnit.assertEquals(field + " of " + card.getName() + " contains " + search,
+                            predicate.apply(card), found.get(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSelectionFallsBackForCardsNotInIndex() {
+        initAndCreateGame();
+        CardCatalogIndex index = StaticData.instance().getCommonCards().getCatalogIndex();
+        CardRules inIndex = index.get(0);
+        CardRules notInIndex = CardRules.fromScript(Arrays.asList("Name:Not A Real Card", "Types:Creature Elf", "PT:1/1"));
+
+        BitSet selected = new BitSet();
+        selected.set(0);
+        Predicate<CardRules> selection = index.select(selected, Predicates.<CardRules>alwaysFalse());
+        AssertJUnit.assertTrue(selection.apply(inIndex));
+        AssertJUnit.assertFalse(selection.apply(notInIndex));
+        AssertJUnit.assertTrue(index.select(new BitSet(), Predicates.<CardRules>alwaysTrue()).apply(notInIndex));
+        AssertJUnit.assertFalse(index.select(new BitSet(), Predicates.<CardRules>alwaysTrue()).apply(inIndex));
+    }
+
+    private static Predicate<CardRules> getPredicate(TextField field, String search) {
+        switch (field) {
+        case NAME:
+            return CardRulesPredicates.name(StringOp.CONTAINS_IC, search);
+        case TYPE:
+            return CardRulesPredicates.joinedType(StringOp.CONTAINS_IC, search);
+        case ORACLE_TEXT:
+            return CardRulesPredicates.rules(StringOp.CONTAINS_IC, search);
+        default:
+            return CardRulesPredicates.cost(StringOp.CONTAINS_IC, search);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package forge.deck;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+import forge.ai.simulation.SimulationTest;
+import forge.card.CardDb;
+import forge.card.CardRulesPredicates;
+import forge.item.PaperCard;
+import forge.model.FModel;
+
+public class CardRelationMatrixGeneratorTest extends SimulationTest {
+
+    private static final List<String> SPELLS = Arrays.asList("Lightning Bolt", "Shock", "Runeclaw Bear",
+            "Raging Goblin", "Memnite", "Ornithopter", "Llanowar Elves", "Giant Growth", "Counterspell",
+            "Dark Ritual", "Serra Angel", "Shivan Dragon", "Grizzly Bears", "Hill Giant", "Air Elemental",
+            "Wrath of God", "Disenchant", "Swords to Plowshares", "Healing Salve", "Giant Spider",
+            "Prodigal Pyromancer", "Soul Warden", "Royal Assassin", "Sengir Vampire", "Mahamoti Djinn",
+            "Terror", "Unsummon");
+
+    @Test
+    public void testPoolsMatchTheDenseMatrix() {
+        initAndCreateGame();
+        CardDb cardDb = FModel.getMagicDb().getCommonCards();
+        List<PaperCard> cardList = new ArrayList<>();
+        for (String name : SPELLS) {
+            cardList.add(cardDb.getCard(name));
+        }
+        // in no deck
+        cardList.add(cardDb.getCard("Craw Wurm"));
+        cardList.add(cardDb.getCard("Wastes"));
+
+        Random random = new Random(11);
+        List<Deck> decks = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Deck deck = new Deck("Deck " + i);
+            List<PaperCard> spells = new ArrayList<>(cardList.subList(0, SPELLS.size()));
+            Collections.shuffle(spells, random);
+            for (PaperCard spell : spells.subList(0, 10 + random.nextInt(8))) {
+                deck.getMain().add(spell, 1 + random.nextInt(4));
+            }
+            deck.getMain().add(cardDb.getCard("Mountain"), 20);
+            if (random.nextBoolean()) {
+                deck.getMain().add(cardDb.getCard("Wastes"), 2);
+            }
+            decks.add(deck);
+        }
+
+        HashMap<String, List<Map.Entry<PaperCard, Integer>>> pools = CardRelationMatrixGenerator.getCardPools(decks, cardList);
+        AssertJUnit.assertFalse(pools.isEmpty());
+        AssertJUnit.assertEquals(getCardPoolsWithDenseMatrix(decks, cardList), pools);
+    }
+
+    // how the pools were built before: a dense matrix, each card checked against every deck
+    private static HashMap<String, List<Map.Entry<PaperCard, Integer>>> getCardPoolsWithDenseMatrix(List<Deck> decks, List<PaperCard> cardList) {
+        Map<String, Integer> cardIntegerMap = new HashMap<>();
+        for (int i = 0; i < cardList.size(); ++i) {
+            cardIntegerMap.put(cardList.get(i).getName(), i);
+        }
+        int[][] matrix = new int[cardList.size()][cardList.size()];
+        for (PaperCard card : cardList) {
+            for (Deck deck : decks) {
+                if (!deck.getMain().contains(card)) {
+                    continue;
+                }
+                for (PaperCard pairCard : deck.getMain().toFlatList()) {
+                    if (CardRulesPredicates.Presets.IS_BASIC_LAND_NOT_WASTES.apply(pairCard.getRules())
+                            || pairCard.getName().equals(card.getName())) {
+                        continue;
+                    }
+                    Integer col = cardIntegerMap.get(pairCard.getName());
+                    if (col != null) {
+                        matrix[cardIntegerMap.get(card.getName())][col]++;
+                    }
+                }
+            }
+        }
+
+        HashMap<String, List<Map.Entry<PaperCard, Integer>>> cardPools = new HashMap<>();
+        for (PaperCard card : cardList) {
+            final int[] distances = matrix[cardIntegerMap.get(card.getName())];
+            Integer[] indices = new Integer[distances.length];
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = i;
+            }
+            // stable, so ties keep the order of the indices
+            Arrays.sort(indices, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer a, Integer b) {
+                    return Integer.compare(distances[a], distances[b]);
+                }
+            });
+            if (distances[indices[indices.length - 1]] == 0) {
+                continue;
+            }
+            List<Map.Entry<PaperCard, Integer>> deckPool = new ArrayList<>();
+            boolean excludeThisCard = false;
+            int k = 0;
+            for (int j = 0; j < CardRelationMatrixGenerator.MIN_REQUIRED_CONNECTIONS; ++k) {
+                int index = indices[indices.length - 1 - k];
+                if (distances[index] == 0) {
+                    excludeThisCard = true;
+                    break;
+                }
+                PaperCard cardToAdd = cardList.get(index);
+                if (!cardToAdd.getRules().getMainPart().getType().isLand()) {
+                    ++j;
+                }
+                deckPool.add(new AbstractMap.SimpleEntry<>(cardToAdd, distances[index]));
+            }
+            if (!excludeThisCard) {
+                cardPools.put(card.getName(), deckPool);
+            }
+        }
+        return cardPools;
+    }
+}
@@ -0,0 +1,91 @@
+package forge.deck;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+public class IntCountMapTest {
+
+    @Test
+    public void testCountsMatchAHashMap() {
+        IntCountMap counts = new IntCountMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(3);
+        // enough keys to grow the table a few times, with colliding ones
+        for (int i = 0; i < 5000; i++) {
+            int key = random.nextInt(700) * 64;
+            int count = random.nextInt(4) + 1;
+            counts.add(key, count);
+            expected.merge(key, count, Integer::sum);
+        }
+        AssertJUnit.assertEquals(expected.size(), counts.size());
+        assertCounts(expected, counts);
+    }
+
+    @Test
+    public void testAddAllExceptSkipsTheKey() {
+        IntCountMap row = new IntCountMap();
+        row.add(1, 2);
+        IntCountMap deck = new IntCountMap();
+        deck.add(0, 4);
+        deck.add(1, 3);
+        deck.add(7, 1);
+
+        row.addAllExcept(deck, 1);
+        Map<Integer, Integer> expected = new HashMap<>();
+        expected.put(0, 4);
+        expected.put(1, 2);
+        expected.put(7, 1);
+        assertCounts(expected, row);
+
+        row.addAllExcept(deck, -1);
+        expected.put(0, 8);
+        expected.put(1, 5);
+        expected.put(7, 2);
+        assertCounts(expected, row);
+    }
+
+    @Test
+    public void testPackedEntriesSortByCountOrByKey() {
+        IntCountMap counts = new IntCountMap();
+        counts.add(5, 2);
+        counts.add(3, 9);
+        counts.add(8, 2);
+
+        long[] byCount = counts.toPacked(true);
+        Arrays.sort(byCount);
+        AssertJUnit.assertEquals(3, byCount.length);
+        // ties on the count are sorted on the key
+        AssertJUnit.assertEquals(5, (int) byCount[0]);
+        AssertJUnit.assertEquals(8, (int) byCount[1]);
+        AssertJUnit.assertEquals(3, (int) byCount[2]);
+        AssertJUnit.assertEquals(9, (int) (byCount[2] >>> 32));
+
+        long[] byKey = counts.toPacked(false);
+        Arrays.sort(byKey);
+        AssertJUnit.assertEquals(3, (int) (byKey[0] >>> 32));
+        AssertJUnit.assertEquals(9, (int) byKey[0]);
+        AssertJUnit.assertEquals(8, (int) (byKey[2] >>> 32));
+    }
+
+    private static void assertCounts(Map<Integer, Integer> expected, IntCountMap counts) {
+        Map<Integer, Integer> actual = new HashMap<>();
+        for (long entry : counts.toPacked(false)) {
+            actual.put((int) (entry >>> 32), (int) entry);
+        }
+        AssertJUnit.assertEquals(expected, actual);
+        int[] keys = counts.keys();
+        Arrays.sort(keys);
+        int[] expectedKeys = new int[expected.size()];
+        int i = 0;
+        for (Integer key : expected.keySet()) {
+            expectedKeys[i++] = key;
+        }
+        Arrays.sort(expectedKeys);
+        AssertJUnit.assertTrue(Arrays.equals(expectedKeys, keys));
+    }
+}
@@ -0,0 +1,66 @@
+package forge.deck.io;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+import forge.ai.simulation.SimulationTest;
+import forge.card.CardDb;
+import forge.item.PaperCard;
+import forge.model.FModel;
+
+public class CardThemedMatrixIOTest extends SimulationTest {
+
+    private static HashMap<String, List<Map.Entry<PaperCard, Integer>>> createMatrix() {
+        CardDb cardDb = FModel.getMagicDb().getCommonCards();
+        HashMap<String, List<Map.Entry<PaperCard, Integer>>> matrix = new HashMap<>();
+        List<Map.Entry<PaperCard, Integer>> bolt = new ArrayList<>();
+        bolt.add(new AbstractMap.SimpleEntry<>(cardDb.getCard("Shock"), 12));
+        bolt.add(new AbstractMap.SimpleEntry<>(cardDb.getCard("Raging Goblin"), 7));
+        matrix.put("Lightning Bolt", bolt);
+        List<Map.Entry<PaperCard, Integer>> shock = new ArrayList<>();
+        shock.add(new AbstractMap.SimpleEntry<>(cardDb.getCard("Lightning Bolt"), 12));
+        shock.add(new AbstractMap.SimpleEntry<>(cardDb.getCard("Raging Goblin"), 1));
+        matrix.put("Shock", shock);
+        matrix.put("Memnite", new ArrayList<>());
+        return matrix;
+    }
+
+    @Test
+    public void testMatrixRoundTrip() throws IOException {
+        initAndCreateGame();
+        HashMap<String, List<Map.Entry<PaperCard, Integer>>> matrix = createMatrix();
+        File file = File.createTempFile("matrix", CardThemedMatrixIO.SUFFIX_DATA);
+        file.deleteOnExit();
+
+        CardThemedMatrixIO.saveMatrix(file, matrix);
+        AssertJUnit.assertEquals(matrix, CardThemedMatrixIO.loadMatrix(file));
+    }
+
+    @Test
+    public void testSerializedMatrixStillLoads() throws IOException {
+        initAndCreateGame();
+        HashMap<String, List<Map.Entry<PaperCard, Integer>>> matrix = createMatrix();
+        File file = File.createTempFile("matrix", CardThemedMatrixIO.SUFFIX_DATA);
+        file.deleteOnExit();
+        // how older versions saved it
+        try (ObjectOutputStream s = new ObjectOutputStream(new FileOutputStream(file))) {
+            s.writeObject(matrix);
+        }
+
+        AssertJUnit.assertEquals(matrix, CardThemedMatrixIO.loadMatrix(file));
+        // as are the shipped ones
+        HashMap<String, List<Map.Entry<PaperCard, Integer>>> commander = CardThemedMatrixIO.loadMatrix("Commander");
+        AssertJUnit.assertNotNull(commander);
+        AssertJUnit.assertFalse(commander.isEmpty());
+    }
+}
@@ -0,0 +1,122 @@
+package forge.game.ability;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.testng.AssertJUnit;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import forge.ai.simulation.SimulationTest;
+import forge.game.CardTraitBase;
+import forge.game.Game;
+import forge.game.card.Card;
+import forge.game.card.CounterEnumType;
+import forge.game.card.CounterType;
+import forge.game.phase.PhaseType;
+import forge.game.player.Player;
+import forge.game.spellability.SpellAbility;
+import forge.game.zone.ZoneType;
+
+public class CountExpressionGameTest extends SimulationTest {
+    private static final String CARDS_FOLDER = "../forge-gui/res/cardsfolder";
+
+    @Test
+    public void testCorpusCountsTheSameCachedAndUncached() throws IOException {
+        Set<String> expressions = readCorpusCounts();
+
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(0);
+        Player opp = game.getPlayers().get(1);
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN2, p);
+
+        Card bear = addCard("Grizzly Bears", p);
+        bear.addCounterInternal(CounterType.get(CounterEnumType.P1P1), 2, p, false, null, null);
+        addCard("Forest", p);
+        addCard("Mountain", p);
+        addCard("Llanowar Elves", p);
+        addCard("Serra Angel", opp);
+        addCard("Plains", opp);
+        addCard("Island", opp);
+        addCardToZone("Lightning Bolt", p, ZoneType.Hand);
+        addCardToZone("Giant Growth", p, ZoneType.Hand);
+        addCardToZone("Shock", opp, ZoneType.Hand);
+        addCardToZone("Counterspell", opp, ZoneType.Graveyard);
+        addCardToZone("Swamp", p, ZoneType.Library);
+        addCardToZone("Hill Giant", opp, ZoneType.Library);
+        addCardToZone("Ornithopter", opp, ZoneType.Exile);
+        Card dead = addCardToZone("Raging Goblin", p, ZoneType.Graveyard);
+        p.setLife(17, null);
+        opp.setLife(12, null);
+        game.getAction().checkStateEffects(true);
+
+        SpellAbility sa = bear.getFirstSpellAbility();
+        sa.setActivatingPlayer(p);
+
+        List<String> differences = new ArrayList<>();
+        for (String expression : expressions) {
+            compare(bear, expression, sa, differences);
+            compare(dead, expression, null, differences);
+        }
+        AssertJUnit.assertTrue(differences.size() + " differ, e.g. " + differences.subList(0, Math.min(10, differences.size())),
+                differences.isEmpty());
+    }
+
+    private static void compare(final Card host, final String expression, final CardTraitBase ctb, final List<String> differences) {
+        CountExpression.caching = false;
+        String uncached;
+        try {
+            uncached = count(host, expression, ctb);
+        } finally {
+            CountExpression.caching = true;
+        }
+        // the second time after the first left its parts and how it's counted in the cache
+        String cached = count(host, expression, ctb);
+        String cachedAgain = count(host, expression, ctb);
+        if (!uncached.equals(cached) || !uncached.equals(cachedAgain)) {
+            differences.add(expression + " on " + host.getName() + ": " + uncached + " / " + cached + " / " + cachedAgain);
+        }
+    }
+
+    private static String count(final Card host, final String expression, final CardTraitBase ctb) {
+        try {
+            return String.valueOf(AbilityUtils.xCount(host, expression, ctb));
+        } catch (RuntimeException e) {
+            return e.getClass().getName();
+        }
+    }
+
+    private static Set<String> readCorpusCounts() throws IOException {
+        File folder = new File(CARDS_FOLDER);
+        if (!folder.isDirectory()) {
+            throw new SkipException("No card scripts in " + folder.getAbsolutePath());
+        }
+        Set<String> expressions = new TreeSet<>();
+        for (File dir : folder.listFiles()) {
+            File[] files = dir.listFiles();
+            if (files == null) {
+                continue;
+            }
+            for (File file : files) {
+                for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+                    if (!line.startsWith("SVar:")) {
+                        continue;
+                    }
+                    String[] svar = line.split(":", 3);
+                    // random amounts can't be compared
+                    if (svar.length == 3 && svar[2].startsWith("Count$") && !svar[2].contains("Random")) {
+                        expressions.add(svar[2]);
+                    }
+                }
+            }
+        }
+        AssertJUnit.assertFalse(expressions.isEmpty());
+        return expressions;
+    }
+}
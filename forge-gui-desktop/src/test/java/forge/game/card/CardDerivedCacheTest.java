@@ -0,0 +1,86 @@
+package forge.game.card;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+import forge.ai.simulation.SimulationTest;
+import forge.card.ColorSet;
+import forge.card.MagicColor;
+import forge.card.RemoveType;
+import forge.card.mana.ManaCost;
+import forge.card.mana.ManaCostParser;
+import forge.game.Game;
+import forge.game.phase.PhaseType;
+import forge.game.player.Player;
+import forge.game.zone.ZoneType;
+
+public class CardDerivedCacheTest extends SimulationTest {
+
+    @Test
+    public void testCachedCharacteristicsFollowChanges() {
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(0);
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN1, p);
+        Card bear = addCard("Grizzly Bears", p);
+        game.getAction().checkStateEffects(true);
+        // taken up front, new timestamps would change the layer epoch on their own
+        long typeTimestamp = game.getNextTimestamp();
+        long colorTimestamp = game.getNextTimestamp();
+        long costTimestamp = game.getNextTimestamp();
+        long ptTimestamp = game.getNextTimestamp();
+
+        AssertJUnit.assertTrue(bear.getType().isCreature());
+        AssertJUnit.assertFalse(bear.getType().isArtifact());
+        AssertJUnit.assertTrue(bear.getColor().hasGreen());
+        AssertJUnit.assertEquals("{1}{G}", bear.getManaCost().toString());
+        assertPT(bear, 2, 2);
+
+        bear.setCounters(CounterEnumType.P1P1, 1);
+        assertPT(bear, 3, 3);
+
+        bear.addChangedCardTypes(Arrays.asList("Artifact"), null, false, EnumSet.noneOf(RemoveType.class),
+                typeTimestamp, 0, true, false);
+        AssertJUnit.assertTrue(bear.getType().isArtifact());
+        AssertJUnit.assertTrue(bear.getType().isCreature());
+
+        bear.addColor(ColorSet.fromMask(MagicColor.RED), false, colorTimestamp, 0, false);
+        AssertJUnit.assertTrue(bear.getColor().hasRed());
+        AssertJUnit.assertFalse(bear.getColor().hasGreen());
+
+        bear.addChangedManaCost(new ManaCost(new ManaCostParser("R")), costTimestamp, 0);
+        AssertJUnit.assertEquals("{R}", bear.getManaCost().toString());
+
+        bear.setBasePower(4);
+        bear.setBaseToughness(5);
+        assertPT(bear, 5, 6);
+
+        bear.addNewPT(1, 1, ptTimestamp, 0);
+        assertPT(bear, 2, 2);
+
+        bear.removeNewPT(ptTimestamp, 0);
+        assertPT(bear, 5, 6);
+    }
+
+    @Test
+    public void testCachedPowerFollowsTheZone() {
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(0);
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN1, p);
+        Card copter = addCard("Smuggler's Copter", p);
+        game.getAction().checkStateEffects(true);
+
+        // a noncreature permanent has no power or toughness, elsewhere it has the printed ones
+        assertPT(copter, 0, 0);
+        p.getZone(ZoneType.Battlefield).remove(copter);
+        p.getZone(ZoneType.Graveyard).add(copter);
+        assertPT(copter, 3, 3);
+    }
+
+    private static void assertPT(Card c, int power, int toughness) {
+        AssertJUnit.assertEquals(power, c.getNetPower());
+        AssertJUnit.assertEquals(toughness, c.getNetToughness());
+    }
+}
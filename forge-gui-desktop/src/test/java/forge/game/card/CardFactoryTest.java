@@ -0,0 +1,146 @@
+package forge.game.card;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+import forge.StaticData;
+import forge.ai.simulation.SimulationTest;
+import forge.card.CardStateName;
+import forge.game.CardTraitBase;
+import forge.game.Game;
+import forge.game.TriggerReplacementBase;
+import forge.game.keyword.KeywordInterface;
+import forge.game.phase.PhaseType;
+import forge.game.player.Player;
+import forge.game.replacement.ReplacementEffect;
+import forge.game.spellability.AbilitySub;
+import forge.game.spellability.SpellAbility;
+import forge.game.staticability.StaticAbility;
+import forge.game.trigger.Trigger;
+import forge.item.IPaperCard;
+import forge.item.PaperCard;
+
+public class CardFactoryTest extends SimulationTest {
+
+    @Test
+    public void testCopiedCardsEqualBuiltCards() {
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(0);
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN1, p);
+
+        List<IPaperCard> cards = new ArrayList<>();
+        for (PaperCard pc : StaticData.instance().getCommonCards().getUniqueCards()) {
+            cards.add(pc);
+        }
+        cards.addAll(StaticData.instance().getAllTokens().getAllTokens());
+
+        List<String> mismatches = new ArrayList<>();
+        for (IPaperCard pc : cards) {
+            // the template is made from another printing of the card, if there is one
+            for (PaperCard other : StaticData.instance().getCommonCards().getAllCards(pc.getName())) {
+                if (!other.equals(pc)) {
+                    CardFactory.getCard(other, p, 1, game, true);
+                    break;
+                }
+            }
+            String built = describe(CardFactory.getCard(pc, p, 1, game, false));
+            // the second time it's copied from the template made the first time
+            for (int i = 0; i < 2; i++) {
+                String copied = describe(CardFactory.getCard(pc, p, 1, game, true));
+                if (!built.equals(copied)) {
+                    mismatches.add(pc.getName() + ":\n" + built + "\n" + copied);
+                    break;
+                }
+            }
+        }
+        AssertJUnit.assertTrue(mismatches.size() + " of " + cards.size() + " differ, e.g. "
+                + (mismatches.isEmpty() ? "" : mismatches.get(0)), mismatches.isEmpty());
+    }
+
+    private static String describe(Card c) {
+        StringBuilder sb = new StringBuilder();
+        Map<Object, Integer> seen = new IdentityHashMap<>();
+        sb.append(c.getId()).append('|').append(c.getOwner()).append('|').append(c.getCurrentStateName())
+            .append('|').append(c.getSpellText()).append('|').append(c.getDraftActions()).append('\n');
+        for (CardStateName name : new TreeSet<>(c.getStates())) {
+            CardState state = c.getState(name);
+            sb.append(name).append(": ").append(state.getName()).append('|').append(state.getType())
+                .append('|').append(state.getManaCost()).append('|').append(state.getColor())
+                .append('|').append(state.getBasePower()).append('/').append(state.getBaseToughness())
+                .append('|').append(state.getBasePowerString()).append('/').append(state.getBaseToughnessString())
+                .append('|').append(state.getBaseLoyalty()).append('|').append(state.getBaseDefense())
+                .append('|').append(state.getSVars()).append('|').append(state.getImageKey())
+                .append('|').append(state.getSetCode()).append('|').append(state.getRarity()).append('\n');
+            for (SpellAbility sa : state.getSpellAbilities()) {
+                describe(sa, c, seen, sb, "  ");
+            }
+            for (Trigger tr : state.getTriggers()) {
+                describe(tr, c, seen, sb, "  ");
+            }
+            for (ReplacementEffect re : state.getReplacementEffects()) {
+                describe(re, c, seen, sb, "  ");
+            }
+            for (StaticAbility st : state.getStaticAbilities()) {
+                describe(st, c, seen, sb, "  ");
+            }
+            for (KeywordInterface k : state.getIntrinsicKeywords()) {
+                sb.append("  keyword ").append(index(k, seen)).append(' ').append(k.getOriginal()).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    private static int index(Object o, Map<Object, Integer> seen) {
+        Integer index = seen.get(o);
+        if (index == null) {
+            index = seen.size();
+            seen.put(o, index);
+        }
+        return index;
+    }
+
+    private static void describe(CardTraitBase ctb, Card c, Map<Object, Integer> seen, StringBuilder sb, String indent) {
+        boolean first = !seen.containsKey(ctb);
+        sb.append(indent).append(index(ctb, seen)).append(' ').append(ctb.getClass().getSimpleName())
+            .append('|').append(ctb.isIntrinsic()).append('|').append(new TreeMap<>(ctb.getMapParams()))
+            .append('|').append(ctb.getHostCard() == c)
+            .append('|').append(ctb.getCardState() == null ? null : ctb.getCardStateName())
+            .append('|').append(ctb.getCardState() == null || ctb.getCardState().getCard() == c)
+            .append('|').append(ctb.getKeyword() == null ? null : index(ctb.getKeyword(), seen));
+        if (ctb instanceof SpellAbility) {
+            SpellAbility sa = (SpellAbility) ctb;
+            sb.append('|').append(sa.getApi()).append('|').append(sa.getDescription())
+                .append('|').append(sa.getPayCosts());
+        }
+        sb.append('\n');
+        if (!first) {
+            return;
+        }
+        if (ctb instanceof TriggerReplacementBase && ((TriggerReplacementBase) ctb).getOverridingAbility() != null) {
+            describe(((TriggerReplacementBase) ctb).getOverridingAbility(), c, seen, sb, indent + "  ");
+        }
+        if (ctb instanceof SpellAbility) {
+            SpellAbility sa = (SpellAbility) ctb;
+            if (sa.getSubAbility() != null) {
+                describe(sa.getSubAbility(), c, seen, sb, indent + "  ");
+            }
+            for (Map.Entry<String, SpellAbility> e : new TreeMap<>(sa.getAdditionalAbilities()).entrySet()) {
+                sb.append(indent).append(e.getKey()).append('\n');
+                describe(e.getValue(), c, seen, sb, indent + "  ");
+            }
+            for (Map.Entry<String, List<AbilitySub>> e : new TreeMap<>(sa.getAdditionalAbilityLists()).entrySet()) {
+                sb.append(indent).append(e.getKey()).append('\n');
+                for (AbilitySub sub : e.getValue()) {
+                    describe(sub, c, seen, sb, indent + "  ");
+                }
+            }
+        }
+    }
+}
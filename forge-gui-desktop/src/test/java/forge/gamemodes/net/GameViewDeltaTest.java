@@ -0,0 +1,71 @@
+package forge.gamemodes.net;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+import forge.ai.simulation.SimulationTest;
+import forge.game.Game;
+import forge.game.GameView;
+import forge.game.card.Card;
+import forge.game.card.CardView;
+import forge.game.phase.PhaseType;
+import forge.game.player.Player;
+import forge.game.player.PlayerView;
+import forge.game.zone.ZoneType;
+import forge.gamemodes.net.event.GameViewDeltaEvent;
+import forge.trackable.TrackableTypes;
+
+public class GameViewDeltaTest extends SimulationTest {
+
+    @Test
+    public void testDeltasKeepClientGameViewInSync() {
+        Game game = initAndCreateGame();
+        Player p = game.getPlayers().get(1);
+        Card bear = addCard("Grizzly Bears", p);
+        addCardToZone("Lightning Bolt", p, ZoneType.Hand);
+        game.getPhaseHandler().devModeSet(PhaseType.MAIN2, p);
+        game.getAction().checkStateEffects(true);
+        game.getView().updatePlayers(game);
+
+        GameViewDeltaWriter writer = new GameViewDeltaWriter();
+        GameViewDeltaReader reader = new GameViewDeltaReader();
+
+        GameViewDeltaEvent snapshot = writer.write(game.getView());
+        AssertJUnit.assertTrue(snapshot.isFull());
+        GameView clientView = reader.read(null, snapshot);
+        AssertJUnit.assertEquals(2, clientView.getPlayers().size());
+
+        PlayerView clientPlayer = clientView.getTracker().getObj(TrackableTypes.PlayerViewType, p.getId());
+        AssertJUnit.assertEquals(20, clientPlayer.getLife());
+        AssertJUnit.assertEquals(1, clientPlayer.getCards(ZoneType.Hand).size());
+        CardView clientBear = clientView.getTracker().getObj(TrackableTypes.CardViewType, bear.getId());
+        AssertJUnit.assertEquals("Grizzly Bears", clientBear.getCurrentState().getName());
+        AssertJUnit.assertEquals(2, clientBear.getCurrentState().getPower());
+        AssertJUnit.assertFalse(clientBear.isTapped());
+
+        // nothing changed, so there is nothing to send
+        GameViewDeltaEvent unchanged = writer.write(game.getView());
+        AssertJUnit.assertFalse(unchanged.isFull());
+        AssertJUnit.assertEquals(0, unchanged.getData().length);
+        AssertJUnit.assertTrue(unchanged.isEmpty());
+
+        p.setLife(17, null);
+        bear.tap(true, null, null);
+        GameViewDeltaEvent delta = writer.write(game.getView());
+        AssertJUnit.assertFalse(delta.isFull());
+        AssertJUnit.assertTrue(delta.getData().length < snapshot.getData().length / 4);
+
+        AssertJUnit.assertSame(clientView, reader.read(clientView, delta));
+        AssertJUnit.assertEquals(17, clientPlayer.getLife());
+        AssertJUnit.assertTrue(clientBear.isTapped());
+        AssertJUnit.assertEquals("Grizzly Bears", clientBear.getCurrentState().getName());
+        AssertJUnit.assertEquals(1, clientPlayer.getCards(ZoneType.Hand).size());
+
+        // a new client gets everything again
+        writer.reset();
+        GameViewDeltaEvent resent = writer.write(game.getView());
+        AssertJUnit.assertTrue(resent.isFull());
+        GameView newClientView = reader.read(null, resent);
+        AssertJUnit.assertTrue(newClientView.getTracker().getObj(TrackableTypes.CardViewType, bear.getId()).isTapped());
+    }
+}
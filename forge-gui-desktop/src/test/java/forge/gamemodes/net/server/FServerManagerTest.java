@@ -0,0 +1,203 @@
+package forge.gamemodes.net.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+import forge.ai.simulation.SimulationTest;
+import forge.gamemodes.match.LobbySlotType;
+import forge.gamemodes.net.CompatibleObjectDecoder;
+import forge.gamemodes.net.event.LobbyUpdateEvent;
+import forge.gamemodes.net.event.LoginEvent;
+import forge.gamemodes.net.event.LogoutEvent;
+import forge.gamemodes.net.event.MessageEvent;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.serialization.ClassResolvers;
+
+public class FServerManagerTest extends SimulationTest {
+
+    private static EmbeddedChannel connect(final FServerManager server, final String username, final String room) {
+        EmbeddedChannel channel = new EmbeddedChannel(new ChannelInitializer<EmbeddedChannel>() {
+            @Override
+            protected void initChannel(EmbeddedChannel ch) {
+                server.initPipeline(ch.pipeline());
+            }
+        });
+        channel.writeInbound(new LoginEvent(username, 0, 0, room));
+        channel.runPendingTasks();
+        return channel;
+    }
+
+    @Test
+    public void testEventsOnlyReachTheirRoom() {
+        initAndCreateGame();
+        FServerManager server = FServerManager.getInstance();
+        ServerGameLobby first = server.openRoom("routing-first");
+        ServerGameLobby second = server.openRoom("routing-second");
+
+        EmbeddedChannel alice = connect(server, "Alice", "routing-first");
+        EmbeddedChannel carol = connect(server, "Carol", "routing-second");
+        EmbeddedChannel bob = connect(server, "Bob", "routing-first");
+        AssertJUnit.assertEquals("Alice", first.getSlot(0).getName());
+        AssertJUnit.assertEquals("Bob", first.getSlot(1).getName());
+        AssertJUnit.assertEquals("Carol", second.getSlot(0).getName());
+        AssertJUnit.assertEquals(LobbySlotType.OPEN, second.getSlot(1).getType());
+
+        // each only hears of those joining their own room
+        AssertJUnit.assertEquals(Arrays.asList("Alice joined the room", "Bob joined the room"), messages(receive(alice)));
+        AssertJUnit.assertEquals(Arrays.asList("Carol joined the room"), messages(receive(carol)));
+        AssertJUnit.assertEquals(Arrays.asList("Bob joined the room"), messages(receive(bob)));
+
+        bob.writeInbound(new MessageEvent("hello"));
+        bob.runPendingTasks();
+        carol.writeInbound(new MessageEvent("anyone?"));
+        carol.runPendingTasks();
+        AssertJUnit.assertEquals(Arrays.asList("Bob: hello"), messages(receive(alice)));
+        AssertJUnit.assertEquals(Arrays.asList("Bob: hello"), messages(receive(bob)));
+        AssertJUnit.assertEquals(Arrays.asList("Carol: anyone?"), messages(receive(carol)));
+
+        // leaving frees the slot and is only told to the room
+        bob.close();
+        bob.runPendingTasks();
+        AssertJUnit.assertEquals(LobbySlotType.OPEN, first.getSlot(1).getType());
+        AssertJUnit.assertEquals(Arrays.asList("Bob left the room"), messages(receive(alice)));
+        AssertJUnit.assertTrue(messages(receive(carol)).isEmpty());
+
+        alice.close();
+        carol.close();
+    }
+
+    @Test
+    public void testRoomsMoveToNewGameThreads() {
+        initAndCreateGame();
+        FServerManager server = FServerManager.getInstance();
+        ServerGameLobby lobby = server.openRoom("threads");
+        AssertJUnit.assertNotNull(lobby.getGameThreadPool());
+
+        ExecutorService oldPool = (ExecutorService) lobby.getGameThreadPool();
+        server.setMaxConcurrentMatches(2);
+        try {
+            AssertJUnit.assertTrue(oldPool.isShutdown());
+            AssertJUnit.assertNotSame(oldPool, lobby.getGameThreadPool());
+            AssertJUnit.assertFalse(((ExecutorService) lobby.getGameThreadPool()).isShutdown());
+            AssertJUnit.assertSame(lobby.getGameThreadPool(), server.openRoom("threads-later").getGameThreadPool());
+        } finally {
+            server.setMaxConcurrentMatches(0);
+        }
+    }
+
+    @Test
+    public void testQueuedMatchesAreTold() throws InterruptedException {
+        initAndCreateGame();
+        FServerManager server = FServerManager.getInstance();
+        server.setMaxConcurrentMatches(1);
+        try {
+            ServerGameLobby playing = server.openRoom("queue-playing");
+            ServerGameLobby waiting = server.openRoom("queue-waiting");
+            EmbeddedChannel alice = connect(server, "Alice", "queue-playing");
+            EmbeddedChannel bob = connect(server, "Bob", "queue-waiting");
+            receive(alice);
+            receive(bob);
+
+            final CountDownLatch started = new CountDownLatch(1);
+            final CountDownLatch end = new CountDownLatch(1);
+            server.startMatch(playing, new Runnable() {
+                @Override
+                public void run() {
+                    started.countDown();
+                    try {
+                        end.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            started.await();
+            AssertJUnit.assertTrue(messages(receive(alice)).isEmpty());
+
+            final CountDownLatch queued = new CountDownLatch(1);
+            server.startMatch(waiting, new Runnable() {
+                @Override
+                public void run() {
+                    queued.countDown();
+                }
+            });
+            AssertJUnit.assertEquals(Arrays.asList("All tables are taken, the match starts as soon as another one ends"), messages(receive(bob)));
+            AssertJUnit.assertTrue(messages(receive(alice)).isEmpty());
+
+            end.countDown();
+            queued.await();
+            alice.close();
+            bob.close();
+        } finally {
+            server.setMaxConcurrentMatches(0);
+        }
+    }
+
+    @Test
+    public void testMatchesAreNotCappedByDefault() throws InterruptedException {
+        initAndCreateGame();
+        FServerManager server = FServerManager.getInstance();
+        ServerGameLobby lobby = server.openRoom("uncapped");
+        EmbeddedChannel alice = connect(server, "Alice", "uncapped");
+        receive(alice);
+
+        // more matches than cores are played at once, as they mostly wait for their players
+        int matches = Runtime.getRuntime().availableProcessors() + 2;
+        final CountDownLatch started = new CountDownLatch(matches);
+        final CountDownLatch end = new CountDownLatch(1);
+        for (int i = 0; i < matches; i++) {
+            server.startMatch(lobby, new Runnable() {
+                @Override
+                public void run() {
+                    started.countDown();
+                    try {
+                        end.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+        }
+        AssertJUnit.assertTrue(started.await(10, TimeUnit.SECONDS));
+        end.countDown();
+        AssertJUnit.assertTrue(messages(receive(alice)).isEmpty());
+        alice.close();
+    }
+
+    private static List<String> messages(final List<Object> received) {
+        List<String> messages = new ArrayList<>();
+        for (Object msg : received) {
+            if (msg instanceof MessageEvent) {
+                MessageEvent event = (MessageEvent) msg;
+                messages.add(event.getSource() == null ? event.getMessage() : event.getSource() + ": " + event.getMessage());
+            } else {
+                AssertJUnit.assertTrue(msg.toString(), msg instanceof LobbyUpdateEvent || msg instanceof LoginEvent || msg instanceof LogoutEvent);
+            }
+        }
+        return messages;
+    }
+
+    private static List<Object> receive(final EmbeddedChannel channel) {
+        channel.runPendingTasks();
+        EmbeddedChannel decoder = new EmbeddedChannel(new CompatibleObjectDecoder(ClassResolvers.cacheDisabled(null)));
+        ByteBuf data;
+        while ((data = channel.readOutbound()) != null) {
+            decoder.writeInbound(data);
+        }
+        List<Object> received = new ArrayList<>();
+        Object msg;
+        while ((msg = decoder.readInbound()) != null) {
+            received.add(msg);
+        }
+        return received;
+    }
+}
@@ -0,0 +1,118 @@
+package forge.gamemodes.net.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+import forge.gamemodes.net.CompatibleObjectDecoder;
+import forge.gamemodes.net.CompatibleObjectEncoder;
+import forge.gamemodes.net.ProtocolMethod;
+import forge.gamemodes.net.event.GuiGameEvent;
+import forge.gamemodes.net.event.MessageEvent;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.serialization.ClassResolvers;
+
+public class RemoteClientTest {
+
+    @Test
+    public void testEventsAreQueuedAndOutdatedOnesDropped() {
+        EmbeddedChannel channel = new EmbeddedChannel(new CompatibleObjectEncoder());
+        RemoteClient client = new RemoteClient(channel);
+
+        client.send(new MessageEvent("first"));
+        client.send(new GuiGameEvent(ProtocolMethod.showPromptMessage, null, "old prompt"));
+        client.send(new GuiGameEvent(ProtocolMethod.showPromptMessage, null, "new prompt"));
+        client.send(new GuiGameEvent(ProtocolMethod.updateButtons, null, "OK", "Cancel", true, true, true));
+        client.send(new MessageEvent("last"));
+        // nothing is written until the event loop gets to it
+        AssertJUnit.assertTrue(channel.outboundMessages().isEmpty());
+
+        channel.runPendingTasks();
+        List<Object> received = receive(channel);
+        AssertJUnit.assertEquals(4, received.size());
+        AssertJUnit.assertEquals("first", ((MessageEvent) received.get(0)).getMessage());
+        AssertJUnit.assertEquals("new prompt", ((GuiGameEvent) received.get(1)).getObjects()[1]);
+        AssertJUnit.assertEquals(ProtocolMethod.updateButtons, ((GuiGameEvent) received.get(2)).getMethod());
+        AssertJUnit.assertEquals("last", ((MessageEvent) received.get(3)).getMessage());
+    }
+
+    @Test
+    public void testInterleavedEventsKeepTheirOrder() {
+        EmbeddedChannel channel = new EmbeddedChannel(new CompatibleObjectEncoder());
+        RemoteClient client = new RemoteClient(channel);
+
+        client.send(new GuiGameEvent(ProtocolMethod.setGameView, "view 1"));
+        client.send(new GuiGameEvent(ProtocolMethod.updateStack, "stack 1"));
+        client.send(new GuiGameEvent(ProtocolMethod.setGameView, "view 2"));
+        client.send(new GuiGameEvent(ProtocolMethod.setGameView, "view 3"));
+        client.send(new MessageEvent("message"));
+        client.send(new GuiGameEvent(ProtocolMethod.showPromptMessage, null, "prompt 1"));
+        client.send(new GuiGameEvent(ProtocolMethod.updateStack, "stack 2"));
+        client.send(new GuiGameEvent(ProtocolMethod.updateStack, "stack 3"));
+        client.send(new GuiGameEvent(ProtocolMethod.showPromptMessage, null, "prompt 2"));
+
+        // only an event right after one showing the same replaces it, the others stay where they were sent
+        channel.runPendingTasks();
+        AssertJUnit.assertEquals(Arrays.asList("setGameView view 1", "updateStack stack 1", "setGameView view 3", "message",
+                "showPromptMessage prompt 1", "updateStack stack 3", "showPromptMessage prompt 2"), describe(receive(channel)));
+
+        // an event already written isn't replaced either
+        client.send(new GuiGameEvent(ProtocolMethod.setGameView, "view 4"));
+        channel.runPendingTasks();
+        client.send(new GuiGameEvent(ProtocolMethod.setGameView, "view 5"));
+        channel.runPendingTasks();
+        AssertJUnit.assertEquals(Arrays.asList("setGameView view 4", "setGameView view 5"), describe(receive(channel)));
+    }
+
+    @Test
+    public void testSlowClientIsHeldBack() {
+        EmbeddedChannel channel = new EmbeddedChannel(new CompatibleObjectEncoder());
+        channel.config().setWriteBufferWaterMark(new WriteBufferWaterMark(1, 2));
+        RemoteClient client = new RemoteClient(channel);
+
+        for (int i = 0; i < 3; i++) {
+            client.send(new MessageEvent("message " + i));
+        }
+        // the channel is full after each message, the rest waits until it's writable again
+        channel.runPendingTasks();
+        AssertJUnit.assertEquals(1, receive(channel).size());
+        client.writeQueued();
+        client.writeQueued();
+        List<Object> received = receive(channel);
+        AssertJUnit.assertEquals(2, received.size());
+        AssertJUnit.assertEquals("message 2", ((MessageEvent) received.get(1)).getMessage());
+    }
+
+    private static List<String> describe(List<Object> received) {
+        List<String> descriptions = new ArrayList<>();
+        for (Object msg : received) {
+            if (msg instanceof MessageEvent) {
+                descriptions.add(((MessageEvent) msg).getMessage());
+            } else {
+                GuiGameEvent event = (GuiGameEvent) msg;
+                Object[] args = event.getObjects();
+                descriptions.add(event.getMethod() + " " + args[args.length - 1]);
+            }
+        }
+        return descriptions;
+    }
+
+    private static List<Object> receive(EmbeddedChannel channel) {
+        EmbeddedChannel decoder = new EmbeddedChannel(new CompatibleObjectDecoder(ClassResolvers.cacheDisabled(null)));
+        ByteBuf data;
+        while ((data = channel.readOutbound()) != null) {
+            decoder.writeInbound(data);
+        }
+        List<Object> received = new ArrayList<>();
+        Object msg;
+        while ((msg = decoder.readInbound()) != null) {
+            received.add(msg);
+        }
+        return received;
+    }
+}
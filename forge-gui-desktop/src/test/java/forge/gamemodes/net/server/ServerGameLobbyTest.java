@@ -0,0 +1,49 @@
+package forge.gamemodes.net.server;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+import forge.ai.simulation.SimulationTest;
+import forge.deck.Deck;
+import forge.gamemodes.match.LobbySlotType;
+
+public class ServerGameLobbyTest extends SimulationTest {
+
+    @Test
+    public void testRoomIsTakenByClients() {
+        initAndCreateGame();
+        ServerGameLobby lobby = new ServerGameLobby("1", null);
+        AssertJUnit.assertEquals("1", lobby.getRoom());
+        AssertJUnit.assertEquals(LobbySlotType.OPEN, lobby.getSlot(0).getType());
+        AssertJUnit.assertEquals(LobbySlotType.OPEN, lobby.getSlot(1).getType());
+
+        AssertJUnit.assertEquals(0, lobby.connectPlayer("Alice", 0, 0));
+        AssertJUnit.assertEquals(1, lobby.connectPlayer("Bob", 0, 0));
+        AssertJUnit.assertEquals(-1, lobby.connectPlayer("Carol", 0, 0));
+
+        lobby.disconnectPlayer(0);
+        AssertJUnit.assertEquals(0, lobby.connectPlayer("Carol", 0, 0));
+    }
+
+    @Test
+    public void testRoomIsReadyToStartWhenEveryoneIs() {
+        initAndCreateGame();
+        ServerGameLobby lobby = new ServerGameLobby("1", null);
+        lobby.connectPlayer("Alice", 0, 0);
+        lobby.getSlot(0).setDeck(new Deck());
+        lobby.getSlot(0).setIsReady(true);
+        // nobody to play against yet
+        AssertJUnit.assertFalse(lobby.isReadyToStart());
+
+        lobby.connectPlayer("Bob", 0, 0);
+        lobby.getSlot(1).setIsReady(true);
+        // no deck yet
+        AssertJUnit.assertFalse(lobby.isReadyToStart());
+        lobby.getSlot(1).setDeck(new Deck());
+        AssertJUnit.assertTrue(lobby.isReadyToStart());
+
+        lobby.unsetReady();
+        AssertJUnit.assertFalse(lobby.getSlot(0).isReady());
+        AssertJUnit.assertFalse(lobby.isReadyToStart());
+    }
+}
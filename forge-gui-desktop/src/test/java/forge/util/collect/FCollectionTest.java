@@ -0,0 +1,174 @@
+package forge.util.collect;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+public class FCollectionTest {
+
+    /**
+     * Equal by name only, so two instances can stand for the same element.
+     */
+    private static final class Item {
+        private final String name;
+        private final int copy;
+
+        private Item(String name, int copy) {
+            this.name = name;
+            this.copy = copy;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Item && ((Item) obj).name.equals(name);
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private static void assertOrder(FCollection<String> c, String... expected) {
+        AssertJUnit.assertEquals(Arrays.asList(expected), new ArrayList<>(c));
+        AssertJUnit.assertEquals(expected.length, c.size());
+        AssertJUnit.assertEquals(expected.length, c.asSet().size());
+        for (int i = 0; i < expected.length; i++) {
+            AssertJUnit.assertEquals(expected[i], c.get(i));
+            AssertJUnit.assertEquals(i, c.indexOf(expected[i]));
+            AssertJUnit.assertEquals(i, c.lastIndexOf(expected[i]));
+            AssertJUnit.assertTrue(c.contains(expected[i]));
+        }
+        List<String> snapshot = new ArrayList<>();
+        for (String s : c.threadSafeIterable()) {
+            snapshot.add(s);
+        }
+        AssertJUnit.assertEquals(Arrays.asList(expected), snapshot);
+    }
+
+    @Test
+    public void testAddKeepsOrderAndSkipsDuplicates() {
+        FCollection<String> c = new FCollection<>();
+        AssertJUnit.assertTrue(c.add("b"));
+        AssertJUnit.assertTrue(c.add("a"));
+        AssertJUnit.assertTrue(c.add("c"));
+        AssertJUnit.assertFalse(c.add("a"));
+        assertOrder(c, "b", "a", "c");
+
+        AssertJUnit.assertTrue(c.addAll(Arrays.asList("d", "b", "e", "d")));
+        assertOrder(c, "b", "a", "c", "d", "e");
+        AssertJUnit.assertFalse(c.addAll(Arrays.asList("a", "e")));
+        AssertJUnit.assertEquals(-1, c.indexOf("x"));
+        AssertJUnit.assertFalse(c.contains("x"));
+    }
+
+    @Test
+    public void testInsertMovesElementsAlreadyPresent() {
+        FCollection<String> c = new FCollection<>(new String[] {"a", "b", "c", "d"});
+        c.add(0, "x");
+        assertOrder(c, "x", "a", "b", "c", "d");
+        c.add(0, "c");
+        assertOrder(c, "c", "x", "a", "b", "d");
+        c.add(4, "x");
+        assertOrder(c, "c", "a", "b", "x", "d");
+        c.addAll(1, Arrays.asList("d", "y"));
+        assertOrder(c, "c", "d", "y", "a", "b", "x");
+    }
+
+    @Test
+    public void testInsertKeepsListAndSetOnTheSameInstance() {
+        Item first = new Item("a", 1);
+        FCollection<Item> c = new FCollection<>(Arrays.asList(first, new Item("b", 1)));
+        AssertJUnit.assertFalse(c.add(new Item("a", 2)));
+        AssertJUnit.assertSame(first, c.get(new Item("a", 3)));
+
+        Item moved = new Item("a", 2);
+        c.add(2, moved);
+        AssertJUnit.assertEquals(1, c.indexOf(moved));
+        AssertJUnit.assertSame(moved, c.get(1));
+        AssertJUnit.assertSame(moved, c.get(new Item("a", 3)));
+        AssertJUnit.assertSame(moved, c.asSet().stream().filter(i -> i.name.equals("a")).findFirst().get());
+        AssertJUnit.assertEquals(2, c.get(1).copy);
+    }
+
+    @Test
+    public void testRemove() {
+        FCollection<String> c = new FCollection<>(new String[] {"a", "b", "c", "d", "e"});
+        AssertJUnit.assertTrue(c.remove("c"));
+        AssertJUnit.assertFalse(c.remove("c"));
+        AssertJUnit.assertFalse(c.remove("x"));
+        assertOrder(c, "a", "b", "d", "e");
+
+        AssertJUnit.assertEquals("a", c.remove(0));
+        assertOrder(c, "b", "d", "e");
+
+        AssertJUnit.assertTrue(c.removeIf(s -> s.equals("d")));
+        assertOrder(c, "b", "e");
+
+        // removed elements can be added again, at the end
+        AssertJUnit.assertTrue(c.add("a"));
+        assertOrder(c, "b", "e", "a");
+    }
+
+    @Test
+    public void testRemoveAllAndRetainAll() {
+        FCollection<String> c = new FCollection<>(new String[] {"a", "b", "c", "d", "e"});
+        AssertJUnit.assertTrue(c.removeAll(Arrays.asList("b", "x", "d", "b")));
+        assertOrder(c, "a", "c", "e");
+        AssertJUnit.assertFalse(c.removeAll(Arrays.asList("x", "y")));
+
+        AssertJUnit.assertTrue(c.retainAll(Arrays.asList("e", "a", "x")));
+        assertOrder(c, "a", "e");
+        AssertJUnit.assertFalse(c.retainAll(Arrays.asList("a", "e")));
+
+        c.clear();
+        assertOrder(c);
+        AssertJUnit.assertTrue(c.isEmpty());
+    }
+
+    @Test
+    public void testIteratorsKeepTheSetInStep() {
+        FCollection<String> c = new FCollection<>(new String[] {"a", "b", "c"});
+        Iterator<String> it = c.iterator();
+        it.next();
+        it.next();
+        it.remove();
+        assertOrder(c, "a", "c");
+
+        ListIterator<String> lit = c.listIterator(1);
+        lit.add("x");
+        assertOrder(c, "a", "x", "c");
+    }
+
+    @Test
+    public void testThreadSafeIterableFollowsChanges() {
+        FCollection<String> c = new FCollection<>(new String[] {"a", "b"});
+        Iterable<String> before = c.threadSafeIterable();
+        AssertJUnit.assertSame(before, c.threadSafeIterable());
+
+        c.add("c");
+        c.sort((x, y) -> y.compareTo(x));
+        List<String> after = new ArrayList<>();
+        for (String s : c.threadSafeIterable()) {
+            after.add(s);
+        }
+        AssertJUnit.assertEquals(Arrays.asList("c", "b", "a"), after);
+
+        // an earlier copy is left as it was
+        List<String> old = new ArrayList<>();
+        for (String s : before) {
+            old.add(s);
+        }
+        AssertJUnit.assertEquals(Arrays.asList("a", "b"), old);
+    }
+}
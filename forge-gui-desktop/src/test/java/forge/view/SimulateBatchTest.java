@@ -0,0 +1,85 @@
+package forge.view;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+import forge.ai.simulation.SimulationTest;
+import forge.deck.Deck;
+import forge.game.GameRules;
+import forge.game.GameType;
+
+public class SimulateBatchTest extends SimulationTest {
+
+    private static Deck createDeck(String name) {
+        Deck d = new Deck(name);
+        d.getMain().add("Mountain", 24);
+        d.getMain().add("Raging Goblin", 36);
+        return d;
+    }
+
+    @Test
+    public void testResultLinesKeepNamesIntact() {
+        initAndCreateGame();
+        List<Deck> decks = Arrays.asList(new Deck("Red, \"Burn\""), new Deck("Green\nStompy"));
+        SimulateBatch.GameResult result = new SimulateBatch.GameResult(2, 45, decks);
+        result.winner = "Ai(1)-Red, \"Burn\"";
+        result.turns = 7;
+        result.durationMs = 1234;
+        result.endReason = "Damage";
+
+        AssertJUnit.assertEquals("3,45,\"Red, \"\"Burn\"\"\",\"Green\nStompy\",\"Ai(1)-Red, \"\"Burn\"\"\",7,1234,0,0,\"Damage\"",
+                result.toCsv());
+
+        AssertJUnit.assertEquals("{\"game\":3,\"seed\":45,\"decks\":[\"Red, \\\"Burn\\\"\",\"Green\\nStompy\"],"
+                + "\"winner\":\"Ai(1)-Red, \\\"Burn\\\"\",\"turns\":7,\"durationMs\":1234,\"mulligans\":[0,0],\"endReason\":\"Damage\"}",
+                result.toJson());
+
+        result.winner = "";
+        result.endReason = "Error: C:\\decks\tbroken\u0001";
+        AssertJUnit.assertTrue(result.toJson(), result.toJson().contains(
+                "\"winner\":null,\"turns\":7,\"durationMs\":1234,\"mulligans\":[0,0],\"endReason\":\"Error: C:\\\\decks\\tbroken\\u0001\"}"));
+    }
+
+    @Test
+    public void testFailingGameStillGetsItsLine() throws IOException {
+        initAndCreateGame();
+        File output = File.createTempFile("batch", ".csv");
+        output.deleteOnExit();
+        List<Deck> decks = Arrays.asList(createDeck("First"), createDeck("Second"));
+
+        new SimulateBatch(new GameRules(GameType.Constructed), decks, 3, 2, 10, output) {
+            @Override
+            GameResult playGame(int iGame) {
+                throw new IllegalStateException("broken game " + (iGame + 1));
+            }
+        }.run();
+
+        List<String> lines = Files.readAllLines(output.toPath(), StandardCharsets.UTF_8);
+        AssertJUnit.assertEquals(4, lines.size());
+        AssertJUnit.assertTrue(lines.get(0).startsWith("game,seed,"));
+        for (String line : lines.subList(1, lines.size())) {
+            String game = line.substring(0, line.indexOf(','));
+            AssertJUnit.assertTrue(line, line.contains(",\"\",0,0,0,0,\"Error: java.lang.IllegalStateException: broken game " + game + "\""));
+        }
+    }
+
+    @Test
+    public void testGameOverTimeLimitIsStoppedAsDraw() {
+        initAndCreateGame();
+        List<Deck> decks = Arrays.asList(createDeck("First"), createDeck("Second"));
+        SimulateBatch batch = new SimulateBatch(new GameRules(GameType.Constructed), decks, 1, 1, 10, null, 1);
+
+        SimulateBatch.GameResult result = batch.playGame(0);
+        AssertJUnit.assertEquals("Timeout", result.endReason);
+        AssertJUnit.assertEquals("", result.winner);
+        // the game thread stopped on its own, it wasn't just left behind
+        AssertJUnit.assertTrue(result.durationMs < 5000);
+    }
+}
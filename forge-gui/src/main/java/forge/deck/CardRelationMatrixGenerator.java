@@ -4,14 +4,13 @@ import java.io.File;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 
-import org.apache.commons.lang3.ArrayUtils;
-
+import com.google.common.base.Function;
 import com.google.common.base.Predicates;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
@@ -23,6 +22,7 @@ import forge.game.GameFormat;
 import forge.item.PaperCard;
 import forge.localinstance.properties.ForgeConstants;
 import forge.model.FModel;
+import forge.util.ThreadUtil;
 import forge.util.storage.IStorage;
 import forge.util.storage.StorageImmediatelySerialized;
 
@@ -40,6 +40,8 @@ public final class CardRelationMatrixGenerator {
     **/
     public static final int MIN_REQUIRED_CONNECTIONS = 14;
 
+    private static final boolean useThreadPool = ThreadUtil.isMultiCoreSystem();
+
     public static boolean initialize(){
         return initializeFormat(DeckFormat.Commander) && initializeFormat(DeckFormat.Oathbreaker);
     }
@@ -75,62 +77,55 @@ public final class CardRelationMatrixGenerator {
 
         final Iterable<PaperCard> cards = Iterables.filter(format.getAllCards()
                 , Predicates.compose(Predicates.not(CardRulesPredicates.Presets.IS_BASIC_LAND_NOT_WASTES), PaperCard.FN_GET_RULES));
-        List<PaperCard> cardList = Lists.newArrayList(cards);
+        final List<PaperCard> cardList = Lists.newArrayList(cards);
         cardList.add(FModel.getMagicDb().getCommonCards().getCard("Wastes"));
-        Map<String, Integer> cardIntegerMap = new HashMap<>();
-        Map<Integer, PaperCard> integerCardMap = new HashMap<>();
+        return getCardPools(decks, cardList);
+    }
+
+    /**
+     * The strongest connections of each card of the list, to at least {@link #MIN_REQUIRED_CONNECTIONS}
+     * non-land cards, counted over the decks. Cards with too few connections get no pool.
+     */
+    static HashMap<String,List<Map.Entry<PaperCard,Integer>>> getCardPools(final Iterable<Deck> decks, final List<PaperCard> cardList){
+        final Map<String, Integer> cardIntegerMap = new HashMap<>();
         for (int i=0; i<cardList.size(); ++i){
             cardIntegerMap.put(cardList.get(i).getName(), i);
-            integerCardMap.put(i, cardList.get(i));
         }
 
-        int[][] matrix = new int[cardList.size()][cardList.size()];
-
-        for (PaperCard card:cardList){
-            for (Deck deck:decks){
-                if (deck.getMain().contains(card)){
-                    for (PaperCard pairCard:Iterables.filter(deck.getMain().toFlatList(),
-                            Predicates.compose(Predicates.not(CardRulesPredicates.Presets.IS_BASIC_LAND_NOT_WASTES), PaperCard.FN_GET_RULES))){
-                        if (!pairCard.getName().equals(card.getName())){
-                            try {
-                                int old = matrix[cardIntegerMap.get(card.getName())][cardIntegerMap.get(pairCard.getName())];
-                                matrix[cardIntegerMap.get(card.getName())][cardIntegerMap.get(pairCard.getName())] = old + 1;
-                            }catch (NullPointerException ne){
-                                //Todo: Not sure what was failing here
-                            }
-                        }
-                    }
-                }
+        //each card in a deck is connected to every other card in it
+        IntCountMap[] matrix = countConnections(decks, cardList.size(), new Function<Deck, int[]>() {
+            @Override
+            public int[] apply(Deck deck) {
+                return getCardIndices(deck.getMain(), cardIntegerMap).keys();
             }
-        }
+        }, cardIntegerMap);
+
         HashMap<String,List<Map.Entry<PaperCard,Integer>>> cardPools = new HashMap<>();
-        for (PaperCard card:cardList){
-            int col=cardIntegerMap.get(card.getName());
-            int[] distances = matrix[col];
-            int max = Collections.max(Arrays.asList(ArrayUtils.toObject(distances)));
-            if (max>0) {
-                ArrayIndexComparator comparator = new ArrayIndexComparator(ArrayUtils.toObject(distances));
-                Integer[] indices = comparator.createIndexArray();
-                Arrays.sort(indices, comparator);
-                List<Map.Entry<PaperCard,Integer>> deckPool=new ArrayList<>();
-                int k=0;
-                boolean excludeThisCard=false;//if there are too few cards with at least one connection
-                for (int j=0;j<MIN_REQUIRED_CONNECTIONS;++k){
-                    if(distances[indices[cardList.size()-1-k]]==0){
-                        excludeThisCard = true;
-                        break;
-                    }
-                    PaperCard cardToAdd=integerCardMap.get(indices[cardList.size()-1-k]);
-                    if(!cardToAdd.getRules().getMainPart().getType().isLand()){//need x non-land cards
-                        ++j;
-                    }
-                    deckPool.add(new AbstractMap.SimpleEntry<>(cardToAdd, distances[indices[cardList.size() - 1 - k]]));
+        for (int row = 0; row < matrix.length; row++){
+            if (matrix[row] == null) {
+                continue;
+            }
+            //strongest connections first, sorted on count then on card index
+            long[] connections = matrix[row].toPacked(true);
+            Arrays.sort(connections);
+            List<Map.Entry<PaperCard,Integer>> deckPool=new ArrayList<>();
+            int k=connections.length-1;
+            boolean excludeThisCard=false;//if there are too few cards with at least one connection
+            for (int j=0;j<MIN_REQUIRED_CONNECTIONS;--k){
+                if(k<0){
+                    excludeThisCard = true;
+                    break;
                 }
-                if(excludeThisCard){
-                    continue;
+                PaperCard cardToAdd=cardList.get((int) connections[k]);
+                if(!cardToAdd.getRules().getMainPart().getType().isLand()){//need x non-land cards
+                    ++j;
                 }
-                cardPools.put(card.getName(), deckPool);
+                deckPool.add(new AbstractMap.SimpleEntry<>(cardToAdd, (int) (connections[k] >>> 32)));
             }
+            if(excludeThisCard){
+                continue;
+            }
+            cardPools.put(cardList.get(row).getName(), deckPool);
         }
         return cardPools;
     }
@@ -144,109 +139,139 @@ public final class CardRelationMatrixGenerator {
         //get all cards
         final Iterable<PaperCard> cards = Iterables.filter(FModel.getMagicDb().getCommonCards().getUniqueCards()
                 , Predicates.compose(Predicates.not(CardRulesPredicates.Presets.IS_BASIC_LAND_NOT_WASTES), PaperCard.FN_GET_RULES));
-        List<PaperCard> cardList = Lists.newArrayList(cards);
+        final List<PaperCard> cardList = Lists.newArrayList(cards);
         cardList.add(FModel.getMagicDb().getCommonCards().getCard("Wastes"));
-        Map<String, Integer> cardIntegerMap = new HashMap<>();
-        Map<Integer, PaperCard> integerCardMap = new HashMap<>();
-        Map<String, Integer> legendIntegerMap = new HashMap<>();
-        Map<Integer, PaperCard> integerLegendMap = new HashMap<>();
-        //generate lookups for cards to link card names to matrix columns
+        final Map<String, Integer> cardIntegerMap = new HashMap<>();
+        //generate lookups for cards to link card names to matrix rows and columns
         for (int i=0; i<cardList.size(); ++i){
             cardIntegerMap.put(cardList.get(i).getName(), i);
-            integerCardMap.put(i, cardList.get(i));
         }
 
         //filter to just legal commanders
-        List<PaperCard> legends = Lists.newArrayList(Iterables.filter(cardList, format.isLegalCommanderPredicate()));
-
-        //generate lookups for legends to link commander names to matrix rows
-        for (int i=0; i<legends.size(); ++i){
-            legendIntegerMap.put(legends.get(i).getName(), i);
-            integerLegendMap.put(i, legends.get(i));
+        final Map<String, Integer> legendIntegerMap = new HashMap<>();
+        for (PaperCard legend : Iterables.filter(cardList, format.isLegalCommanderPredicate())) {
+            legendIntegerMap.put(legend.getName(), cardIntegerMap.get(legend.getName()));
         }
-        int[][] matrix = new int[legends.size()][cardList.size()];
-
-        //loop through commanders and decks
-        for (PaperCard legend:legends){
-            for (Deck deck:decks){
-                //if the deck has the commander
-                if (deck.getCommanders().contains(legend)){
-                    //update the matrix by incrementing the connectivity count for each card in the deck
-                    updateLegendMatrix(deck, legend, cardIntegerMap, legendIntegerMap, matrix);
+
+        //each commander of a deck is connected to every card in it, and to its partner
+        IntCountMap[] matrix = countConnections(decks, cardList.size(), new Function<Deck, int[]>() {
+            @Override
+            public int[] apply(Deck deck) {
+                IntCountMap legends = new IntCountMap();
+                for (PaperCard commander : deck.getCommanders()) {
+                    Integer index = legendIntegerMap.get(commander.getName());
+                    if (index != null) {
+                        legends.add(index, 1);
+                    }
                 }
+                return legends.keys();
             }
-        }
+        }, cardIntegerMap);
 
         //convert the matrix into a map of pools for each commander
         HashMap<String,List<Map.Entry<PaperCard,Integer>>> cardPools = new HashMap<>();
-        for (PaperCard card:legends){
-            int col=legendIntegerMap.get(card.getName());
-            int[] distances = matrix[col];
-            int max = Collections.max(Arrays.asList(ArrayUtils.toObject(distances)));
-            if (max>0) {
-                List<Map.Entry<PaperCard,Integer>> deckPool=new ArrayList<>();
-                for(int k=0;k<cardList.size(); k++){
-                    if(matrix[col][k]>0){
-                        deckPool.add(new AbstractMap.SimpleEntry<>(integerCardMap.get(k), matrix[col][k]));
-                    }
-                }
-                cardPools.put(card.getName(), deckPool);
+        for (int row = 0; row < matrix.length; row++){
+            if (matrix[row] == null || matrix[row].size() == 0) {
+                continue;
+            }
+            long[] connections = matrix[row].toPacked(false);
+            Arrays.sort(connections);
+            List<Map.Entry<PaperCard,Integer>> deckPool=new ArrayList<>();
+            for (long connection : connections) {
+                deckPool.add(new AbstractMap.SimpleEntry<>(cardList.get((int) (connection >>> 32)), (int) connection));
             }
+            cardPools.put(cardList.get(row).getName(), deckPool);
         }
         return cardPools;
     }
 
-    //update the matrix by incrementing the connectivity count for each card in the deck
-    public static void updateLegendMatrix(Deck deck, PaperCard legend, Map<String, Integer> cardIntegerMap,
-                             Map<String, Integer> legendIntegerMap, int[][] matrix){
-        for (PaperCard pairCard:Iterables.filter(deck.getMain().toFlatList(),
-                Predicates.compose(Predicates.not(CardRulesPredicates.Presets.IS_BASIC_LAND_NOT_WASTES), PaperCard.FN_GET_RULES))){
-            if (!pairCard.getName().equals(legend.getName())){
-                try {
-                    int old = matrix[legendIntegerMap.get(legend.getName())][cardIntegerMap.get(pairCard.getName())];
-                    matrix[legendIntegerMap.get(legend.getName())][cardIntegerMap.get(pairCard.getName())] = old + 1;
-                }catch (NullPointerException ne){
-                    //Todo: Not sure what was failing here
-                    ne.printStackTrace();
+    /**
+     * Count how often each card is in a deck together with another, in one pass over the decks.
+     * Each deck adds the number of copies of each of its main cards (and commanders, if it has more
+     * than one) to the row of every card it's counted for, except to the card's own column.
+     *
+     * @return a sparse row of connection counts for each card index, null for cards without connections
+     */
+    private static IntCountMap[] countConnections(final Iterable<Deck> decks, final int cardCount,
+            final Function<Deck, int[]> getRows, final Map<String, Integer> cardIntegerMap) {
+        final List<Deck> deckList = Lists.newArrayList(decks);
+        final int parts = useThreadPool ? Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), deckList.size() / 100)) : 1;
+        final List<Callable<IntCountMap[]>> tasks = new ArrayList<>();
+        for (int part = 0; part < parts; part++) {
+            final int from = deckList.size() * part / parts;
+            final int to = deckList.size() * (part + 1) / parts;
+            tasks.add(new Callable<IntCountMap[]>() {
+                @Override
+                public IntCountMap[] call() {
+                    IntCountMap[] matrix = new IntCountMap[cardCount];
+                    for (Deck deck : deckList.subList(from, to)) {
+                        int[] rows = getRows.apply(deck);
+                        if (rows.length == 0) {
+                            continue;
+                        }
+                        IntCountMap columns = getCardIndices(deck.getMain(), cardIntegerMap);
+                        if (deck.getCommanders().size() > 1) {
+                            //add partner commanders to matrix
+                            for (PaperCard partner : deck.getCommanders()) {
+                                Integer index = cardIntegerMap.get(partner.getName());
+                                if (index != null) {
+                                    columns.add(index, 1);
+                                }
+                            }
+                        }
+                        for (int row : rows) {
+                            if (matrix[row] == null) {
+                                matrix[row] = new IntCountMap();
+                            }
+                            matrix[row].addAllExcept(columns, row);
+                        }
+                    }
+                    return matrix;
                 }
-            }
-
+            });
         }
-        //add partner commanders to matrix
-        if(deck.getCommanders().size()>1){
-            for(PaperCard partner:deck.getCommanders()){
-                if(!partner.equals(legend)){
-                    int old = matrix[legendIntegerMap.get(legend.getName())][cardIntegerMap.get(partner.getName())];
-                    matrix[legendIntegerMap.get(legend.getName())][cardIntegerMap.get(partner.getName())] = old + 1;
+
+        IntCountMap[] matrix = null;
+        try {
+            List<IntCountMap[]> results = new ArrayList<>();
+            if (parts > 1) {
+                for (Future<IntCountMap[]> result : ThreadUtil.getServicePool().invokeAll(tasks)) {
+                    results.add(result.get());
+                }
+            } else {
+                results.add(tasks.get(0).call());
+            }
+            for (IntCountMap[] result : results) {
+                if (matrix == null) {
+                    matrix = result;
+                    continue;
+                }
+                for (int row = 0; row < cardCount; row++) {
+                    if (result[row] == null) {
+                        continue;
+                    }
+                    if (matrix[row] == null) {
+                        matrix[row] = result[row];
+                    } else {
+                        matrix[row].addAllExcept(result[row], -1);
+                    }
                 }
             }
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
         }
+        return matrix;
     }
 
-    public static class ArrayIndexComparator implements Comparator<Integer>
-    {
-        private final Integer[] array;
-
-        public ArrayIndexComparator(Integer[] array)
-        {
-            this.array = array;
-        }
-
-        public Integer[] createIndexArray()
-        {
-            Integer[] indexes = new Integer[array.length];
-            for (int i = 0; i < array.length; i++)
-            {
-                indexes[i] = i; // Autoboxing
+    //the number of copies of each card of the pool that has an index, basic lands have none
+    private static IntCountMap getCardIndices(CardPool pool, Map<String, Integer> cardIntegerMap) {
+        IntCountMap indices = new IntCountMap();
+        for (Map.Entry<PaperCard, Integer> entry : pool) {
+            Integer index = cardIntegerMap.get(entry.getKey().getName());
+            if (index != null) {
+                indices.add(index, entry.getValue());
             }
-            return indexes;
-        }
-
-        @Override
-        public int compare(Integer index1, Integer index2)
-        {
-            // Autounbox from Integer to int to use as array indexes
-            return array[index1].compareTo(array[index2]);
         }
+        return indices;
     }
 }
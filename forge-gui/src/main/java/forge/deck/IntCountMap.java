@@ -0,0 +1,76 @@
+package forge.deck;
+
+/**
+ * A sparse row of the connection matrix of {@link CardRelationMatrixGenerator}: counts by card index, in an open addressing hash table of primitive ints.
+ */
+final class IntCountMap {
+    private int[] keys = new int[16]; //index + 1, so 0 means empty
+    private int[] counts = new int[16];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    void add(int key, int count) {
+        int mask = keys.length - 1;
+        int slot = (key * 0x9E3779B9) >>> 1 & mask;
+        while (keys[slot] != 0 && keys[slot] != key + 1) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == 0) {
+            keys[slot] = key + 1;
+            if (++size * 2 > keys.length) {
+                counts[slot] = count;
+                grow();
+                return;
+            }
+        }
+        counts[slot] += count;
+    }
+
+    void addAllExcept(IntCountMap other, int except) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.keys[i] != 0 && other.keys[i] != except + 1) {
+                add(other.keys[i] - 1, other.counts[i]);
+            }
+        }
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldCounts = counts;
+        keys = new int[oldKeys.length * 2];
+        counts = new int[oldKeys.length * 2];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                add(oldKeys[i] - 1, oldCounts[i]);
+            }
+        }
+    }
+
+    int[] keys() {
+        int[] result = new int[size];
+        int n = 0;
+        for (int key : keys) {
+            if (key != 0) {
+                result[n++] = key - 1;
+            }
+        }
+        return result;
+    }
+
+    //each entry as one long to sort on without boxing, with either the count or the key in the high half
+    long[] toPacked(boolean countFirst) {
+        long[] result = new long[size];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                long key = keys[i] - 1;
+                result[n++] = countFirst ? (long) counts[i] << 32 | key : key << 32 | counts[i];
+            }
+        }
+        return result;
+    }
+}
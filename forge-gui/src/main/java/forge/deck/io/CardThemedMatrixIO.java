@@ -1,15 +1,24 @@
 package forge.deck.io;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import forge.StaticData;
+import forge.card.CardDb;
 import forge.game.GameFormat;
 import forge.item.PaperCard;
 import forge.localinstance.properties.ForgeConstants;
@@ -22,20 +31,88 @@ public class CardThemedMatrixIO {
     /** suffix for all gauntlet data files */
     public static final String SUFFIX_DATA = ".dat";
 
+    private static final int MAGIC = 0x46434D58; // "FCMX"
+    private static final int FORMAT_VERSION = 1;
+
     public static void saveMatrix(String format, HashMap<String,List<Map.Entry<PaperCard,Integer>>> map){
-        File file = getMatrixFile(format);
-        try (FileOutputStream f = new FileOutputStream(file);
-             ObjectOutputStream s = new ObjectOutputStream(f)) {
-            s.writeObject(map);
+        saveMatrix(getMatrixFile(format), map);
+    }
+
+    static void saveMatrix(File file, HashMap<String,List<Map.Entry<PaperCard,Integer>>> map){
+        try (DataOutputStream s = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            //write each card once, the pools refer to them by index
+            Map<PaperCard, Integer> cardIndices = new LinkedHashMap<>();
+            for (List<Map.Entry<PaperCard,Integer>> pool : map.values()) {
+                for (Map.Entry<PaperCard,Integer> entry : pool) {
+                    if (!cardIndices.containsKey(entry.getKey())) {
+                        cardIndices.put(entry.getKey(), cardIndices.size());
+                    }
+                }
+            }
+            s.writeInt(MAGIC);
+            s.writeInt(FORMAT_VERSION);
+            s.writeInt(cardIndices.size());
+            for (PaperCard card : cardIndices.keySet()) {
+                s.writeUTF(card.getName());
+                s.writeUTF(card.getEdition());
+                s.writeInt(card.getArtIndex());
+            }
+            s.writeInt(map.size());
+            for (Map.Entry<String, List<Map.Entry<PaperCard,Integer>>> pool : map.entrySet()) {
+                s.writeUTF(pool.getKey());
+                s.writeInt(pool.getValue().size());
+                for (Map.Entry<PaperCard,Integer> entry : pool.getValue()) {
+                    s.writeInt(cardIndices.get(entry.getKey()));
+                    s.writeInt(entry.getValue());
+                }
+            }
         } catch (IOException e) {
             System.out.println("Error writing matrix data: " + e);
         }
     }
 
     public static HashMap<String,List<Map.Entry<PaperCard,Integer>>> loadMatrix(String format){
-        try (FileInputStream fin = new FileInputStream(getMatrixFile(format));
-             ObjectInputStream s = new ObjectInputStream(fin)){
-            HashMap<String, List<Map.Entry<PaperCard,Integer>>> matrix = (HashMap<String, List<Map.Entry<PaperCard,Integer>>>) s.readObject();
+        return loadMatrix(getMatrixFile(format));
+    }
+
+    static HashMap<String,List<Map.Entry<PaperCard,Integer>>> loadMatrix(File file){
+        try (DataInputStream s = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            s.mark(4);
+            if (s.readInt() != MAGIC) {
+                //written with java serialization by an older version
+                s.reset();
+                return loadSerializedMatrix(s);
+            }
+            if (s.readInt() != FORMAT_VERSION) {
+                System.out.println("Error reading matrix data: unknown version");
+                return null;
+            }
+            CardDb cardDb = StaticData.instance().getCommonCards();
+            PaperCard[] cards = new PaperCard[s.readInt()];
+            for (int i = 0; i < cards.length; i++) {
+                String name = s.readUTF();
+                String edition = s.readUTF();
+                int artIndex = s.readInt();
+                cards[i] = cardDb.getCard(name, edition, artIndex);
+                if (cards[i] == null) {
+                    cards[i] = cardDb.getCard(name);
+                }
+            }
+            int poolCount = s.readInt();
+            HashMap<String, List<Map.Entry<PaperCard,Integer>>> matrix = new HashMap<>();
+            for (int i = 0; i < poolCount; i++) {
+                String cardName = s.readUTF();
+                int size = s.readInt();
+                List<Map.Entry<PaperCard,Integer>> pool = new ArrayList<>(size);
+                for (int j = 0; j < size; j++) {
+                    PaperCard card = cards[s.readInt()];
+                    int count = s.readInt();
+                    if (card != null) { //not in this card database
+                        pool.add(new AbstractMap.SimpleEntry<>(card, count));
+                    }
+                }
+                matrix.put(cardName, pool);
+            }
             return matrix;
         }catch (Exception e){
             System.out.println("Error reading matrix data: " + e);
@@ -43,6 +120,12 @@ public class CardThemedMatrixIO {
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private static HashMap<String,List<Map.Entry<PaperCard,Integer>>> loadSerializedMatrix(InputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream s = new ObjectInputStream(in);
+        return (HashMap<String, List<Map.Entry<PaperCard,Integer>>>) s.readObject();
+    }
+
     public static File getMatrixFile(final String name) {
         return new File(ForgeConstants.DECK_GEN_DIR, name + SUFFIX_DATA);
     }
@@ -151,6 +151,9 @@ public abstract class GameLobby implements IHasGameType {
     public abstract boolean mayRemove(int index);
     protected abstract IGuiGame getGui(int index);
     protected abstract void onGameStarted();
+    protected HostedMatch hostMatch() {
+        return GuiBase.getInterface().hostMatch();
+    }
 
     public void addSlot() {
         final int newIndex = getNumberOfSlots();
@@ -537,7 +540,7 @@ public abstract class GameLobby implements IHasGameType {
         return new Runnable() {
             @Override
             public void run() {
-                hostedMatch = GuiBase.getInterface().hostMatch();
+                hostedMatch = hostMatch();
                 hostedMatch.startMatch(GameType.Constructed, variantTypes, players, guis);
 
                 for (final Player p : hostedMatch.getGame().getPlayers()) {
@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import forge.ai.AiProfileUtil;
 import forge.gui.control.PlaybackSpeed;
@@ -56,6 +57,7 @@ import forge.sound.MusicPlaylist;
 import forge.sound.SoundSystem;
 import forge.trackable.TrackableCollection;
 import forge.util.CollectionSuppliers;
+import forge.util.ThreadUtil;
 import forge.util.TextUtil;
 import forge.util.collect.FCollectionView;
 import forge.util.maps.HashMapOfLists;
@@ -69,6 +71,7 @@ public class HostedMatch {
     public HashMap<LobbySlot, IGameController> gameControllers = null;
     private Runnable startGameHook = null;
     private Runnable endGameHook = null;
+    private Executor gameThreadPool = null;
     private final List<PlayerControllerHuman> humanControllers = Lists.newArrayList();
     private Map<RegisteredPlayer, IGuiGame> guis;
     private int humanCount;
@@ -84,6 +87,8 @@ public class HostedMatch {
         startGameHook = hook;
     }
     public void setEndGameHook(Runnable hook) { endGameHook = hook; }
+    /** The games of this match are played on threads of this pool rather than the shared one, if set. */
+    public void setGameThreadPool(Executor pool) { gameThreadPool = pool; }
 
     private static GameRules getDefaultRules(final GameType gameType) {
         final GameRules gameRules = new GameRules(gameType);
@@ -262,7 +267,7 @@ public class HostedMatch {
 
         // It's important to run match in a different thread to allow GUI inputs to be invoked from inside game. 
         // Game is set on pause while gui player takes decisions
-        game.getAction().invoke(new Runnable() {
+        final Runnable playGame = new Runnable() {
             @Override public final void run() {
                 if (humanCount == 0) {
                     // Create FControlGamePlayback in game thread to allow pausing
@@ -288,7 +293,12 @@ public class HostedMatch {
                     }
                 }
             }
-        });
+        };
+        if (gameThreadPool != null && !ThreadUtil.isGameThread()) {
+            gameThreadPool.execute(playGame);
+        } else {
+            game.getAction().invoke(playGame);
+        }
     }
 
     private LobbySlot getLobbySlot(LobbyPlayer lobbyPlayer) {
@@ -3,6 +3,7 @@ package forge.gamemodes.net;
 import java.io.ObjectInputStream;
 import java.io.StreamCorruptedException;
 
+import forge.gamemodes.net.event.GameViewDeltaEvent;
 import forge.gui.GuiBase;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
@@ -29,6 +30,14 @@ public class CompatibleObjectDecoder extends LengthFieldBasedFrameDecoder {
         if (frame == null) {
             return null;
         }
+        if (frame.getByte(frame.readerIndex()) == CompatibleObjectEncoder.GAME_VIEW_DELTA) {
+            frame.skipBytes(1);
+            boolean full = frame.readBoolean();
+            byte[] data = new byte[frame.readableBytes()];
+            frame.readBytes(data);
+            frame.release();
+            return new GameViewDeltaEvent(data, full);
+        }
         ObjectInputStream ois = GuiBase.hasPropertyConfig() ?
                 new ObjectInputStream(new LZ4BlockInputStream(new ByteBufInputStream(frame, true))):
                     new CObjectInputStream(new LZ4BlockInputStream(new ByteBufInputStream(frame, true)),this.classResolver);
@@ -3,6 +3,7 @@ package forge.gamemodes.net;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 
+import forge.gamemodes.net.event.GameViewDeltaEvent;
 import forge.gui.GuiBase;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufOutputStream;
@@ -12,9 +13,27 @@ import net.jpountz.lz4.LZ4BlockOutputStream;
 
 public class CompatibleObjectEncoder extends MessageToByteEncoder<Serializable> {
     private static final byte[] LENGTH_PLACEHOLDER = new byte[4];
+    /** Starts the frame of a game view delta, which is already binary so is written as is. An LZ4 block never starts with it. */
+    static final byte GAME_VIEW_DELTA = 0;
 
     @Override
     protected void encode(ChannelHandlerContext ctx, Serializable msg, ByteBuf out) throws Exception {
+        writeMessage(msg, out);
+    }
+
+    /**
+     * Writes a message as its frame, so it can be encoded by the thread sending it rather than the channel.
+     */
+    public static void writeMessage(Serializable msg, ByteBuf out) throws Exception {
+        if (msg instanceof GameViewDeltaEvent) {
+            GameViewDeltaEvent delta = (GameViewDeltaEvent) msg;
+            out.writeInt(delta.getData().length + 2);
+            out.writeByte(GAME_VIEW_DELTA);
+            out.writeBoolean(delta.isFull());
+            out.writeBytes(delta.getData());
+            return;
+        }
+
         int startIdx = out.writerIndex();
         ByteBufOutputStream bout = new ByteBufOutputStream(out);
         ObjectOutputStream oout = null;
@@ -4,6 +4,7 @@ import java.io.Serializable;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
+import forge.gamemodes.net.event.GameViewDeltaEvent;
 import forge.gamemodes.net.event.GuiGameEvent;
 import forge.gamemodes.net.event.ReplyEvent;
 import forge.gui.FThreads;
@@ -25,6 +26,12 @@ public abstract class GameProtocolHandler<T> extends ChannelInboundHandlerAdapte
     protected abstract T getToInvoke(ChannelHandlerContext ctx);
     protected abstract void beforeCall(ProtocolMethod protocolMethod, Object[] args);
 
+    /**
+     * Apply the changes to the game view sent by the server, only called for clients.
+     */
+    protected void applyGameViewDelta(final GameViewDeltaEvent event) {
+    }
+
     @Override
     public final void channelRead(final ChannelHandlerContext ctx, final Object msg) {
         final String[] catchedError = {""};
@@ -32,6 +39,20 @@ public abstract class GameProtocolHandler<T> extends ChannelInboundHandlerAdapte
         if (msg instanceof ReplyEvent) {
             final ReplyEvent event = (ReplyEvent) msg;
             getReplyPool(ctx).complete(event.getIndex(), event.getReply());
+        } else if (msg instanceof GameViewDeltaEvent) {
+            final GameViewDeltaEvent event = (GameViewDeltaEvent) msg;
+            final Runnable toRun = new Runnable() {
+                @Override public final void run() {
+                    applyGameViewDelta(event);
+                }
+            };
+
+            //run like the protocol methods, so the changes are applied in the order they were sent
+            if (runInEdt) {
+                FThreads.invokeInEdtNowOrLater(toRun);
+            } else {
+                FThreads.invokeInBackgroundThread(toRun);
+            }
         } else if (msg instanceof GuiGameEvent) {
             final GuiGameEvent event = (GuiGameEvent) msg;
             final ProtocolMethod protocolMethod = event.getMethod();
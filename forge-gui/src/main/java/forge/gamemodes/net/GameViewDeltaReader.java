@@ -0,0 +1,55 @@
+package forge.gamemodes.net;
+
+import forge.game.GameView;
+import forge.gamemodes.net.event.GameViewDeltaEvent;
+import forge.trackable.TrackableDeserializer;
+import forge.trackable.TrackableObject;
+import forge.trackable.TrackableTypes;
+import forge.trackable.Tracker;
+
+/**
+ * Applies what a {@link GameViewDeltaWriter} wrote to the game view of the client.
+ */
+public final class GameViewDeltaReader {
+    private TrackableDeserializer td;
+
+    /**
+     * @param gameView the game view to update, or null to create a new one
+     * @return the updated game view
+     */
+    public GameView read(GameView gameView, final GameViewDeltaEvent delta) {
+        final Tracker tracker = gameView == null ? new Tracker() : gameView.getTracker();
+        if (td == null || td.getTracker() != tracker) {
+            td = new TrackableDeserializer(tracker);
+        }
+        else if (delta.isFull()) {
+            td.clearHistory();
+        }
+
+        td.setInput(delta.getData());
+        while (td.hasMore()) {
+            final byte kind = td.readByte();
+            final int id = td.readInt();
+            final TrackableObject obj;
+            switch (kind) {
+            case GameViewDeltaWriter.GAME:
+                if (gameView == null) {
+                    gameView = new GameView(id, tracker);
+                }
+                obj = gameView;
+                break;
+            case GameViewDeltaWriter.PLAYER:
+                obj = td.getObject(TrackableTypes.PlayerViewType, id);
+                break;
+            case GameViewDeltaWriter.CARD:
+                obj = td.getObject(TrackableTypes.CardViewType, id);
+                break;
+            default:
+                obj = td.getObject(TrackableTypes.StackItemViewType, id);
+                break;
+            }
+            obj.deserialize(td);
+        }
+        return gameView;
+    }
+}
@@ -0,0 +1,118 @@
+package forge.gamemodes.net;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.Sets;
+
+import forge.game.GameView;
+import forge.game.card.CardView;
+import forge.game.player.PlayerView;
+import forge.game.spellability.StackItemView;
+import forge.gamemodes.net.event.GameViewDeltaEvent;
+import forge.trackable.TrackableObject;
+import forge.trackable.TrackableSerializer;
+
+/**
+ * Writes the objects of a game view that changed since the last write, so the
+ * whole view doesn't have to be sent to the client after every action.
+ *
+ * Objects are found by walking the view from the game, and are sent with all
+ * their properties when their version is newer than the last write or when
+ * they weren't sent before. One writer should be used per client.
+ */
+public final class GameViewDeltaWriter {
+    static final byte GAME = 0;
+    static final byte PLAYER = 1;
+    static final byte CARD = 2;
+    static final byte STACK_ITEM = 3;
+
+    private final TrackableSerializer ts = new TrackableSerializer();
+    private final Set<TrackableObject> sent = Sets.newHashSet();
+    private GameView gameView;
+    private long sentVersion = -1;
+
+    /**
+     * Send everything with the next write, for when the client starts over.
+     */
+    public void reset() {
+        sent.clear();
+        sentVersion = -1;
+        ts.clearHistory();
+    }
+
+    public GameViewDeltaEvent write(final GameView gameView0) {
+        if (gameView0 != gameView) {
+            gameView = gameView0;
+            reset();
+        }
+        final boolean full = sentVersion < 0;
+        //anything that changes while writing gets a newer version, so will be sent again next time
+        final long version = gameView.getTracker().getVersion();
+        ts.reset();
+
+        final Set<TrackableObject> visited = Sets.newHashSet();
+        final Deque<TrackableObject> queue = new ArrayDeque<>();
+        visited.add(gameView);
+        queue.add(gameView);
+        while (!queue.isEmpty()) {
+            final TrackableObject obj = queue.poll();
+            if (full || obj.getVersion() > sentVersion || !sent.contains(obj)) {
+                ts.write(getKind(obj));
+                ts.write(obj.getId());
+                obj.serialize(ts);
+                sent.add(obj);
+            }
+            addReferences(obj, visited, queue);
+        }
+
+        sentVersion = version;
+        return new GameViewDeltaEvent(ts.toByteArray(), full);
+    }
+
+    private static byte getKind(final TrackableObject obj) {
+        if (obj instanceof GameView) {
+            return GAME;
+        }
+        if (obj instanceof PlayerView) {
+            return PLAYER;
+        }
+        return obj instanceof CardView ? CARD : STACK_ITEM;
+    }
+
+    private static boolean isSentOnItsOwn(final Object obj) {
+        return obj instanceof PlayerView || obj instanceof CardView || obj instanceof StackItemView;
+    }
+
+    private static void addReferences(final TrackableObject obj, final Set<TrackableObject> visited, final Deque<TrackableObject> queue) {
+        final Map<?, Object> props = obj.getProps();
+        for (final Object value : props.values()) {
+            addReference(value, visited, queue);
+        }
+    }
+
+    private static void addReference(final Object value, final Set<TrackableObject> visited, final Deque<TrackableObject> queue) {
+        if (isSentOnItsOwn(value)) {
+            if (visited.add((TrackableObject) value)) {
+                queue.add((TrackableObject) value);
+            }
+        }
+        else if (value instanceof TrackableObject) {
+            //card states and combat are written along with the object holding them, but can refer to others
+            addReferences((TrackableObject) value, visited, queue);
+        }
+        else if (value instanceof Iterable) {
+            for (final Object item : (Iterable<?>) value) {
+                addReference(item, visited, queue);
+            }
+        }
+        else if (value instanceof Map) {
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                addReference(entry.getKey(), visited, queue);
+                addReference(entry.getValue(), visited, queue);
+            }
+        }
+    }
+}
@@ -128,7 +128,16 @@ public class NetConnectUtil {
 
     public static ChatMessage join(final String url, final IOnlineLobby onlineLobby, final IOnlineChatInterface chatInterface) {
         final IGuiGame gui = GuiBase.getInterface().getNewGuiGame();
-        final FGameClient client = new FGameClient(FModel.getPreferences().getPref(FPref.PLAYER_NAME), "0", gui);
+        //see if a room of the server is specified in URL
+        String address = url;
+        String room = null;
+        final int roomIndex = url.indexOf('/');
+        if (roomIndex >= 0) {
+            address = url.substring(0, roomIndex);
+            room = url.substring(roomIndex + 1);
+        }
+
+        final FGameClient client = new FGameClient(FModel.getPreferences().getPref(FPref.PLAYER_NAME), room, gui);
         onlineLobby.setClient(client);
         chatInterface.setGameClient(client);
         final ClientGameLobby lobby = new ClientGameLobby();
@@ -161,14 +170,14 @@ public class NetConnectUtil {
             }
         });
 
-        String hostname = url;
+        String hostname = address;
         int port = ForgeProfileProperties.getServerPort();
 
         //see if port specified in URL
-        int index = url.indexOf(':');
+        int index = address.indexOf(':');
         if (index >= 0) {
-            hostname = url.substring(0, index);
-            String portStr = url.substring(index + 1);
+            hostname = address.substring(0, index);
+            String portStr = address.substring(index + 1);
             try {
                 port = Integer.parseInt(portStr);
             }
@@ -18,9 +18,11 @@ import forge.game.player.PlayerView;
 import forge.game.player.RegisteredPlayer;
 import forge.gamemodes.match.LobbySlot;
 import forge.gamemodes.net.GameProtocolHandler;
+import forge.gamemodes.net.GameViewDeltaReader;
 import forge.gamemodes.net.IRemote;
 import forge.gamemodes.net.ProtocolMethod;
 import forge.gamemodes.net.ReplyPool;
+import forge.gamemodes.net.event.GameViewDeltaEvent;
 import forge.gamemodes.net.event.LoginEvent;
 import forge.gui.interfaces.IGuiGame;
 import forge.interfaces.ILobbyListener;
@@ -38,6 +40,7 @@ import io.netty.channel.ChannelHandlerContext;
 final class GameClientHandler extends GameProtocolHandler<IGuiGame> {
     private final FGameClient client;
     private final IGuiGame gui;
+    private final GameViewDeltaReader deltaReader = new GameViewDeltaReader();
     private Tracker tracker;
     private Match match;
     private Game game;
@@ -104,6 +107,14 @@ final class GameClientHandler extends GameProtocolHandler<IGuiGame> {
         }
     }
 
+    @Override
+    protected void applyGameViewDelta(final GameViewDeltaEvent event) {
+        final GameView gameView = deltaReader.read(gui.getGameView(), event);
+        // the game view was updated in place, so set it again as a whole to refresh the match screen
+        gui.setGameView(null);
+        gui.setGameView(gameView);
+    }
+
     /**
      * This method attempts to recreate a <b>GameRules</b> object from existing state.
      *
@@ -297,7 +308,7 @@ final class GameClientHandler extends GameProtocolHandler<IGuiGame> {
     @Override
     public void channelActive(final ChannelHandlerContext ctx) {
         // Don't use send() here, as this.channel is not yet set!
-        ctx.channel().writeAndFlush(new LoginEvent(FModel.getPreferences().getPref(FPref.PLAYER_NAME), Integer.parseInt(FModel.getPreferences().getPref(FPref.UI_AVATARS).split(",")[0]), Integer.parseInt(FModel.getPreferences().getPref(FPref.UI_SLEEVES).split(",")[0])));
+        ctx.channel().writeAndFlush(new LoginEvent(FModel.getPreferences().getPref(FPref.PLAYER_NAME), Integer.parseInt(FModel.getPreferences().getPref(FPref.UI_AVATARS).split(",")[0]), Integer.parseInt(FModel.getPreferences().getPref(FPref.UI_SLEEVES).split(",")[0]), client.getRoomKey()));
     }
 
 }
\ No newline at end of file
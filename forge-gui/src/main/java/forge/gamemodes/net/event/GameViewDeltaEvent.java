@@ -0,0 +1,45 @@
+package forge.gamemodes.net.event;
+
+import forge.gamemodes.net.server.RemoteClient;
+
+/**
+ * The objects of the game view that changed since the last one, as written by
+ * a {@link forge.gamemodes.net.GameViewDeltaWriter}.
+ */
+public final class GameViewDeltaEvent implements NetEvent {
+    private static final long serialVersionUID = 4785104713270245187L;
+
+    private final byte[] data;
+    private final boolean full;
+    public GameViewDeltaEvent(final byte[] data, final boolean full) {
+        this.data = data;
+        this.full = full;
+    }
+
+    @Override
+    public void updateForClient(final RemoteClient client) {
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    /**
+     * @return whether this holds the whole game view, rather than the changes since the last event
+     */
+    public boolean isFull() {
+        return full;
+    }
+
+    /**
+     * @return whether nothing changed since the last event, so this one needn't be sent
+     */
+    public boolean isEmpty() {
+        return !full && data.length == 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Game view %s (%d bytes)", full ? "snapshot" : "delta", data.length);
+    }
+}
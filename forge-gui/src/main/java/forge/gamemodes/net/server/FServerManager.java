@@ -15,12 +15,16 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import org.fourthline.cling.UpnpService;
 import org.fourthline.cling.UpnpServiceImpl;
 import org.fourthline.cling.support.igd.PortMappingListener;
 import org.fourthline.cling.support.model.PortMapping;
 
+import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
@@ -39,6 +43,8 @@ import forge.gui.GuiBase;
 import forge.gui.interfaces.IGuiGame;
 import forge.interfaces.IGameController;
 import forge.interfaces.ILobbyListener;
+import forge.interfaces.IUpdateable;
+import forge.util.ThreadUtil;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
@@ -62,8 +68,13 @@ public final class FServerManager {
     private EventLoopGroup bossGroup = new NioEventLoopGroup(1);
     private EventLoopGroup workerGroup = new NioEventLoopGroup();
     private UpnpService upnpService = null;
-    private final Map<Channel, RemoteClient> clients = Maps.newTreeMap();
+    // added and removed on the event loops of the channels, while the game threads of the rooms broadcast to them
+    private final Map<Channel, RemoteClient> clients = Maps.newConcurrentMap();
     private ServerGameLobby localLobby;
+    private final Map<String, ServerGameLobby> rooms = Maps.newConcurrentMap();
+    // the games mostly wait for the players, so by default there's no cap beyond the one match a room plays at a time
+    private int maxConcurrentMatches = 0;
+    private ExecutorService matchThreadPool = null;
     private ILobbyListener lobbyListener;
     private final Thread shutdownHook = new Thread(new Runnable() {
         @Override public final void run() {
@@ -79,8 +90,8 @@ public final class FServerManager {
     RemoteClient getClient(final Channel ch) {
         return clients.get(ch);
     }
-    IGameController getController(final int index) {
-        return localLobby.getController(index);
+    IGameController getController(final RemoteClient client) {
+        return client.getLobby().getController(client.getIndex());
     }
 
     /**
@@ -104,15 +115,7 @@ public final class FServerManager {
                     .childHandler(new ChannelInitializer<SocketChannel>() {
                         @Override
                         public final void initChannel(final SocketChannel ch) throws Exception {
-                            final ChannelPipeline p = ch.pipeline();
-                            p.addLast(
-                                    new CompatibleObjectEncoder(),
-                                    new CompatibleObjectDecoder(9766*1024, ClassResolvers.cacheDisabled(null)),
-                                    new MessageHandler(),
-                                    new RegisterClientHandler(),
-                                    new LobbyInputHandler(),
-                                    new DeregisterClientHandler(),
-                                    new GameServerHandler());
+                            initPipeline(ch.pipeline());
                         }
                     });
 
@@ -137,6 +140,17 @@ public final class FServerManager {
         }
     }
 
+    void initPipeline(final ChannelPipeline p) {
+        p.addLast(
+                new CompatibleObjectEncoder(),
+                new CompatibleObjectDecoder(9766*1024, ClassResolvers.cacheDisabled(null)),
+                new MessageHandler(),
+                new RegisterClientHandler(),
+                new LobbyInputHandler(),
+                new DeregisterClientHandler(),
+                new GameServerHandler());
+    }
+
     public void stopServer() {
         stopServer(true);
     }
@@ -161,11 +175,14 @@ public final class FServerManager {
     }
 
     public void broadcast(final NetEvent event) {
-        if (event instanceof MessageEvent) {
+        broadcast(localLobby, event);
+    }
+    private void broadcast(final ServerGameLobby lobby, final NetEvent event) {
+        if (event instanceof MessageEvent && lobby == localLobby && lobbyListener != null) {
             MessageEvent msgEvent = (MessageEvent) event;
             lobbyListener.message(msgEvent.getSource(), msgEvent.getMessage());
         }
-        broadcastTo(event, clients.values());
+        broadcastTo(event, getClients(lobby));
     }
     public void broadcastExcept(final NetEvent event, final RemoteClient notTo) {
         broadcastExcept(event, Collections.singleton(notTo));
@@ -183,10 +200,97 @@ public final class FServerManager {
         to.send(event);
     }
 
+    private Iterable<RemoteClient> getClients(final ServerGameLobby lobby) {
+        return Iterables.filter(clients.values(), new Predicate<RemoteClient>() {
+            @Override
+            public boolean apply(final RemoteClient client) {
+                return client.getLobby() == lobby;
+            }
+        });
+    }
+
     public void setLobby(final ServerGameLobby lobby) {
         this.localLobby = lobby;
     }
 
+    /**
+     * Sets how many matches of rooms may be played at once, those started
+     * when as many are going on wait for one of them to end, and 0 for no
+     * limit other than the number of rooms. The rooms
+     * already open play their next games on the new game threads, while the
+     * games already started or waiting for the old ones are played out
+     * before those end.
+     */
+    public synchronized void setMaxConcurrentMatches(final int maxConcurrentMatches) {
+        this.maxConcurrentMatches = maxConcurrentMatches;
+        final ExecutorService oldPool = matchThreadPool;
+        if (oldPool == null) {
+            return;
+        }
+        matchThreadPool = ThreadUtil.newGameThreadPool(maxConcurrentMatches, "Room");
+        for (final ServerGameLobby lobby : rooms.values()) {
+            lobby.setGameThreadPool(matchThreadPool);
+        }
+        oldPool.shutdown();
+    }
+
+    /**
+     * Opens a room with a lobby of its own, which clients join by naming it
+     * when they log in. The match of a room is started as soon as everyone in
+     * it is ready, and is played on the game threads shared by all rooms, of
+     * which there may be a limited number, see setMaxConcurrentMatches.
+     *
+     * @return the lobby of the room.
+     */
+    public synchronized ServerGameLobby openRoom(final String name) {
+        if (matchThreadPool == null) {
+            matchThreadPool = ThreadUtil.newGameThreadPool(maxConcurrentMatches, "Room");
+        }
+        final ServerGameLobby lobby = new ServerGameLobby(name, matchThreadPool);
+        lobby.setListener(new IUpdateable() {
+            @Override
+            public final void update(final boolean fullUpdate) {
+                updateLobbyState(lobby);
+                startMatchIfReady(lobby);
+            }
+            @Override
+            public final void update(final int slot, final LobbySlotType type) {return;}
+        });
+        rooms.put(name, lobby);
+        return lobby;
+    }
+
+    public ServerGameLobby getRoom(final String name) {
+        return rooms.get(name);
+    }
+
+    public Collection<String> getRooms() {
+        return Collections.unmodifiableCollection(rooms.keySet());
+    }
+
+    private void startMatchIfReady(final ServerGameLobby lobby) {
+        final Runnable start;
+        synchronized (lobby) {
+            if (!lobby.isReadyToStart()) {
+                return;
+            }
+            start = lobby.startGame();
+            // so that the players get ready again for the next match
+            lobby.unsetReady();
+        }
+        if (start != null) {
+            startMatch(lobby, start);
+        }
+    }
+
+    void startMatch(final ServerGameLobby lobby, final Runnable start) {
+        final Executor pool = lobby.getGameThreadPool();
+        pool.execute(start);
+        if (pool instanceof ThreadPoolExecutor && ((ThreadPoolExecutor) pool).getQueue().contains(start)) {
+            broadcast(lobby, new MessageEvent("All tables are taken, the match starts as soon as another one ends"));
+        }
+    }
+
     public void unsetReady() {
         if (this.localLobby != null) {
             if (this.localLobby.getSlot(0) != null) {
@@ -205,8 +309,11 @@ public final class FServerManager {
     }
 
     public void updateLobbyState() {
-        final LobbyUpdateEvent event = new LobbyUpdateEvent(localLobby.getData());
-        broadcast(event);
+        updateLobbyState(localLobby);
+    }
+    private void updateLobbyState(final ServerGameLobby lobby) {
+        final LobbyUpdateEvent event = new LobbyUpdateEvent(lobby.getData());
+        broadcast(lobby, event);
     }
 
     public void updateSlot(final int index, final UpdateLobbyPlayerEvent event) {
@@ -214,12 +321,15 @@ public final class FServerManager {
     }
 
     public IGuiGame getGui(final int index) {
-        final LobbySlot slot = localLobby.getSlot(index);
+        return getGui(localLobby, index);
+    }
+    IGuiGame getGui(final ServerGameLobby lobby, final int index) {
+        final LobbySlot slot = lobby.getSlot(index);
         final LobbySlotType type = slot.getType();
         if (type == LobbySlotType.LOCAL) {
             return GuiBase.getInterface().getNewGuiGame();
         } else if (type == LobbySlotType.REMOTE) {
-            for (final RemoteClient client : clients.values()) {
+            for (final RemoteClient client : getClients(lobby)) {
                 if (client.getIndex() == index) {
                     return new NetGuiGame(client);
                 }
@@ -307,7 +417,7 @@ public final class FServerManager {
         public final void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
             final RemoteClient client = clients.get(ctx.channel());
             if (msg instanceof MessageEvent) {
-                broadcast(new MessageEvent(client.getUsername(), ((MessageEvent) msg).getMessage()));
+                broadcast(client.getLobby(), new MessageEvent(client.getUsername(), ((MessageEvent) msg).getMessage()));
             }
             super.channelRead(ctx, msg);
         }
@@ -319,20 +429,37 @@ public final class FServerManager {
             final RemoteClient client = new RemoteClient(ctx.channel());
             clients.put(ctx.channel(), client);
             System.out.println("Client connected to server at " + ctx.channel().remoteAddress());
-            updateLobbyState();
             super.channelActive(ctx);
         }
 
+        @Override
+        public void channelWritabilityChanged(final ChannelHandlerContext ctx) throws Exception {
+            final RemoteClient client = clients.get(ctx.channel());
+            if (client != null && ctx.channel().isWritable()) {
+                // a slow client caught up, send what was held back
+                client.writeQueued();
+            }
+            super.channelWritabilityChanged(ctx);
+        }
+
         @Override
         public void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
             final RemoteClient client = clients.get(ctx.channel());
             if (msg instanceof LoginEvent) {
-                final String username = ((LoginEvent) msg).getUsername();
+                final LoginEvent event = (LoginEvent) msg;
+                final ServerGameLobby lobby = event.getRoom() == null ? localLobby : rooms.get(event.getRoom());
+                if (lobby == null) {
+                    System.err.printf("%s asked for room %s, which there isn't%n", event.getUsername(), event.getRoom());
+                    ctx.close();
+                    return;
+                }
+                final String username = event.getUsername();
                 client.setUsername(username);
-                broadcast(new MessageEvent(String.format("%s joined the room", username)));
-                updateLobbyState();
+                client.setLobby(lobby);
+                broadcast(lobby, new MessageEvent(String.format("%s joined the room", username)));
+                updateLobbyState(lobby);
             } else if (msg instanceof UpdateLobbyPlayerEvent) {
-                localLobby.applyToSlot(client.getIndex(), (UpdateLobbyPlayerEvent) msg);
+                client.getLobby().applyToSlot(client.getIndex(), (UpdateLobbyPlayerEvent) msg);
             }
             super.channelRead(ctx, msg);
         }
@@ -343,17 +470,18 @@ public final class FServerManager {
             final RemoteClient client = clients.get(ctx.channel());
             if (msg instanceof LoginEvent) {
                 final LoginEvent event = (LoginEvent) msg;
-                final int index = localLobby.connectPlayer(event.getUsername(), event.getAvatarIndex(), event.getSleeveIndex());
+                final ServerGameLobby lobby = client.getLobby();
+                final int index = lobby.connectPlayer(event.getUsername(), event.getAvatarIndex(), event.getSleeveIndex());
                 if (index == -1) {
                     ctx.close();
                 } else {
                     client.setIndex(index);
-                    broadcast(event);
-                    updateLobbyState();
+                    broadcast(lobby, event);
+                    updateLobbyState(lobby);
                 }
             } else if (msg instanceof UpdateLobbyPlayerEvent) {
-                updateSlot(client.getIndex(), (UpdateLobbyPlayerEvent) msg);
-            } else if (msg instanceof MessageEvent) {
+                client.getLobby().applyToSlot(client.getIndex(), (UpdateLobbyPlayerEvent) msg);
+            } else if (msg instanceof MessageEvent && client.getLobby() == localLobby && lobbyListener != null) {
                 final MessageEvent event = (MessageEvent) msg;
                 lobbyListener.message(event.getSource(), event.getMessage());
             }
@@ -365,10 +493,13 @@ public final class FServerManager {
         @Override
         public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
             final RemoteClient client = clients.remove(ctx.channel());
-            final String username = client.getUsername();
-            localLobby.disconnectPlayer(client.getIndex());
-            broadcast(new MessageEvent(String.format("%s left the room", username)));
-            broadcast(new LogoutEvent(username));
+            final ServerGameLobby lobby = client.getLobby();
+            if (lobby != null) {
+                final String username = client.getUsername();
+                lobby.disconnectPlayer(client.getIndex());
+                broadcast(lobby, new MessageEvent(String.format("%s left the room", username)));
+                broadcast(lobby, new LogoutEvent(username));
+            }
             super.channelInactive(ctx);
         }
     }
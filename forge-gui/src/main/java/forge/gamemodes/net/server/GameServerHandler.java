@@ -30,7 +30,7 @@ final class GameServerHandler extends GameProtocolHandler<IGameController> {
 
     @Override
     protected IGameController getToInvoke(final ChannelHandlerContext ctx) {
-        return server.getController(getClient(ctx).getIndex());
+        return server.getController(getClient(ctx));
     }
 
     @Override
@@ -20,7 +20,9 @@ import forge.game.spellability.SpellAbilityView;
 import forge.game.zone.ZoneType;
 import forge.gamemodes.match.AbstractGuiGame;
 import forge.gamemodes.net.GameProtocolSender;
+import forge.gamemodes.net.GameViewDeltaWriter;
 import forge.gamemodes.net.ProtocolMethod;
+import forge.gamemodes.net.event.GameViewDeltaEvent;
 import forge.item.PaperCard;
 import forge.localinstance.skin.FSkinProp;
 import forge.player.PlayerZoneUpdate;
@@ -29,9 +31,14 @@ import forge.trackable.TrackableCollection;
 import forge.util.ITriggerEvent;
 
 public class NetGuiGame extends AbstractGuiGame {
+    /** Send only the changed objects of the game view instead of the whole view after each action. */
+    public static boolean SEND_GAME_VIEW_DELTAS = true;
 
+    private final IToClient client;
     private final GameProtocolSender sender;
+    private final GameViewDeltaWriter deltaWriter = new GameViewDeltaWriter();
     public NetGuiGame(final IToClient client) {
+        this.client = client;
         this.sender = new GameProtocolSender(client);
     }
 
@@ -44,7 +51,17 @@ public class NetGuiGame extends AbstractGuiGame {
     }
 
     public void updateGameView() {
-        send(ProtocolMethod.setGameView, getGameView());
+        final GameView gameView = getGameView();
+        if (SEND_GAME_VIEW_DELTAS && gameView != null) {
+            synchronized (deltaWriter) {
+                final GameViewDeltaEvent delta = deltaWriter.write(gameView);
+                if (!delta.isEmpty()) {
+                    client.send(delta);
+                }
+            }
+            return;
+        }
+        send(ProtocolMethod.setGameView, gameView);
     }
 
     @Override
@@ -56,6 +73,10 @@ public class NetGuiGame extends AbstractGuiGame {
     @Override
     public void openView(final TrackableCollection<PlayerView> myPlayers) {
         send(ProtocolMethod.openView, myPlayers);
+        //the client starts over with a new game view
+        synchronized (deltaWriter) {
+            deltaWriter.reset();
+        }
         updateGameView();
     }
 
@@ -1,18 +1,44 @@
 package forge.gamemodes.net.server;
 
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.concurrent.TimeoutException;
 
+import forge.gamemodes.net.CompatibleObjectEncoder;
 import forge.gamemodes.net.ReplyPool;
+import forge.gamemodes.net.event.GuiGameEvent;
 import forge.gamemodes.net.event.IdentifiableNetEvent;
 import forge.gamemodes.net.event.NetEvent;
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 
+/**
+ * A client connected to the server. Events sent to it are encoded right away
+ * and queued, so the sending thread (usually the game) never waits for the
+ * network. The queue is written out by the event loop of the channel with one
+ * flush for everything queued by then, and only while the channel takes more.
+ */
 public final class RemoteClient implements IToClient {
+    /** Past this many bytes waiting to be sent, a client is taken to be gone rather than slow. */
+    static final int MAX_QUEUED_BYTES = 32 * 1024 * 1024;
 
     private final Channel channel;
     private String username;
     private int index;
+    private ServerGameLobby lobby;
     private ReplyPool replies = new ReplyPool();
+
+    private final Deque<QueuedEvent> queue = new ArrayDeque<>();
+    private int queuedBytes = 0;
+    private boolean writeScheduled = false;
+    private final Runnable writeQueued = new Runnable() {
+        @Override
+        public void run() {
+            writeQueued();
+        }
+    };
+
     public RemoteClient(final Channel channel) {
         this.channel = channel;
     }
@@ -20,11 +46,40 @@ public final class RemoteClient implements IToClient {
     @Override
     public void send(final NetEvent event) {
         System.out.println("Sending event " + event + " to " + channel);
+        // encoded now, since the game goes on to change the objects in it
+        final ByteBuf data = channel.alloc().buffer();
         try {
-            channel.writeAndFlush(event).sync();
+            CompatibleObjectEncoder.writeMessage(event, data);
         } catch (Exception e) {
+            data.release();
             e.printStackTrace();
+            return;
         }
+
+        final Object key = getSupersededKey(event);
+        synchronized (queue) {
+            final QueuedEvent last = queue.peekLast();
+            if (key != null && last != null && key.equals(last.key)) {
+                // the last one wasn't sent yet and is out of date, the client only needs to see the latest;
+                // one further back stays, as it may be needed to make sense of the events after it
+                queue.pollLast();
+                queuedBytes -= last.data.readableBytes();
+                last.data.release();
+            }
+            queue.add(new QueuedEvent(key, data));
+            queuedBytes += data.readableBytes();
+            if (queuedBytes > MAX_QUEUED_BYTES) {
+                System.err.printf("Disconnecting %s, who has %d bytes waiting to be sent%n", username, queuedBytes);
+                clearQueue();
+                channel.close();
+                return;
+            }
+            if (writeScheduled) {
+                return;
+            }
+            writeScheduled = true;
+        }
+        channel.eventLoop().execute(writeQueued);
     }
 
     @Override
@@ -36,6 +91,66 @@ public final class RemoteClient implements IToClient {
         return replies.get(event.getId());
     }
 
+    /**
+     * Writes the queued events for as long as the channel takes them, and
+     * flushes them once. Called on the event loop of the channel, also when
+     * it's writable again after a slow client fell behind.
+     */
+    void writeQueued() {
+        boolean written = false;
+        synchronized (queue) {
+            writeScheduled = false;
+            if (!channel.isActive()) {
+                clearQueue();
+                return;
+            }
+            while (!queue.isEmpty() && channel.isWritable()) {
+                final QueuedEvent queued = queue.poll();
+                queuedBytes -= queued.data.readableBytes();
+                channel.write(queued.data, channel.voidPromise());
+                written = true;
+            }
+        }
+        if (written) {
+            channel.flush();
+        }
+    }
+
+    private void clearQueue() {
+        for (final QueuedEvent queued : queue) {
+            queued.data.release();
+        }
+        queue.clear();
+        queuedBytes = 0;
+    }
+
+    /**
+     * @return what an event shows, if a later event showing the same makes it unnecessary, or null
+     */
+    private static Object getSupersededKey(final NetEvent event) {
+        if (!(event instanceof GuiGameEvent)) {
+            return null;
+        }
+        final GuiGameEvent guiEvent = (GuiGameEvent) event;
+        final Object[] args = guiEvent.getObjects();
+        switch (guiEvent.getMethod()) {
+        case showPromptMessage:
+        case showCardPromptMessage:
+            return Arrays.asList("prompt", args[0]);
+        case updateButtons:
+            return Arrays.asList(guiEvent.getMethod(), args[0]);
+        case setGameView:
+        case updateTurn:
+        case showCombat:
+        case updateStack:
+        case updatePlayerControl:
+        case refreshField:
+            return guiEvent.getMethod();
+        default:
+            return null;
+        }
+    }
+
     public String getUsername() {
         return username;
     }
@@ -50,7 +165,26 @@ public final class RemoteClient implements IToClient {
         this.index = index;
     }
 
+    /**
+     * @return the lobby of the room the client logged in to, or null before that
+     */
+    public ServerGameLobby getLobby() {
+        return lobby;
+    }
+    void setLobby(final ServerGameLobby lobby) {
+        this.lobby = lobby;
+    }
+
     ReplyPool getReplyPool() {
         return replies;
     }
+
+    private static final class QueuedEvent {
+        private final Object key;
+        private final ByteBuf data;
+        private QueuedEvent(final Object key, final ByteBuf data) {
+            this.key = key;
+            this.data = data;
+        }
+    }
 }
@@ -1,22 +1,51 @@
 package forge.gamemodes.net.server;
 
 import java.util.Collections;
+import java.util.concurrent.Executor;
 
 import org.apache.commons.lang3.StringUtils;
 
 import forge.gamemodes.match.GameLobby;
+import forge.gamemodes.match.HostedMatch;
 import forge.gamemodes.match.LobbySlot;
 import forge.gamemodes.match.LobbySlotType;
 import forge.gui.interfaces.IGuiGame;
 
 public final class ServerGameLobby extends GameLobby {
 
+    private final String room;
+    private volatile Executor gameThreadPool = null;
+
+    /** The lobby of the player hosting the server, who takes the first slot. */
     public ServerGameLobby() {
         super(true);
+        this.room = null;
         addSlot(new LobbySlot(LobbySlotType.LOCAL, localName(), localAvatarIndices()[0], localSleeveIndices()[0],0, true, false, Collections.emptySet()));
         addSlot(new LobbySlot(LobbySlotType.OPEN, null, -1, -1, 1, false, false, Collections.emptySet()));
     }
 
+    /** A room of the server nobody hosts, all its slots are taken by the clients who join it. */
+    ServerGameLobby(final String room, final Executor gameThreadPool) {
+        super(true);
+        this.room = room;
+        this.gameThreadPool = gameThreadPool;
+        addSlot(new LobbySlot(LobbySlotType.OPEN, null, -1, -1, 0, false, false, Collections.emptySet()));
+        addSlot(new LobbySlot(LobbySlotType.OPEN, null, -1, -1, 1, false, false, Collections.emptySet()));
+    }
+
+    /**
+     * @return the name of the room this lobby is, or null for the lobby of the host
+     */
+    public String getRoom() {
+        return room;
+    }
+    Executor getGameThreadPool() {
+        return gameThreadPool;
+    }
+    void setGameThreadPool(final Executor gameThreadPool) {
+        this.gameThreadPool = gameThreadPool;
+    }
+
     public int connectPlayer(final String name, final int avatarIndex, final int sleeveIndex) {
         final int nSlots = getNumberOfSlots();
         for (int index = 0; index < nSlots; index++) {
@@ -43,6 +72,34 @@ public final class ServerGameLobby extends GameLobby {
         updateView(false);
     }
 
+    /**
+     * @return whether everyone in the lobby, at least two players, is ready with a deck and no match is going on
+     */
+    public boolean isReadyToStart() {
+        if (isMatchActive()) {
+            return false;
+        }
+        int nPlayers = 0;
+        for (int index = 0; index < getNumberOfSlots(); index++) {
+            final LobbySlot slot = getSlot(index);
+            if (slot.getType() == LobbySlotType.OPEN) {
+                continue;
+            }
+            if (!slot.isReady() || slot.getDeck() == null) {
+                return false;
+            }
+            nPlayers++;
+        }
+        return nPlayers >= 2;
+    }
+
+    public void unsetReady() {
+        for (int index = 0; index < getNumberOfSlots(); index++) {
+            getSlot(index).setIsReady(false);
+        }
+        updateView(true);
+    }
+
     @Override
     public boolean hasControl() {
         return true;
@@ -66,7 +123,24 @@ public final class ServerGameLobby extends GameLobby {
 
     @Override
     protected IGuiGame getGui(final int index) {
-        return FServerManager.getInstance().getGui(index);
+        return FServerManager.getInstance().getGui(this, index);
+    }
+
+    @Override
+    protected HostedMatch hostMatch() {
+        if (room == null) {
+            return super.hostMatch();
+        }
+        // nobody at the server watches the match of a room
+        final HostedMatch match = new HostedMatch();
+        // the next games of the match go to the threads the room has by then
+        match.setGameThreadPool(new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                gameThreadPool.execute(command);
+            }
+        });
+        return match;
     }
 
     @Override
@@ -1,6 +1,7 @@
 package forge.itemmanager;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -10,6 +11,8 @@ import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
 
 import forge.StaticData;
+import forge.card.CardCatalogIndex;
+import forge.card.CardCatalogIndex.TextField;
 import forge.card.CardEdition;
 import forge.card.CardRules;
 import forge.card.CardRulesPredicates;
@@ -74,7 +77,32 @@ public class SFilterUtil {
         }
         Predicate<CardRules> textFilter = invert ? Predicates.not(Predicates.or(terms)) : Predicates.and(terms);
 
-        return Predicates.compose(textFilter, PaperCard.FN_GET_RULES);
+        // the same search done once over the catalog, the predicate is left for cards not in it
+        CardCatalogIndex index = StaticData.instance().getCommonCards().getCatalogIndex();
+        BitSet matches = null;
+        for (String s : splitText) {
+            BitSet term = new BitSet(index.size());
+            if (inName) { term.or(index.contains(TextField.NAME, s));        }
+            if (inType) { term.or(index.contains(TextField.TYPE, s));        }
+            if (inText) { term.or(index.contains(TextField.ORACLE_TEXT, s)); }
+            if (inCost) { term.or(index.contains(TextField.COST, s));        }
+
+            if (matches == null) {
+                matches = term;
+            } else if (invert) {
+                matches.or(term);
+            } else {
+                matches.and(term);
+            }
+        }
+        if (matches == null) { //nothing to search for
+            matches = new BitSet(index.size());
+            matches.set(0, index.size());
+        } else if (invert) {
+            matches.flip(0, index.size());
+        }
+
+        return Predicates.compose(index.select(matches, textFilter), PaperCard.FN_GET_RULES);
     }
 
     private static List<String> getSplitText(String text) {
@@ -290,9 +290,12 @@ public final class ForgeConstants {
     public static final String CACHE_BOOSTERBOX_PICS_DIR     = PICS_DIR + "boosterboxes" + PATH_SEPARATOR;
     public static final String CACHE_PRECON_PICS_DIR         = PICS_DIR + "precons" + PATH_SEPARATOR;
     public static final String CACHE_TOURNAMENTPACK_PICS_DIR = PICS_DIR + "tournamentpacks" + PATH_SEPARATOR;
+    public static final String CACHE_THUMBNAIL_PICS_DIR      = PICS_DIR + "thumbnails" + PATH_SEPARATOR;
     public static final String CACHE_PLANECHASE_PICS_DIR     = PICS_DIR + "planechase" + PATH_SEPARATOR;
     public static final String CACHE_ACHIEVEMENTS_DIR        = PICS_DIR + "achievements" + PATH_SEPARATOR;
     public static final String QUEST_CARD_PRICE_FILE         = DB_DIR + "all-prices.txt";
+    public static final String CARD_SCRIPT_CACHE_FILE        = DB_DIR + "cardscripts.dat";
+    public static final String TOKEN_SCRIPT_CACHE_FILE       = DB_DIR + "tokenscripts.dat";
 
     public static final String[] PROFILE_DIRS = {
             USER_DIR,
@@ -168,9 +168,9 @@ public final class FModel {
         //load card database
         // Lazy loading currently disabled
         final CardStorageReader reader = new CardStorageReader(ForgeConstants.CARD_DATA_DIR, progressBarBridge,
-                false);
+                false, ForgeConstants.CARD_SCRIPT_CACHE_FILE);
         final CardStorageReader tokenReader = new CardStorageReader(ForgeConstants.TOKEN_DATA_DIR, progressBarBridge,
-                false);
+                false, ForgeConstants.TOKEN_SCRIPT_CACHE_FILE);
         CardStorageReader customReader;
         try {
            customReader  = new CardStorageReader(ForgeConstants.USER_CUSTOM_CARDS_DIR, progressBarBridge, false);
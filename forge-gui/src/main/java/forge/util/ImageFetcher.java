@@ -269,6 +269,7 @@ public abstract class ImageFetcher {
 
         final Runnable notifyObservers = () -> {
             FThreads.assertExecutedByEdt(true);
+            ImageKeys.updateImageFile(destPath);
 
             for (Callback o : currentFetches.get(destPath)) {
                 if (o != null)
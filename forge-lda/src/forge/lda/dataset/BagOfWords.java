@@ -162,6 +162,37 @@ public final class BagOfWords {
         System.out.println("Num Cards: " + this.numWords);
     }
 
+    /**
+     * Make the bag-of-words dataset from documents given as the vocabIDs of their words.
+     * @param vocabularies the vocabularies, by vocabID
+     * @param documents docID -> the vocabs sequence in the doc
+     */
+    public BagOfWords(List<String> vocabularies, List<List<Integer>> documents) {
+        List<Vocabulary> vocabList = new ArrayList<>();
+        for (int i = 0; i < vocabularies.size(); ++i) {
+            vocabList.add(new Vocabulary(i, vocabularies.get(i)));
+        }
+        this.vocabs    = new Vocabularies(vocabList);
+        this.words     = new HashMap<>();
+        this.docLength = new HashMap<>();
+        this.legalDecks = new ArrayList<>();
+
+        int numNNZ   = 0;
+        int numWords = 0;
+        for (int docID = 0; docID < documents.size(); ++docID) {
+            List<Integer> doc = new ArrayList<>(documents.get(docID));
+            words.put(docID, doc);
+            docLength.put(docID, doc.size());
+            numNNZ += new HashSet<>(doc).size();
+            numWords += doc.size();
+        }
+
+        this.numDocs   = documents.size();
+        this.numVocabs = vocabularies.size();
+        this.numNNZ    = numNNZ;
+        this.numWords  = numWords;
+    }
+
     public int getNumDocs() {
         return numDocs;
     }
@@ -63,6 +63,22 @@ public class LDA {
         properties.setNumIteration(100);
     }
 
+    /**
+     * Set the number of iterations of the inference.
+     * @param numIteration
+     */
+    public void setNumIteration(final int numIteration) {
+        properties.setNumIteration(numIteration);
+    }
+
+    /**
+     * Set the number of threads the inference may use, if it can use more than one.
+     * @param numThreads
+     */
+    public void setNumThreads(final int numThreads) {
+        properties.setNumThreads(numThreads);
+    }
+
     /**
      * Get the vocabulary from its ID.
      * @param vocabID
@@ -17,9 +17,11 @@
 package forge.lda.lda.inference;
 
 import forge.lda.lda.inference.internal.CollapsedGibbsSampler;
+import forge.lda.lda.inference.internal.SparseGibbsSampler;
 
 public enum InferenceMethod {
     CGS(CollapsedGibbsSampler.class.getName()),
+    SPARSE_CGS(SparseGibbsSampler.class.getName()),
     // more
     ;
 
@@ -39,6 +39,10 @@ public class InferenceProperties {
     public void setNumIteration(Integer numIteration){
         properties.setProperty("numIteration",numIteration.toString());
     }
+
+    public void setNumThreads(Integer numThreads){
+        properties.setProperty("numThreads",numThreads.toString());
+    }
     
     /**
      * Load properties.
@@ -60,6 +64,14 @@ public class InferenceProperties {
     public Integer numIteration() {
         return Integer.parseInt(properties.getProperty("numIteration"));
     }
+
+    /**
+     * @return the number of threads to sample with, or null if it isn't set
+     */
+    public Integer numThreads() {
+        String numThreads = properties.getProperty("numThreads");
+        return numThreads != null ? Integer.parseInt(numThreads) : null;
+    }
 }
 
 class PropertiesLoader {
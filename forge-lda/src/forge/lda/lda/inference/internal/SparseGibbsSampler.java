@@ -0,0 +1,611 @@
+package forge.lda.lda.inference.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import forge.lda.dataset.BagOfWords;
+import forge.lda.lda.LDA;
+import forge.lda.lda.inference.Inference;
+import forge.lda.lda.inference.InferenceProperties;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * Collapsed Gibbs sampling on primitive count arrays, with the topic of each word drawn as in
+ * SparseLDA [Yao, Mimno and McCallum 2009]. The full conditional is split in three buckets:
+ * <pre>
+ * p(t) ~ alpha_t * beta / (n_t + V * beta)
+ *      + n_dt * beta / (n_t + V * beta)
+ *      + (alpha_t + n_dt) * n_wt / (n_t + V * beta)
+ * </pre>
+ * The first one is the same for every word and only changes a little after each draw, the second
+ * only has the topics of the document and the third only the topics the word is assigned to, so
+ * most draws don't have to look at every topic.
+ *
+ * With more than one thread the documents are split between the threads, and each samples with
+ * its own copy of the topic-vocab counts, which are merged after every iteration
+ * [AD-LDA, Newman et al. 2009]. Each thread has its own random generator, seeded from the seed
+ * and its part, so the result only depends on the seed and the number of threads.
+ */
+public class SparseGibbsSampler implements Inference {
+    private static final long DEFAULT_SEED = 0L;
+    private static final int DEFAULT_NUM_ITERATION = 100;
+    private static final int DEFAULT_NUM_THREADS = 1;
+
+    private LDA lda;
+    private int numTopics;
+    private int numIteration;
+    private int numThreads;
+    private long seed;
+    private double[] alpha;
+    private double sumAlpha;
+    private double beta;
+    private double sumBeta;
+
+    // docID -> the vocabID of each word
+    private int[][] words;
+    // docID -> the topicID assigned to each word
+    private int[][] assignments;
+    // docID -> topicID -> the count of words assigned to it
+    private int[][] docTopicCounts;
+    private TopicCounts counts;
+    // vocabID -> topicID -> phi, made when it's first asked for after sampling
+    private double[][] phi;
+
+    // ready for Gibbs sampling
+    private boolean ready;
+
+    public SparseGibbsSampler() {
+        ready = false;
+    }
+
+    @Override
+    public void setUp(LDA lda, InferenceProperties properties) {
+        if (properties == null) {
+            setUp(lda);
+            return;
+        }
+        final Integer threads = properties.numThreads();
+        setUp(lda, properties.seed() != null ? properties.seed() : DEFAULT_SEED,
+                properties.numIteration() != null ? properties.numIteration() : DEFAULT_NUM_ITERATION,
+                threads != null ? threads : DEFAULT_NUM_THREADS);
+    }
+
+    @Override
+    public void setUp(LDA lda) {
+        setUp(lda, DEFAULT_SEED, DEFAULT_NUM_ITERATION, DEFAULT_NUM_THREADS);
+    }
+
+    private void setUp(LDA lda, long seed, int numIteration, int numThreads) {
+        if (lda == null) throw new NullPointerException();
+        if (numThreads <= 0) throw new IllegalArgumentException();
+
+        this.lda = lda;
+        this.seed = seed;
+        this.numIteration = numIteration;
+        this.numThreads = numThreads;
+        this.numTopics = lda.getNumTopics();
+        this.alpha = new double[numTopics];
+        for (int t = 0; t < numTopics; ++t) {
+            alpha[t] = lda.getAlpha(t);
+        }
+        this.sumAlpha = lda.getSumAlpha();
+        this.beta = lda.getBeta();
+
+        final BagOfWords bow = lda.getBow();
+        final int numVocabs = bow.getNumVocabs();
+        this.sumBeta = beta * numVocabs;
+        this.words = new int[bow.getNumDocs()][];
+        final int[] vocabFrequencies = new int[numVocabs];
+        for (int d = 0; d < words.length; ++d) {
+            final List<Integer> docWords = bow.getWords(d);
+            words[d] = new int[docWords.size()];
+            for (int w = 0; w < words[d].length; ++w) {
+                words[d][w] = docWords.get(w);
+                vocabFrequencies[words[d][w]]++;
+            }
+        }
+        initializeTopicAssignment(vocabFrequencies);
+        this.ready = true;
+    }
+
+    /**
+     * Assign a random topic to each word.
+     * @param vocabFrequencies the number of times each vocab is used
+     */
+    private void initializeTopicAssignment(final int[] vocabFrequencies) {
+        final SplittableRandom random = new SplittableRandom(seed);
+        assignments = new int[words.length][];
+        docTopicCounts = new int[words.length][numTopics];
+        counts = new TopicCounts(numTopics, vocabFrequencies);
+        for (int d = 0; d < words.length; ++d) {
+            assignments[d] = new int[words[d].length];
+            for (int w = 0; w < words[d].length; ++w) {
+                final int topicID = random.nextInt(numTopics);
+                assignments[d][w] = topicID;
+                docTopicCounts[d][topicID]++;
+                counts.increment(words[d][w], topicID);
+            }
+        }
+        phi = null;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getNumIteration() {
+        return numIteration;
+    }
+
+    public void setNumIteration(final int numIteration) {
+        this.numIteration = numIteration;
+    }
+
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    @Override
+    public void run() {
+        if (!ready) {
+            throw new IllegalStateException("instance has not set up yet");
+        }
+
+        final int parts = Math.max(1, Math.min(numThreads, words.length));
+        final List<Sampler> samplers = new ArrayList<>();
+        for (int part = 0; part < parts; ++part) {
+            samplers.add(new Sampler(words.length * part / parts, words.length * (part + 1) / parts,
+                    parts == 1 ? counts : new TopicCounts(counts), new SplittableRandom(seed + part + 1)));
+        }
+
+        final ExecutorService executor = parts > 1 ? Executors.newFixedThreadPool(parts) : null;
+        try {
+            for (int i = 1; i <= numIteration; ++i) {
+                if (executor == null) {
+                    samplers.get(0).call();
+                    continue;
+                }
+                for (Sampler sampler : samplers) {
+                    sampler.counts.copyFrom(counts);
+                }
+                for (Future<Void> future : executor.invokeAll(samplers)) {
+                    future.get();
+                }
+                // the sum of the changes of each thread are the counts of the new assignments
+                counts.recount(words, assignments);
+            }
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        } finally {
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+        phi = null;
+    }
+
+    /**
+     * Samples the topics of the words of some documents, with its own topic-vocab counts.
+     */
+    private final class Sampler implements Callable<Void> {
+        private final int fromDoc;
+        private final int toDoc;
+        private final TopicCounts counts;
+        private final SplittableRandom random;
+
+        // topicID -> (alpha_t + n_dt) / (n_t + V * beta) for the current document
+        private final double[] coefficients = new double[numTopics];
+        // the third bucket, for the topics of the current word
+        private final double[] wordProbabilities = new double[numTopics];
+        // the topics of the current document, and where each is in that list or -1
+        private final int[] docTopics = new int[numTopics];
+        private final int[] docTopicIndex = new int[numTopics];
+        private int numDocTopics;
+        private double smoothingSum;
+        private double docSum;
+
+        Sampler(int fromDoc, int toDoc, TopicCounts counts, SplittableRandom random) {
+            this.fromDoc = fromDoc;
+            this.toDoc = toDoc;
+            this.counts = counts;
+            this.random = random;
+        }
+
+        @Override
+        public Void call() {
+            final int[] topicCounts = counts.topicCounts;
+            // computed again each time, so rounding errors of the updates don't add up
+            smoothingSum = 0.0;
+            for (int t = 0; t < numTopics; ++t) {
+                smoothingSum += alpha[t] * beta / (topicCounts[t] + sumBeta);
+            }
+
+            for (int d = fromDoc; d < toDoc; ++d) {
+                final int[] docCounts = docTopicCounts[d];
+                startDocument(docCounts);
+
+                final int[] docWords = words[d];
+                final int[] docAssignments = assignments[d];
+                for (int w = 0; w < docWords.length; ++w) {
+                    final int vocabID = docWords[w];
+                    updateCount(docCounts, vocabID, docAssignments[w], -1);
+
+                    final int newTopicID = sample(docCounts, vocabID);
+                    docAssignments[w] = newTopicID;
+                    updateCount(docCounts, vocabID, newTopicID, 1);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Set up the buckets that depend on the document.
+         */
+        private void startDocument(final int[] docCounts) {
+            final int[] topicCounts = counts.topicCounts;
+            numDocTopics = 0;
+            docSum = 0.0;
+            for (int t = 0; t < numTopics; ++t) {
+                final double denominator = topicCounts[t] + sumBeta;
+                coefficients[t] = (alpha[t] + docCounts[t]) / denominator;
+                if (docCounts[t] > 0) {
+                    docTopicIndex[t] = numDocTopics;
+                    docTopics[numDocTopics++] = t;
+                    docSum += docCounts[t] * beta / denominator;
+                } else {
+                    docTopicIndex[t] = -1;
+                }
+            }
+        }
+
+        /**
+         * Draw the topic of a word many times from the same counts, without changing its assignment.
+         * @return topicID -> the number of draws
+         */
+        private int[] countDraws(final int docID, final int w, final int draws) {
+            smoothingSum = 0.0;
+            for (int t = 0; t < numTopics; ++t) {
+                smoothingSum += alpha[t] * beta / (counts.topicCounts[t] + sumBeta);
+            }
+            final int[] docCounts = docTopicCounts[docID];
+            startDocument(docCounts);
+            final int vocabID = words[docID][w];
+            final int topicID = assignments[docID][w];
+            updateCount(docCounts, vocabID, topicID, -1);
+
+            final int[] result = new int[numTopics];
+            for (int i = 0; i < draws; ++i) {
+                result[sample(docCounts, vocabID)]++;
+            }
+
+            updateCount(docCounts, vocabID, topicID, 1);
+            return result;
+        }
+
+        /**
+         * Add or remove a word of a topic, in the current document and in the counts, and change the buckets that depend on it.
+         */
+        private void updateCount(final int[] docCounts, final int vocabID, final int topicID, final int delta) {
+            final int[] topicCounts = counts.topicCounts;
+            double denominator = topicCounts[topicID] + sumBeta;
+            smoothingSum -= alpha[topicID] * beta / denominator;
+            docSum -= docCounts[topicID] * beta / denominator;
+
+            // the counts change the total of the topic as well
+            if (delta < 0) {
+                counts.decrement(vocabID, topicID);
+            } else {
+                counts.increment(vocabID, topicID);
+            }
+            docCounts[topicID] += delta;
+
+            denominator = topicCounts[topicID] + sumBeta;
+            smoothingSum += alpha[topicID] * beta / denominator;
+            docSum += docCounts[topicID] * beta / denominator;
+            coefficients[topicID] = (alpha[topicID] + docCounts[topicID]) / denominator;
+
+            if (docCounts[topicID] == 0) {
+                // move the last topic of the document to the place of the removed one
+                final int index = docTopicIndex[topicID];
+                final int last = docTopics[--numDocTopics];
+                docTopics[index] = last;
+                docTopicIndex[last] = index;
+                docTopicIndex[topicID] = -1;
+            } else if (docTopicIndex[topicID] < 0) {
+                docTopicIndex[topicID] = numDocTopics;
+                docTopics[numDocTopics++] = topicID;
+            }
+        }
+
+        /**
+         * Draw a topic from the full conditional distribution of a word of the current document.
+         */
+        private int sample(final int[] docCounts, final int vocabID) {
+            final int[] topicCounts = counts.topicCounts;
+            final int[] vocabTopics = counts.vocabTopics[vocabID];
+            final int[] vocabCounts = counts.vocabCounts[vocabID];
+            final int numVocabTopics = counts.vocabSizes[vocabID];
+
+            double wordSum = 0.0;
+            for (int i = 0; i < numVocabTopics; ++i) {
+                wordProbabilities[i] = coefficients[vocabTopics[i]] * vocabCounts[i];
+                wordSum += wordProbabilities[i];
+            }
+
+            double u = random.nextDouble() * (smoothingSum + docSum + wordSum);
+            if (u < wordSum) {
+                // the topics of a vocab are sorted by count, so this usually stops early
+                for (int i = 0; i < numVocabTopics; ++i) {
+                    u -= wordProbabilities[i];
+                    if (u < 0.0) {
+                        return vocabTopics[i];
+                    }
+                }
+                return vocabTopics[numVocabTopics - 1];
+            }
+            u -= wordSum;
+            if (u < docSum && numDocTopics > 0) {
+                for (int i = 0; i < numDocTopics; ++i) {
+                    final int t = docTopics[i];
+                    u -= docCounts[t] * beta / (topicCounts[t] + sumBeta);
+                    if (u < 0.0) {
+                        return t;
+                    }
+                }
+                return docTopics[numDocTopics - 1];
+            }
+            u -= docSum;
+            for (int t = 0; t < numTopics; ++t) {
+                u -= alpha[t] * beta / (topicCounts[t] + sumBeta);
+                if (u < 0.0) {
+                    return t;
+                }
+            }
+            return numTopics - 1;
+        }
+    }
+
+    /**
+     * The number of words assigned to each topic, in total and by vocab.
+     * The topics of a vocab are kept in a list of those with a count, sorted by count.
+     */
+    private static final class TopicCounts {
+        // topicID -> the count of words assigned to it
+        private final int[] topicCounts;
+        // vocabID -> the topics assigned to it, and their counts
+        private final int[][] vocabTopics;
+        private final int[][] vocabCounts;
+        private final int[] vocabSizes;
+
+        TopicCounts(final int numTopics, final int[] vocabFrequencies) {
+            topicCounts = new int[numTopics];
+            vocabTopics = new int[vocabFrequencies.length][];
+            vocabCounts = new int[vocabFrequencies.length][];
+            vocabSizes = new int[vocabFrequencies.length];
+            for (int v = 0; v < vocabFrequencies.length; ++v) {
+                // a vocab can't have more topics than it has words
+                final int capacity = Math.min(numTopics, vocabFrequencies[v]);
+                vocabTopics[v] = new int[capacity];
+                vocabCounts[v] = new int[capacity];
+            }
+        }
+
+        TopicCounts(final TopicCounts other) {
+            topicCounts = other.topicCounts.clone();
+            vocabTopics = new int[other.vocabTopics.length][];
+            vocabCounts = new int[other.vocabCounts.length][];
+            for (int v = 0; v < vocabTopics.length; ++v) {
+                vocabTopics[v] = other.vocabTopics[v].clone();
+                vocabCounts[v] = other.vocabCounts[v].clone();
+            }
+            vocabSizes = other.vocabSizes.clone();
+        }
+
+        void copyFrom(final TopicCounts other) {
+            System.arraycopy(other.topicCounts, 0, topicCounts, 0, topicCounts.length);
+            for (int v = 0; v < vocabTopics.length; ++v) {
+                System.arraycopy(other.vocabTopics[v], 0, vocabTopics[v], 0, other.vocabSizes[v]);
+                System.arraycopy(other.vocabCounts[v], 0, vocabCounts[v], 0, other.vocabSizes[v]);
+            }
+            System.arraycopy(other.vocabSizes, 0, vocabSizes, 0, vocabSizes.length);
+        }
+
+        void recount(final int[][] words, final int[][] assignments) {
+            Arrays.fill(topicCounts, 0);
+            Arrays.fill(vocabSizes, 0);
+            for (int d = 0; d < words.length; ++d) {
+                for (int w = 0; w < words[d].length; ++w) {
+                    topicCounts[assignments[d][w]]++;
+                    add(words[d][w], assignments[d][w]);
+                }
+            }
+        }
+
+        int get(final int vocabID, final int topicID) {
+            if (vocabID < 0 || vocabSizes.length <= vocabID) return 0;
+            final int index = indexOf(vocabID, topicID);
+            return index < 0 ? 0 : vocabCounts[vocabID][index];
+        }
+
+        private int indexOf(final int vocabID, final int topicID) {
+            final int[] topics = vocabTopics[vocabID];
+            for (int i = vocabSizes[vocabID] - 1; i >= 0; --i) {
+                if (topics[i] == topicID) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        void increment(final int vocabID, final int topicID) {
+            topicCounts[topicID]++;
+            add(vocabID, topicID);
+        }
+
+        private void add(final int vocabID, final int topicID) {
+            final int[] topics = vocabTopics[vocabID];
+            final int[] counts = vocabCounts[vocabID];
+            int i = indexOf(vocabID, topicID);
+            if (i < 0) {
+                i = vocabSizes[vocabID]++;
+                topics[i] = topicID;
+                counts[i] = 0;
+            }
+            counts[i]++;
+            // keep the topics sorted by count
+            while (i > 0 && counts[i - 1] < counts[i]) {
+                swap(topics, counts, i - 1, i);
+                --i;
+            }
+        }
+
+        void decrement(final int vocabID, final int topicID) {
+            final int[] topics = vocabTopics[vocabID];
+            final int[] counts = vocabCounts[vocabID];
+            int i = indexOf(vocabID, topicID);
+            if (i < 0) {
+                throw new IllegalStateException();
+            }
+            topicCounts[topicID]--;
+            counts[i]--;
+            while (i + 1 < vocabSizes[vocabID] && counts[i + 1] > counts[i]) {
+                swap(topics, counts, i, i + 1);
+                ++i;
+            }
+            if (counts[i] == 0) {
+                // the topic is last now, as all the others have a count
+                vocabSizes[vocabID]--;
+            }
+        }
+
+        private static void swap(final int[] topics, final int[] counts, final int i, final int j) {
+            final int topic = topics[i];
+            topics[i] = topics[j];
+            topics[j] = topic;
+            final int count = counts[i];
+            counts[i] = counts[j];
+            counts[j] = count;
+        }
+    }
+
+    /**
+     * Draw the topic of a word many times from the counts of all the other words, to check the draws
+     * against the full conditional.
+     * @return topicID -> the number of draws
+     */
+    int[] countDraws(final int docID, final int w, final int draws, final long drawSeed) {
+        if (!ready) throw new IllegalStateException();
+        return new Sampler(docID, docID + 1, counts, new SplittableRandom(drawSeed)).countDraws(docID, w, draws);
+    }
+
+    /**
+     * Get the topicID assigned to a word of docID.
+     * @param docID
+     * @param w the position of the word in the document
+     * @return the topicID assigned to it
+     */
+    int getAssignment(final int docID, final int w) {
+        if (!ready) throw new IllegalStateException();
+        return assignments[docID][w];
+    }
+
+    /**
+     * Get the count of topicID assigned to docID.
+     * @param docID
+     * @param topicID
+     * @return the count of topicID assigned to docID
+     */
+    int getDTCount(final int docID, final int topicID) {
+        if (!ready) throw new IllegalStateException();
+        if (docID < 0 || words.length <= docID || topicID < 0 || numTopics <= topicID) {
+            throw new IllegalArgumentException();
+        }
+        return docTopicCounts[docID][topicID];
+    }
+
+    /**
+     * Get the count of vocabID assigned to topicID.
+     * @param topicID
+     * @param vocabID
+     * @return the count of vocabID assigned to topicID
+     */
+    int getTVCount(final int topicID, final int vocabID) {
+        if (!ready) throw new IllegalStateException();
+        if (topicID < 0 || numTopics <= topicID || vocabID < 0) {
+            throw new IllegalArgumentException();
+        }
+        return counts.get(vocabID, topicID);
+    }
+
+    /**
+     * Get the sum of counts of vocabs assigned to topicID.
+     * @param topicID
+     * @return the sum of counts of vocabs assigned to topicID
+     * @throws IllegalArgumentException topicID < 0 || #topic <= topicID
+     */
+    int getTSumCount(final int topicID) {
+        if (topicID < 0 || numTopics <= topicID) {
+            throw new IllegalArgumentException();
+        }
+        return counts.topicCounts[topicID];
+    }
+
+    @Override
+    public double getTheta(final int docID, final int topicID) {
+        if (!ready) throw new IllegalStateException();
+        if (docID < 0 || words.length <= docID || topicID < 0 || numTopics <= topicID) {
+            throw new IllegalArgumentException();
+        }
+        return (docTopicCounts[docID][topicID] + alpha[topicID]) / (words[docID].length + sumAlpha);
+    }
+
+    @Override
+    public double getPhi(final int topicID, final int vocabID) {
+        if (!ready) throw new IllegalStateException();
+        if (topicID < 0 || numTopics <= topicID || vocabID < 0) {
+            throw new IllegalArgumentException();
+        }
+        if (vocabID >= counts.vocabSizes.length) {
+            return beta / (counts.topicCounts[topicID] + sumBeta);
+        }
+        if (phi == null) {
+            // looking up a count goes through the topics of the vocab, so do it once for all
+            final double[][] newPhi = new double[counts.vocabSizes.length][numTopics];
+            for (int v = 0; v < newPhi.length; ++v) {
+                for (int t = 0; t < numTopics; ++t) {
+                    newPhi[v][t] = beta / (counts.topicCounts[t] + sumBeta);
+                }
+                for (int i = 0; i < counts.vocabSizes[v]; ++i) {
+                    final int t = counts.vocabTopics[v][i];
+                    newPhi[v][t] = (counts.vocabCounts[v][i] + beta) / (counts.topicCounts[t] + sumBeta);
+                }
+            }
+            phi = newPhi;
+        }
+        return phi[vocabID][topicID];
+    }
+
+    @Override
+    public List<Pair<String, Double>> getVocabsSortedByPhi(int topicID) {
+        if (topicID < 0 || numTopics <= topicID) {
+            throw new IllegalArgumentException();
+        }
+        List<Pair<String, Double>> vocabProbPairs
+            = lda.getVocabularies().getVocabularyList()
+                 .stream()
+                 .map(v -> new ImmutablePair<String, Double>(v.toString(), getPhi(topicID, v.id())))
+                 .sorted((p1, p2) -> Double.compare(p2.getRight(), p1.getRight()))
+                 .collect(Collectors.toList());
+        return Collections.unmodifiableList(vocabProbPairs);
+    }
+}
@@ -31,7 +31,7 @@ import org.apache.commons.lang3.tuple.Pair;
 import java.io.File;
 import java.util.*;
 
-import static forge.lda.lda.inference.InferenceMethod.CGS;
+import static forge.lda.lda.inference.InferenceMethod.SPARSE_CGS;
 
 /**
  * Created by maustin on 09/05/2017.
@@ -166,12 +166,17 @@ public final class LDAModelGenetrator {
         return cardTopicMap;
     }
 
+    //estimate number of topics to attempt to find using power law
+    static int estimateNumTopics(Dataset dataset){
+        return Float.valueOf(347f*dataset.getNumDocs()/(2892f + dataset.getNumDocs())).intValue();
+    }
+
     public static List<Archetype> initializeFormat(GameFormat format) throws Exception{
         Dataset dataset = new Dataset(format);
-        //estimate number of topics to attempt to find using power law
-        final int numTopics = Float.valueOf(347f*dataset.getNumDocs()/(2892f + dataset.getNumDocs())).intValue();
+        final int numTopics = estimateNumTopics(dataset);
         System.out.println("Num Topics = " + numTopics);
-        LDA lda = new LDA(0.1, 0.1, numTopics, dataset, CGS);
+        LDA lda = new LDA(0.1, 0.1, numTopics, dataset, SPARSE_CGS);
+        lda.setNumThreads(Runtime.getRuntime().availableProcessors());
         lda.run();
         System.out.println(lda.computePerplexity(dataset));
 
@@ -0,0 +1,59 @@
+package forge.lda;
+
+import com.google.common.base.Function;
+
+import forge.GuiDesktop;
+import forge.game.GameFormat;
+import forge.gui.GuiBase;
+import forge.lda.dataset.Dataset;
+import forge.lda.lda.LDA;
+import forge.lda.lda.inference.InferenceMethod;
+import forge.localinstance.properties.ForgePreferences;
+import forge.model.FModel;
+
+/**
+ * Compares the speed and the perplexity of the LDA inference methods on the generated decks of a format,
+ * the same way {@link LDAModelGenetrator} trains on them.
+ *
+ * Arguments: the format (Modern if not given), the number of iterations (100) and the number of threads
+ * for the parallel run (the number of processors).
+ */
+public final class LDASamplerBenchmark {
+
+    public static final void main(String[] args) throws Exception {
+        GuiBase.setInterface(new GuiDesktop());
+        FModel.initialize(null, new Function<ForgePreferences, Void>()  {
+            @Override
+            public Void apply(ForgePreferences preferences) {
+                preferences.setPref(ForgePreferences.FPref.LOAD_CARD_SCRIPTS_LAZILY, false);
+                return null;
+            }
+        });
+
+        GameFormat format = args.length > 0 ? FModel.getFormats().get(args[0]) : FModel.getFormats().getModern();
+        int numIteration = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int numThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        Dataset dataset = new Dataset(format);
+        int numTopics = LDAModelGenetrator.estimateNumTopics(dataset);
+        System.out.println("Num Topics = " + numTopics);
+
+        run(dataset, numTopics, numIteration, InferenceMethod.CGS, 1);
+        run(dataset, numTopics, numIteration, InferenceMethod.SPARSE_CGS, 1);
+        if (numThreads > 1) {
+            run(dataset, numTopics, numIteration, InferenceMethod.SPARSE_CGS, numThreads);
+        }
+        System.exit(0);
+    }
+
+    private static void run(Dataset dataset, int numTopics, int numIteration, InferenceMethod method, int numThreads) {
+        LDA lda = new LDA(0.1, 0.1, numTopics, dataset, method);
+        lda.setNumIteration(numIteration);
+        lda.setNumThreads(numThreads);
+        long start = System.nanoTime();
+        lda.run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%s, %d thread(s): %.2f s, %.0f tokens/s, perplexity %.2f%n", method.name(), numThreads,
+                seconds, (double) numIteration * dataset.getNumWords() / seconds, lda.computePerplexity(dataset));
+    }
+}
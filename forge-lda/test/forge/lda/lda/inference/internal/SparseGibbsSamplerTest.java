@@ -0,0 +1,135 @@
+package forge.lda.lda.inference.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+import forge.lda.dataset.BagOfWords;
+import forge.lda.dataset.Dataset;
+import forge.lda.lda.LDA;
+import forge.lda.lda.inference.InferenceMethod;
+import forge.lda.lda.inference.InferenceProperties;
+
+public class SparseGibbsSamplerTest {
+    private static final double ALPHA = 0.1;
+    private static final double BETA = 0.1;
+    private static final int NUM_TOPICS = 4;
+    private static final int DRAWS = 200000;
+
+    // two groups of vocabs that mostly go together, and one shared by all the documents
+    private static LDA createLDA() {
+        List<String> vocabs = Arrays.asList("a", "b", "c", "x", "y", "z", "common");
+        List<List<Integer>> docs = new ArrayList<>();
+        docs.add(Arrays.asList(0, 1, 2, 0, 1, 6));
+        docs.add(Arrays.asList(0, 0, 2, 2, 1, 6, 6));
+        docs.add(Arrays.asList(3, 4, 5, 3, 6));
+        docs.add(Arrays.asList(3, 5, 5, 4, 4, 6, 0));
+        docs.add(Arrays.asList(1, 2, 4, 5, 6));
+        docs.add(Arrays.asList(6));
+        return new LDA(ALPHA, BETA, NUM_TOPICS, new Dataset(new BagOfWords(vocabs, docs)), InferenceMethod.SPARSE_CGS);
+    }
+
+    private static SparseGibbsSampler createSampler(LDA lda, long seed, int numIteration, int numThreads) {
+        InferenceProperties properties = new InferenceProperties();
+        properties.setSeed(seed);
+        properties.setNumIteration(numIteration);
+        properties.setNumThreads(numThreads);
+        SparseGibbsSampler sampler = new SparseGibbsSampler();
+        sampler.setUp(lda, properties);
+        sampler.run();
+        return sampler;
+    }
+
+    /**
+     * The full conditional of a word, computed densely over every topic from the counts without the word.
+     */
+    private static double[] denseConditional(SparseGibbsSampler sampler, LDA lda, int docID, int w) {
+        int vocabID = lda.getBow().getWords(docID).get(w);
+        int assigned = sampler.getAssignment(docID, w);
+        int numVocabs = lda.getBow().getNumVocabs();
+        double[] p = new double[NUM_TOPICS];
+        double sum = 0.0;
+        for (int t = 0; t < NUM_TOPICS; ++t) {
+            int self = t == assigned ? 1 : 0;
+            p[t] = (ALPHA + sampler.getDTCount(docID, t) - self)
+                    * (sampler.getTVCount(t, vocabID) - self + BETA)
+                    / (sampler.getTSumCount(t) - self + numVocabs * BETA);
+            sum += p[t];
+        }
+        for (int t = 0; t < NUM_TOPICS; ++t) {
+            p[t] /= sum;
+        }
+        return p;
+    }
+
+    @Test
+    public void testSparseDrawsFollowTheDenseConditional() {
+        LDA lda = createLDA();
+        for (long seed = 1; seed <= 3; ++seed) {
+            SparseGibbsSampler sampler = createSampler(lda, seed, 5, 1);
+            for (int d = 0; d < lda.getBow().getNumDocs(); ++d) {
+                for (int w = 0; w < lda.getBow().getDocLength(d); ++w) {
+                    double[] expected = denseConditional(sampler, lda, d, w);
+                    int[] drawn = sampler.countDraws(d, w, DRAWS, seed * 1000 + d * 10 + w);
+                    for (int t = 0; t < NUM_TOPICS; ++t) {
+                        // over 4 standard deviations of the frequency of the most uncertain topic
+                        AssertJUnit.assertEquals("seed " + seed + ", doc " + d + ", word " + w + ", topic " + t,
+                                expected[t], (double) drawn[t] / DRAWS, 0.005);
+                    }
+                    // drawing doesn't change the counts
+                    AssertJUnit.assertEquals(Arrays.toString(expected), Arrays.toString(denseConditional(sampler, lda, d, w)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCountsMatchTheAssignments() {
+        LDA lda = createLDA();
+        for (int threads = 1; threads <= 3; ++threads) {
+            SparseGibbsSampler sampler = createSampler(lda, 7, 20, threads);
+            int[][] topicVocab = new int[NUM_TOPICS][lda.getBow().getNumVocabs()];
+            int[] topicSums = new int[NUM_TOPICS];
+            for (int d = 0; d < lda.getBow().getNumDocs(); ++d) {
+                int[] docTopics = new int[NUM_TOPICS];
+                for (int w = 0; w < lda.getBow().getDocLength(d); ++w) {
+                    int t = sampler.getAssignment(d, w);
+                    docTopics[t]++;
+                    topicVocab[t][lda.getBow().getWords(d).get(w)]++;
+                    topicSums[t]++;
+                }
+                for (int t = 0; t < NUM_TOPICS; ++t) {
+                    AssertJUnit.assertEquals(docTopics[t], sampler.getDTCount(d, t));
+                }
+            }
+            for (int t = 0; t < NUM_TOPICS; ++t) {
+                AssertJUnit.assertEquals(topicSums[t], sampler.getTSumCount(t));
+                for (int v = 0; v < topicVocab[t].length; ++v) {
+                    AssertJUnit.assertEquals(topicVocab[t][v], sampler.getTVCount(t, v));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testResultOnlyDependsOnSeedAndThreads() {
+        LDA lda = createLDA();
+        for (int threads = 1; threads <= 2; ++threads) {
+            SparseGibbsSampler first = createSampler(lda, 11, 30, threads);
+            SparseGibbsSampler second = createSampler(lda, 11, 30, threads);
+            for (int d = 0; d < lda.getBow().getNumDocs(); ++d) {
+                for (int t = 0; t < NUM_TOPICS; ++t) {
+                    AssertJUnit.assertEquals(first.getTheta(d, t), second.getTheta(d, t), 0.0);
+                }
+            }
+            for (int t = 0; t < NUM_TOPICS; ++t) {
+                for (int v = 0; v < lda.getBow().getNumVocabs(); ++v) {
+                    AssertJUnit.assertEquals(first.getPhi(t, v), second.getPhi(t, v), 0.0);
+                }
+            }
+        }
+    }
+}